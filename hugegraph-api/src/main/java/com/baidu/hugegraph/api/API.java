@@ -27,6 +27,7 @@ import java.util.function.Consumer;
 import javax.ws.rs.ForbiddenException;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.NotSupportedException;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 
 import org.slf4j.Logger;
@@ -36,6 +37,7 @@ import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.core.GraphManager;
 import com.baidu.hugegraph.define.Checkable;
 import com.baidu.hugegraph.metrics.MetricsUtil;
+import com.baidu.hugegraph.serializer.BinaryCodec;
 import com.baidu.hugegraph.server.RestServer;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.JsonUtil;
@@ -54,6 +56,9 @@ public class API {
                                APPLICATION_JSON + ";charset=" + CHARSET;
     public static final String JSON = MediaType.APPLICATION_JSON_TYPE
                                                .getSubtype();
+    public static final String APPLICATION_BINARY = BinaryCodec.MEDIA_TYPE;
+    public static final MediaType APPLICATION_BINARY_TYPE =
+                                  MediaType.valueOf(APPLICATION_BINARY);
 
     public static final String ACTION_APPEND = "append";
     public static final String ACTION_ELIMINATE = "eliminate";
@@ -189,4 +194,21 @@ public class API {
                       String.format("Not support action '%s'", action));
         }
     }
+
+    /**
+     * Whether the client prefers the binary content type to json
+     */
+    public static boolean acceptBinary(HttpHeaders headers) {
+        // The acceptable media types are sorted by quality
+        for (MediaType type : headers.getAcceptableMediaTypes()) {
+            if (type.isWildcardType() ||
+                MediaType.APPLICATION_JSON_TYPE.isCompatible(type)) {
+                return false;
+            }
+            if (APPLICATION_BINARY_TYPE.isCompatible(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.api.filter;
+
+import java.io.IOException;
+
+import javax.inject.Singleton;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.Provider;
+
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+import com.baidu.hugegraph.util.QueryProfiler;
+
+/**
+ * Profile a request if it's with the header "X-HugeGraph-Profile: true",
+ * the result of the profiler will be set to the response header with the
+ * same name in json format, like:
+ * {"total_time_ms":1.2,"backend_queries":{"count":1,"time_ms":0.3},...}
+ */
+@Provider
+@Singleton
+public class ProfileFilter implements ContainerRequestFilter,
+                                      ContainerResponseFilter {
+
+    public static final String PROFILE_HEADER = "X-HugeGraph-Profile";
+
+    @Override
+    public void filter(ContainerRequestContext context) throws IOException {
+        String profile = context.getHeaderString(PROFILE_HEADER);
+        if (Boolean.parseBoolean(profile)) {
+            QueryProfiler.enable();
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+                       ContainerResponseContext responseContext)
+                       throws IOException {
+        QueryProfiler profiler = QueryProfiler.disable();
+        if (profiler != null) {
+            responseContext.getHeaders().putSingle(PROFILE_HEADER,
+                                                   profiler.toString());
+        }
+    }
+
+    /**
+     * Clear the profiler of current thread when a request is finished, as
+     * a finally block of the request. The response filter is not called if
+     * the request failed with an unmapped exception, and the profiler would
+     * be leaked to the next request served by the same thread.
+     */
+    @Provider
+    @Singleton
+    public static class ProfileCleaner implements ApplicationEventListener {
+
+        private static final RequestEventListener CLEANER = event -> {
+            if (event.getType() == RequestEvent.Type.FINISHED) {
+                QueryProfiler.disable();
+            }
+        };
+
+        @Override
+        public void onEvent(ApplicationEvent event) {
+            // pass
+        }
+
+        @Override
+        public RequestEventListener onRequest(RequestEvent event) {
+            return CLEANER;
+        }
+    }
+}
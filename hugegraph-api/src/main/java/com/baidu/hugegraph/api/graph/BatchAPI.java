@@ -20,7 +20,9 @@
 package com.baidu.hugegraph.api.graph;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.tinkerpop.gremlin.structure.Element;
@@ -48,6 +50,10 @@ public class BatchAPI extends API {
 
     // NOTE: VertexAPI and EdgeAPI should share a counter
     private static final AtomicInteger batchWriteThreads = new AtomicInteger(0);
+    // The writing pipeline of each graph, shared by VertexAPI and EdgeAPI
+    private static final Map<String, BatchWriter> writers =
+                                                  new ConcurrentHashMap<>();
+    private static final Set<String> gauges = ConcurrentHashMap.newKeySet();
 
     static {
         MetricsUtil.registerGauge(RestServer.class, "batch-write-threads",
@@ -63,16 +69,34 @@ public class BatchAPI extends API {
 
     public <R> R commit(HugeConfig config, HugeGraph g, int size,
                         Callable<R> callable) {
+        return this.commit(config, g, size, true, callable);
+    }
+
+    /**
+     * @param mergeable whether the batch can be merged with other batches
+     *                  into one commit, it must be false if the callable
+     *                  can't be called again after rollback
+     */
+    public <R> R commit(HugeConfig config, HugeGraph g, int size,
+                        boolean mergeable, Callable<R> callable) {
+        boolean pipeline = config.get(ServerOptions.BATCH_WRITE_PIPELINE);
         int maxWriteThreads = config.get(ServerOptions.MAX_WRITE_THREADS);
         int writingThreads = batchWriteThreads.incrementAndGet();
-        if (writingThreads > maxWriteThreads) {
+        // The pipeline queues the batches instead of rejecting them
+        if (!pipeline && writingThreads > maxWriteThreads) {
             batchWriteThreads.decrementAndGet();
             throw new HugeException("The rest server is too busy to write");
         }
 
         LOG.debug("The batch writing threads is {}", batchWriteThreads);
         try {
-            R result = commit(g, callable);
+            R result;
+            if (pipeline) {
+                result = writer(config, g).write(size, mergeable,
+                                                   callable);
+            } else {
+                result = commit(g, callable);
+            }
             this.batchMeter.mark(size);
             return result;
         } finally {
@@ -80,6 +104,38 @@ public class BatchAPI extends API {
         }
     }
 
+    private static BatchWriter writer(HugeConfig config, HugeGraph g) {
+        BatchWriter writer = writers.get(g.name());
+        if (writer != null && !writer.closed() && writer.graph() == g) {
+            return writer;
+        }
+        return writers.compute(g.name(), (name, current) -> {
+            if (current != null) {
+                if (!current.closed() && current.graph() == g) {
+                    return current;
+                }
+                // The graph has been closed or reopened
+                current.close();
+            }
+            if (gauges.add(name)) {
+                MetricsUtil.registerGauge(RestServer.class,
+                                          "batch-write-pending-" + name,
+                                          () -> pendingBatches(name));
+            }
+            return new BatchWriter(g,
+                   config.get(ServerOptions.BATCH_WRITE_WORKERS),
+                   config.get(ServerOptions.BATCH_WRITE_QUEUE_SIZE),
+                   config.get(ServerOptions.BATCH_WRITE_MERGE_SIZE),
+                   config.get(ServerOptions.BATCH_WRITE_QUEUE_TIMEOUT),
+                   config.get(ServerOptions.BATCH_WRITE_TIMEOUT));
+        });
+    }
+
+    private static int pendingBatches(String graph) {
+        BatchWriter writer = writers.get(graph);
+        return writer == null ? 0 : writer.pendingBatches();
+    }
+
     @JsonIgnoreProperties(value = {"type"})
     protected static abstract class JsonElement implements Checkable {
 
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.api.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.api.API;
+import com.baidu.hugegraph.auth.HugeGraphAuthProxy.ContextCallable;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * The writing pipeline of a graph for batch APIs: the request threads just
+ * parse and check the batches, then put them into a bounded queue and wait,
+ * the writer threads take batches from the queue and merge the small ones
+ * into a commit of about `mergeSize` elements, then the element building,
+ * index updating, serialization and backend committing are all done by the
+ * writer threads, so the throughput scales with the number of writers
+ * rather than the number of client connections.
+ *
+ * A request thread will wait at most `queueTimeout` seconds for a full
+ * queue (back-pressure) before the batch is rejected, and then at most
+ * `writeTimeout` seconds for the batch to be written, a batch which is not
+ * taken by the writers before timeout will be canceled. If a merged commit
+ * fails, its batches will be retried one by one, so a bad batch can't fail
+ * others, that's why a batch which can't be called again after rollback
+ * (like batch updating with strategies) must be marked as unmergeable.
+ *
+ * The writer threads exit once the graph is closed, and the batches left
+ * in the queue will fail.
+ */
+public final class BatchWriter {
+
+    private static final Logger LOG = Log.logger(BatchWriter.class);
+
+    // The interval in milliseconds to check whether the graph is closed
+    private static final long CHECK_CLOSED_INTERVAL = 1000L;
+
+    private final HugeGraph graph;
+    private final BlockingQueue<Batch<?>> queue;
+    private final int mergeSize;
+    private final long queueTimeout;
+    private final long writeTimeout;
+    private final ExecutorService writers;
+    private volatile boolean closed;
+
+    public BatchWriter(HugeGraph graph, int writers, int queueSize,
+                       int mergeSize, long queueTimeout, long writeTimeout) {
+        E.checkNotNull(graph, "graph");
+        E.checkArgument(writers > 0,
+                        "The writers must be > 0, but got %s", writers);
+        E.checkArgument(mergeSize > 0,
+                        "The merge size must be > 0, but got %s", mergeSize);
+        this.graph = graph;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.mergeSize = mergeSize;
+        this.queueTimeout = queueTimeout;
+        this.writeTimeout = writeTimeout;
+        this.closed = false;
+
+        String name = "batch-writer-" + graph.name() + "-%d";
+        ThreadFactory factory = new BasicThreadFactory.Builder()
+                                                      .namingPattern(name)
+                                                      .daemon(true)
+                                                      .build();
+        this.writers = Executors.newFixedThreadPool(writers, factory);
+        for (int i = 0; i < writers; i++) {
+            this.writers.execute(this::loop);
+        }
+        LOG.info("Started {} batch writers for graph '{}'",
+                 writers, graph.name());
+    }
+
+    public HugeGraph graph() {
+        return this.graph;
+    }
+
+    public <R> R write(int size, boolean mergeable, Callable<R> callable) {
+        this.checkOpened();
+        // Keep the auth context of request thread for the writer thread
+        Batch<R> batch = new Batch<>(size, mergeable,
+                                     new ContextCallable<>(callable));
+        boolean queued;
+        try {
+            queued = this.queue.offer(batch, this.queueTimeout,
+                                      TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HugeException("Interrupted while waiting to write", e);
+        }
+        if (!queued) {
+            throw new HugeException("The rest server is too busy to write");
+        }
+        if (this.closed) {
+            // The writers may have exited before the batch is queued
+            this.failQueuedBatches();
+        }
+        return batch.get(this.writeTimeout);
+    }
+
+    public int pendingBatches() {
+        return this.queue.size();
+    }
+
+    public boolean closed() {
+        return this.closed || this.graph.closed();
+    }
+
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.writers.shutdownNow();
+        this.failQueuedBatches();
+        LOG.info("Stopped batch writers for graph '{}'", this.graph.name());
+    }
+
+    private void checkOpened() {
+        if (this.closed()) {
+            throw new HugeException("The graph '%s' has been closed",
+                                    this.graph.name());
+        }
+    }
+
+    private void failQueuedBatches() {
+        List<Batch<?>> batches = new ArrayList<>();
+        this.queue.drainTo(batches);
+        for (Batch<?> batch : batches) {
+            batch.fail(new HugeException("The graph '%s' has been closed",
+                                         this.graph.name()));
+        }
+    }
+
+    private void loop() {
+        List<Batch<?>> batches = new ArrayList<>();
+        while (!this.closed) {
+            Batch<?> batch;
+            try {
+                batch = this.queue.poll(CHECK_CLOSED_INTERVAL,
+                                        TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                LOG.debug("Batch writer of graph '{}' is interrupted",
+                          this.graph.name());
+                break;
+            }
+            if (batch == null) {
+                if (this.graph.closed()) {
+                    this.close();
+                }
+                continue;
+            }
+
+            do {
+                // Merge the queued small batches into one commit
+                int size = 0;
+                do {
+                    if (batch.prepare()) {
+                        batches.add(batch);
+                        size += batch.size;
+                    }
+                    if (!batch.mergeable || size >= this.mergeSize) {
+                        batch = null;
+                        break;
+                    }
+                    batch = this.queue.poll();
+                } while (batch != null && batch.mergeable);
+
+                try {
+                    this.write(batches);
+                } finally {
+                    batches.clear();
+                }
+                // Write the unmergeable batch polled above if exists
+            } while (batch != null);
+        }
+    }
+
+    private void write(List<Batch<?>> batches) {
+        if (batches.isEmpty()) {
+            return;
+        }
+        if (batches.size() > 1) {
+            List<Object> results;
+            try {
+                results = API.commit(this.graph, () -> {
+                    List<Object> rs = new ArrayList<>(batches.size());
+                    for (Batch<?> batch : batches) {
+                        rs.add(batch.callable.call());
+                    }
+                    return rs;
+                });
+            } catch (Throwable e) {
+                LOG.debug("Failed to commit {} merged batches, " +
+                          "retry them one by one", batches.size(), e);
+                results = null;
+            }
+            if (results != null) {
+                assert results.size() == batches.size();
+                for (int i = 0; i < batches.size(); i++) {
+                    batches.get(i).complete(results.get(i));
+                }
+                return;
+            }
+        }
+
+        for (Batch<?> batch : batches) {
+            try {
+                batch.complete(API.commit(this.graph, batch.callable));
+            } catch (Throwable e) {
+                batch.fail(e);
+            }
+        }
+    }
+
+    private static class Batch<R> {
+
+        private final int size;
+        private final boolean mergeable;
+        private final Callable<R> callable;
+        private final CompletableFuture<R> future;
+        // Taken by a writer to write, or by the request thread to cancel
+        private final AtomicBoolean taken;
+
+        public Batch(int size, boolean mergeable, Callable<R> callable) {
+            this.size = size;
+            this.mergeable = mergeable;
+            this.callable = callable;
+            this.future = new CompletableFuture<>();
+            this.taken = new AtomicBoolean(false);
+        }
+
+        /**
+         * Take the batch to write
+         * @return false if the batch has been canceled
+         */
+        public boolean prepare() {
+            return this.taken.compareAndSet(false, true);
+        }
+
+        @SuppressWarnings("unchecked")
+        public void complete(Object result) {
+            this.future.complete((R) result);
+        }
+
+        public void fail(Throwable e) {
+            this.future.completeExceptionally(e);
+        }
+
+        public R get(long timeout) {
+            try {
+                return this.future.get(timeout, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                if (this.taken.compareAndSet(false, true)) {
+                    throw new HugeException(
+                              "The batch is canceled since it's not " +
+                              "written within %s seconds", timeout);
+                }
+                throw new HugeException(
+                          "The batch is still being written after %s " +
+                          "seconds, it may be written or not", timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HugeException("Interrupted while waiting for " +
+                                        "the batch to be written", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new HugeException("Failed to write batch", cause);
+            }
+        }
+    }
+}
@@ -63,6 +63,8 @@ import com.baidu.hugegraph.exception.NotFoundException;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.PropertyKey;
 import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.serializer.BinaryCodec;
+import com.baidu.hugegraph.serializer.BinaryCodec.EdgeRecord;
 import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.traversal.optimize.QueryHolder;
@@ -130,10 +132,40 @@ public class EdgeAPI extends BatchAPI {
                          @DefaultValue("true") boolean checkVertex,
                          List<JsonEdge> jsonEdges) {
         LOG.debug("Graph [{}] create edges: {}", graph, jsonEdges);
-        checkCreatingBody(jsonEdges);
-        checkBatchSize(config, jsonEdges);
+        HugeGraph g = graph(manager, graph);
+        List<Id> ids = this.create(config, g, checkVertex, jsonEdges);
+        return manager.serializer(g).writeIds(ids);
+    }
 
+    @POST
+    @Timed(name = "batch-create-binary")
+    @Decompress
+    @Path("batch")
+    @Status(Status.CREATED)
+    @Consumes(APPLICATION_BINARY)
+    @Produces(APPLICATION_BINARY)
+    @RolesAllowed({"admin", "$owner=$graph $action=edge_write"})
+    public byte[] create(@Context HugeConfig config,
+                         @Context GraphManager manager,
+                         @PathParam("graph") String graph,
+                         @QueryParam("check_vertex")
+                         @DefaultValue("true") boolean checkVertex,
+                         byte[] body) {
+        List<EdgeRecord> records = BinaryCodec.decodeEdges(body);
+        List<JsonEdge> jsonEdges = new ArrayList<>(records.size());
+        for (EdgeRecord record : records) {
+            jsonEdges.add(JsonEdge.of(record));
+        }
+        LOG.debug("Graph [{}] create edges: {}", graph, jsonEdges);
         HugeGraph g = graph(manager, graph);
+        List<Id> ids = this.create(config, g, checkVertex, jsonEdges);
+        return BinaryCodec.encodeIds(ids);
+    }
+
+    private List<Id> create(HugeConfig config, HugeGraph g,
+                            boolean checkVertex, List<JsonEdge> jsonEdges) {
+        checkCreatingBody(jsonEdges);
+        checkBatchSize(config, jsonEdges);
 
         TriFunction<HugeGraph, Object, String, Vertex> getVertex =
                     checkVertex ? EdgeAPI::getVertex : EdgeAPI::newVertex;
@@ -154,7 +186,7 @@ public class EdgeAPI extends BatchAPI {
                                               jsonEdge.properties());
                 ids.add((Id) edge.id());
             }
-            return manager.serializer(g).writeIds(ids);
+            return ids;
         });
     }
 
@@ -182,7 +214,10 @@ public class EdgeAPI extends BatchAPI {
         TriFunction<HugeGraph, Object, String, Vertex> getVertex =
                     req.checkVertex ? EdgeAPI::getVertex : EdgeAPI::newVertex;
 
-        return this.commit(config, g, map.size(), () -> {
+        // The updating strategies can't be applied again after rollback
+        boolean mergeable = false;
+        int size = req.jsonEdges.size();
+        return this.commit(config, g, size, mergeable, () -> {
             // 1.Put all newEdges' properties into map (combine first)
             req.jsonEdges.forEach(newEdge -> {
                 Id newEdgeId = getEdgeId(graph(manager, graph), newEdge);
@@ -501,6 +536,17 @@ public class EdgeAPI extends BatchAPI {
 
     private static class JsonEdge extends JsonElement {
 
+        private static JsonEdge of(EdgeRecord record) {
+            JsonEdge edge = new JsonEdge();
+            edge.label = record.label;
+            edge.source = record.source;
+            edge.sourceLabel = record.sourceLabel;
+            edge.target = record.target;
+            edge.targetLabel = record.targetLabel;
+            edge.properties = record.properties;
+            return edge;
+        }
+
         @JsonProperty("outV")
         public Object source;
         @JsonProperty("outVLabel")
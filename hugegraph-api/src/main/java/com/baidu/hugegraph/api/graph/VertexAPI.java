@@ -61,6 +61,8 @@ import com.baidu.hugegraph.define.UpdateStrategy;
 import com.baidu.hugegraph.exception.NotFoundException;
 import com.baidu.hugegraph.schema.PropertyKey;
 import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.serializer.BinaryCodec;
+import com.baidu.hugegraph.serializer.BinaryCodec.VertexRecord;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.traversal.optimize.QueryHolder;
 import com.baidu.hugegraph.traversal.optimize.Text;
@@ -109,17 +111,44 @@ public class VertexAPI extends BatchAPI {
                          @PathParam("graph") String graph,
                          List<JsonVertex> jsonVertices) {
         LOG.debug("Graph [{}] create vertices: {}", graph, jsonVertices);
-        checkCreatingBody(jsonVertices);
-        checkBatchSize(config, jsonVertices);
+        HugeGraph g = graph(manager, graph);
+        List<Id> ids = this.create(config, g, jsonVertices);
+        return manager.serializer(g).writeIds(ids);
+    }
 
+    @POST
+    @Timed(name = "batch-create-binary")
+    @Decompress
+    @Path("batch")
+    @Status(Status.CREATED)
+    @Consumes(APPLICATION_BINARY)
+    @Produces(APPLICATION_BINARY)
+    @RolesAllowed({"admin", "$owner=$graph $action=vertex_write"})
+    public byte[] create(@Context HugeConfig config,
+                         @Context GraphManager manager,
+                         @PathParam("graph") String graph,
+                         byte[] body) {
+        List<VertexRecord> records = BinaryCodec.decodeVertices(body);
+        List<JsonVertex> jsonVertices = new ArrayList<>(records.size());
+        for (VertexRecord record : records) {
+            jsonVertices.add(JsonVertex.of(record));
+        }
+        LOG.debug("Graph [{}] create vertices: {}", graph, jsonVertices);
         HugeGraph g = graph(manager, graph);
+        return BinaryCodec.encodeIds(this.create(config, g, jsonVertices));
+    }
+
+    private List<Id> create(HugeConfig config, HugeGraph g,
+                            List<JsonVertex> jsonVertices) {
+        checkCreatingBody(jsonVertices);
+        checkBatchSize(config, jsonVertices);
 
         return this.commit(config, g, jsonVertices.size(), () -> {
             List<Id> ids = new ArrayList<>(jsonVertices.size());
             for (JsonVertex vertex : jsonVertices) {
                 ids.add((Id) g.addVertex(vertex.properties()).id());
             }
-            return manager.serializer(g).writeIds(ids);
+            return ids;
         });
     }
 
@@ -148,7 +177,10 @@ public class VertexAPI extends BatchAPI {
         HugeGraph g = graph(manager, graph);
         Map<Id, JsonVertex> map = new HashMap<>(req.jsonVertices.size());
 
-        return this.commit(config, g, map.size(), () -> {
+        // The updating strategies can't be applied again after rollback
+        boolean mergeable = false;
+        int size = req.jsonVertices.size();
+        return this.commit(config, g, size, mergeable, () -> {
             /*
              * 1.Put all newVertices' properties into map (combine first)
              * - Consider primary-key & user-define ID mode first
@@ -423,6 +455,14 @@ public class VertexAPI extends BatchAPI {
 
     private static class JsonVertex extends JsonElement {
 
+        private static JsonVertex of(VertexRecord record) {
+            JsonVertex vertex = new JsonVertex();
+            vertex.id = record.id;
+            vertex.label = record.label;
+            vertex.properties = record.properties;
+            return vertex;
+        }
+
         @Override
         public void checkCreate(boolean isBatch) {
             E.checkArgumentNotNull(this.label,
@@ -101,6 +101,8 @@ public class GremlinAPI extends API {
         private String language = "gremlin-groovy";
         @JsonProperty
         private Map<String, String> aliases = new HashMap<>();
+        @JsonProperty
+        private boolean profile = false;
 
         public String gremlin() {
             return this.gremlin;
@@ -142,6 +144,14 @@ public class GremlinAPI extends API {
             this.aliases.put(key, value);
         }
 
+        public boolean profile() {
+            return this.profile;
+        }
+
+        public void profile(boolean profile) {
+            this.profile = profile;
+        }
+
         public String name() {
             // Get the first line of script as the name
             String firstLine = this.gremlin.split("\r\n|\r|\n", 2)[0];
@@ -183,6 +193,7 @@ public class GremlinAPI extends API {
             map.put("bindings", this.bindings);
             map.put("language", this.language);
             map.put("aliases", this.aliases);
+            map.put("profile", this.profile);
             return JsonUtil.toJson(map);
         }
 
@@ -198,11 +209,14 @@ public class GremlinAPI extends API {
             Map<String, String> aliases = (Map<String, String>)
                                           map.get("aliases");
 
+            Boolean profile = (Boolean) map.get("profile");
+
             GremlinRequest request = new GremlinRequest();
             request.gremlin(gremlin);
             request.bindings(bindings);
             request.language(language);
             request.aliases(aliases);
+            request.profile(profile != null && profile);
             return request;
         }
     }
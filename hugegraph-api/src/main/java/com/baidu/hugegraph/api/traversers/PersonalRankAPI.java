@@ -47,6 +47,7 @@ import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_DEGR
 import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_LIMIT;
 import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_MAX_DEPTH;
 import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.NO_LIMIT;
+import static com.baidu.hugegraph.traversal.algorithm.PersonalRankTraverser.DEFAULT_EPSILON;
 
 @Path("graphs/{graph}/traversers/personalrank")
 @Singleton
@@ -79,19 +80,24 @@ public class PersonalRankAPI extends API {
                         "The max depth of rank request must be " +
                         "in range (0, %s], but got '%s'",
                         DEFAULT_MAX_DEPTH, request.maxDepth);
+        E.checkArgument(request.epsilon >= 0.0 && request.epsilon < 1.0,
+                        "The epsilon of rank request must be in range " +
+                        "[0, 1), but got '%s'", request.epsilon);
 
         LOG.debug("Graph [{}] get personal rank from '{}' with " +
                   "edge label '{}', alpha '{}', degree '{}', " +
-                  "max depth '{}' and sorted '{}'",
+                  "max depth '{}', epsilon '{}' and sorted '{}'",
                   graph, request.source, request.label, request.alpha,
-                  request.degree, request.maxDepth, request.sorted);
+                  request.degree, request.maxDepth, request.epsilon,
+                  request.sorted);
 
         Id sourceId = HugeVertex.getIdValue(request.source);
         HugeGraph g = graph(manager, graph);
 
         PersonalRankTraverser traverser;
         traverser = new PersonalRankTraverser(g, request.alpha, request.degree,
-                                              request.maxDepth);
+                                              request.maxDepth,
+                                              request.epsilon);
         Map<Id, Double> ranks = traverser.personalRank(sourceId, request.label,
                                                        request.withLabel);
         ranks = HugeTraverser.topN(ranks, request.sorted, request.limit);
@@ -112,6 +118,8 @@ public class PersonalRankAPI extends API {
         private long limit = Long.valueOf(DEFAULT_LIMIT);
         @JsonProperty("max_depth")
         private int maxDepth;
+        @JsonProperty("epsilon")
+        private double epsilon = Double.valueOf(DEFAULT_EPSILON);
         @JsonProperty("with_label")
         private PersonalRankTraverser.WithLabel withLabel =
                 PersonalRankTraverser.WithLabel.BOTH_LABEL;
@@ -122,10 +130,10 @@ public class PersonalRankAPI extends API {
         public String toString() {
             return String.format("RankRequest{source=%s,label=%s,alpha=%s," +
                                  "degree=%s,limit=%s,maxDepth=%s," +
-                                 "withLabel=%s,sorted=%s}",
+                                 "epsilon=%s,withLabel=%s,sorted=%s}",
                                  this.source, this.label, this.alpha,
                                  this.degree, this.limit, this.maxDepth,
-                                 this.withLabel, this.sorted);
+                                 this.epsilon, this.withLabel, this.sorted);
         }
     }
 }
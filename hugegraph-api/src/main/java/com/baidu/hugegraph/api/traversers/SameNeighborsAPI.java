@@ -32,6 +32,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 
 import org.slf4j.Logger;
 
@@ -41,6 +42,7 @@ import com.baidu.hugegraph.api.graph.EdgeAPI;
 import com.baidu.hugegraph.api.graph.VertexAPI;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.core.GraphManager;
+import com.baidu.hugegraph.serializer.BinaryCodec;
 import com.baidu.hugegraph.server.RestServer;
 import com.baidu.hugegraph.traversal.algorithm.HugeTraverser;
 import com.baidu.hugegraph.type.define.Directions;
@@ -55,8 +57,9 @@ public class SameNeighborsAPI extends API {
 
     @GET
     @Timed
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String get(@Context GraphManager manager,
+    @Produces({APPLICATION_JSON_WITH_CHARSET, APPLICATION_BINARY})
+    public Object get(@Context GraphManager manager,
+                      @Context HttpHeaders headers,
                       @PathParam("graph") String graph,
                       @QueryParam("vertex") String vertex,
                       @QueryParam("other") String other,
@@ -78,6 +81,9 @@ public class SameNeighborsAPI extends API {
         HugeTraverser traverser = new HugeTraverser(g);
         Set<Id> neighbors = traverser.sameNeighbors(sourceId, targetId, dir,
                                                     edgeLabel, degree, limit);
+        if (acceptBinary(headers)) {
+            return BinaryCodec.encodeIds(neighbors);
+        }
         return manager.serializer(g).writeList("same_neighbors", neighbors);
     }
 }
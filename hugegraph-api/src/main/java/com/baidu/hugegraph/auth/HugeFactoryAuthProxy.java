@@ -110,6 +110,7 @@ public final class HugeFactoryAuthProxy {
         Reflection.registerFieldsToFilter(com.baidu.hugegraph.auth.HugeGraphAuthProxy.VariablesProxy.class, "variables", "this$0");
         Reflection.registerFieldsToFilter(com.baidu.hugegraph.auth.HugeGraphAuthProxy.Context.class, "ADMIN", "user");
         Reflection.registerFieldsToFilter(com.baidu.hugegraph.auth.HugeGraphAuthProxy.ContextTask.class, "runner", "context");
+        Reflection.registerFieldsToFilter(com.baidu.hugegraph.auth.HugeGraphAuthProxy.ContextCallable.class, "callable", "context");
         Reflection.registerFieldsToFilter(com.baidu.hugegraph.StandardHugeGraph.class, "LOG", "closed", "mode", "variables", "name", "params", "configuration", "schemaEventHub", "graphEventHub", "indexEventHub", "rateLimiter", "taskManager", "userManager", "features", "storeProvider", "tx");
         Reflection.registerMethodsToFilter(com.baidu.hugegraph.StandardHugeGraph.class, "waitUntilAllTasksCompleted", "lambda$0", "closeTx", "access$2", "access$3", "access$4", "access$5", "serializer", "loadSystemStore", "loadSchemaStore", "loadGraphStore", "analyzer", "access$8", "loadStoreProvider", "graphTransaction", "schemaTransaction", "openSchemaTransaction", "checkGraphNotClosed", "openSystemTransaction", "openGraphTransaction", "systemTransaction", "access$9", "access$10", "access$11", "access$12", "access$13", "access$14", "access$15", "access$16", "access$17", "access$18", "access$6", "access$7");
         Reflection.registerFieldsToFilter(c("com.baidu.hugegraph.StandardHugeGraph$StandardHugeGraphParams"), "graph", "this$0");
@@ -221,6 +222,7 @@ public final class HugeFactoryAuthProxy {
         registerPrivateActions(HugeGraphAuthProxy.Context.class);
         registerPrivateActions(HugeGraphAuthProxy.ContextThreadPoolExecutor.class);
         registerPrivateActions(HugeGraphAuthProxy.ContextTask.class);
+        registerPrivateActions(HugeGraphAuthProxy.ContextCallable.class);
 
         for (Class<?> clazz : StandardHugeGraph.PROTECT_CLASSES) {
             registerPrivateActions(clazz);
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
@@ -609,6 +610,18 @@ public final class HugeGraphAuthProxy implements HugeGraph {
         return this.hugegraph.metadata(type, meta, args);
     }
 
+    @Override
+    public long asyncIndexSequence() {
+        this.verifyPermission(HugePermission.READ, ResourceType.STATUS);
+        return this.hugegraph.asyncIndexSequence();
+    }
+
+    @Override
+    public boolean waitAsyncIndex(long sequence, long timeout) {
+        this.verifyPermission(HugePermission.READ, ResourceType.STATUS);
+        return this.hugegraph.waitAsyncIndex(sequence, timeout);
+    }
+
     @Override
     public TaskScheduler taskScheduler() {
         // Just return proxy
@@ -1521,6 +1534,28 @@ public final class HugeGraphAuthProxy implements HugeGraph {
         }
     }
 
+    public static class ContextCallable<V> implements Callable<V> {
+
+        private final Callable<V> callable;
+        private final Context context;
+
+        public ContextCallable(Callable<V> callable) {
+            E.checkNotNull(callable, "callable");
+            this.context = getContext();
+            this.callable = callable;
+        }
+
+        @Override
+        public V call() throws Exception {
+            setContext(this.context);
+            try {
+                return this.callable.call();
+            } finally {
+                resetContext();
+            }
+        }
+    }
+
     public static class ContextThreadPoolExecutor extends ThreadPoolExecutor {
 
         public ContextThreadPoolExecutor(int corePoolSize, int maxPoolSize,
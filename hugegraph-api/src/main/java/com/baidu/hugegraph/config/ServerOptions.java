@@ -177,6 +177,63 @@ public class ServerOptions extends OptionHolder {
                     nonNegativeInt(),
                     0);
 
+    public static final ConfigOption<Boolean> BATCH_WRITE_PIPELINE =
+            new ConfigOption<>(
+                    "batch.write_pipeline",
+                    "Whether to write batches through the writing pipeline, " +
+                    "which merges small batches into larger commits and " +
+                    "queues them instead of rejecting if the server is busy.",
+                    disallowEmpty(),
+                    false
+            );
+
+    public static final ConfigOption<Integer> BATCH_WRITE_WORKERS =
+            new ConfigOption<>(
+                    "batch.write_workers",
+                    "The number of writer threads of the writing pipeline " +
+                    "for each graph.",
+                    positiveInt(),
+                    Runtime.getRuntime().availableProcessors()
+            );
+
+    public static final ConfigOption<Integer> BATCH_WRITE_QUEUE_SIZE =
+            new ConfigOption<>(
+                    "batch.write_queue_size",
+                    "The maximum number of batches waiting in the queue " +
+                    "of the writing pipeline for each graph.",
+                    positiveInt(),
+                    1000
+            );
+
+    public static final ConfigOption<Integer> BATCH_WRITE_MERGE_SIZE =
+            new ConfigOption<>(
+                    "batch.write_merge_size",
+                    "The expected number of elements of a commit that " +
+                    "merged from the queued batches.",
+                    positiveInt(),
+                    2000
+            );
+
+    public static final ConfigOption<Integer> BATCH_WRITE_QUEUE_TIMEOUT =
+            new ConfigOption<>(
+                    "batch.write_queue_timeout",
+                    "The timeout in seconds of waiting for the queue of " +
+                    "the writing pipeline if it's full, the batch will " +
+                    "be rejected after timeout.",
+                    positiveInt(),
+                    60
+            );
+
+    public static final ConfigOption<Integer> BATCH_WRITE_TIMEOUT =
+            new ConfigOption<>(
+                    "batch.write_timeout",
+                    "The timeout in seconds of waiting for a queued batch " +
+                    "to be written by the writing pipeline, the batch " +
+                    "will be canceled if it's not being written yet.",
+                    positiveInt(),
+                    300
+            );
+
     public static final ConfigOption<Boolean> ALLOW_TRACE =
             new ConfigOption<>(
                     "exception.allow_trace",
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.serializer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.type.define.Cardinality;
+import com.baidu.hugegraph.type.define.DataType;
+import com.baidu.hugegraph.type.define.SerialEnum;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * The encoder and decoder of the binary content type MEDIA_TYPE, which is
+ * an alternative to json for batch writing vertices and edges and for the
+ * id results of traversers.
+ *
+ * A body is a sequence of records, each record starts with its length in
+ * vint, the ids and values are encoded in the same way as BytesBuffer:
+ *  - vertex: label, a flag byte and the id if the flag is 1, properties
+ *  - edge: label, source id, source label, target id, target label and
+ *    properties
+ *  - id: the id
+ * The properties start with the count of them, each property is encoded
+ * as the key, the data type code, the cardinality code and the value, or
+ * the count and the values for a LIST or SET property, all the values of
+ * a property must be of the same data type, and the OBJECT data type isn't
+ * supported since it's deserialized by kryo.
+ */
+public final class BinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/x-hugegraph-binary";
+
+    private static final int RECORD_SIZE = 64;
+
+    public static byte[] encodeVertices(Collection<VertexRecord> vertices) {
+        BytesBuffer body = BytesBuffer.allocate(RECORD_SIZE * vertices.size());
+        for (VertexRecord vertex : vertices) {
+            E.checkArgumentNotNull(vertex.label,
+                                   "The label of vertex can't be null");
+            BytesBuffer record = BytesBuffer.allocate(RECORD_SIZE);
+            record.writeString(vertex.label);
+            if (vertex.id == null) {
+                record.write((byte) 0);
+            } else {
+                record.write((byte) 1);
+                record.writeId(vertex.id);
+            }
+            writeProperties(record, vertex.properties);
+            writeRecord(body, record);
+        }
+        return body.bytes();
+    }
+
+    public static List<VertexRecord> decodeVertices(byte[] bytes) {
+        List<VertexRecord> vertices = new ArrayList<>();
+        BytesBuffer body = BytesBuffer.wrap(bytes);
+        while (body.remaining() > 0) {
+            BytesBuffer record = readRecord(body);
+            VertexRecord vertex = new VertexRecord();
+            vertex.label = record.readString();
+            if (record.read() == 1) {
+                vertex.id = record.readId();
+            }
+            vertex.properties = readProperties(record);
+            checkRecordEnd(record);
+            vertices.add(vertex);
+        }
+        return vertices;
+    }
+
+    public static byte[] encodeEdges(Collection<EdgeRecord> edges) {
+        BytesBuffer body = BytesBuffer.allocate(RECORD_SIZE * edges.size());
+        for (EdgeRecord edge : edges) {
+            E.checkArgument(edge.label != null && edge.source != null &&
+                            edge.sourceLabel != null && edge.target != null &&
+                            edge.targetLabel != null,
+                            "The label, source and target (with label) " +
+                            "of edge can't be null");
+            BytesBuffer record = BytesBuffer.allocate(RECORD_SIZE);
+            record.writeString(edge.label);
+            record.writeId(edge.source);
+            record.writeString(edge.sourceLabel);
+            record.writeId(edge.target);
+            record.writeString(edge.targetLabel);
+            writeProperties(record, edge.properties);
+            writeRecord(body, record);
+        }
+        return body.bytes();
+    }
+
+    public static List<EdgeRecord> decodeEdges(byte[] bytes) {
+        List<EdgeRecord> edges = new ArrayList<>();
+        BytesBuffer body = BytesBuffer.wrap(bytes);
+        while (body.remaining() > 0) {
+            BytesBuffer record = readRecord(body);
+            EdgeRecord edge = new EdgeRecord();
+            edge.label = record.readString();
+            edge.source = record.readId();
+            edge.sourceLabel = record.readString();
+            edge.target = record.readId();
+            edge.targetLabel = record.readString();
+            edge.properties = readProperties(record);
+            checkRecordEnd(record);
+            edges.add(edge);
+        }
+        return edges;
+    }
+
+    public static byte[] encodeIds(Collection<Id> ids) {
+        BytesBuffer body = BytesBuffer.allocate(16 * ids.size());
+        for (Id id : ids) {
+            BytesBuffer record = BytesBuffer.allocate(RECORD_SIZE);
+            record.writeId(id);
+            writeRecord(body, record);
+        }
+        return body.bytes();
+    }
+
+    public static List<Id> decodeIds(byte[] bytes) {
+        List<Id> ids = new ArrayList<>();
+        BytesBuffer body = BytesBuffer.wrap(bytes);
+        while (body.remaining() > 0) {
+            BytesBuffer record = readRecord(body);
+            ids.add(record.readId());
+            checkRecordEnd(record);
+        }
+        return ids;
+    }
+
+    private static void writeRecord(BytesBuffer body, BytesBuffer record) {
+        body.writeVInt(record.position());
+        body.write(record.array(), 0, record.position());
+    }
+
+    private static BytesBuffer readRecord(BytesBuffer body) {
+        int length = body.readVInt();
+        E.checkArgument(length >= 0 && length <= body.remaining(),
+                        "Invalid record length %s with %s bytes left",
+                        length, body.remaining());
+        return BytesBuffer.wrap(body.read(length));
+    }
+
+    private static void checkRecordEnd(BytesBuffer record) {
+        E.checkArgument(record.remaining() == 0,
+                        "Invalid record with %s bytes left",
+                        record.remaining());
+    }
+
+    private static void writeProperties(BytesBuffer buffer,
+                                        Map<String, Object> properties) {
+        if (properties == null) {
+            buffer.writeVInt(0);
+            return;
+        }
+        buffer.writeVInt(properties.size());
+        for (Map.Entry<String, Object> e : properties.entrySet()) {
+            Object value = e.getValue();
+            E.checkArgumentNotNull(value, "Not allowed to set value of " +
+                                   "property '%s' to null", e.getKey());
+            Cardinality cardinality = Cardinality.SINGLE;
+            Collection<?> values = null;
+            if (value instanceof Set) {
+                cardinality = Cardinality.SET;
+                values = (Collection<?>) value;
+            } else if (value instanceof Collection) {
+                cardinality = Cardinality.LIST;
+                values = (Collection<?>) value;
+            }
+            DataType dataType = values == null ? dataType(e.getKey(), value) :
+                                dataType(e.getKey(), values);
+
+            buffer.writeString(e.getKey());
+            buffer.write(dataType.code());
+            buffer.write(cardinality.code());
+            if (values == null) {
+                buffer.writeProperty(dataType, value);
+                continue;
+            }
+            buffer.writeVInt(values.size());
+            for (Object v : values) {
+                buffer.writeProperty(dataType, v);
+            }
+        }
+    }
+
+    private static Map<String, Object> readProperties(BytesBuffer buffer) {
+        int size = buffer.readVInt();
+        if (size == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> properties = new LinkedHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            String key = buffer.readString();
+            DataType dataType = SerialEnum.fromCode(DataType.class,
+                                                    buffer.read());
+            E.checkArgument(dataType != DataType.UNKNOWN &&
+                            dataType != DataType.OBJECT,
+                            "Unsupported data type %s of property '%s'",
+                            dataType, key);
+            Cardinality cardinality = SerialEnum.fromCode(Cardinality.class,
+                                                          buffer.read());
+            if (cardinality == Cardinality.SINGLE) {
+                properties.put(key, buffer.readProperty(dataType));
+                continue;
+            }
+            int count = buffer.readVInt();
+            Collection<Object> values = cardinality == Cardinality.SET ?
+                                        new LinkedHashSet<>(count) :
+                                        new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                values.add(buffer.readProperty(dataType));
+            }
+            properties.put(key, values);
+        }
+        return properties;
+    }
+
+    private static DataType dataType(String key, Collection<?> values) {
+        if (values.isEmpty()) {
+            return DataType.TEXT;
+        }
+        DataType dataType = null;
+        for (Object value : values) {
+            DataType type = dataType(key, value);
+            E.checkArgument(dataType == null || dataType == type,
+                            "The values of property '%s' must be of the " +
+                            "same data type, but got %s and %s",
+                            key, dataType, type);
+            dataType = type;
+        }
+        return dataType;
+    }
+
+    private static DataType dataType(String key, Object value) {
+        E.checkArgumentNotNull(value, "Not allowed to set value of " +
+                               "property '%s' to null", key);
+        if (value instanceof byte[]) {
+            return DataType.BLOB;
+        }
+        for (DataType dataType : DataType.values()) {
+            if (dataType != DataType.UNKNOWN && dataType != DataType.OBJECT &&
+                dataType.clazz().isInstance(value)) {
+                return dataType;
+            }
+        }
+        throw new IllegalArgumentException(String.format(
+                  "Unsupported value type %s of property '%s'",
+                  value.getClass().getSimpleName(), key));
+    }
+
+    public static class VertexRecord {
+
+        public Id id;
+        public String label;
+        public Map<String, Object> properties;
+    }
+
+    public static class EdgeRecord {
+
+        public String label;
+        public Id source;
+        public String sourceLabel;
+        public Id target;
+        public String targetLabel;
+        public Map<String, Object> properties;
+    }
+}
@@ -139,6 +139,9 @@ public interface HugeGraph extends Graph {
 
     public <T> T metadata(HugeType type, String meta, Object... args);
 
+    public long asyncIndexSequence();
+    public boolean waitAsyncIndex(long sequence, long timeout);
+
     public void initBackend();
     public void clearBackend();
     public void truncateBackend();
@@ -23,6 +23,7 @@ import com.baidu.hugegraph.analyzer.Analyzer;
 import com.baidu.hugegraph.backend.serializer.AbstractSerializer;
 import com.baidu.hugegraph.backend.store.BackendFeatures;
 import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.backend.tx.AsyncIndexQueue;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
 import com.baidu.hugegraph.config.HugeConfig;
@@ -67,4 +68,5 @@ public interface HugeGraphParams {
     public AbstractSerializer serializer();
     public Analyzer analyzer();
     public RateLimiter rateLimiter();
+    public AsyncIndexQueue asyncIndexQueue();
 }
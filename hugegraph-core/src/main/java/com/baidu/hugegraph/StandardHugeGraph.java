@@ -39,11 +39,17 @@ import org.slf4j.Logger;
 
 import com.baidu.hugegraph.analyzer.Analyzer;
 import com.baidu.hugegraph.analyzer.AnalyzerFactory;
+import com.baidu.hugegraph.analyzer.CachedAnalyzer;
 import com.baidu.hugegraph.auth.StandardUserManager;
 import com.baidu.hugegraph.auth.UserManager;
 import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.cache.Cache;
+import com.baidu.hugegraph.backend.cache.CacheManager;
 import com.baidu.hugegraph.backend.cache.CachedGraphTransaction;
 import com.baidu.hugegraph.backend.cache.CachedSchemaTransaction;
+import com.baidu.hugegraph.backend.cache.DegreeCache;
+import com.baidu.hugegraph.backend.cache.QueryCache;
+import com.baidu.hugegraph.backend.cache.RankCache;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.SnowflakeIdGenerator;
 import com.baidu.hugegraph.backend.query.Query;
@@ -54,7 +60,9 @@ import com.baidu.hugegraph.backend.store.BackendProviderFactory;
 import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.backend.store.BackendStoreProvider;
 import com.baidu.hugegraph.backend.store.BackendStoreSystemInfo;
+import com.baidu.hugegraph.backend.tx.AsyncIndexQueue;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.backend.tx.IndexStatistics;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.config.HugeConfig;
@@ -124,6 +132,7 @@ public class StandardHugeGraph implements HugeGraph {
 
     private final BackendStoreProvider storeProvider;
     private final TinkerpopTransaction tx;
+    private final AsyncIndexQueue asyncIndexQueue;
 
     public StandardHugeGraph(HugeConfig configuration) {
         this.params = new StandardHugeGraphParams();
@@ -157,6 +166,7 @@ public class StandardHugeGraph implements HugeGraph {
         }
 
         this.tx = new TinkerpopTransaction(this);
+        this.asyncIndexQueue = new AsyncIndexQueue(this.params);
 
         SnowflakeIdGenerator.init(this.params);
 
@@ -203,6 +213,9 @@ public class StandardHugeGraph implements HugeGraph {
         LOG.info("Restoring incomplete tasks for graph '{}'...", this.name);
         this.taskScheduler().restoreTasks();
 
+        LOG.info("Applying queued async indexes for graph '{}'...", this.name);
+        this.asyncIndexQueue.open();
+
         this.started = true;
     }
 
@@ -267,6 +280,8 @@ public class StandardHugeGraph implements HugeGraph {
         LockUtil.lock(this.name, LockUtil.GRAPH_LOCK);
         try {
             this.storeProvider.clear();
+            this.asyncIndexQueue.clear();
+            IndexStatistics.of(this.name).clear();
         } finally {
             LockUtil.unlock(this.name, LockUtil.GRAPH_LOCK);
             this.loadGraphStore().close();
@@ -284,6 +299,8 @@ public class StandardHugeGraph implements HugeGraph {
         LockUtil.lock(this.name, LockUtil.GRAPH_LOCK);
         try {
             this.storeProvider.truncate();
+            this.asyncIndexQueue.clear();
+            IndexStatistics.of(this.name).clear();
             this.storeProvider.initSystemInfo(this);
             this.serverStarted(this.serverInfoManager().selfServerId(),
                                this.serverInfoManager().selfServerRole());
@@ -395,7 +412,16 @@ public class StandardHugeGraph implements HugeGraph {
         String mode = this.configuration.get(CoreOptions.TEXT_ANALYZER_MODE);
         LOG.debug("Loading text analyzer '{}' with mode '{}' for graph '{}'",
                   name, mode, this.name);
-        return AnalyzerFactory.analyzer(name, mode);
+        Analyzer analyzer = AnalyzerFactory.analyzer(name, mode);
+
+        long capacity = this.configuration.get(
+                        CoreOptions.TEXT_ANALYZER_CACHE_CAPACITY);
+        if (capacity <= 0L) {
+            return analyzer;
+        }
+        Cache<Id, Object> cache = CacheManager.instance().cache(
+                                  "analyzer-" + this.name, capacity);
+        return new CachedAnalyzer(analyzer, cache);
     }
 
     @Override
@@ -712,12 +738,17 @@ public class StandardHugeGraph implements HugeGraph {
         LOG.info("Close graph {}", this);
         this.userManager.close();
         this.taskManager.closeScheduler(this.params);
+        this.asyncIndexQueue.close();
         try {
             this.closeTx();
         } finally {
             this.closed = true;
             this.storeProvider.close();
             LockUtil.destroy(this.name);
+            DegreeCache.destroy(this.name);
+            RankCache.destroy(this.name);
+            QueryCache.destroy(this.name);
+            IndexStatistics.destroy(this.name);
         }
         // Make sure that all transactions are closed in all threads
         E.checkState(this.tx.closed(),
@@ -755,6 +786,16 @@ public class StandardHugeGraph implements HugeGraph {
         return this.graphTransaction().metadata(type, meta, args);
     }
 
+    @Override
+    public long asyncIndexSequence() {
+        return this.asyncIndexQueue.lastSequence();
+    }
+
+    @Override
+    public boolean waitAsyncIndex(long sequence, long timeout) {
+        return this.asyncIndexQueue.waitApplied(sequence, timeout);
+    }
+
     @Override
     public TaskScheduler taskScheduler() {
         TaskScheduler scheduler = this.taskManager.getScheduler(this.params);
@@ -945,6 +986,11 @@ public class StandardHugeGraph implements HugeGraph {
         public RateLimiter rateLimiter() {
             return StandardHugeGraph.this.rateLimiter;
         }
+
+        @Override
+        public AsyncIndexQueue asyncIndexQueue() {
+            return StandardHugeGraph.this.asyncIndexQueue;
+        }
     }
 
     private class TinkerpopTransaction extends AbstractThreadLocalTransaction {
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.analyzer;
+
+import java.util.Set;
+
+import com.baidu.hugegraph.backend.cache.Cache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.util.E;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The analyzer which caches the segmented words of short texts, like the
+ * hot texts of search queries, to avoid segmenting them repeatedly.
+ * The cache is shared by all the analyzers of a graph.
+ */
+public class CachedAnalyzer implements Analyzer {
+
+    // Don't cache the long texts like articles, they are rarely repeated
+    public static final int MAX_CACHED_TEXT_LENGTH = 256;
+
+    private final Analyzer analyzer;
+    private final Cache<Id, Object> cache;
+
+    public CachedAnalyzer(Analyzer analyzer, Cache<Id, Object> cache) {
+        E.checkNotNull(analyzer, "analyzer");
+        E.checkNotNull(cache, "cache");
+        this.analyzer = analyzer;
+        this.cache = cache;
+    }
+
+    public Analyzer analyzer() {
+        return this.analyzer;
+    }
+
+    /**
+     * Segment the text, NOTE: the returned words may be shared by callers
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<String> segment(String text) {
+        if (text == null || text.isEmpty() ||
+            text.length() > MAX_CACHED_TEXT_LENGTH) {
+            return this.analyzer.segment(text);
+        }
+        Id key = IdGenerator.of(text);
+        Set<String> words = (Set<String>) this.cache.get(key);
+        if (words == null) {
+            words = ImmutableSet.copyOf(this.analyzer.segment(text));
+            this.cache.update(key, words);
+        }
+        return words;
+    }
+}
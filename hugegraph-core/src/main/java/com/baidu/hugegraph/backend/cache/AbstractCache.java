@@ -26,6 +26,8 @@ import org.slf4j.Logger;
 
 import com.baidu.hugegraph.perf.PerfUtil.Watched;
 import com.baidu.hugegraph.util.Log;
+import com.baidu.hugegraph.util.QueryProfiler;
+import com.baidu.hugegraph.util.QueryProfiler.Item;
 
 public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
@@ -71,12 +73,14 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
         if (value == null) {
             ++this.miss;
+            QueryProfiler.record(Item.CACHE_MISS);
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Cache missed '{}' (miss={}, hits={})",
                           id, this.miss, this.hits);
             }
         } else {
             ++this.hits;
+            QueryProfiler.record(Item.CACHE_HIT);
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Cache cached '{}' (hits={}, miss={})",
                           id, this.hits, this.miss);
@@ -99,6 +103,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
         if (value == null) {
             ++this.miss;
+            QueryProfiler.record(Item.CACHE_MISS);
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Cache missed '{}' (miss={}, hits={})",
                           id, this.miss, this.hits);
@@ -108,6 +113,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
             this.update(id, value);
         } else {
             ++this.hits;
+            QueryProfiler.record(Item.CACHE_HIT);
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Cache cached '{}' (hits={}, miss={})",
                           id, this.hits, this.miss);
@@ -22,13 +22,20 @@ package com.baidu.hugegraph.backend.cache;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
 import com.baidu.hugegraph.HugeGraphParams;
 import com.baidu.hugegraph.backend.cache.CachedBackendStore.QueryId;
+import com.baidu.hugegraph.backend.id.EdgeId;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.page.IdHolder;
+import com.baidu.hugegraph.backend.page.IdHolder.BatchIdHolder;
+import com.baidu.hugegraph.backend.page.IdHolder.FixedIdHolder;
+import com.baidu.hugegraph.backend.page.IdHolderList;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.IdQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.query.QueryResults;
@@ -42,23 +49,30 @@ import com.baidu.hugegraph.event.EventListener;
 import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.iterator.ExtendableIterator;
 import com.baidu.hugegraph.iterator.ListIterator;
+import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
+import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.util.Events;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.google.common.collect.ImmutableSet;
 
 public final class CachedGraphTransaction extends GraphTransaction {
 
     private final static int MAX_CACHE_PROPS_PER_VERTEX = 10000;
     private final static int MAX_CACHE_EDGES_PER_QUERY = 100;
+    private final static int MAX_CACHE_IDS_PER_QUERY = 1000;
     private final static float DEFAULT_LEVEL_RATIO = 0.001f;
     private final static long AVG_VERTEX_ENTRY_SIZE = 40L;
     private final static long AVG_EDGE_ENTRY_SIZE = 100L;
 
     private final Cache<Id, Object> verticesCache;
     private final Cache<Id, Object> edgesCache;
+    private final DegreeCache degreeCache;
+    private final RankCache rankCache;
+    private final QueryCache queryCache;
 
     private EventListener storeEventListener;
     private EventListener cacheEventListener;
@@ -80,6 +94,18 @@ public final class CachedGraphTransaction extends GraphTransaction {
         this.edgesCache = this.cache("edge", type, capacity,
                                      AVG_EDGE_ENTRY_SIZE, expire);
 
+        capacity = conf.get(CoreOptions.DEGREE_CACHE_CAPACITY);
+        this.degreeCache = DegreeCache.of(this.params().name(), capacity,
+                                          expire * 1000L);
+        capacity = conf.get(CoreOptions.RANK_CACHE_CAPACITY);
+        this.rankCache = RankCache.of(this.params().name(), capacity,
+                                      expire * 1000L);
+
+        capacity = conf.get(CoreOptions.QUERY_CACHE_CAPACITY);
+        expire = conf.get(CoreOptions.QUERY_CACHE_EXPIRE);
+        this.queryCache = QueryCache.of(this.params().name(), capacity,
+                                        expire * 1000L);
+
         this.listenChanges();
     }
 
@@ -123,8 +149,7 @@ public final class CachedGraphTransaction extends GraphTransaction {
             if (storeEvents.contains(event.name())) {
                 LOG.debug("Graph {} clear graph cache on event '{}'",
                           this.graph(), event.name());
-                this.verticesCache.clear();
-                this.edgesCache.clear();
+                this.clearCache();
                 return true;
             }
             return false;
@@ -143,6 +168,11 @@ public final class CachedGraphTransaction extends GraphTransaction {
                 if (type.isVertex()) {
                     // Invalidate vertex cache
                     this.verticesCache.invalidate(id);
+                    this.degreeCache.invalidate(id);
+                    this.rankCache.vertexChanged(id);
+                    // The label of the vertex is unknown
+                    this.queryCache.labelsChanged(HugeType.VERTEX);
+                    this.queryCache.labelsChanged(HugeType.EDGE);
                 } else if (type.isEdge()) {
                     /*
                      * Invalidate edge cache via clear instead of invalidate
@@ -150,11 +180,23 @@ public final class CachedGraphTransaction extends GraphTransaction {
                      */
                     // this.edgesCache.invalidate(id);
                     this.edgesCache.clear();
+                    this.queryCache.labelsChanged(HugeType.EDGE);
+                    if (id instanceof EdgeId) {
+                        // Invalidate the statistics of both vertices
+                        Id owner = ((EdgeId) id).ownerVertexId();
+                        Id other = ((EdgeId) id).otherVertexId();
+                        this.degreeCache.invalidate(owner);
+                        this.degreeCache.invalidate(other);
+                        this.rankCache.verticesChanged(ImmutableSet.of(
+                                                       owner, other));
+                    } else {
+                        this.degreeCache.clear();
+                        this.rankCache.clear();
+                    }
                 }
                 return true;
             } else if ("clear".equals(args[0])) {
-                this.verticesCache.clear();
-                this.edgesCache.clear();
+                this.clearCache();
                 return true;
             }
             return false;
@@ -165,6 +207,14 @@ public final class CachedGraphTransaction extends GraphTransaction {
         }
     }
 
+    private void clearCache() {
+        this.verticesCache.clear();
+        this.edgesCache.clear();
+        this.degreeCache.clear();
+        this.rankCache.clear();
+        this.queryCache.clear();
+    }
+
     private void unlistenChanges() {
         // Unlisten store event
         this.store().provider().unlisten(this.storeEventListener);
@@ -272,15 +322,105 @@ public final class CachedGraphTransaction extends GraphTransaction {
         return new ExtendableIterator<>(edges.iterator(), rs);
     }
 
+    @Override
+    protected final IdHolderList indexQuery(ConditionQuery query) {
+        if (!this.queryCache.enabled() || query.paging() ||
+            this.indexTransaction().hasUpdate()) {
+            return super.indexQuery(query);
+        }
+
+        HugeType type = query.resultType();
+        Id label = QueryCache.label(query);
+        Id cacheKey = QueryCache.key(query);
+        QueryCache.Entry entry = this.queryCache.get(cacheKey);
+        if (entry != null) {
+            query.optimized(entry.optimized());
+            IdHolderList holders = new IdHolderList(false);
+            for (Id[] ids : entry.ids()) {
+                Set<Id> idSet = InsertionOrderUtil.newSet();
+                Collections.addAll(idSet, ids);
+                holders.add(new FixedIdHolder(query.copy(), idSet));
+            }
+            return holders;
+        }
+
+        // The epoch must be got before querying the index
+        long epoch = this.queryCache.epoch(type, label);
+        IdHolderList holders = super.indexQuery(query);
+
+        /*
+         * Try to peek all ids of the results and determine whether to cache,
+         * the peeked ids are still kept by the holders to be iterated.
+         */
+        List<Id[]> results = new ArrayList<>(holders.size());
+        int size = 0;
+        for (IdHolder holder : holders) {
+            Set<Id> ids;
+            if (holder instanceof FixedIdHolder) {
+                ids = holder.all();
+            } else if (holder instanceof BatchIdHolder) {
+                ids = ((BatchIdHolder) holder).peekAll(
+                      MAX_CACHE_IDS_PER_QUERY - size, query.total());
+            } else {
+                ids = null;
+            }
+            if (ids == null) {
+                return holders;
+            }
+            size += ids.size();
+            if (size > MAX_CACHE_IDS_PER_QUERY) {
+                return holders;
+            }
+            results.add(ids.toArray(new Id[0]));
+        }
+        this.queryCache.update(cacheKey, new QueryCache.Entry(
+                               type, label, epoch, query.optimized(), results));
+        return holders;
+    }
+
     @Override
     protected final void commitMutation2Backend(BackendMutation... mutations) {
         // Collect changes before commit
         Collection<HugeVertex> changes = this.verticesInTxUpdated();
         Collection<HugeVertex> deletions = this.verticesInTxRemoved();
         int edgesInTxSize = this.edgesInTxSize();
+        // Collect edges of known super nodes only if any exists
+        boolean updateDegrees = edgesInTxSize > 0 &&
+                                !this.degreeCache.isEmpty();
+        boolean updateRanks = edgesInTxSize > 0 && this.rankCache.enabled();
+        Collection<HugeEdge> edgesAdded = null;
+        Collection<HugeEdge> edgesRemoved = null;
+        if (updateDegrees || updateRanks) {
+            edgesAdded = this.edgesInTxAdded();
+            edgesRemoved = this.edgesInTxRemoved();
+        }
+        // Collect labels of the changes to invalidate query results
+        Set<Id> vertexLabels = null;
+        Set<Id> edgeLabels = null;
+        if (this.queryCache.enabled()) {
+            vertexLabels = new HashSet<>();
+            for (HugeVertex vertex : changes) {
+                vertexLabels.add(vertex.schemaLabel().id());
+            }
+            for (HugeVertex vertex : deletions) {
+                vertexLabels.add(vertex.schemaLabel().id());
+            }
+            edgeLabels = edgesInTxSize > 0 ? this.edgesInTxLabels() :
+                                             ImmutableSet.of();
+        }
 
         try {
             super.commitMutation2Backend(mutations);
+            // Update degree statistics of super nodes
+            if (updateDegrees) {
+                edgesAdded.forEach(this.degreeCache::edgeAdded);
+                edgesRemoved.forEach(this.degreeCache::edgeRemoved);
+            }
+            // Invalidate rank vectors depending on the changed edges
+            if (updateRanks) {
+                this.rankCache.edgesChanged(edgesAdded);
+                this.rankCache.edgesChanged(edgesRemoved);
+            }
             // Update vertex cache
             for (HugeVertex vertex : changes) {
                 if (vertex.sizeOfSubProperties() > MAX_CACHE_PROPS_PER_VERTEX) {
@@ -294,6 +434,25 @@ public final class CachedGraphTransaction extends GraphTransaction {
             // Update removed vertex in cache whatever success or fail
             for (HugeVertex vertex : deletions) {
                 this.verticesCache.invalidate(vertex.id());
+                this.degreeCache.invalidate(vertex.id());
+            }
+            if (!deletions.isEmpty() && this.rankCache.enabled()) {
+                Set<Id> vertices = new HashSet<>();
+                deletions.forEach(vertex -> vertices.add(vertex.id()));
+                this.rankCache.verticesChanged(vertices);
+            }
+            // Invalidate index query results of the changed labels
+            if (vertexLabels != null) {
+                for (Id label : vertexLabels) {
+                    this.queryCache.labelChanged(HugeType.VERTEX, label);
+                }
+                for (Id label : edgeLabels) {
+                    this.queryCache.labelChanged(HugeType.EDGE, label);
+                }
+                if (!deletions.isEmpty()) {
+                    // The edges of removed vertices are removed too
+                    this.queryCache.labelsChanged(HugeType.EDGE);
+                }
             }
 
             // Update edge cache if any edges change
@@ -304,6 +463,26 @@ public final class CachedGraphTransaction extends GraphTransaction {
         }
     }
 
+    @Override
+    public final void removeVertices(VertexLabel vertexLabel) {
+        try {
+            super.removeVertices(vertexLabel);
+        } finally {
+            // The vertices are removed by id without updating cache
+            this.clearCache();
+        }
+    }
+
+    @Override
+    public final void removeEdges(EdgeLabel edgeLabel) {
+        try {
+            super.removeEdges(edgeLabel);
+        } finally {
+            // The edges are removed by id without updating cache
+            this.clearCache();
+        }
+    }
+
     @Override
     public final void removeIndex(IndexLabel indexLabel) {
         try {
@@ -314,6 +493,10 @@ public final class CachedGraphTransaction extends GraphTransaction {
                 // TODO: Use a more precise strategy to update the edge cache
                 this.edgesCache.clear();
             }
+            // The index query results may depend on the removed index
+            this.queryCache.labelsChanged(indexLabel.baseType() ==
+                                          HugeType.EDGE_LABEL ?
+                                          HugeType.EDGE : HugeType.VERTEX);
         }
     }
 }
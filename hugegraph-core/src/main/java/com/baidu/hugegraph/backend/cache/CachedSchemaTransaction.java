@@ -20,6 +20,7 @@
 package com.baidu.hugegraph.backend.cache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,18 +44,23 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
 
     private final Cache<Id, Object> idCache;
     private final Cache<Id, Object> nameCache;
+    private final SchemaCaches arrayCache;
 
     private EventListener storeEventListener;
     private EventListener cacheEventListener;
 
     private static final Map<String, CachedTypes> CACHED_TYPES =
                                                   new ConcurrentHashMap<>();
+    private static final Map<String, SchemaCaches> ARRAY_CACHES =
+                                                   new ConcurrentHashMap<>();
 
     public CachedSchemaTransaction(HugeGraphParams graph, BackendStore store) {
         super(graph, store);
 
         this.idCache = this.cache("schema-id");
         this.nameCache = this.cache("schema-name");
+        this.arrayCache = ARRAY_CACHES.computeIfAbsent(this.graphName(),
+                                                       g -> new SchemaCaches());
 
         this.listenChanges();
     }
@@ -111,6 +117,7 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
             if ("invalid".equals(args[0])) {
                 HugeType type = (HugeType) args[1];
                 Id id = (Id) args[2];
+                this.arrayCache.invalidate(type, id);
                 id = generateId(type, id);
                 Object value = this.idCache.get(id);
                 if (value != null) {
@@ -139,6 +146,7 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
     private void clearCache() {
         this.idCache.clear();
         this.nameCache.clear();
+        this.arrayCache.clear();
         this.cachedTypes().clear();
     }
 
@@ -180,13 +188,21 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
 
         Id prefixedName = generateId(schema.type(), schema.name());
         this.nameCache.update(prefixedName, schema);
+
+        this.arrayCache.update(schema);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     protected <T extends SchemaElement> T getSchema(HugeType type, Id id) {
+        // Lookup the array cache first which is free of lock and allocation
+        Object value = this.arrayCache.get(type, id);
+        if (value != null) {
+            return (T) value;
+        }
+
         Id prefixedId = generateId(type, id);
-        Object value = this.idCache.get(prefixedId);
+        value = this.idCache.get(prefixedId);
         if (value == null) {
             value = super.getSchema(type, id);
             if (value != null) {
@@ -199,6 +215,9 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
                 this.nameCache.update(prefixedName, schema);
             }
         }
+        if (value != null) {
+            this.arrayCache.update((SchemaElement) value);
+        }
         return (T) value;
     }
 
@@ -227,6 +246,8 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
     protected void removeSchema(SchemaElement schema) {
         super.removeSchema(schema);
 
+        this.arrayCache.invalidate(schema.type(), schema.id());
+
         Id prefixedId = generateId(schema.type(), schema.id());
         Object value = this.idCache.get(prefixedId);
         if (value != null) {
@@ -275,4 +296,92 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
 
         private static final long serialVersionUID = -2215549791679355996L;
     }
+
+    /**
+     * The snapshot of property keys, vertex labels, edge labels and index
+     * labels in arrays indexed by schema id, which is copied on write and
+     * published atomically, so that the hot lookups by id (like decoding
+     * edges) are free of lock and allocation.
+     * The schema with an id out of the arrays is only cached by idCache.
+     */
+    private static final class SchemaCaches {
+
+        private static final int MAX_CACHED_ID = 1 << 16;
+        private static final SchemaElement[][] EMPTY = new SchemaElement[4][0];
+
+        private volatile SchemaElement[][] snapshot;
+
+        public SchemaCaches() {
+            this.snapshot = EMPTY;
+        }
+
+        public SchemaElement get(HugeType type, Id id) {
+            int index = typeIndex(type);
+            if (index < 0 || !id.number()) {
+                return null;
+            }
+            long schemaId = id.asLong();
+            SchemaElement[] schemas = this.snapshot[index];
+            if (schemaId < 0L || schemaId >= schemas.length) {
+                return null;
+            }
+            return schemas[(int) schemaId];
+        }
+
+        public void update(SchemaElement schema) {
+            this.set(schema.type(), schema.id(), schema);
+        }
+
+        public void invalidate(HugeType type, Id id) {
+            this.set(type, id, null);
+        }
+
+        public synchronized void clear() {
+            this.snapshot = EMPTY;
+        }
+
+        private synchronized void set(HugeType type, Id id,
+                                      SchemaElement schema) {
+            int index = typeIndex(type);
+            if (index < 0 || !id.number()) {
+                return;
+            }
+            long schemaId = id.asLong();
+            if (schemaId < 0L || schemaId >= MAX_CACHED_ID) {
+                return;
+            }
+            SchemaElement[][] snapshot = this.snapshot.clone();
+            SchemaElement[] schemas = snapshot[index];
+            if (schemaId >= schemas.length) {
+                if (schema == null) {
+                    return;
+                }
+                int size = Math.max((int) schemaId + 1, schemas.length * 2);
+                schemas = Arrays.copyOf(schemas, Math.min(size,
+                                                          MAX_CACHED_ID));
+            } else if (schemas[(int) schemaId] == schema) {
+                return;
+            } else {
+                schemas = schemas.clone();
+            }
+            schemas[(int) schemaId] = schema;
+            snapshot[index] = schemas;
+            this.snapshot = snapshot;
+        }
+
+        private static int typeIndex(HugeType type) {
+            switch (type) {
+                case PROPERTY_KEY:
+                    return 0;
+                case VERTEX_LABEL:
+                    return 1;
+                case EDGE_LABEL:
+                    return 2;
+                case INDEX_LABEL:
+                    return 3;
+                default:
+                    return -1;
+            }
+        }
+    }
 }
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.baidu.hugegraph.backend.id.EdgeId;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.type.define.Directions;
+
+/**
+ * The degree statistics of super nodes (the vertices with huge degree) of a
+ * graph, it records the lower bound of degree of a vertex by direction and
+ * edge label. The statistics of a vertex is learned when a traverser found
+ * it's a super node by scanning its edges, then it's maintained
+ * incrementally when committing edges of the vertex, so that traversers
+ * could skip a known super node without scanning its edges again.
+ *
+ * NOTE: the statistics is approximate since it's local to current process
+ * and may be expired, so it can only be used as a hint.
+ */
+public final class DegreeCache {
+
+    private static final String PREFIX = "degree-";
+
+    // The key of degree statistics of all edge labels
+    private static final Id ALL_LABELS = IdGenerator.ZERO;
+
+    private static final Map<String, DegreeCache> CACHES =
+                         new ConcurrentHashMap<>();
+
+    private final Cache<Id, Degrees> cache;
+
+    private DegreeCache(Cache<Id, Degrees> cache) {
+        this.cache = cache;
+    }
+
+    public static DegreeCache of(String graph, long capacity, long expire) {
+        DegreeCache degreeCache = CACHES.computeIfAbsent(graph, name -> {
+            return new DegreeCache(CacheManager.instance()
+                                               .cache(PREFIX + name,
+                                                      capacity));
+        });
+        degreeCache.cache.expire(expire);
+        return degreeCache;
+    }
+
+    public static void destroy(String graph) {
+        DegreeCache degreeCache = CACHES.remove(graph);
+        if (degreeCache != null) {
+            degreeCache.clear();
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.cache.size() == 0L;
+    }
+
+    /**
+     * Get the known lower bound of degree of a vertex
+     * @return the lower bound of degree, or 0 if it's unknown
+     */
+    public long degree(Id vertex, Directions dir, Id[] labels) {
+        if (this.isEmpty()) {
+            return 0L;
+        }
+        Degrees degrees = (Degrees) this.cache.get(vertex);
+        if (degrees == null) {
+            return 0L;
+        }
+        if (labels == null || labels.length == 0) {
+            return degrees.get(ALL_LABELS, dir);
+        }
+        long degree = 0L;
+        for (Id label : labels) {
+            degree += degrees.get(label, dir);
+        }
+        return degree;
+    }
+
+    /**
+     * Record the degree of a vertex observed by scanning its edges
+     */
+    public void observe(Id vertex, Directions dir, Id[] labels, long degree) {
+        Id label;
+        if (labels == null || labels.length == 0) {
+            label = ALL_LABELS;
+        } else if (labels.length == 1) {
+            label = labels[0];
+        } else {
+            // Can't split the degree into multiple labels
+            return;
+        }
+        Degrees degrees = (Degrees) this.cache.get(vertex);
+        if (degrees == null) {
+            degrees = new Degrees();
+            this.cache.update(vertex, degrees);
+        }
+        degrees.observe(label, dir, degree);
+    }
+
+    public void edgeAdded(HugeEdge edge) {
+        this.updateEdge(edge, 1L);
+    }
+
+    public void edgeRemoved(HugeEdge edge) {
+        this.updateEdge(edge, -1L);
+    }
+
+    public void invalidate(Id vertex) {
+        this.cache.invalidate(vertex);
+    }
+
+    public void clear() {
+        this.cache.clear();
+    }
+
+    private void updateEdge(HugeEdge edge, long delta) {
+        EdgeId id = edge.id();
+        Id label = id.edgeLabelId();
+        // Only update the known super nodes
+        Degrees degrees = (Degrees) this.cache.get(id.ownerVertexId());
+        if (degrees != null) {
+            degrees.update(label, id.direction(), delta);
+        }
+        degrees = (Degrees) this.cache.get(id.otherVertexId());
+        if (degrees != null) {
+            degrees.update(label, id.direction().opposite(), delta);
+        }
+    }
+
+    private static class Degrees {
+
+        private static final int OUT = 0;
+        private static final int IN = 1;
+        private static final int BOTH = 2;
+
+        // Map from edge label to degrees of [OUT, IN, BOTH]
+        private final Map<Id, long[]> degrees;
+
+        public Degrees() {
+            this.degrees = new HashMap<>();
+        }
+
+        public synchronized long get(Id label, Directions dir) {
+            long[] values = this.degrees.get(label);
+            if (values == null) {
+                return 0L;
+            }
+            switch (dir) {
+                case OUT:
+                    return values[OUT];
+                case IN:
+                    return values[IN];
+                case BOTH:
+                    return Math.max(values[BOTH], values[OUT] + values[IN]);
+                default:
+                    throw new AssertionError("Unsupported direction: " + dir);
+            }
+        }
+
+        public synchronized void observe(Id label, Directions dir,
+                                         long degree) {
+            long[] values = this.values(label);
+            int index = index(dir);
+            values[index] = Math.max(values[index], degree);
+        }
+
+        public synchronized void update(Id label, Directions dir, long delta) {
+            assert dir == Directions.OUT || dir == Directions.IN;
+            int index = index(dir);
+            for (Id key : new Id[]{label, ALL_LABELS}) {
+                long[] values = this.degrees.get(key);
+                if (values == null) {
+                    continue;
+                }
+                values[index] = Math.max(values[index] + delta, 0L);
+                values[BOTH] = Math.max(values[BOTH] + delta, 0L);
+            }
+        }
+
+        private long[] values(Id label) {
+            long[] values = this.degrees.get(label);
+            if (values == null) {
+                values = new long[3];
+                this.degrees.put(label, values);
+            }
+            return values;
+        }
+
+        private static int index(Directions dir) {
+            switch (dir) {
+                case OUT:
+                    return OUT;
+                case IN:
+                    return IN;
+                case BOTH:
+                    return BOTH;
+                default:
+                    throw new AssertionError("Unsupported direction: " + dir);
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.query.Condition;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.query.ConditionQuery.OptimizedType;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * The cache of index query results, which keeps the ids found by the index
+ * of the repeated queries, like the hot queries of an online service.
+ *
+ * Each vertex label and edge label has a write epoch, which increases when
+ * any vertex or edge of the label is changed. A result is cached with the
+ * epoch of the label it queried (or the epoch of all the labels of the type
+ * if it didn't query by label), and it will be ignored once the epoch is
+ * changed, so a result computed concurrently with changes won't be used.
+ *
+ * NOTE: the results of traversers like kneighbor and count are not cached,
+ * they depend on the edges of every vertex passed, which can't be tracked
+ * by the label epochs, and the edges queried by them are cached by the edge
+ * cache already.
+ */
+public final class QueryCache {
+
+    private static final String PREFIX = "query-";
+
+    private static final Map<String, QueryCache> CACHES =
+                         new ConcurrentHashMap<>();
+
+    // Used if the graph doesn't cache query results
+    private static final QueryCache DISABLED = new QueryCache(new RamCache(0L));
+
+    private final Cache<Id, Object> cache;
+    private final LabelEpochs vertexEpochs;
+    private final LabelEpochs edgeEpochs;
+
+    private QueryCache(Cache<Id, Object> cache) {
+        this.cache = cache;
+        this.vertexEpochs = new LabelEpochs();
+        this.edgeEpochs = new LabelEpochs();
+    }
+
+    public static QueryCache of(String graph) {
+        QueryCache queryCache = CACHES.get(graph);
+        return queryCache != null ? queryCache : DISABLED;
+    }
+
+    public static QueryCache of(String graph, long capacity, long expire) {
+        QueryCache queryCache = CACHES.computeIfAbsent(graph, name -> {
+            return new QueryCache(CacheManager.instance()
+                                              .cache(PREFIX + name, capacity));
+        });
+        if (expire > 0L) {
+            queryCache.cache.expire(expire);
+        }
+        return queryCache;
+    }
+
+    public static void destroy(String graph) {
+        QueryCache queryCache = CACHES.remove(graph);
+        if (queryCache != null) {
+            queryCache.clear();
+        }
+    }
+
+    /**
+     * Build the cache key of a query, the conditions are sorted so that the
+     * queries with the same conditions in different order share a result
+     */
+    public static Id key(ConditionQuery query) {
+        List<String> conditions = new ArrayList<>();
+        for (Condition condition : query.conditions()) {
+            conditions.add(condition.toString());
+        }
+        Collections.sort(conditions);
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(query.resultType()).append(conditions)
+          .append(" offset ").append(query.offset())
+          .append(" limit ").append(query.limit());
+        if (query.showHidden()) {
+            sb.append(" hidden");
+        }
+        if (query.showDeleting()) {
+            sb.append(" deleting");
+        }
+        if (query.showExpired()) {
+            sb.append(" expired");
+        }
+        return IdGenerator.of(sb.toString());
+    }
+
+    /**
+     * Get the label a query depends on
+     * @return null if not query by label
+     */
+    public static Id label(ConditionQuery query) {
+        Object label = query.condition(HugeKeys.LABEL);
+        return label instanceof Id ? (Id) label : null;
+    }
+
+    public boolean enabled() {
+        return this.cache.capacity() > 0L;
+    }
+
+    public boolean isEmpty() {
+        return this.cache.size() == 0L;
+    }
+
+    /**
+     * Get the current epoch of a label, it must be got before computing
+     * the result to be cached
+     * @param label null means any label of the type
+     */
+    public long epoch(HugeType type, Id label) {
+        return this.epochs(type).epoch(label);
+    }
+
+    /**
+     * Get a cached result
+     * @return null if not cached or the label changed since it's computed
+     */
+    public Entry get(Id key) {
+        Entry entry = (Entry) this.cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.epoch != this.epoch(entry.type, entry.label)) {
+            this.cache.invalidate(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Cache a result if the label didn't change since it started
+     * @return true if cached
+     */
+    public boolean update(Id key, Entry entry) {
+        if (entry.epoch != this.epoch(entry.type, entry.label)) {
+            return false;
+        }
+        this.cache.update(key, entry);
+        return true;
+    }
+
+    public void labelChanged(HugeType type, Id label) {
+        this.epochs(type).labelChanged(label);
+    }
+
+    public void labelsChanged(HugeType type) {
+        this.epochs(type).labelsChanged();
+    }
+
+    public void clear() {
+        this.vertexEpochs.labelsChanged();
+        this.edgeEpochs.labelsChanged();
+        this.cache.clear();
+    }
+
+    private LabelEpochs epochs(HugeType type) {
+        if (type.isVertex()) {
+            return this.vertexEpochs;
+        }
+        E.checkArgument(type.isEdge(),
+                        "Expect vertex or edge type, but got '%s'", type);
+        return this.edgeEpochs;
+    }
+
+    /**
+     * A cached index query result, it must not be changed after being cached
+     */
+    public static final class Entry {
+
+        private final HugeType type;
+        private final Id label;
+        private final long epoch;
+        private final OptimizedType optimized;
+        // The ids found by each index, in the order of index results
+        private final List<Id[]> ids;
+
+        public Entry(HugeType type, Id label, long epoch,
+                     OptimizedType optimized, List<Id[]> ids) {
+            E.checkNotNull(ids, "ids");
+            this.type = type;
+            this.label = label;
+            this.epoch = epoch;
+            this.optimized = optimized;
+            this.ids = ids;
+        }
+
+        public OptimizedType optimized() {
+            return this.optimized;
+        }
+
+        public List<Id[]> ids() {
+            return Collections.unmodifiableList(this.ids);
+        }
+    }
+
+    private static final class LabelEpochs {
+
+        // Increase when all the labels changed, like deleting vertices
+        private final AtomicLong all;
+        // Increase when any label changed, for the queries without label
+        private final AtomicLong any;
+        private final Map<Id, AtomicLong> labels;
+
+        public LabelEpochs() {
+            this.all = new AtomicLong(0L);
+            this.any = new AtomicLong(0L);
+            this.labels = new ConcurrentHashMap<>();
+        }
+
+        /*
+         * NOTE: all the counters only increase, so the sum of them changes
+         * if any of them changed
+         */
+        public long epoch(Id label) {
+            AtomicLong counter = label == null ? this.any :
+                                 this.labels.computeIfAbsent(label, l -> {
+                                     return new AtomicLong(0L);
+                                 });
+            return this.all.get() + counter.get();
+        }
+
+        public void labelChanged(Id label) {
+            // No result depends on the label if it's not queried yet
+            AtomicLong counter = this.labels.get(label);
+            if (counter != null) {
+                counter.incrementAndGet();
+            }
+            this.any.incrementAndGet();
+        }
+
+        public void labelsChanged() {
+            this.all.incrementAndGet();
+        }
+    }
+}
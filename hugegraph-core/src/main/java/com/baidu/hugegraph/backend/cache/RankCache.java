@@ -0,0 +1,233 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.baidu.hugegraph.backend.id.EdgeId;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The cache of rank vectors computed by rank traversers (like personal
+ * rank) for each source vertex, so that the following requests of a hot
+ * source could be answered or resumed from the cached vector.
+ *
+ * A rank vector only depends on the adjacent edges of the vertices it has
+ * walked through, so it will be invalidated once any edge of these vertices
+ * is added or removed. And a vector computed concurrently with any edge
+ * changes won't be cached since it may miss the invalidation.
+ *
+ * The keys of the cached vectors are indexed by the vertices they depend on,
+ * and the index is rebuilt from the live vectors once the keys of evicted
+ * vectors pile up in it.
+ */
+public final class RankCache {
+
+    private static final String PREFIX = "rank-";
+
+    private static final Map<String, RankCache> CACHES =
+                         new ConcurrentHashMap<>();
+
+    // Used if the graph doesn't cache rank vectors
+    private static final RankCache DISABLED = new RankCache(new RamCache(0L));
+
+    private static final long MIN_REBUILD_INDEXED = 100000L;
+
+    private final Cache<Id, Object> cache;
+    // Increase when any edge changes, to detect concurrent changes
+    private final AtomicLong epoch;
+    // The keys of the vectors which depend on each vertex
+    private volatile Map<Id, Set<Id>> keys;
+    // The (vertex, key) pairs indexed since the last rebuilding
+    private final AtomicLong indexed;
+    private volatile long rebuildIndexed;
+    // Write lock is only used to rebuild the index
+    private final ReadWriteLock indexLock;
+
+    private RankCache(Cache<Id, Object> cache) {
+        this.cache = cache;
+        this.epoch = new AtomicLong(0L);
+        this.keys = new ConcurrentHashMap<>();
+        this.indexed = new AtomicLong(0L);
+        this.rebuildIndexed = MIN_REBUILD_INDEXED;
+        this.indexLock = new ReentrantReadWriteLock();
+    }
+
+    public static RankCache of(String graph) {
+        RankCache rankCache = CACHES.get(graph);
+        return rankCache != null ? rankCache : DISABLED;
+    }
+
+    public static RankCache of(String graph, long capacity, long expire) {
+        RankCache rankCache = CACHES.computeIfAbsent(graph, name -> {
+            return new RankCache(CacheManager.instance()
+                                             .cache(PREFIX + name, capacity));
+        });
+        if (expire > 0L) {
+            rankCache.cache.expire(expire);
+        }
+        return rankCache;
+    }
+
+    public static void destroy(String graph) {
+        RankCache rankCache = CACHES.remove(graph);
+        if (rankCache != null) {
+            rankCache.clear();
+        }
+    }
+
+    public boolean enabled() {
+        return this.cache.capacity() > 0L;
+    }
+
+    public boolean isEmpty() {
+        return this.cache.size() == 0L;
+    }
+
+    public long epoch() {
+        return this.epoch.get();
+    }
+
+    public Entry get(Id key) {
+        return (Entry) this.cache.get(key);
+    }
+
+    /**
+     * Cache a rank vector if no edge changed since it started at `epoch`
+     * @return true if cached
+     */
+    public boolean update(Entry entry, long epoch) {
+        if (epoch != this.epoch.get()) {
+            return false;
+        }
+        if (this.indexed.get() > this.rebuildIndexed) {
+            this.rebuildIndex();
+        }
+        this.indexLock.readLock().lock();
+        try {
+            // Index before caching, to never miss the invalidation
+            this.index(this.keys, entry);
+            this.cache.update(entry.key(), entry);
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+        if (epoch != this.epoch.get()) {
+            // Edges changed during updating, it may miss the invalidation
+            this.cache.invalidate(entry.key());
+            return false;
+        }
+        return true;
+    }
+
+    public void edgesChanged(Collection<HugeEdge> edges) {
+        Set<Id> vertices = new HashSet<>();
+        for (HugeEdge edge : edges) {
+            EdgeId id = edge.id();
+            vertices.add(id.ownerVertexId());
+            vertices.add(id.otherVertexId());
+        }
+        this.verticesChanged(vertices);
+    }
+
+    public void vertexChanged(Id vertex) {
+        this.verticesChanged(ImmutableSet.of(vertex));
+    }
+
+    public void verticesChanged(Set<Id> vertices) {
+        this.epoch.incrementAndGet();
+        if (vertices.isEmpty() || this.isEmpty()) {
+            return;
+        }
+        this.indexLock.readLock().lock();
+        try {
+            for (Id vertex : vertices) {
+                Set<Id> keys = this.keys.remove(vertex);
+                if (keys == null) {
+                    continue;
+                }
+                for (Id key : keys) {
+                    this.cache.invalidate(key);
+                }
+            }
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        this.epoch.incrementAndGet();
+        this.indexLock.writeLock().lock();
+        try {
+            this.cache.clear();
+            this.keys = new ConcurrentHashMap<>();
+            this.indexed.set(0L);
+        } finally {
+            this.indexLock.writeLock().unlock();
+        }
+    }
+
+    private void index(Map<Id, Set<Id>> keys, Entry entry) {
+        long count = 0L;
+        for (Id vertex : entry.vertices()) {
+            keys.computeIfAbsent(vertex, v -> ConcurrentHashMap.newKeySet())
+                .add(entry.key());
+            count++;
+        }
+        this.indexed.addAndGet(count);
+    }
+
+    private void rebuildIndex() {
+        this.indexLock.writeLock().lock();
+        try {
+            if (this.indexed.get() <= this.rebuildIndexed) {
+                // Rebuilt by another thread
+                return;
+            }
+            Map<Id, Set<Id>> keys = new ConcurrentHashMap<>();
+            this.indexed.set(0L);
+            this.cache.traverse(value -> this.index(keys, (Entry) value));
+            this.keys = keys;
+            this.rebuildIndexed = Math.max(MIN_REBUILD_INDEXED,
+                                           2L * this.indexed.get());
+        } finally {
+            this.indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A cached rank vector, it must not be changed after being cached
+     */
+    public interface Entry {
+
+        public Id key();
+
+        // The vertices whose adjacent edges the entry depends on
+        public Iterable<Id> vertices();
+    }
+}
@@ -230,6 +230,28 @@ public abstract class IdHolder {
             return this.currentBatch;
         }
 
+        /**
+         * Peek all the remaining ids if there are no more than `maxSize`,
+         * no more ids than the `limit` of the query to be answered (and one
+         * more to check if there are more ids) are fetched
+         * @return null if there are more ids, the peeked ids are still kept
+         */
+        public Set<Id> peekAll(long maxSize, long limit) {
+            if (this.currentBatch == null) {
+                long size = maxSize;
+                if (limit != Query.NO_LIMIT && limit < size) {
+                    size = limit;
+                }
+                this.peekNext(size + 1L);
+            }
+            Set<Id> ids = this.currentBatch.ids();
+            if (ids.size() > maxSize ||
+                !this.exhausted && this.remaining() > 0L) {
+                return null;
+            }
+            return ids;
+        }
+
         private PageIds getFromCurrentBatch(long batchSize) {
             assert this.currentBatch != null;
             PageIds result = this.currentBatch;
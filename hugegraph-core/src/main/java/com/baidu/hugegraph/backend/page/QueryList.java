@@ -290,7 +290,8 @@ public final class QueryList<R> {
             Query parent = parent();
             assert parent instanceof ConditionQuery;
             OptimizedType optimized = ((ConditionQuery) parent).optimized();
-            if (optimized == OptimizedType.INDEX_FILTER) {
+            if (optimized == OptimizedType.INDEX_FILTER ||
+                optimized == OptimizedType.SCAN) {
                 return;
             }
             // Others sub-query may update parent offset, so copy to this query
@@ -24,6 +24,9 @@ import java.util.function.BiFunction;
 
 import org.apache.tinkerpop.gremlin.util.NumberHelper;
 
+import com.baidu.hugegraph.type.define.DataType;
+import com.baidu.hugegraph.util.E;
+
 public class Aggregate {
 
     private final AggregateFunc func;
@@ -54,6 +57,82 @@ public class Aggregate {
         return this.func.defaultValue();
     }
 
+    /**
+     * Reduce values of the aggregated column, the result is the same as
+     * gremlin reducing steps like sum() and max(), which is different from
+     * reduce() that merges results of sub-queries.
+     * @param values values of the aggregated column
+     * @param dataType data type of the aggregated column
+     * @return the reduced number, or null if no value exists for non-count,
+     *         the sum is of the data type unless it overflows the type
+     */
+    public Number reduceValues(Iterator<?> values, DataType dataType) {
+        boolean integral = dataType != DataType.FLOAT &&
+                           dataType != DataType.DOUBLE;
+        long count = 0L;
+        long longSum = 0L;
+        double doubleSum = 0D;
+        Number result = null;
+        while (values.hasNext()) {
+            Object value = values.next();
+            count++;
+            if (this.func == AggregateFunc.COUNT) {
+                continue;
+            }
+            E.checkArgument(value instanceof Number,
+                            "The value of %s must be number, but got '%s'",
+                            this, value);
+            Number number = (Number) value;
+            if (this.func == AggregateFunc.SUM ||
+                this.func == AggregateFunc.AVG) {
+                // Sum up with the widest type of the data type
+                if (integral) {
+                    longSum += number.longValue();
+                } else {
+                    doubleSum += number.doubleValue();
+                }
+            } else if (result == null) {
+                result = number;
+            } else {
+                result = this.func.merger.apply(result, number);
+            }
+        }
+
+        if (this.func == AggregateFunc.COUNT) {
+            return count;
+        }
+        if (count == 0L) {
+            return null;
+        }
+        if (this.func == AggregateFunc.SUM) {
+            return integral ? narrow(longSum, dataType) :
+                   narrow(doubleSum, dataType);
+        }
+        if (this.func == AggregateFunc.AVG) {
+            return (integral ? (double) longSum : doubleSum) / count;
+        }
+        return result;
+    }
+
+    private static Number narrow(long sum, DataType dataType) {
+        if (dataType == DataType.BYTE &&
+            sum >= Byte.MIN_VALUE && sum <= Byte.MAX_VALUE) {
+            return (byte) sum;
+        }
+        if (dataType == DataType.INT &&
+            sum >= Integer.MIN_VALUE && sum <= Integer.MAX_VALUE) {
+            return (int) sum;
+        }
+        return sum;
+    }
+
+    private static Number narrow(double sum, DataType dataType) {
+        if (dataType == DataType.FLOAT && Math.abs(sum) <= Float.MAX_VALUE) {
+            return (float) sum;
+        }
+        return sum;
+    }
+
     @Override
     public String toString() {
         return String.format("%s(%s)", this.func.string(),
@@ -35,6 +35,7 @@ import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.SplicingIdGenerator;
 import com.baidu.hugegraph.backend.query.Condition.Relation;
 import com.baidu.hugegraph.backend.query.Condition.RelationType;
+import com.baidu.hugegraph.backend.serializer.BinaryPropertyFilter;
 import com.baidu.hugegraph.structure.HugeElement;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.HugeKeys;
@@ -50,6 +51,8 @@ public final class ConditionQuery extends IdQuery {
 
     private OptimizedType optimizedType = OptimizedType.NONE;
     private Function<HugeElement, Boolean> resultsFilter = null;
+    // Userprop conditions evaluated by backend on serialized values
+    private BinaryPropertyFilter propertyFilter = null;
 
     public ConditionQuery(HugeType resultType) {
         super(resultType);
@@ -405,6 +408,16 @@ public final class ConditionQuery extends IdQuery {
         return query;
     }
 
+    @Override
+    public String toString() {
+        if (this.propertyFilter == null) {
+            return super.toString();
+        }
+        // The results of backend are filtered by the property filter
+        return String.format("%s filter by [%s]", super.toString(),
+                             this.propertyFilter);
+    }
+
     public ConditionQuery copyAndResetUnshared() {
         ConditionQuery query = this.copy();
         // These fields should not be shared by multiple sub-query
@@ -486,6 +499,14 @@ public final class ConditionQuery extends IdQuery {
         return this.optimizedType;
     }
 
+    public BinaryPropertyFilter propertyFilter() {
+        return this.propertyFilter;
+    }
+
+    public void propertyFilter(BinaryPropertyFilter filter) {
+        this.propertyFilter = filter;
+    }
+
     public void registerResultsFilter(Function<HugeElement, Boolean> filter) {
         assert this.resultsFilter == null;
         this.resultsFilter = filter;
@@ -518,6 +539,7 @@ public final class ConditionQuery extends IdQuery {
         PRIMARY_KEY,
         SORT_KEYS,
         INDEX,
-        INDEX_FILTER
+        INDEX_FILTER,
+        SCAN
     }
 }
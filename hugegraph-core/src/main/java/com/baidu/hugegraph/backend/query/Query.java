@@ -378,6 +378,10 @@ public class Query implements Cloneable {
         this.aggregate = new Aggregate(func, property);
     }
 
+    public void aggregate(Aggregate aggregate) {
+        this.aggregate = aggregate;
+    }
+
     public boolean showHidden() {
         return this.showHidden;
     }
@@ -20,6 +20,7 @@
 package com.baidu.hugegraph.backend.serializer;
 
 import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 import com.baidu.hugegraph.backend.page.PageState;
 import com.baidu.hugegraph.backend.query.Query;
@@ -32,11 +33,18 @@ public class BinaryEntryIterator<Elem> extends BackendEntryIterator {
 
     protected final BackendIterator<Elem> results;
     protected final BiFunction<BackendEntry, Elem, BackendEntry> merger;
+    protected final Predicate<Elem> filter;
 
     protected BackendEntry next;
 
     public BinaryEntryIterator(BackendIterator<Elem> results, Query query,
                                BiFunction<BackendEntry, Elem, BackendEntry> m) {
+        this(results, query, null, m);
+    }
+
+    public BinaryEntryIterator(BackendIterator<Elem> results, Query query,
+                               Predicate<Elem> filter,
+                               BiFunction<BackendEntry, Elem, BackendEntry> m) {
         super(query);
 
         E.checkNotNull(results, "results");
@@ -44,6 +52,7 @@ public class BinaryEntryIterator<Elem> extends BackendEntryIterator {
 
         this.results = results;
         this.merger = m;
+        this.filter = filter;
         this.next = null;
 
         this.skipOffset();
@@ -68,6 +77,10 @@ public class BinaryEntryIterator<Elem> extends BackendEntryIterator {
 
         while (this.results.hasNext()) {
             Elem elem = this.results.next();
+            if (this.filter != null && !this.filter.test(elem)) {
+                // Skip the element unmatched before creating entry
+                continue;
+            }
             BackendEntry merged = this.merger.apply(this.current, elem);
             E.checkState(merged != null, "Error when merging entry");
             if (this.current == null) {
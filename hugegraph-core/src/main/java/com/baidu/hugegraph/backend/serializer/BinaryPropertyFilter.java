@@ -0,0 +1,393 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.serializer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.query.Condition;
+import com.baidu.hugegraph.backend.query.Condition.Relation;
+import com.baidu.hugegraph.backend.query.Condition.RelationType;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.SchemaElement;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.Cardinality;
+import com.baidu.hugegraph.type.define.DataType;
+import com.baidu.hugegraph.util.StringEncoding;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.LongHashSet;
+
+/**
+ * The filter compiled from the userprop conditions of an edge query, which
+ * is evaluated on the edge values serialized by BinarySerializer, so that
+ * the backend store can skip unmatched edges before creating entries.
+ *
+ * NOTE: only the relations that can be evaluated exactly on the serialized
+ * values are compiled, it's just a necessary condition of the query and the
+ * results still need to be tested with the origin conditions.
+ */
+public final class BinaryPropertyFilter {
+
+    private final HugeGraph graph;
+    private final IntObjectHashMap<PropertyMatcher> matchers;
+    private final String conditions;
+
+    private BinaryPropertyFilter(HugeGraph graph,
+                                 IntObjectHashMap<PropertyMatcher> matchers,
+                                 String conditions) {
+        this.graph = graph;
+        this.matchers = matchers;
+        this.conditions = conditions;
+    }
+
+    /**
+     * Test the value of an edge column
+     * @return false if the edge doesn't match the conditions
+     */
+    public boolean test(byte[] value) {
+        BytesBuffer buffer = BytesBuffer.wrap(value);
+        int size = buffer.readVInt();
+        int matched = 0;
+        for (int i = 0; i < size; i++) {
+            int key = buffer.readVInt();
+            PropertyMatcher matcher = this.matchers.get(key);
+            if (matcher == null) {
+                Id pkeyId = IdGenerator.of(key);
+                buffer.skipProperty(this.graph.propertyKey(pkeyId));
+                continue;
+            }
+            if (!matcher.test(buffer)) {
+                return false;
+            }
+            if (++matched == this.matchers.size()) {
+                return true;
+            }
+        }
+        // Not matched if missing any property
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return this.conditions;
+    }
+
+    /**
+     * Get the filter of a backend query, the edge query is usually converted
+     * to an IdPrefixQuery or IdRangeQuery by serializer, so the filter is
+     * got from the nearest condition query of its origin queries
+     */
+    public static BinaryPropertyFilter of(Query query) {
+        if (!query.resultType().isEdge()) {
+            return null;
+        }
+        for (Query q = query; q != null; q = q.originQuery()) {
+            if (q instanceof ConditionQuery) {
+                return ((ConditionQuery) q).propertyFilter();
+            }
+        }
+        return null;
+    }
+
+    public static BinaryPropertyFilter compile(HugeGraph graph, HugeType type,
+                                               Collection<Condition> conds) {
+        if (!type.isEdge()) {
+            return null;
+        }
+        IntObjectHashMap<PropertyMatcher> matchers = new IntObjectHashMap<>();
+        StringBuilder compiled = new StringBuilder();
+        for (Condition condition : conds) {
+            compile(graph, condition, matchers, compiled);
+        }
+        if (matchers.isEmpty()) {
+            return null;
+        }
+        return new BinaryPropertyFilter(graph, matchers, compiled.toString());
+    }
+
+    private static void compile(HugeGraph graph, Condition condition,
+                                IntObjectHashMap<PropertyMatcher> matchers,
+                                StringBuilder compiled) {
+        if (condition instanceof Condition.And) {
+            Condition.And and = (Condition.And) condition;
+            compile(graph, and.left(), matchers, compiled);
+            compile(graph, and.right(), matchers, compiled);
+            return;
+        }
+        if (!condition.isRelation() || condition.isSysprop()) {
+            return;
+        }
+
+        Relation relation = (Relation) condition;
+        PropertyKey pkey = graph.propertyKey((Id) relation.key());
+        if (pkey.cardinality() != Cardinality.SINGLE) {
+            return;
+        }
+        int key = SchemaElement.schemaId(pkey.id());
+        PropertyMatcher matcher = matchers.get(key);
+        if (matcher == null) {
+            matcher = new PropertyMatcher(pkey.dataType());
+        }
+        if (matcher.and(relation.relation(), relation.value())) {
+            matchers.put(key, matcher);
+            if (compiled.length() > 0) {
+                compiled.append(", ");
+            }
+            compiled.append(relation);
+        }
+    }
+
+    private static final class PropertyMatcher {
+
+        private final DataType dataType;
+
+        private LongPredicate longPredicate;
+        private DoublePredicate doublePredicate;
+        private Predicate<byte[]> bytesPredicate;
+
+        public PropertyMatcher(DataType dataType) {
+            this.dataType = dataType;
+            this.longPredicate = null;
+            this.doublePredicate = null;
+            this.bytesPredicate = null;
+        }
+
+        public boolean test(BytesBuffer buffer) {
+            switch (this.dataType) {
+                case BOOLEAN:
+                case BYTE:
+                case INT:
+                    return this.longPredicate.test(buffer.readVInt());
+                case LONG:
+                case DATE:
+                    return this.longPredicate.test(buffer.readVLong());
+                case FLOAT:
+                    return this.doublePredicate.test(buffer.readFloat());
+                case DOUBLE:
+                    return this.doublePredicate.test(buffer.readDouble());
+                case TEXT:
+                    return this.bytesPredicate.test(buffer.readBytes());
+                default:
+                    throw new AssertionError(String.format(
+                              "Unsupported data type %s", this.dataType));
+            }
+        }
+
+        /**
+         * Add a relation to be matched
+         * @return false if the relation can't be compiled
+         */
+        public boolean and(RelationType relation, Object value) {
+            switch (this.dataType) {
+                case BOOLEAN:
+                case BYTE:
+                case INT:
+                case LONG:
+                case DATE:
+                    LongPredicate lp = this.longPredicate(relation, value);
+                    if (lp == null) {
+                        return false;
+                    }
+                    this.longPredicate = this.longPredicate == null ?
+                                         lp : this.longPredicate.and(lp);
+                    return true;
+                case FLOAT:
+                case DOUBLE:
+                    DoublePredicate dp = this.doublePredicate(relation, value);
+                    if (dp == null) {
+                        return false;
+                    }
+                    this.doublePredicate = this.doublePredicate == null ?
+                                           dp : this.doublePredicate.and(dp);
+                    return true;
+                case TEXT:
+                    Predicate<byte[]> bp = this.bytesPredicate(relation, value);
+                    if (bp == null) {
+                        return false;
+                    }
+                    this.bytesPredicate = this.bytesPredicate == null ?
+                                          bp : this.bytesPredicate.and(bp);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /*
+         * NOTE: the following predicates must be consistent with the
+         * semantics of RelationType: numbers of the same class are compared
+         * by compareTo(), integers of different classes are compared by
+         * value, and `in` relations are tested by equals().
+         */
+
+        private LongPredicate longPredicate(RelationType relation,
+                                            Object value) {
+            if (relation == RelationType.IN ||
+                relation == RelationType.NOT_IN) {
+                LongHashSet values = this.longValues(value);
+                if (values == null) {
+                    return null;
+                }
+                return relation == RelationType.IN ?
+                       values::contains : v -> !values.contains(v);
+            }
+
+            Long operand = this.longOperand(value);
+            if (operand == null) {
+                return null;
+            }
+            long op = operand;
+            if (this.dataType == DataType.BOOLEAN) {
+                // Booleans can only be tested by equals()
+                return relation == RelationType.EQ ? v -> v == op : null;
+            }
+            switch (relation) {
+                case EQ:
+                    return v -> v == op;
+                case NEQ:
+                    return v -> v != op;
+                case GT:
+                    return v -> v > op;
+                case GTE:
+                    return v -> v >= op;
+                case LT:
+                    return v -> v < op;
+                case LTE:
+                    return v -> v <= op;
+                default:
+                    return null;
+            }
+        }
+
+        private Long longOperand(Object value) {
+            if (value == null) {
+                return null;
+            }
+            switch (this.dataType) {
+                case BOOLEAN:
+                    if (value instanceof Boolean) {
+                        return (Boolean) value ? 1L : 0L;
+                    }
+                    return null;
+                case DATE:
+                    if (value.getClass() == Date.class) {
+                        return ((Date) value).getTime();
+                    }
+                    return null;
+                default:
+                    if (value instanceof Byte || value instanceof Short ||
+                        value instanceof Integer || value instanceof Long) {
+                        return ((Number) value).longValue();
+                    }
+                    return null;
+            }
+        }
+
+        private LongHashSet longValues(Object value) {
+            if (!(value instanceof Collection)) {
+                return null;
+            }
+            LongHashSet values = new LongHashSet();
+            for (Object v : (Collection<?>) value) {
+                // Only the values of the same class could be equal
+                if (v != null && v.getClass() == this.dataType.clazz()) {
+                    values.add(this.longOperand(v));
+                }
+            }
+            return values;
+        }
+
+        private DoublePredicate doublePredicate(RelationType relation,
+                                                Object value) {
+            if (relation == RelationType.IN ||
+                relation == RelationType.NOT_IN) {
+                if (!(value instanceof Collection)) {
+                    return null;
+                }
+                // Compare by bits like Float.equals() and Double.equals()
+                LongHashSet values = new LongHashSet();
+                for (Object v : (Collection<?>) value) {
+                    if (v != null && v.getClass() == this.dataType.clazz()) {
+                        double d = ((Number) v).doubleValue();
+                        values.add(Double.doubleToLongBits(d));
+                    }
+                }
+                if (relation == RelationType.IN) {
+                    return v -> values.contains(Double.doubleToLongBits(v));
+                }
+                return v -> !values.contains(Double.doubleToLongBits(v));
+            }
+
+            // Only compare with the number of the same class
+            if (value == null || value.getClass() != this.dataType.clazz()) {
+                return null;
+            }
+            double op = ((Number) value).doubleValue();
+            switch (relation) {
+                case EQ:
+                    return v -> Double.compare(v, op) == 0;
+                case NEQ:
+                    return v -> Double.compare(v, op) != 0;
+                case GT:
+                    return v -> Double.compare(v, op) > 0;
+                case GTE:
+                    return v -> Double.compare(v, op) >= 0;
+                case LT:
+                    return v -> Double.compare(v, op) < 0;
+                case LTE:
+                    return v -> Double.compare(v, op) <= 0;
+                default:
+                    return null;
+            }
+        }
+
+        private Predicate<byte[]> bytesPredicate(RelationType relation,
+                                                 Object value) {
+            if (relation == RelationType.EQ && value instanceof String) {
+                byte[] bytes = StringEncoding.encode((String) value);
+                return v -> Arrays.equals(v, bytes);
+            }
+            if ((relation == RelationType.IN ||
+                 relation == RelationType.NOT_IN) &&
+                value instanceof Collection) {
+                Set<String> values = new HashSet<>();
+                for (Object v : (Collection<?>) value) {
+                    if (v instanceof String) {
+                        values.add((String) v);
+                    }
+                }
+                boolean in = relation == RelationType.IN;
+                return v -> values.contains(StringEncoding.decode(v)) == in;
+            }
+            return null;
+        }
+    }
+}
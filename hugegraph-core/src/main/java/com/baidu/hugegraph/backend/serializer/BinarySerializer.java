@@ -207,12 +207,8 @@ public class BinarySerializer extends AbstractSerializer {
     }
 
     protected void parseProperties(BytesBuffer buffer, HugeElement owner) {
-        int size = buffer.readVInt();
-        assert size >= 0;
-        for (int i = 0; i < size; i++) {
-            Id pkeyId = IdGenerator.of(buffer.readVInt());
-            this.parseProperty(pkeyId, buffer, owner);
-        }
+        // Just skip the values here, they will be decoded on demand
+        owner.loadProperties(buffer, !owner.hasTtl());
     }
 
     protected void formatExpiredTime(long expiredTime, BytesBuffer buffer) {
@@ -497,6 +493,12 @@ public class BinarySerializer extends AbstractSerializer {
              * TODO: improve
              */
             entry = this.formatILDeletion(index);
+        } else if (index.elementIds().size() == 0) {
+            /*
+             * When elementIds size is 0, it is meaningful for deletion of
+             * index data by index label and field-values, like label index.
+             */
+            entry = this.formatIndexDeletion(index);
         } else {
             Id id = index.id();
             HugeType type = index.type();
@@ -781,6 +783,20 @@ public class BinarySerializer extends AbstractSerializer {
         return entry;
     }
 
+    private BinaryBackendEntry formatIndexDeletion(HugeIndex index) {
+        Id id = index.id();
+        HugeType type = index.type();
+        if (!type.isNumericIndex() && indexIdLengthExceedLimit(id)) {
+            id = index.hashId();
+        }
+        BinaryBackendEntry entry = newBackendEntry(type, id);
+        // The prefix of the index names with the index-id
+        BytesBuffer buffer = BytesBuffer.allocate(1 + id.length());
+        buffer.writeIndexId(id, type);
+        entry.column(buffer.bytes(), null);
+        return entry;
+    }
+
     private static BinaryId writeEdgeId(Id id) {
         EdgeId edgeId;
         if (id instanceof EdgeId) {
@@ -553,6 +553,23 @@ public final class BytesBuffer {
         return values;
     }
 
+    /**
+     * Skip a property value without deserializing it
+     */
+    public void skipProperty(PropertyKey pkey) {
+        if (pkey.cardinality() == Cardinality.SINGLE) {
+            this.skipProperty(pkey.dataType());
+            return;
+        }
+
+        assert pkey.cardinality() == Cardinality.LIST ||
+               pkey.cardinality() == Cardinality.SET;
+        int size = this.readVInt();
+        for (int i = 0; i < size; i++) {
+            this.skipProperty(pkey.dataType());
+        }
+    }
+
     public void writeProperty(DataType dataType, Object value) {
         switch (dataType) {
             case BOOLEAN:
@@ -623,6 +640,38 @@ public final class BytesBuffer {
         }
     }
 
+    public void skipProperty(DataType dataType) {
+        switch (dataType) {
+            case BOOLEAN:
+            case BYTE:
+            case INT:
+                this.readVInt();
+                break;
+            case FLOAT:
+                this.skip(Float.BYTES);
+                break;
+            case LONG:
+            case DATE:
+                this.readVLong();
+                break;
+            case DOUBLE:
+                this.skip(Double.BYTES);
+                break;
+            case UUID:
+                this.skip(Long.BYTES * 2);
+                break;
+            default:
+                // TEXT/BLOB/OBJECT are all written with a varint length
+                this.skip(this.readVInt());
+                break;
+        }
+    }
+
+    private void skip(int length) {
+        assert length >= 0;
+        this.buffer.position(this.buffer.position() + length);
+    }
+
     public BytesBuffer writeId(Id id) {
         return this.writeId(id, false);
     }
@@ -26,6 +26,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.query.ConditionQuery.OptimizedType;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.serializer.BytesBuffer;
 import com.baidu.hugegraph.type.HugeType;
@@ -91,8 +92,13 @@ public abstract class BackendTable<Session extends BackendSession, Entry> {
             if (!query.conditions().isEmpty() &&
                 query instanceof ConditionQuery) {
                 ConditionQuery cq = (ConditionQuery) query;
-                // Does query IN edges
-                if (cq.condition(HugeKeys.DIRECTION) == Directions.IN) {
+                /*
+                 * Does query IN edges, except the edges found by index, like
+                 * vertex-centric index, which are queried by OUT edge ids
+                 */
+                if (cq.condition(HugeKeys.DIRECTION) == Directions.IN &&
+                    cq.optimized() != OptimizedType.INDEX &&
+                    cq.optimized() != OptimizedType.INDEX_FILTER) {
                     type = HugeType.EDGE_IN;
                 }
             }
@@ -51,6 +51,8 @@ import com.baidu.hugegraph.util.Log;
  * 4.range query
  * 5.append/subtract index data(element-id) and vertex-property
  * 6.query edge by edge-label
+ * 7.query by page (the entries of each table are sorted by id)
+ * 8.scan by key range
  * InMemoryDBStore not support currently:
  * 1.remove by id + condition
  * 2.append/subtract edge-property
@@ -375,7 +377,7 @@ public abstract class InMemoryDBStore
 
         @Override
         public boolean supportsScanKeyRange() {
-            return false;
+            return true;
         }
 
         @Override
@@ -414,7 +416,7 @@ public abstract class InMemoryDBStore
 
         @Override
         public boolean supportsQueryByPage() {
-            return false;
+            return true;
         }
 
         @Override
@@ -20,17 +20,20 @@
 package com.baidu.hugegraph.backend.store.memory;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.page.PageState;
 import com.baidu.hugegraph.backend.query.Aggregate;
 import com.baidu.hugegraph.backend.query.Aggregate.AggregateFunc;
 import com.baidu.hugegraph.backend.query.Condition;
@@ -41,6 +44,7 @@ import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.query.QueryResults;
 import com.baidu.hugegraph.backend.serializer.TextBackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.BackendEntryIterator;
 import com.baidu.hugegraph.backend.store.BackendSession;
 import com.baidu.hugegraph.backend.store.BackendTable;
 import com.baidu.hugegraph.backend.store.Shard;
@@ -49,24 +53,20 @@ import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.baidu.hugegraph.util.Log;
+import com.baidu.hugegraph.util.StringEncoding;
 
 public class InMemoryDBTable extends BackendTable<BackendSession,
                                                   TextBackendEntry> {
 
     private static final Logger LOG = Log.logger(InMemoryDBTable.class);
 
-    protected final Map<Id, BackendEntry> store;
+    // Keep entries sorted by id to support range scan and paging
+    protected final NavigableMap<Id, BackendEntry> store;
     private final InMemoryShardSpliter shardSpliter;
 
     public InMemoryDBTable(HugeType type) {
         super(type.name());
-        this.store = new ConcurrentHashMap<>();
-        this.shardSpliter = new InMemoryShardSpliter(this.table());
-    }
-
-    public InMemoryDBTable(HugeType type, Map<Id, BackendEntry> store) {
-        super(type.name());
-        this.store = store;
+        this.store = new ConcurrentSkipListMap<>();
         this.shardSpliter = new InMemoryShardSpliter(this.table());
     }
 
@@ -80,7 +80,7 @@ public class InMemoryDBTable extends BackendTable<BackendSession,
         });
     }
 
-    protected Map<Id, BackendEntry> store() {
+    protected NavigableMap<Id, BackendEntry> store() {
         return this.store;
     }
 
@@ -150,11 +150,6 @@ public class InMemoryDBTable extends BackendTable<BackendSession,
 
     @Override
     public Iterator<BackendEntry> query(BackendSession session, Query query) {
-        String page = query.page();
-        if (page != null && !page.isEmpty()) {
-            throw new NotSupportException("paging by InMemoryDBStore");
-        }
-
         Map<Id, BackendEntry> rs = this.store;
 
         if (query instanceof IdPrefixQuery) {
@@ -178,16 +173,27 @@ public class InMemoryDBTable extends BackendTable<BackendSession,
         if (!query.conditions().isEmpty()) {
             ConditionQuery condQuery = (ConditionQuery) query;
             if (condQuery.containsScanCondition()) {
-                return this.queryByRange(condQuery);
+                rs = this.queryByRange(condQuery);
+            } else {
+                rs = this.queryByFilter(query.conditions(), rs);
             }
-            rs = this.queryByFilter(query.conditions(), rs);
+        }
+
+        return this.results(rs, query);
+    }
+
+    protected Iterator<BackendEntry> results(Map<Id, BackendEntry> rs,
+                                             Query query) {
+        if (query.paging()) {
+            return this.queryByPage(rs, query);
         }
 
         Iterator<BackendEntry> iterator = rs.values().iterator();
 
+        long size = this.sizeOfResults(rs);
         long offset = query.offset() - query.actualOffset();
-        if (offset >= rs.size()) {
-            query.goOffset(rs.size());
+        if (offset >= size) {
+            query.goOffset(size);
             return QueryResults.emptyIterator();
         }
         if (offset > 0L) {
@@ -195,32 +201,52 @@ public class InMemoryDBTable extends BackendTable<BackendSession,
             iterator = this.skipOffset(iterator, offset);
         }
 
-        if (!query.noLimit() && query.total() < rs.size()) {
+        if (!query.noLimit() && query.total() < size) {
             iterator = this.dropTails(iterator, query.limit());
         }
         return iterator;
     }
 
-    private Iterator<BackendEntry> queryByRange(ConditionQuery query) {
+    protected Iterator<BackendEntry> queryByPage(Map<Id, BackendEntry> rs,
+                                               Query query) {
+        PageState page = PageState.fromString(query.page());
+        if (page.position().length == 0) {
+            // The first page
+            return new InMemoryEntryIterator(rs.entrySet().iterator(),
+                                             query, null, 0L);
+        }
+
+        Id start = this.idOfPosition(page.position());
+        if (rs instanceof NavigableMap) {
+            // Seek to the position directly if the results are sorted
+            NavigableMap<Id, BackendEntry> sorted;
+            sorted = (NavigableMap<Id, BackendEntry>) rs;
+            return new InMemoryEntryIterator(sorted.tailMap(start, true)
+                                                   .entrySet().iterator(),
+                                             query, start, page.offset());
+        }
+        InMemoryEntryIterator iterator;
+        iterator = new InMemoryEntryIterator(rs.entrySet().iterator(),
+                                             query, start, page.offset());
+        iterator.seek(start);
+        return iterator;
+    }
+
+    private Map<Id, BackendEntry> queryByRange(ConditionQuery query) {
         E.checkArgument(query.relations().size() == 1,
                         "Invalid scan with multi conditions: %s", query);
         Condition.Relation scan = query.relations().iterator().next();
         Shard shard = (Shard) scan.value();
 
-        int start = Long.valueOf(shard.start()).intValue();
-        int end = Long.valueOf(shard.end()).intValue();
-
-        List<BackendEntry> rs = new ArrayList<>(end - start);
-
-        Iterator<BackendEntry> iterator = this.store.values().iterator();
-        int i = 0;
-        while (iterator.hasNext() && i++ < end) {
-            BackendEntry entry = iterator.next();
-            if (i > start) {
-                rs.add(entry);
-            }
+        // The shard is [start, end), and the empty start/end means unbounded
+        NavigableMap<Id, BackendEntry> rs = this.store;
+        if (!shard.start().equals(ShardSpliter.START)) {
+            rs = rs.tailMap(IdGenerator.of(shard.start()), true);
+        }
+        if (!shard.end().equals(ShardSpliter.END)) {
+            rs = rs.headMap(IdGenerator.of(shard.end()), false);
         }
-        return rs.iterator();
+        return rs;
     }
 
     protected Map<Id, BackendEntry> queryById(Set<Id> ids,
@@ -257,7 +283,8 @@ public class InMemoryDBTable extends BackendTable<BackendSession,
                                     Map<Id, BackendEntry> entries) {
         assert conditions.size() > 0;
 
-        Map<Id, BackendEntry> rs = new HashMap<>();
+        // Keep the results sorted to seek the position of a page
+        Map<Id, BackendEntry> rs = new TreeMap<>();
 
         LOG.trace("queryByFilter {} size = {}", this.table(), entries.size());
         for (BackendEntry entry : entries.values()) {
@@ -301,6 +328,28 @@ public class InMemoryDBTable extends BackendTable<BackendSession,
         return 1L;
     }
 
+    protected long sizeOfResults(Map<Id, BackendEntry> rs) {
+        return rs.size();
+    }
+
+    /**
+     * Copy the sub-items [from, to) of an entry, used to split an entry
+     * with multiple sub-items (like edges of a vertex) into pages
+     */
+    protected BackendEntry subBackendEntry(BackendEntry entry,
+                                           long from, long to) {
+        assert from == 0L && to == this.sizeOfBackendEntry(entry);
+        return entry;
+    }
+
+    protected byte[] positionOf(Id id) {
+        return id.asBytes();
+    }
+
+    protected Id idOfPosition(byte[] position) {
+        return IdGenerator.of(StringEncoding.decode(position));
+    }
+
     private static boolean matchCondition(BackendEntry item, Condition c) {
         // TODO: Compatible with BackendEntry
         TextBackendEntry entry = (TextBackendEntry) item;
@@ -326,6 +375,126 @@ public class InMemoryDBTable extends BackendTable<BackendSession,
         return false;
     }
 
+    private class InMemoryEntryIterator extends BackendEntryIterator {
+
+        private final Iterator<Map.Entry<Id, BackendEntry>> entries;
+        private Map.Entry<Id, BackendEntry> next;
+
+        // The start position and the sub-items of it to skip
+        private Id start;
+        private long skip;
+
+        // The position and the sub-offset of the next page
+        private Id position;
+        private long offset;
+
+        private long currentSize;
+
+        public InMemoryEntryIterator(Iterator<Map.Entry<Id, BackendEntry>>
+                                     entries, Query query,
+                                     Id start, long skip) {
+            super(query);
+            this.entries = entries;
+            this.next = null;
+            this.start = start;
+            this.skip = skip;
+            this.position = null;
+            this.offset = 0L;
+            this.currentSize = 0L;
+        }
+
+        public void seek(Id start) {
+            while (this.entries.hasNext()) {
+                this.next = this.entries.next();
+                if (this.next.getKey().equals(start)) {
+                    return;
+                }
+            }
+            this.next = null;
+        }
+
+        private Map.Entry<Id, BackendEntry> nextEntry() {
+            Map.Entry<Id, BackendEntry> entry = this.next;
+            if (entry != null) {
+                this.next = null;
+            } else if (this.entries.hasNext()) {
+                entry = this.entries.next();
+            }
+            return entry;
+        }
+
+        private Id peekKey() {
+            if (this.next == null && this.entries.hasNext()) {
+                this.next = this.entries.next();
+            }
+            return this.next == null ? null : this.next.getKey();
+        }
+
+        @Override
+        protected boolean fetch() {
+            assert this.current == null;
+            Map.Entry<Id, BackendEntry> entry;
+            while ((entry = this.nextEntry()) != null) {
+                BackendEntry value = entry.getValue();
+                long size = sizeOfBackendEntry(value);
+                long from = 0L;
+                if (this.start != null) {
+                    // Skip the sub-items returned by the previous page
+                    if (entry.getKey().equals(this.start)) {
+                        from = this.skip;
+                    }
+                    this.start = null;
+                }
+                if (from >= size) {
+                    // Skip the empty entry, like a vertex without edges
+                    continue;
+                }
+
+                long to = size;
+                long left = this.query.limit() - this.count();
+                if (to - from > left) {
+                    to = from + left;
+                    this.position = entry.getKey();
+                    this.offset = to;
+                } else {
+                    this.position = this.peekKey();
+                    this.offset = 0L;
+                }
+
+                if (from == 0L && to == size) {
+                    this.current = value;
+                } else {
+                    this.current = subBackendEntry(value, from, to);
+                }
+                this.currentSize = to - from;
+                return true;
+            }
+            this.position = null;
+            return false;
+        }
+
+        @Override
+        protected long sizeOf(BackendEntry entry) {
+            // Only called with the last fetched entry
+            return this.currentSize;
+        }
+
+        @Override
+        protected PageState pageState() {
+            byte[] position = PageState.EMPTY_BYTES;
+            if (this.position != null) {
+                position = positionOf(this.position);
+            }
+            return new PageState(position, (int) this.offset,
+                                 (int) this.count());
+        }
+
+        @Override
+        public void close() throws Exception {
+            // pass
+        }
+    }
+
     private class InMemoryShardSpliter extends ShardSpliter<BackendSession> {
 
         public InMemoryShardSpliter(String table) {
@@ -333,8 +502,26 @@ public class InMemoryDBTable extends BackendTable<BackendSession,
         }
 
         @Override
-        protected long maxKey() {
-            return InMemoryDBTable.this.store.size();
+        public List<Shard> getSplits(BackendSession session, long splitSize) {
+            E.checkArgument(splitSize >= MIN_SHARD_SIZE,
+                            "The split-size must be >= %s bytes, but got %s",
+                            MIN_SHARD_SIZE, splitSize);
+
+            // Split by the sorted keys, the start of each shard is a key
+            long keysPerShard = splitSize / ESTIMATE_BYTES_PER_KV;
+            List<Shard> splits = new ArrayList<>();
+            String last = START;
+            long count = 0L;
+            for (Id key : InMemoryDBTable.this.store.keySet()) {
+                if (++count > keysPerShard) {
+                    String current = key.asString();
+                    splits.add(new Shard(last, current, 0L));
+                    last = current;
+                    count = 1L;
+                }
+            }
+            splits.add(new Shard(last, END, 0L));
+            return splits;
         }
 
         @Override
@@ -29,7 +29,7 @@ import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.TreeMap;
 
 import com.baidu.hugegraph.backend.id.EdgeId;
 import com.baidu.hugegraph.backend.id.Id;
@@ -40,6 +40,7 @@ import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.IdQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.query.QueryResults;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
 import com.baidu.hugegraph.backend.serializer.TextBackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
@@ -51,6 +52,7 @@ import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.baidu.hugegraph.util.NumericUtil;
+import com.carrotsearch.hppc.IntArrayList;
 import com.google.common.collect.ImmutableList;
 
 public class InMemoryDBTables {
@@ -90,6 +92,10 @@ public class InMemoryDBTables {
             BackendEntry vertex = this.store().get(id);
             if (vertex != null) {
                 ((TextBackendEntry) vertex).eliminate(entry);
+                if (vertex.columnsSize() == 0) {
+                    // Remove the vertex without edges
+                    this.store().remove(id, vertex);
+                }
             }
         }
 
@@ -248,7 +254,8 @@ public class InMemoryDBTables {
                          "Not support querying edge by %s", conditions);
             String label = (String) relation.serialValue();
 
-            Map<Id, BackendEntry> rs = InsertionOrderUtil.newMap();
+            // Keep the results sorted to seek the position of a page
+            Map<Id, BackendEntry> rs = new TreeMap<>();
 
             for (BackendEntry value : entries.values()) {
                 // TODO: Compatible with BackendEntry
@@ -334,6 +341,25 @@ public class InMemoryDBTables {
             return entry.columnsSize();
         }
 
+        @Override
+        protected long sizeOfResults(Map<Id, BackendEntry> rs) {
+            long size = 0L;
+            for (BackendEntry entry : rs.values()) {
+                size += entry.columnsSize();
+            }
+            return size;
+        }
+
+        @Override
+        protected BackendEntry subBackendEntry(BackendEntry entry,
+                                               long from, long to) {
+            // TODO: Compatible with BackendEntry
+            TextBackendEntry edges = (TextBackendEntry) entry;
+            int size = edges.columnsSize();
+            return edges.copyLast((int) (size - from))
+                        .copyHead((int) (to - from));
+        }
+
         private static Id vertexIdOfEdge(TextBackendEntry entry) {
             assert entry.type().isEdge();
             // Assume the first part is owner vertex id
@@ -396,6 +422,7 @@ public class InMemoryDBTables {
             IdQuery q = new IdQuery(query, id);
             q.offset(query.offset());
             q.limit(query.limit());
+            q.page(query.pageWithoutCheck());
             return super.query(session, q);
         }
 
@@ -406,15 +433,30 @@ public class InMemoryDBTables {
             String indexLabel = entry.column(HugeKeys.INDEX_LABEL_ID);
             E.checkState(indexLabel != null, "Expect index label");
 
+            // The index ids prefixed with index label are adjacent
+            Id start = IdGenerator.of(indexLabel);
             Iterator<Entry<Id, BackendEntry>> iter;
-            for (iter = this.store().entrySet().iterator(); iter.hasNext();) {
+            iter = this.store().tailMap(start, true).entrySet().iterator();
+            while (iter.hasNext()) {
                 Entry<Id, BackendEntry> e = iter.next();
                 // Delete if prefix with index label
-                if (e.getKey().asString().startsWith(indexLabel)) {
-                    iter.remove();
+                if (!e.getKey().asString().startsWith(indexLabel)) {
+                    break;
                 }
+                iter.remove();
             }
         }
+
+        @Override
+        protected long sizeOfBackendEntry(BackendEntry entry) {
+            return sizeOfIndexEntry(entry);
+        }
+
+        @Override
+        protected BackendEntry subBackendEntry(BackendEntry entry,
+                                               long from, long to) {
+            return subIndexEntry(entry, from, to);
+        }
     }
 
     public static class SearchIndex extends SecondaryIndex {
@@ -434,12 +476,7 @@ public class InMemoryDBTables {
     public static class RangeIndex extends InMemoryDBTable {
 
         protected RangeIndex(HugeType type) {
-            super(type, new ConcurrentSkipListMap<>());
-        }
-
-        @Override
-        protected NavigableMap<Id, BackendEntry> store() {
-            return (NavigableMap<Id, BackendEntry>) super.store();
+            super(type);
         }
 
         @Override
@@ -469,12 +506,13 @@ public class InMemoryDBTables {
                 IdQuery q = new IdQuery(query, id);
                 q.offset(query.offset());
                 q.limit(query.limit());
+                q.page(query.pageWithoutCheck());
                 return super.query(session, q);
             }
             // keyMin <(=) field value <(=) keyMax
             return this.betweenQuery(indexLabelId, range.keyMax(),
                                      range.keyMaxEq(), range.keyMin(),
-                                     range.keyMinEq(), query.resultType());
+                                     range.keyMinEq(), query);
         }
 
         private Iterator<BackendEntry> betweenQuery(Id indexLabelId,
@@ -482,7 +520,8 @@ public class InMemoryDBTables {
                                                     boolean keyMaxEq,
                                                     Object keyMin,
                                                     boolean keyMinEq,
-                                                    HugeType type) {
+                                                    Query query) {
+            HugeType type = query.resultType();
             NavigableMap<Id, BackendEntry> rs = this.store();
 
             E.checkArgument(keyMin != null || keyMax != null,
@@ -502,20 +541,14 @@ public class InMemoryDBTables {
             Id max = HugeIndex.formatIndexId(type, indexLabelId, keyMax);
 
             max = keyMaxEq ? rs.floorKey(max) : rs.lowerKey(max);
-            if (max == null) {
+            if (max == null || min.compareTo(max) > 0) {
                 return QueryResults.emptyIterator();
             }
 
-            Map<Id, BackendEntry> results = InsertionOrderUtil.newMap();
-            Map.Entry<Id, BackendEntry> entry = keyMinEq ?
-                                                rs.ceilingEntry(min) :
-                                                rs.higherEntry(min);
-            while (entry != null) {
-                if (entry.getKey().compareTo(max) > 0) {
-                    break;
-                }
-                results.put(entry.getKey(), entry.getValue());
-                entry = rs.higherEntry(entry.getKey());
+            NavigableMap<Id, BackendEntry> results;
+            results = rs.subMap(min, keyMinEq, max, true);
+            if (query.paging()) {
+                return this.queryByPage(results, query);
             }
             return results.values().iterator();
         }
@@ -544,6 +577,23 @@ public class InMemoryDBTables {
             }
         }
 
+        @Override
+        protected long sizeOfBackendEntry(BackendEntry entry) {
+            return sizeOfIndexEntry(entry);
+        }
+
+        @Override
+        protected BackendEntry subBackendEntry(BackendEntry entry,
+                                               long from, long to) {
+            return subIndexEntry(entry, from, to);
+        }
+
+        @Override
+        protected Id idOfPosition(byte[] position) {
+            return BytesBuffer.allocate(position.length).write(position)
+                              .asId();
+        }
+
         public static RangeIndex rangeInt() {
             return new RangeIndex(HugeType.RANGE_INT_INDEX);
         }
@@ -567,4 +617,116 @@ public class InMemoryDBTables {
             super(HugeType.SHARD_INDEX);
         }
     }
+
+    private static String elementIdsColumn(TextBackendEntry entry) {
+        for (String column : entry.columnNames()) {
+            // TODO: use more general method
+            if (column.endsWith(HugeKeys.ELEMENT_IDS.string())) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private static long sizeOfIndexEntry(BackendEntry value) {
+        // TODO: Compatible with BackendEntry
+        TextBackendEntry entry = (TextBackendEntry) value;
+        String column = elementIdsColumn(entry);
+        if (column == null) {
+            return 1L;
+        }
+        return sizeOfJsonArray(entry.column(column));
+    }
+
+    private static BackendEntry subIndexEntry(BackendEntry value,
+                                              long from, long to) {
+        // TODO: Compatible with BackendEntry
+        TextBackendEntry entry = (TextBackendEntry) value;
+        String column = elementIdsColumn(entry);
+        if (column == null) {
+            assert from == 0L && to == 1L;
+            return entry;
+        }
+        // Copy the element ids [from, to) of the index entry
+        TextBackendEntry sub = entry.copy();
+        sub.column(column, subJsonArray(entry.column(column),
+                                        (int) from, (int) to));
+        return sub;
+    }
+
+    private static long sizeOfJsonArray(String json) {
+        IntArrayList delimiters = delimitersOfJsonArray(json);
+        if (delimiters.size() == 2 &&
+            json.substring(delimiters.get(0) + 1, delimiters.get(1))
+                .trim().isEmpty()) {
+            // Empty array "[]"
+            return 0L;
+        }
+        return delimiters.size() - 1L;
+    }
+
+    private static String subJsonArray(String json, int from, int to) {
+        IntArrayList delimiters = delimitersOfJsonArray(json);
+        E.checkArgument(0 <= from && from <= to && to < delimiters.size(),
+                        "Invalid range [%s, %s) of json array: %s",
+                        from, to, json);
+        if (from == to) {
+            return "[]";
+        }
+        int start = delimiters.get(from) + 1;
+        int end = delimiters.get(to);
+        return "[" + json.substring(start, end) + "]";
+    }
+
+    /**
+     * Get the positions of '[', ']' and the top-level ',' of a json array,
+     * the element i is between the delimiter i and i + 1. The elements
+     * (like ids or maps of id and expired time) are skipped by position
+     * instead of being decoded.
+     */
+    private static IntArrayList delimitersOfJsonArray(String json) {
+        IntArrayList delimiters = new IntArrayList();
+        int depth = 0;
+        boolean quoted = false;
+        for (int i = 0, n = json.length(); i < n; i++) {
+            char c = json.charAt(i);
+            if (quoted) {
+                if (c == '\\') {
+                    // Skip the escaped char
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"':
+                    quoted = true;
+                    break;
+                case '[':
+                case '{':
+                    if (depth++ == 0) {
+                        delimiters.add(i);
+                    }
+                    break;
+                case ']':
+                case '}':
+                    if (--depth == 0) {
+                        delimiters.add(i);
+                    }
+                    break;
+                case ',':
+                    if (depth == 1) {
+                        delimiters.add(i);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        E.checkArgument(depth == 0 && !quoted && delimiters.size() >= 2 &&
+                        json.charAt(delimiters.get(0)) == '[',
+                        "Invalid json array: %s", json);
+        return delimiters;
+    }
 }
@@ -144,6 +144,12 @@ public final class RaftSharedContext {
                                       .toString();
             FileUtils.forceMkdir(new File(snapshotUri));
             nodeOptions.setSnapshotUri(snapshotUri);
+            /*
+             * Reuse the files of the last local snapshot which have the same
+             * checksum with the remote ones, so just the new files (like new
+             * sst files) will be copied when installing snapshot
+             */
+            nodeOptions.setFilterBeforeCopyRemote(true);
         }
 
         RaftOptions raftOptions = nodeOptions.getRaftOptions();
@@ -22,10 +22,21 @@ package com.baidu.hugegraph.backend.store.raft;
 import static com.alipay.sofa.jraft.entity.LocalFileMetaOutter.LocalFileMeta;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.Checksum;
 
 import org.apache.commons.io.FileUtils;
@@ -42,12 +53,32 @@ import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.Log;
 import com.baidu.hugegraph.util.ZipUtil;
 
+/**
+ * The snapshot files are added to the raft snapshot one by one instead of
+ * an archive of the whole store, so that the followers can reuse the files
+ * of their last snapshot with the same checksum (the immutable sst files)
+ * and just copy the new ones, and the snapshot can be used without
+ * decompressing when installing.
+ */
 public class StoreSnapshotFile {
 
     private static final Logger LOG = Log.logger(StoreSnapshotFile.class);
 
     private static final String SNAPSHOT_DIR = "ss";
+    private static final String SNAPSHOT_LOAD_DIR = "ss_load";
+    // The archive of the whole snapshot dir used by the old version
     private static final String SNAPSHOT_ARCHIVE = "ss.zip";
+    // The sst files are immutable, so their checksums can be cached
+    private static final String IMMUTABLE_FILE_SUFFIX = ".sst";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // The checksums of files in the last snapshot, keyed by immutable file
+    private volatile Map<String, String> checksums;
+
+    public StoreSnapshotFile() {
+        this.checksums = new ConcurrentHashMap<>();
+    }
 
     public void save(BackendStore store, SnapshotWriter writer,
                      Closure done, ExecutorService executor) {
@@ -57,8 +88,8 @@ public class StoreSnapshotFile {
             this.doSnapshotSave(store, snapshotPath)
                 .whenComplete((metaBuilder, throwable) -> {
                 if (throwable == null) {
-                    executor.execute(() -> compressSnapshot(writer, metaBuilder,
-                                                            done));
+                    executor.execute(() -> addSnapshotFiles(writer, metaBuilder,
+                                                            done, executor));
                 } else {
                     LOG.error("Failed to save snapshot, path={}, files={}, {}.",
                               writerPath, writer.listFiles(), throwable);
@@ -77,24 +108,38 @@ public class StoreSnapshotFile {
     }
 
     public boolean load(BackendStore store, SnapshotReader reader) {
-        LocalFileMeta meta = (LocalFileMeta) reader.getFileMeta(SNAPSHOT_ARCHIVE);
         String readerPath = reader.getPath();
-        if (meta == null) {
+        String snapshotPath = Paths.get(readerPath, SNAPSHOT_DIR).toString();
+        LocalFileMeta archive = (LocalFileMeta) reader.getFileMeta(
+                                                SNAPSHOT_ARCHIVE);
+        if (archive == null && !new File(snapshotPath).isDirectory()) {
             LOG.error("Can't find snapshot file, path={}.", readerPath);
             return false;
         }
-        String snapshotPath = Paths.get(readerPath, SNAPSHOT_DIR).toString();
         try {
-            this.decompressSnapshot(readerPath, meta);
-            this.doSnapshotLoad(store, snapshotPath);
-            File tmp = new File(snapshotPath);
+            String loadPath;
+            if (archive != null) {
+                // The snapshot is archived by the old version
+                this.decompressSnapshot(readerPath, archive);
+                loadPath = snapshotPath;
+            } else {
+                /*
+                 * The backend store will move the snapshot files into its
+                 * data path, but the files of the snapshot should be kept
+                 * to be reused by the next snapshot installing
+                 */
+                loadPath = Paths.get(readerPath, SNAPSHOT_LOAD_DIR).toString();
+                this.linkSnapshot(snapshotPath, loadPath);
+            }
+            this.doSnapshotLoad(store, loadPath);
+            File tmp = new File(loadPath);
             // Delete the decompressed temporary file. If the deletion fails
             // (although it is a small probability event), it may affect the
             // next snapshot decompression result. Therefore, the safest way
             // is to terminate the state machine immediately. Users can choose
             // to manually delete and restart according to the log information.
             if (tmp.exists()) {
-                FileUtils.forceDelete(new File(snapshotPath));
+                FileUtils.forceDelete(tmp);
             }
             return true;
         } catch (Throwable t) {
@@ -115,28 +160,116 @@ public class StoreSnapshotFile {
         store.readSnapshot(snapshotPath);
     }
 
-    private void compressSnapshot(SnapshotWriter writer,
+    private void addSnapshotFiles(SnapshotWriter writer,
                                   LocalFileMeta.Builder metaBuilder,
-                                  Closure done) {
+                                  Closure done, ExecutorService executor) {
         String writerPath = writer.getPath();
-        String outputFile = Paths.get(writerPath, SNAPSHOT_ARCHIVE).toString();
         try {
-            Checksum checksum = new CRC64();
-            ZipUtil.compress(writerPath, SNAPSHOT_DIR, outputFile, checksum);
-            metaBuilder.setChecksum(Long.toHexString(checksum.getValue()));
-            if (writer.addFile(SNAPSHOT_ARCHIVE, metaBuilder.build())) {
-                done.run(Status.OK());
-            } else {
-                done.run(new Status(RaftError.EIO,
-                                    "Failed to add snapshot file: %s",
-                                    writerPath));
+            Path root = Paths.get(writerPath);
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(root.resolve(SNAPSHOT_DIR))) {
+                files = paths.filter(Files::isRegularFile)
+                             .collect(Collectors.toList());
             }
+
+            // Calculate the checksums of files concurrently
+            Map<String, String> checksums = new ConcurrentHashMap<>();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (Path file : files) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    this.checksum(file, checksums);
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                             .join();
+            // Just keep the checksums of files in the latest snapshot
+            this.checksums = checksums;
+
+            for (Path file : files) {
+                String name = root.relativize(file).toString();
+                String checksum = this.checksumOf(file, checksums);
+                LocalFileMeta meta = metaBuilder.clone()
+                                                .setChecksum(checksum)
+                                                .build();
+                if (!writer.addFile(name, meta)) {
+                    done.run(new Status(RaftError.EIO,
+                                        "Failed to add snapshot file: %s",
+                                        file));
+                    return;
+                }
+            }
+            LOG.debug("Added {} files to snapshot {}", files.size(),
+                      writerPath);
+            done.run(Status.OK());
         } catch (final Throwable t) {
-            LOG.error("Failed to compress snapshot, path={}, files={}, {}.",
+            LOG.error("Failed to add snapshot files, path={}, files={}, {}.",
                       writerPath, writer.listFiles(), t);
             done.run(new Status(RaftError.EIO,
-                                "Failed to compress snapshot at %s, error is %s",
-                                writerPath, t.getMessage()));
+                                "Failed to add snapshot files at %s, " +
+                                "error is %s", writerPath, t.getMessage()));
+        }
+    }
+
+    private String checksumOf(Path file, Map<String, String> checksums)
+                              throws IOException {
+        // The mutable files are keyed by path
+        String key = immutableFileKey(file);
+        String checksum = checksums.get(key != null ? key : file.toString());
+        if (checksum == null) {
+            // The file key may be changed since calculated, like mtime
+            checksum = checksum(file);
+        }
+        return checksum;
+    }
+
+    private void checksum(Path file, Map<String, String> checksums) {
+        try {
+            String key = immutableFileKey(file);
+            if (key == null) {
+                checksums.put(file.toString(), checksum(file));
+                return;
+            }
+            // Reuse the checksum of the same file in last snapshot
+            String checksum = this.checksums.get(key);
+            if (checksum == null) {
+                checksum = checksum(file);
+            }
+            checksums.put(key, checksum);
+        } catch (IOException e) {
+            throw new RaftException("Failed to calculate checksum of %s",
+                                    e, file);
+        }
+    }
+
+    private void linkSnapshot(String snapshotPath, String loadPath)
+                              throws IOException {
+        File loadDir = new File(loadPath);
+        if (loadDir.exists()) {
+            FileUtils.forceDelete(loadDir);
+        }
+        Path source = Paths.get(snapshotPath);
+        Path target = loadDir.toPath();
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(source)) {
+            files = paths.filter(Files::isRegularFile)
+                         .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            Path link = target.resolve(source.relativize(file));
+            Files.createDirectories(link.getParent());
+            String name = file.getFileName().toString();
+            if (!name.endsWith(IMMUTABLE_FILE_SUFFIX)) {
+                // The mutable files like MANIFEST can't be shared
+                Files.copy(file, link);
+                continue;
+            }
+            try {
+                Files.createLink(link, file);
+            } catch (IOException | UnsupportedOperationException e) {
+                LOG.debug("Failed to link {}, copy it instead: {}",
+                          file, e.getMessage());
+                Files.copy(file, link);
+            }
         }
     }
 
@@ -151,4 +284,36 @@ public class StoreSnapshotFile {
                             "Snapshot checksum failed");
         }
     }
+
+    private static String immutableFileKey(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(IMMUTABLE_FILE_SUFFIX)) {
+            return null;
+        }
+        /*
+         * The sst files of a snapshot are hard links of the store files,
+         * so the same file of different snapshots has the same file key,
+         * the name and size are also compared in case the inode is reused
+         */
+        BasicFileAttributes attrs = Files.readAttributes(
+                                    file, BasicFileAttributes.class);
+        Object fileKey = attrs.fileKey();
+        if (fileKey == null) {
+            return null;
+        }
+        return String.format("%s/%s/%s/%s", fileKey, name, attrs.size(),
+                             attrs.lastModifiedTime().toMillis());
+    }
+
+    private static String checksum(Path file) throws IOException {
+        Checksum checksum = new CRC64();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = new FileInputStream(file.toFile())) {
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                checksum.update(buffer, 0, read);
+            }
+        }
+        return Long.toHexString(checksum.getValue());
+    }
 }
@@ -81,10 +81,16 @@ public class StoreStateMachine extends StateMachineAdapter {
             this.store.beginTx();
             for (BackendMutation mutation : ms) {
                 this.store.mutate(mutation);
-                // update cache on follower
-                this.updateCacheIfNeeded(mutation);
             }
             this.store.commitTx();
+            /*
+             * Update cache on follower after committed, otherwise the old
+             * records may be cached again by a query before committed, like
+             * the index query results cached with the bumped label epochs
+             */
+            for (BackendMutation mutation : ms) {
+                this.updateCacheIfNeeded(mutation);
+            }
             return null;
         });
         this.register(StoreAction.ROLLBACK_TX, this.store::rollbackTx);
@@ -19,7 +19,10 @@
 
 package com.baidu.hugegraph.backend.tx;
 
+import java.util.Iterator;
+
 import org.apache.commons.lang3.StringUtils;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 import org.slf4j.Logger;
 
 import com.baidu.hugegraph.HugeException;
@@ -38,12 +41,16 @@ import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.exception.NotFoundException;
+import com.baidu.hugegraph.iterator.CIter;
+import com.baidu.hugegraph.iterator.Metadatable;
 import com.baidu.hugegraph.perf.PerfUtil.Watched;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.Action;
 import com.baidu.hugegraph.type.define.GraphMode;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.Log;
+import com.baidu.hugegraph.util.QueryProfiler;
+import com.baidu.hugegraph.util.QueryProfiler.Item;
 import com.google.common.util.concurrent.RateLimiter;
 
 public abstract class AbstractTransaction implements Transaction {
@@ -130,9 +137,11 @@ public abstract class AbstractTransaction implements Transaction {
         Query squery = this.serializer.writeQuery(query);
 
         this.beforeRead();
+        long begin = QueryProfiler.begin();
         try {
             return this.store.queryNumber(squery);
         } finally {
+            QueryProfiler.end(Item.BACKEND_QUERY, begin);
             this.afterRead();
         }
     }
@@ -151,9 +160,19 @@ public abstract class AbstractTransaction implements Transaction {
         Query squery = this.serializer.writeQuery(query);
 
         this.beforeRead();
+        long begin = QueryProfiler.begin();
         try {
-            return new QueryResults<>(this.store.query(squery), query);
+            Iterator<BackendEntry> entries = this.store.query(squery);
+            if (begin != 0L) {
+                /*
+                 * Count the scanned rows just when profiling is enabled, and
+                 * time the iteration since most backends read rows lazily
+                 */
+                entries = new ProfiledIterator(entries);
+            }
+            return new QueryResults<>(entries, query);
         } finally {
+            QueryProfiler.end(Item.BACKEND_QUERY, begin);
             this.afterRead(); // TODO: not complete the iteration currently
         }
     }
@@ -388,4 +407,48 @@ public abstract class AbstractTransaction implements Transaction {
         E.checkNotNull(entry, "entry");
         this.mutation.add(entry, action);
     }
+
+    private static class ProfiledIterator implements CIter<BackendEntry> {
+
+        private final Iterator<BackendEntry> entries;
+
+        public ProfiledIterator(Iterator<BackendEntry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            long begin = QueryProfiler.begin();
+            try {
+                return this.entries.hasNext();
+            } finally {
+                QueryProfiler.spend(Item.BACKEND_QUERY, begin);
+            }
+        }
+
+        @Override
+        public BackendEntry next() {
+            long begin = QueryProfiler.begin();
+            try {
+                BackendEntry entry = this.entries.next();
+                QueryProfiler.record(Item.ROW_SCANNED);
+                return entry;
+            } finally {
+                QueryProfiler.spend(Item.BACKEND_QUERY, begin);
+            }
+        }
+
+        @Override
+        public Object metadata(String meta, Object... args) {
+            E.checkState(this.entries instanceof Metadatable,
+                         "Invalid iterator for Metadatable: %s",
+                         this.entries.getClass());
+            return ((Metadatable) this.entries).metadata(meta, args);
+        }
+
+        @Override
+        public void close() throws Exception {
+            CloseableIterator.closeIterator(this.entries);
+        }
+    }
 }
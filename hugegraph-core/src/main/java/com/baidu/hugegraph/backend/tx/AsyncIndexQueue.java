@@ -0,0 +1,704 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.tx;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.HugeGraphParams;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.type.define.DataType;
+import com.baidu.hugegraph.type.define.SerialEnum;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * The queue of the index changes of the async index labels. The changes of
+ * a transaction are written to a log file as one record with an increasing
+ * sequence before the transaction is committed to backend, and the record
+ * is queued after committed or marked as aborted if failed to commit. The
+ * log is synced out of the lock, the records written by the concurrent
+ * transactions meanwhile are synced together by one of them. The queued
+ * records are applied in sequence order by a background worker which
+ * batches the records and writes the index entries in key order.
+ *
+ * The sequence of the last applied record is saved in a checkpoint file,
+ * the records after it (except the aborted ones) are applied again when the
+ * queue is reopened, and the log file is truncated once all the records are
+ * applied. Applying a record more than once is harmless, and the index
+ * entries of the elements not existing are removed when queried.
+ *
+ * A record which is neither committed nor aborted, like the process crashed
+ * or the transaction didn't finish in time, is in doubt, only the appended
+ * index entries of it are applied since the unmatched ones are removed when
+ * queried, but the entries eliminated by mistake couldn't be found again.
+ */
+public class AsyncIndexQueue {
+
+    public static final long NO_SEQUENCE = 0L;
+
+    private static final Logger LOG = Log.logger(AsyncIndexQueue.class);
+
+    private static final String WORKER = "async-index-worker-%s";
+    private static final long POLL_TIMEOUT = 1000L;
+    private static final long PREPARE_TIMEOUT = 60000L;
+
+    // The types of the records in log
+    private static final byte PREPARED = 1;
+    private static final byte COMMITTED = 2;
+    private static final byte ABORTED = 3;
+
+    private final HugeGraphParams graph;
+    private final File logFile;
+    private final File checkpointFile;
+    private final int batchSize;
+
+    private final LinkedBlockingQueue<Record> queue;
+    // The records written to log but not queued yet, keyed by sequence
+    private final TreeMap<Long, Record> preparing;
+    private final Object applyLock;
+    private final Object syncLock;
+
+    private FileOutputStream log;
+    private ExecutorService worker;
+    private long lastSequence;
+    // The count of records written to log, and the count of synced ones
+    private long written;
+    private long synced;
+    private volatile long appliedSequence;
+    private volatile Throwable error;
+    private volatile boolean closed;
+
+    public AsyncIndexQueue(HugeGraphParams graph) {
+        this.graph = graph;
+        HugeConfig config = graph.configuration();
+        File directory = new File(config.get(CoreOptions.INDEX_ASYNC_DIR));
+        this.logFile = new File(directory, graph.name() + ".log");
+        this.checkpointFile = new File(directory, graph.name() + ".checkpoint");
+        this.batchSize = config.get(CoreOptions.INDEX_ASYNC_BATCH_SIZE);
+
+        this.queue = new LinkedBlockingQueue<>();
+        this.preparing = new TreeMap<>();
+        this.applyLock = new Object();
+        this.syncLock = new Object();
+
+        this.log = null;
+        this.worker = null;
+        this.lastSequence = 0L;
+        this.written = 0L;
+        this.synced = 0L;
+        this.appliedSequence = 0L;
+        this.error = null;
+        this.closed = false;
+    }
+
+    /**
+     * Open the log file and start the worker, the records not applied
+     * before closing are queued again
+     */
+    public synchronized void open() {
+        if (this.log != null) {
+            return;
+        }
+        E.checkState(!this.closed, "The async index queue of graph '%s' " +
+                     "has been closed", this.graph.name());
+        File directory = this.logFile.getParentFile();
+        E.checkState(directory.isDirectory() || directory.mkdirs(),
+                     "Failed to create directory '%s'", directory);
+        try {
+            this.recover();
+            this.log = new FileOutputStream(this.logFile, true);
+        } catch (IOException e) {
+            throw new HugeException("Failed to open async index log '%s'",
+                                    e, this.logFile);
+        }
+
+        this.worker = ExecutorUtil.newFixedThreadPool(
+                      1, String.format(WORKER, this.graph.name()));
+        this.worker.submit(this::work);
+    }
+
+    /**
+     * Stop the worker after the batch being applied, the records left are
+     * applied after reopening
+     */
+    public void close() {
+        ExecutorService worker;
+        synchronized (this) {
+            this.closed = true;
+            worker = this.worker;
+            this.worker = null;
+        }
+        if (worker != null) {
+            worker.shutdown();
+            try {
+                worker.awaitTermination(POLL_TIMEOUT * 3L,
+                                        TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ignored) {
+                // Ignore and close the log
+            }
+        }
+        synchronized (this) {
+            this.closeLog();
+        }
+    }
+
+    private void closeLog() {
+        if (this.log != null) {
+            try {
+                this.log.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close async index log '{}'",
+                         this.logFile, e);
+            }
+            this.log = null;
+        }
+    }
+
+    /**
+     * Write the changes of a transaction to log as a record before the
+     * transaction is committed to backend, the record must be committed or
+     * aborted later
+     * @return the sequence of the record
+     */
+    public long prepare(List<Change> changes) {
+        E.checkArgument(!changes.isEmpty(), "The changes can't be empty");
+        long sequence;
+        long written;
+        synchronized (this) {
+            this.open();
+            sequence = this.lastSequence + 1L;
+            try {
+                written = this.writeRecord(sequence, PREPARED, changes);
+            } catch (IOException e) {
+                throw new HugeException("Failed to write async index log " +
+                                        "'%s'", e, this.logFile);
+            }
+            this.lastSequence = sequence;
+            this.preparing.put(sequence, new Record(sequence, changes));
+        }
+        try {
+            this.sync(written);
+        } catch (Throwable e) {
+            this.abort(sequence);
+            throw e;
+        }
+        return sequence;
+    }
+
+    /**
+     * Sync the log until the specified count of records are synced, the
+     * records written by others before syncing are synced together
+     */
+    private void sync(long written) {
+        synchronized (this.syncLock) {
+            if (this.synced >= written) {
+                // Synced by another transaction
+                return;
+            }
+            FileChannel channel;
+            long last;
+            synchronized (this) {
+                E.checkState(this.log != null, "The async index queue of " +
+                             "graph '%s' has been closed", this.graph.name());
+                channel = this.log.getChannel();
+                last = this.written;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new HugeException("Failed to sync async index log '%s'",
+                                        e, this.logFile);
+            }
+            this.synced = last;
+        }
+    }
+
+    /**
+     * Queue the record after the transaction is committed to backend, the
+     * records are queued in sequence order. It never fails since the record
+     * has been written to log, and it's applied after reopening if closed.
+     */
+    public synchronized void commit(long sequence) {
+        Record record = this.preparing.get(sequence);
+        if (record == null) {
+            // Dropped by clear(), or queued as in doubt since timeout
+            return;
+        }
+        if (this.log != null) {
+            try {
+                /*
+                 * The marker isn't synced, the record is in doubt after
+                 * reopening if the marker is lost
+                 */
+                this.writeRecord(sequence, COMMITTED,
+                                 Collections.emptyList());
+            } catch (IOException e) {
+                LOG.warn("Failed to commit async index record {} of " +
+                         "graph '{}'", sequence, this.graph.name(), e);
+            }
+        }
+        record.committed = true;
+        this.queuePrepared();
+    }
+
+    /**
+     * Mark the record as aborted after the transaction is failed to commit
+     * to backend, so that it's not applied after reopening
+     */
+    public synchronized void abort(long sequence) {
+        if (!this.preparing.containsKey(sequence)) {
+            return;
+        }
+        if (this.log != null) {
+            try {
+                // Not synced, only the appended entries are applied if lost
+                this.writeRecord(sequence, ABORTED, Collections.emptyList());
+            } catch (IOException e) {
+                LOG.warn("Failed to abort async index record {} of " +
+                         "graph '{}'", sequence, this.graph.name(), e);
+            }
+        }
+        // Queue an empty record to advance the applied sequence
+        Record record = new Record(sequence, Collections.emptyList());
+        record.committed = true;
+        this.preparing.put(sequence, record);
+        this.queuePrepared();
+    }
+
+    private void queuePrepared() {
+        assert Thread.holdsLock(this);
+        while (!this.preparing.isEmpty() &&
+               this.preparing.firstEntry().getValue().committed) {
+            this.queue.add(this.preparing.pollFirstEntry().getValue());
+        }
+    }
+
+    /**
+     * Queue the first records which are not committed or aborted in time as
+     * in doubt, so that the records after them are not blocked if the
+     * transactions are dead
+     */
+    private synchronized void expirePrepared() {
+        long now = System.currentTimeMillis();
+        while (!this.preparing.isEmpty()) {
+            Record record = this.preparing.firstEntry().getValue();
+            if (record.committed || now - record.time < PREPARE_TIMEOUT) {
+                break;
+            }
+            LOG.warn("The async index record {} of graph '{}' is not " +
+                     "committed or aborted in {}ms, apply it as in doubt",
+                     record.sequence, this.graph.name(), PREPARE_TIMEOUT);
+            this.queue.add(this.preparing.pollFirstEntry().getValue()
+                               .inDoubt());
+        }
+        this.queuePrepared();
+    }
+
+    /**
+     * Write a record to log without syncing
+     * @return the count of records written
+     */
+    private long writeRecord(long sequence, byte type, List<Change> changes)
+                             throws IOException {
+        assert Thread.holdsLock(this);
+        BytesBuffer buffer = BytesBuffer.allocate(32 * changes.size() + 16);
+        buffer.writeVLong(sequence);
+        buffer.write(type);
+        if (type == PREPARED) {
+            buffer.writeVInt(changes.size());
+            for (Change change : changes) {
+                change.writeTo(buffer);
+            }
+        }
+        byte[] bytes = buffer.bytes();
+        this.log.write(ByteBuffer.allocate(Integer.BYTES)
+                                 .putInt(bytes.length).array());
+        this.log.write(bytes);
+        return ++this.written;
+    }
+
+    public synchronized long lastSequence() {
+        return this.lastSequence;
+    }
+
+    public long appliedSequence() {
+        return this.appliedSequence;
+    }
+
+    /**
+     * Wait until the records up to the sequence are applied
+     * @return true if applied, or false if timeout
+     */
+    public boolean waitApplied(long sequence, long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        synchronized (this.applyLock) {
+            while (this.appliedSequence < sequence) {
+                Throwable error = this.error;
+                if (error != null) {
+                    throw new HugeException("Failed to apply async index " +
+                                            "of graph '%s'", error,
+                                            this.graph.name());
+                }
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0L || this.closed) {
+                    return false;
+                }
+                try {
+                    this.applyLock.wait(wait);
+                } catch (InterruptedException e) {
+                    throw new HugeException("Interrupted while waiting " +
+                                            "async index", e);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drop all the records which are not applied, called when the data of
+     * the graph is cleared
+     */
+    public synchronized void clear() {
+        synchronized (this.applyLock) {
+            this.queue.clear();
+            this.preparing.clear();
+            this.error = null;
+            this.appliedSequence = this.lastSequence;
+            this.truncateIfApplied();
+            this.applyLock.notifyAll();
+        }
+    }
+
+    private void work() {
+        GraphIndexTransaction tx = null;
+        List<Record> records = new ArrayList<>();
+        try {
+            while (!this.closed) {
+                this.expirePrepared();
+                // The failed records are retried until applied
+                if (records.isEmpty() && !this.poll(records)) {
+                    continue;
+                }
+                if (tx == null) {
+                    tx = new GraphIndexTransaction(this.graph,
+                                                   this.graph.loadGraphStore());
+                }
+                if (this.apply(tx, records)) {
+                    records.clear();
+                } else {
+                    Thread.sleep(POLL_TIMEOUT);
+                }
+            }
+        } catch (InterruptedException ignored) {
+            // Exit the worker
+        } catch (Throwable e) {
+            LOG.error("Failed to apply async index changes of graph '{}'",
+                      this.graph.name(), e);
+        } finally {
+            if (tx != null) {
+                tx.close();
+            }
+            // The schema transaction is opened by the worker thread
+            this.graph.closeTx();
+        }
+    }
+
+    private boolean poll(List<Record> records) throws InterruptedException {
+        Record record = this.queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+        if (record == null) {
+            return false;
+        }
+        records.add(record);
+        int size = record.changes.size();
+        while (size < this.batchSize && (record = this.queue.poll()) != null) {
+            records.add(record);
+            size += record.changes.size();
+        }
+        return true;
+    }
+
+    /**
+     * Apply the records, the applied sequence is not advanced if failed
+     * @return true if applied or dropped, or false if failed
+     */
+    private boolean apply(GraphIndexTransaction tx, List<Record> records) {
+        List<Change> changes = new ArrayList<>();
+        for (Record record : records) {
+            changes.addAll(record.changes);
+        }
+        synchronized (this.applyLock) {
+            long sequence = records.get(records.size() - 1).sequence;
+            if (sequence <= this.appliedSequence) {
+                // Dropped by clear()
+                return true;
+            }
+            if (!changes.isEmpty()) {
+                try {
+                    tx.applyAsyncChanges(changes);
+                } catch (Throwable e) {
+                    tx.rollback();
+                    LOG.error("Failed to apply async index records up to " +
+                              "sequence {} of graph '{}', will retry",
+                              sequence, this.graph.name(), e);
+                    this.error = e;
+                    this.applyLock.notifyAll();
+                    return false;
+                }
+            }
+            this.error = null;
+            this.appliedSequence = sequence;
+            this.saveCheckpoint(sequence);
+            this.applyLock.notifyAll();
+        }
+        synchronized (this) {
+            this.truncateIfApplied();
+        }
+        return true;
+    }
+
+    private void truncateIfApplied() {
+        assert Thread.holdsLock(this);
+        if (this.log == null || this.appliedSequence < this.lastSequence) {
+            return;
+        }
+        try {
+            this.log.getChannel().truncate(0L);
+        } catch (IOException e) {
+            LOG.warn("Failed to truncate async index log '{}'",
+                     this.logFile, e);
+        }
+    }
+
+    private void saveCheckpoint(long sequence) {
+        try (RandomAccessFile file = new RandomAccessFile(this.checkpointFile,
+                                                          "rw")) {
+            file.setLength(0L);
+            file.writeLong(sequence);
+        } catch (IOException e) {
+            LOG.warn("Failed to save async index checkpoint '{}'",
+                     this.checkpointFile, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        long checkpoint = 0L;
+        if (this.checkpointFile.exists() &&
+            this.checkpointFile.length() >= Long.BYTES) {
+            try (RandomAccessFile file = new RandomAccessFile(
+                                         this.checkpointFile, "r")) {
+                checkpoint = file.readLong();
+            }
+        }
+        this.lastSequence = checkpoint;
+        this.appliedSequence = checkpoint;
+        if (!this.logFile.exists()) {
+            return;
+        }
+
+        // The records not aborted after the checkpoint, in sequence order
+        Map<Long, Record> records = new LinkedHashMap<>();
+        int inDoubt = 0;
+        long validLength = 0L;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                                  new FileInputStream(this.logFile)))) {
+            while (true) {
+                byte[] bytes;
+                try {
+                    bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                } catch (EOFException e) {
+                    // The last record may be partially written
+                    break;
+                }
+                validLength += Integer.BYTES + bytes.length;
+
+                BytesBuffer buffer = BytesBuffer.wrap(bytes);
+                long sequence = buffer.readVLong();
+                byte type = buffer.read();
+                this.lastSequence = Math.max(this.lastSequence, sequence);
+                if (sequence <= checkpoint) {
+                    continue;
+                }
+                if (type == ABORTED) {
+                    records.remove(sequence);
+                    continue;
+                }
+                if (type == COMMITTED) {
+                    Record record = records.get(sequence);
+                    if (record != null) {
+                        record.committed = true;
+                    }
+                    continue;
+                }
+                assert type == PREPARED : type;
+                int size = buffer.readVInt();
+                List<Change> changes = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    changes.add(Change.readFrom(buffer));
+                }
+                records.put(sequence, new Record(sequence, changes));
+            }
+        }
+        for (Record record : records.values()) {
+            if (!record.committed) {
+                // Not sure whether the transaction is committed or not
+                record = record.inDoubt();
+                inDoubt++;
+            }
+            this.queue.add(record);
+        }
+        try (FileChannel channel = new RandomAccessFile(this.logFile, "rw")
+                                                       .getChannel()) {
+            channel.truncate(validLength);
+        }
+        LOG.info("Recovered {} async index records ({} in doubt) of " +
+                 "graph '{}'", this.queue.size(), inDoubt, this.graph.name());
+    }
+
+    private static final class Record {
+
+        private final long sequence;
+        private final List<Change> changes;
+        private final long time;
+        private boolean committed;
+
+        public Record(long sequence, List<Change> changes) {
+            this.sequence = sequence;
+            this.changes = changes;
+            this.time = System.currentTimeMillis();
+            this.committed = false;
+        }
+
+        /**
+         * The committed record with only the appended changes of this
+         */
+        public Record inDoubt() {
+            List<Change> appends = new ArrayList<>();
+            for (Change change : this.changes) {
+                if (!change.removed()) {
+                    appends.add(change);
+                }
+            }
+            Record record = new Record(this.sequence, appends);
+            record.committed = true;
+            return record;
+        }
+    }
+
+    /**
+     * An index entry to be appended or eliminated
+     */
+    public static final class Change {
+
+        private final boolean removed;
+        private final Id indexLabel;
+        private final Object fieldValues;
+        private final Id elementId;
+        private final long expiredTime;
+
+        public Change(boolean removed, Id indexLabel, Object fieldValues,
+                      Id elementId, long expiredTime) {
+            this.removed = removed;
+            this.indexLabel = indexLabel;
+            this.fieldValues = fieldValues;
+            this.elementId = elementId;
+            this.expiredTime = expiredTime;
+        }
+
+        public boolean removed() {
+            return this.removed;
+        }
+
+        public Id indexLabel() {
+            return this.indexLabel;
+        }
+
+        public Object fieldValues() {
+            return this.fieldValues;
+        }
+
+        public Id elementId() {
+            return this.elementId;
+        }
+
+        public long expiredTime() {
+            return this.expiredTime;
+        }
+
+        private void writeTo(BytesBuffer buffer) {
+            DataType dataType = dataType(this.fieldValues);
+            buffer.write((byte) (this.removed ? 1 : 0));
+            buffer.writeId(this.indexLabel);
+            buffer.write(dataType.code());
+            buffer.writeProperty(dataType, this.fieldValues);
+            buffer.writeId(this.elementId);
+            buffer.writeVLong(this.expiredTime);
+        }
+
+        private static Change readFrom(BytesBuffer buffer) {
+            boolean removed = buffer.read() == 1;
+            Id indexLabel = buffer.readId();
+            DataType dataType = SerialEnum.fromCode(DataType.class,
+                                                    buffer.read());
+            Object fieldValues = buffer.readProperty(dataType);
+            Id elementId = buffer.readId();
+            long expiredTime = buffer.readVLong();
+            return new Change(removed, indexLabel, fieldValues,
+                              elementId, expiredTime);
+        }
+
+        private static DataType dataType(Object value) {
+            // The field values are either numbers or strings
+            for (DataType dataType : DataType.values()) {
+                if (dataType != DataType.UNKNOWN &&
+                    dataType != DataType.OBJECT &&
+                    dataType.clazz().isInstance(value)) {
+                    return dataType;
+                }
+            }
+            return DataType.OBJECT;
+        }
+    }
+}
@@ -23,13 +23,14 @@ import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -42,7 +43,9 @@ import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.HugeGraphParams;
 import com.baidu.hugegraph.analyzer.Analyzer;
+import com.baidu.hugegraph.backend.cache.QueryCache;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdUtil;
 import com.baidu.hugegraph.backend.page.IdHolder;
 import com.baidu.hugegraph.backend.page.IdHolder.BatchIdHolder;
 import com.baidu.hugegraph.backend.page.IdHolder.FixedIdHolder;
@@ -63,6 +66,7 @@ import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.query.QueryResults;
 import com.baidu.hugegraph.backend.serializer.AbstractSerializer;
 import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.config.HugeConfig;
@@ -84,14 +88,18 @@ import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.task.HugeTask;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.Action;
+import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.type.define.IndexType;
+import com.baidu.hugegraph.type.define.SchemaStatus;
 import com.baidu.hugegraph.util.CollectionUtil;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.baidu.hugegraph.util.LockUtil;
 import com.baidu.hugegraph.util.LongEncoding;
 import com.baidu.hugegraph.util.NumericUtil;
+import com.baidu.hugegraph.util.QueryProfiler;
+import com.baidu.hugegraph.util.QueryProfiler.Item;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
@@ -104,6 +112,11 @@ public class GraphIndexTransaction extends AbstractTransaction {
 
     private final Analyzer textAnalyzer;
     private final int indexIntersectThresh;
+    private final double scanCostRatio;
+    private final IndexStatistics statistics;
+    private final IndexStatistics.Changes statisticsChanges;
+
+    private List<AsyncIndexQueue.Change> asyncChanges;
 
     public GraphIndexTransaction(HugeGraphParams graph, BackendStore store) {
         super(graph, store);
@@ -114,6 +127,210 @@ public class GraphIndexTransaction extends AbstractTransaction {
         final HugeConfig conf = graph.configuration();
         this.indexIntersectThresh =
              conf.get(CoreOptions.QUERY_INDEX_INTERSECT_THRESHOLD);
+        this.scanCostRatio = conf.get(CoreOptions.QUERY_SCAN_COST_RATIO);
+        this.statistics = IndexStatistics.of(graph.name());
+        this.statisticsChanges = this.statistics.changes();
+        this.asyncChanges = new ArrayList<>();
+    }
+
+    protected IndexStatistics statistics() {
+        return this.statistics;
+    }
+
+    @Override
+    protected void reset() {
+        super.reset();
+        // It's null when called by super AbstractTransaction()
+        if (this.asyncChanges != null && !this.asyncChanges.isEmpty()) {
+            this.asyncChanges = new ArrayList<>();
+        }
+        if (this.statisticsChanges != null) {
+            this.statisticsChanges.clear();
+        }
+    }
+
+    @Override
+    public boolean hasUpdate() {
+        return super.hasUpdate() || !this.asyncChanges.isEmpty();
+    }
+
+    @Override
+    protected void commit2Backend() {
+        // The mutation is empty if there are only async index changes
+        this.commitMutation2Backend(this.prepareCommit());
+    }
+
+    @Override
+    protected void commitMutation2Backend(BackendMutation... mutations) {
+        this.commitMutation2Backend(mutations, super::commitMutation2Backend);
+    }
+
+    /**
+     * Commit the mutations by the function, the changes of async index
+     * labels are logged before committed and queued after committed, the
+     * statistics changes are applied after committed
+     */
+    protected void commitMutation2Backend(BackendMutation[] mutations,
+                                          Consumer<BackendMutation[]> commit) {
+        long sequence = this.prepareAsyncChanges();
+        try {
+            if (!isEmpty(mutations)) {
+                commit.accept(mutations);
+            }
+        } catch (Throwable e) {
+            this.abortAsyncChanges(sequence);
+            throw e;
+        }
+        this.commitAsyncChanges(sequence);
+        this.commitStatistics();
+    }
+
+    private static boolean isEmpty(BackendMutation... mutations) {
+        for (BackendMutation mutation : mutations) {
+            if (!mutation.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Apply the statistics changes of the transaction, called after the
+     * mutations of the transaction are committed
+     */
+    private void commitStatistics() {
+        this.statisticsChanges.commit();
+    }
+
+    /**
+     * Whether the statistics of the label of an element are tracked
+     */
+    public boolean trackStatistics(HugeElement element) {
+        SchemaLabel label = element.schemaLabel();
+        if (label.hidden()) {
+            return false;
+        }
+        return this.statistics.tracked(element.type(), label.id(),
+                                       label.indexLabels());
+    }
+
+    /**
+     * Update the statistics of the label and the index labels of an element
+     * which is added to or removed from backend, the changes are applied
+     * in batch out of the write path after committed
+     */
+    public void updateStatistics(HugeElement element, boolean removed) {
+        if (!this.trackStatistics(element)) {
+            return;
+        }
+        this.statisticsChanges.updateElement(element, removed);
+    }
+
+    /**
+     * Update the statistics of an index label by the index field values of
+     * an element, which are the same as the values written by updateIndex()
+     */
+    public void updateIndexStatistics(IndexLabel indexLabel,
+                                      HugeElement element, boolean removed) {
+        if (element.schemaLabel().hidden() ||
+            !IndexStatistics.supportEstimate(indexLabel.indexType())) {
+            return;
+        }
+        this.statisticsChanges.updateElementIndex(indexLabel, element,
+                                                  removed);
+    }
+
+    /**
+     * Write the changes of async index labels to the log of the async index
+     * queue, called before the mutations of the transaction are committed
+     * @return the sequence of the changes, or NO_SEQUENCE if no changes
+     */
+    private long prepareAsyncChanges() {
+        if (this.asyncChanges.isEmpty()) {
+            return AsyncIndexQueue.NO_SEQUENCE;
+        }
+        List<AsyncIndexQueue.Change> changes = this.asyncChanges;
+        this.asyncChanges = new ArrayList<>();
+        return this.params().asyncIndexQueue().prepare(changes);
+    }
+
+    /**
+     * Queue the prepared changes, called after the mutations of the
+     * transaction are committed
+     */
+    private void commitAsyncChanges(long sequence) {
+        if (sequence != AsyncIndexQueue.NO_SEQUENCE) {
+            this.params().asyncIndexQueue().commit(sequence);
+        }
+    }
+
+    /**
+     * Discard the prepared changes, called if failed to commit the
+     * mutations of the transaction
+     */
+    private void abortAsyncChanges(long sequence) {
+        if (sequence != AsyncIndexQueue.NO_SEQUENCE) {
+            this.params().asyncIndexQueue().abort(sequence);
+        }
+    }
+
+    /**
+     * Write the index entries of the async index changes in key order and
+     * commit them, the changes of the removed index labels are ignored
+     * @param changes the changes in sequence order, only the last change of
+     *                each index entry takes effect
+     */
+    protected void applyAsyncChanges(List<AsyncIndexQueue.Change> changes) {
+        // Keep the last change of each index entry of an element
+        Map<List<Object>, AsyncIndexQueue.Change> lastChanges;
+        lastChanges = new HashMap<>(changes.size());
+        for (AsyncIndexQueue.Change change : changes) {
+            lastChanges.put(ImmutableList.of(change.indexLabel(),
+                                             change.fieldValues(),
+                                             change.elementId()), change);
+        }
+
+        SchemaTransaction schema = this.params().schemaTransaction();
+        List<BackendEntry> appends = new ArrayList<>(lastChanges.size());
+        List<BackendEntry> eliminates = new ArrayList<>();
+        Set<IndexLabel> indexLabels = InsertionOrderUtil.newSet();
+        for (AsyncIndexQueue.Change change : lastChanges.values()) {
+            IndexLabel indexLabel = schema.getIndexLabel(change.indexLabel());
+            if (indexLabel == null) {
+                continue;
+            }
+            indexLabels.add(indexLabel);
+            HugeIndex index = new HugeIndex(this.graph(), indexLabel);
+            index.fieldValues(change.fieldValues());
+            index.elementIds(change.elementId(), change.expiredTime());
+            BackendEntry entry = this.serializer.writeIndex(index);
+            if (change.removed()) {
+                eliminates.add(entry);
+            } else {
+                appends.add(entry);
+            }
+        }
+
+        // The entries are distinct, so they can be written in key order
+        Comparator<BackendEntry> byId = Comparator.comparing(
+                                        BackendEntry::id);
+        eliminates.sort(byId);
+        appends.sort(byId);
+        for (BackendEntry entry : eliminates) {
+            this.doEliminate(entry);
+        }
+        for (BackendEntry entry : appends) {
+            this.doAppend(entry);
+        }
+        this.commit();
+
+        // The index query results of the labels are changed
+        QueryCache cache = QueryCache.of(this.graph().name());
+        for (IndexLabel indexLabel : indexLabels) {
+            HugeType type = indexLabel.baseType() == HugeType.VERTEX_LABEL ?
+                            HugeType.VERTEX : HugeType.EDGE;
+            cache.labelChanged(type, indexLabel.baseValue());
+        }
     }
 
     protected Id asyncRemoveIndexLeft(ConditionQuery query,
@@ -249,6 +466,19 @@ public class GraphIndexTransaction extends AbstractTransaction {
                 this.updateIndex(indexLabel, value, element.id(),
                                  expiredTime, removed);
                 break;
+            case VERTEX_CENTRIC:
+                E.checkState(element instanceof HugeEdge,
+                             "Expect edge for vertex-centric index, " +
+                             "but got '%s'", element);
+                HugeEdge edge = (HugeEdge) element;
+                // Index the edge in the adjacent edges of both vertices
+                this.updateIndex(indexLabel, edge.sourceVertex().id(),
+                                 Directions.OUT, propValues, edge.id(),
+                                 expiredTime, removed);
+                this.updateIndex(indexLabel, edge.targetVertex().id(),
+                                 Directions.IN, propValues, edge.id(),
+                                 expiredTime, removed);
+                break;
             case UNIQUE:
                 value = ConditionQuery.concatValues(allPropValues);
                 assert !value.equals("");
@@ -270,6 +500,14 @@ public class GraphIndexTransaction extends AbstractTransaction {
 
     private void updateIndex(IndexLabel indexLabel, Object propValue,
                              Id elementId, long expiredTime, boolean removed) {
+        if (indexLabel.async()) {
+            // Apply by the async index queue after committed
+            this.asyncChanges.add(new AsyncIndexQueue.Change(
+                                  removed, indexLabel.id(), propValue,
+                                  elementId, expiredTime));
+            return;
+        }
+
         HugeIndex index = new HugeIndex(this.graph(), indexLabel);
         index.fieldValues(propValue);
         index.elementIds(elementId, expiredTime);
@@ -281,6 +519,16 @@ public class GraphIndexTransaction extends AbstractTransaction {
         }
     }
 
+    private void updateIndex(IndexLabel indexLabel, Id vertex,
+                             Directions direction, List<Object> propValues,
+                             Id elementId, long expiredTime, boolean removed) {
+        List<Object> values = vertexCentricPrefixes(vertex, direction);
+        values.addAll(propValues);
+        String value = ConditionQuery.concatValues(values);
+        value = escapeIndexValueIfNeeded(value);
+        this.updateIndex(indexLabel, value, elementId, expiredTime, removed);
+    }
+
     private boolean existUniqueValue(IndexLabel indexLabel,
                                      Object value, Id id) {
         return !this.hasEliminateInTx(indexLabel, value, id) &&
@@ -347,22 +595,120 @@ public class GraphIndexTransaction extends AbstractTransaction {
 
         // Can't query by index and by non-label sysprop at the same time
         List<Condition> conds = query.syspropConditions();
-        if (conds.size() > 1 ||
-            (conds.size() == 1 && !query.containsCondition(HugeKeys.LABEL))) {
+        if (!queryAdjacentEdges(query) && (conds.size() > 1 ||
+            (conds.size() == 1 && !query.containsCondition(HugeKeys.LABEL)))) {
             throw new HugeException("Can't do index query with %s and %s",
                                     conds, query.userpropConditions());
         }
 
         // Query by index
         query.optimized(OptimizedType.INDEX);
-        if (query.allSysprop() && conds.size() == 1 &&
-            query.containsCondition(HugeKeys.LABEL)) {
-            // Query only by label
-            return this.queryByLabel(query);
+        long begin = QueryProfiler.begin();
+        try {
+            if (query.allSysprop() && conds.size() == 1 &&
+                query.containsCondition(HugeKeys.LABEL)) {
+                // Query only by label
+                return this.queryByLabel(query);
+            } else {
+                // Query by userprops (or userprops + label)
+                return this.queryByUserprop(query);
+            }
+        } finally {
+            QueryProfiler.end(Item.INDEX_LOOKUP, begin);
+        }
+    }
+
+    /**
+     * Plan to scan the elements of the query label and filter them in memory
+     * instead of querying by the matched index, if the index is estimated to
+     * match too many elements of the label, so that fetching them by id one
+     * by one costs more than scanning the label.
+     * @param query original condition query with a label and userprops
+     * @return      the scan query which should be filtered by the original
+     *              query, or null if it's better to query by index or the
+     *              costs can't be estimated
+     */
+    public ConditionQuery planScan(ConditionQuery query) {
+        if (this.scanCostRatio <= 0.0D || query.paging() ||
+            this.hasUpdate() || query.hasSearchCondition() ||
+            queryAdjacentEdges(query)) {
+            return null;
+        }
+        Id label = query.condition(HugeKeys.LABEL);
+        if (label == null || query.syspropConditions().size() != 1 ||
+            query.userpropConditions().isEmpty()) {
+            return null;
+        }
+        Set<MatchedIndex> indexes = this.collectMatchedIndexes(query);
+        if (indexes.size() != 1) {
+            return null;
+        }
+        MatchedIndex index = indexes.iterator().next();
+        if (index.containsSearchIndex() ||
+            !validQueryConditionValues(this.graph(), query)) {
+            return null;
+        }
+
+        // The number of element ids matched by the index
+        long matched = Long.MAX_VALUE;
+        IndexQueries queries = index.constructIndexQueries(query);
+        for (Map.Entry<IndexLabel, ConditionQuery> e : queries.entrySet()) {
+            long estimate = this.statistics.estimate(e.getKey(), e.getValue());
+            if (estimate != IndexStatistics.UNKNOWN) {
+                matched = Math.min(matched, estimate);
+            }
+        }
+        if (matched == Long.MAX_VALUE) {
+            return null;
+        }
+
+        // The number of elements to be scanned
+        HugeType type = query.resultType();
+        boolean byLabel = this.store().features().supportsQueryByLabel();
+        long scanned;
+        if (byLabel) {
+            scanned = this.statistics.labelCount(type, label);
         } else {
-            // Query by userprops (or userprops + label)
-            return this.queryByUserprop(query);
+            List<Id> labels = new ArrayList<>();
+            Collection<? extends SchemaLabel> schemaLabels =
+                    type.isVertex() ? this.graph().vertexLabels() :
+                                      this.graph().edgeLabels();
+            for (SchemaLabel schemaLabel : schemaLabels) {
+                // The elements of hidden labels are in the system store
+                if (!schemaLabel.hidden()) {
+                    labels.add(schemaLabel.id());
+                }
+            }
+            scanned = this.statistics.typeCount(type, labels);
+        }
+        if (scanned == IndexStatistics.UNKNOWN ||
+            scanned * this.scanCostRatio >= matched ||
+            (query.capacity() != Query.NO_CAPACITY &&
+             scanned > query.capacity())) {
+            return null;
         }
+
+        ConditionQuery scan = query.copy();
+        scan.resetUserpropConditions();
+        if (!byLabel) {
+            scan.unsetCondition(HugeKeys.LABEL);
+        }
+        scan.offset(0L);
+        scan.limit(Query.NO_LIMIT);
+        /*
+         * The results of scan are not filtered by the userprops (or even the
+         * label), so mark the origin query (and its parent) to filter them
+         */
+        query.optimized(OptimizedType.SCAN);
+        scan.optimized(OptimizedType.SCAN);
+        if (QueryProfiler.enabled()) {
+            QueryProfiler.plan(String.format(
+                               "scan %s of %s(estimated %s) instead of " +
+                               "index %s(estimated %s)",
+                               byLabel ? "label" : "all labels", type,
+                               scanned, indexNames(index), matched));
+        }
+        return scan;
     }
 
     @Watched(prefix = "index")
@@ -400,6 +746,10 @@ public class GraphIndexTransaction extends AbstractTransaction {
          */
         indexQuery.copyBasic(query);
 
+        if (QueryProfiler.enabled()) {
+            QueryProfiler.plan(String.format("label index of '%s'",
+                                             schemaLabel.name()));
+        }
         IdHolder idHolder = this.doIndexQuery(il, indexQuery);
 
         IdHolderList holders = new IdHolderList(query.paging());
@@ -432,11 +782,18 @@ public class GraphIndexTransaction extends AbstractTransaction {
 
             if (index.containsSearchIndex()) {
                 // Do search-index query
+                if (QueryProfiler.enabled()) {
+                    QueryProfiler.plan(String.format("search index %s",
+                                                     indexNames(index)));
+                }
                 holders.addAll(this.doSearchIndex(query, index));
             } else {
                 // Do secondary-index, range-index or shard-index query
                 IndexQueries queries = index.constructIndexQueries(query);
                 assert !paging || queries.size() <= 1;
+                if (QueryProfiler.enabled()) {
+                    QueryProfiler.plan(this.explain(queries));
+                }
                 IdHolder holder = this.doSingleOrJointIndex(queries);
                 holders.add(holder);
             }
@@ -453,6 +810,34 @@ public class GraphIndexTransaction extends AbstractTransaction {
         return holders;
     }
 
+    private String explain(IndexQueries queries) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(queries.size() == 1 ? "index " : "joint indexes ");
+        boolean first = true;
+        for (Map.Entry<IndexLabel, ConditionQuery> e :
+             this.orderBySelectivity(queries)) {
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            long estimate = this.statistics.estimate(e.getKey(), e.getValue());
+            sb.append('\'').append(e.getKey().name()).append('\'');
+            sb.append("(estimated ");
+            sb.append(estimate == IndexStatistics.UNKNOWN ?
+                      "unknown" : String.valueOf(estimate));
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+
+    private static List<String> indexNames(MatchedIndex index) {
+        List<String> names = new ArrayList<>();
+        for (IndexLabel il : index.indexLabels()) {
+            names.add(il.name());
+        }
+        return names;
+    }
+
     @Watched(prefix = "index")
     private IdHolderList doSearchIndex(ConditionQuery query,
                                        MatchedIndex index) {
@@ -503,7 +888,8 @@ public class GraphIndexTransaction extends AbstractTransaction {
         Set<Id> intersectIds = null;
         boolean filtering = false;
         IdHolder resultHolder = null;
-        for (Map.Entry<IndexLabel, ConditionQuery> e : queries.entrySet()) {
+        for (Map.Entry<IndexLabel, ConditionQuery> e :
+             this.orderBySelectivity(queries)) {
             IndexLabel indexLabel = e.getKey();
             ConditionQuery query = e.getValue();
             assert !query.paging();
@@ -558,6 +944,27 @@ public class GraphIndexTransaction extends AbstractTransaction {
         }
     }
 
+    /**
+     * Order the joint index queries by the estimated number of matched
+     * elements, so the most selective index is intersected or chosen as the
+     * filtering index first, keep the order if any of them can't be estimated
+     */
+    private List<Map.Entry<IndexLabel, ConditionQuery>> orderBySelectivity(
+                                                        IndexQueries queries) {
+        List<Map.Entry<IndexLabel, ConditionQuery>> entries =
+                                      new ArrayList<>(queries.entrySet());
+        Map<IndexLabel, Long> estimates = new HashMap<>();
+        for (Map.Entry<IndexLabel, ConditionQuery> e : entries) {
+            long estimate = this.statistics.estimate(e.getKey(), e.getValue());
+            if (estimate == IndexStatistics.UNKNOWN) {
+                return entries;
+            }
+            estimates.put(e.getKey(), estimate);
+        }
+        entries.sort(Comparator.comparing(e -> estimates.get(e.getKey())));
+        return entries;
+    }
+
     @Watched(prefix = "index")
     private IdHolder doIndexQuery(IndexLabel indexLabel, ConditionQuery query) {
         if (!query.paging()) {
@@ -699,10 +1106,13 @@ public class GraphIndexTransaction extends AbstractTransaction {
     private MatchedIndex collectMatchedIndex(SchemaLabel schemaLabel,
                                              ConditionQuery query) {
         SchemaTransaction schema = this.params().schemaTransaction();
+        // The adjacent edges of a vertex can only be queried by vertex-centric
+        boolean adjacentEdges = queryAdjacentEdges(query);
         Set<IndexLabel> ils = InsertionOrderUtil.newSet();
         for (Id il : schemaLabel.indexLabels()) {
             IndexLabel indexLabel = schema.getIndexLabel(il);
-            if (indexLabel.indexType().isUnique()) {
+            if (indexLabel.indexType().isUnique() ||
+                indexLabel.indexType().isVertexCentric() != adjacentEdges) {
                 continue;
             }
             ils.add(indexLabel);
@@ -711,8 +1121,9 @@ public class GraphIndexTransaction extends AbstractTransaction {
             return null;
         }
         // Try to match single or composite index
-        Set<IndexLabel> matchedILs = matchSingleOrCompositeIndex(query, ils);
-        if (matchedILs.isEmpty()) {
+        Set<IndexLabel> matchedILs = this.matchSingleOrCompositeIndex(query,
+                                                                      ils);
+        if (matchedILs.isEmpty() && !adjacentEdges) {
             // Try to match joint indexes
             matchedILs = matchJointIndexes(query, ils);
         }
@@ -727,7 +1138,8 @@ public class GraphIndexTransaction extends AbstractTransaction {
     private ConditionQuery constructSearchQuery(ConditionQuery query,
                                                 MatchedIndex index) {
         ConditionQuery originQuery = query;
-        Set<Id> indexFields = new HashSet<>();
+        // The segmented words of search text for each index field
+        Map<Id, Set<String>> indexFields = new HashMap<>();
         // Convert has(key, text) to has(key, textContainsAny(word1, word2))
         for (IndexLabel il : index.indexLabels()) {
             if (il.indexType() != IndexType.SEARCH) {
@@ -736,7 +1148,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
             Id indexField = il.indexField();
             String fieldValue = (String) query.userpropValue(indexField);
             Set<String> words = this.segmentWords(fieldValue);
-            indexFields.add(indexField);
+            indexFields.put(indexField, words);
 
             query = query.copy();
             query.unsetCondition(indexField);
@@ -747,12 +1159,13 @@ public class GraphIndexTransaction extends AbstractTransaction {
         query.registerResultsFilter(elem -> {
             for (Condition cond : originQuery.conditions()) {
                 Object key = cond.isRelation() ? ((Relation) cond).key() : null;
-                if (key instanceof Id && indexFields.contains(key)) {
+                if (key instanceof Id && indexFields.containsKey(key)) {
                     // This is an index field of search index
                     Id field = (Id) key;
                     String propValue = elem.<String>getPropertyValue(field);
-                    String fvalue = (String) originQuery.userpropValue(field);
-                    if (this.matchSearchIndexWords(propValue, fvalue)) {
+                    // Don't segment the search text again for each element
+                    Set<String> words = indexFields.get(field);
+                    if (this.matchSearchIndexWords(propValue, words)) {
                         continue;
                     }
                     return false;
@@ -768,8 +1181,12 @@ public class GraphIndexTransaction extends AbstractTransaction {
     }
 
     private boolean matchSearchIndexWords(String propValue, String fieldValue) {
-        Set<String> propValues = this.segmentWords(propValue);
         Set<String> words = this.segmentWords(fieldValue);
+        return this.matchSearchIndexWords(propValue, words);
+    }
+
+    private boolean matchSearchIndexWords(String propValue, Set<String> words) {
+        Set<String> propValues = this.segmentWords(propValue);
         return CollectionUtil.hasIntersection(propValues, words);
     }
 
@@ -795,7 +1212,38 @@ public class GraphIndexTransaction extends AbstractTransaction {
         }
     }
 
-    private static Set<IndexLabel> matchSingleOrCompositeIndex(
+    /**
+     * Match a single or composite index, if more than one index labels are
+     * matched, choose the one estimated to match the least elements, or the
+     * first one if any of them can't be estimated
+     */
+    private Set<IndexLabel> matchSingleOrCompositeIndex(
+                            ConditionQuery query,
+                            Set<IndexLabel> indexLabels) {
+        Set<IndexLabel> matchedILs = matchSingleOrCompositeIndexes(
+                                     query, indexLabels);
+        if (matchedILs.size() <= 1) {
+            return matchedILs;
+        }
+        IndexLabel cheapest = null;
+        long minEstimate = Long.MAX_VALUE;
+        for (IndexLabel indexLabel : matchedILs) {
+            ConditionQuery indexQuery = constructQuery(query, indexLabel);
+            long estimate = indexQuery == null ? IndexStatistics.UNKNOWN :
+                            this.statistics.estimate(indexLabel, indexQuery);
+            if (estimate == IndexStatistics.UNKNOWN) {
+                cheapest = matchedILs.iterator().next();
+                break;
+            }
+            if (estimate < minEstimate) {
+                cheapest = indexLabel;
+                minEstimate = estimate;
+            }
+        }
+        return ImmutableSet.of(cheapest);
+    }
+
+    private static Set<IndexLabel> matchSingleOrCompositeIndexes(
                                    ConditionQuery query,
                                    Set<IndexLabel> indexLabels) {
         if (query.hasNeqCondition()) {
@@ -804,6 +1252,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
         boolean requireRange = query.hasRangeCondition();
         boolean requireSearch = query.hasSearchCondition();
         Set<Id> queryPropKeys = query.userpropKeys();
+        Set<IndexLabel> matchedILs = InsertionOrderUtil.newSet();
         for (IndexLabel indexLabel : indexLabels) {
             List<Id> indexFields = indexLabel.indexFields();
             // Try to match fields
@@ -827,9 +1276,9 @@ public class GraphIndexTransaction extends AbstractTransaction {
             if (requireRange && !indexType.isNumeric()) {
                 continue;
             }
-            return ImmutableSet.of(indexLabel);
+            matchedILs.add(indexLabel);
         }
-        return ImmutableSet.of();
+        return matchedILs;
     }
 
     /**
@@ -1135,6 +1584,19 @@ public class GraphIndexTransaction extends AbstractTransaction {
                                              HugeKeys.FIELD_VALUES);
                 indexQuery.query(conditions);
                 break;
+            case VERTEX_CENTRIC:
+                indexQuery = new ConditionQuery(indexType.type(), query);
+                indexQuery.eq(HugeKeys.INDEX_LABEL_ID, indexLabel.id());
+                // Query in the adjacent edges of the vertex
+                List<Object> prefixes = vertexCentricPrefixes(
+                                        query.condition(HugeKeys.OWNER_VERTEX),
+                                        query.condition(HugeKeys.DIRECTION));
+                conditions = constructShardConditions(query,
+                                                      indexLabel.indexFields(),
+                                                      HugeKeys.FIELD_VALUES,
+                                                      prefixes);
+                indexQuery.query(conditions);
+                break;
             default:
                 throw new AssertionError(String.format(
                           "Unknown index type '%s'", indexType));
@@ -1157,10 +1619,18 @@ public class GraphIndexTransaction extends AbstractTransaction {
                                      ConditionQuery query,
                                      List<Id> fields,
                                      HugeKeys key) {
+        return constructShardConditions(query, fields, key, new ArrayList<>());
+    }
+
+    private static List<Condition> constructShardConditions(
+                                   ConditionQuery query,
+                                   List<Id> fields,
+                                   HugeKeys key,
+                                   List<Object> prefixes) {
         List<Condition> conditions = new ArrayList<>(2);
         boolean hasRange = false;
         int processedCondCount = 0;
-        List<Object> prefixes = new ArrayList<>();
+        int fixedPrefixes = prefixes.size();
 
         for (Id field : fields) {
             List<Condition> fieldConds = query.userpropConditions(field);
@@ -1224,7 +1694,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
         // 2. Shard query without range
         String joinedValues;
         // 2.1 All fields have equal-conditions
-        if (prefixes.size() == fields.size()) {
+        if (prefixes.size() - fixedPrefixes == fields.size()) {
             // Prefix numeric values should be converted to sortable string
             joinedValues = ConditionQuery.concatValues(prefixes);
             conditions.add(Condition.eq(key, joinedValues));
@@ -1274,6 +1744,29 @@ public class GraphIndexTransaction extends AbstractTransaction {
         return cbuf.toString();
     }
 
+    /**
+     * Whether query the adjacent edges of a vertex with user properties,
+     * like: g.V(id).outE(label).has(key, value)
+     */
+    private static boolean queryAdjacentEdges(ConditionQuery query) {
+        return query.resultType().isEdge() &&
+               query.syspropConditions().size() == 3 &&
+               query.containsCondition(HugeKeys.OWNER_VERTEX) &&
+               query.containsCondition(HugeKeys.DIRECTION) &&
+               query.containsCondition(HugeKeys.LABEL);
+    }
+
+    private static List<Object> vertexCentricPrefixes(Id vertex,
+                                                      Directions direction) {
+        E.checkArgument(vertex != null && direction != null,
+                        "Expect vertex and direction of vertex-centric " +
+                        "index, but got %s and %s", vertex, direction);
+        List<Object> prefixes = new ArrayList<>();
+        prefixes.add(IdUtil.writeString(vertex));
+        prefixes.add(direction.type().string());
+        return prefixes;
+    }
+
     private static boolean matchIndexFields(Set<Id> queryKeys,
                                             List<Id> indexFields) {
         if (queryKeys.size() > indexFields.size()) {
@@ -1303,7 +1796,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
         return true;
     }
 
-    private static String escapeIndexValueIfNeeded(String value) {
+    protected static String escapeIndexValueIfNeeded(String value) {
         for (int i = 0; i < value.length(); i++) {
             char ch = value.charAt(i);
             if (ch <= INDEX_SYM_MAX) {
@@ -1380,6 +1873,55 @@ public class GraphIndexTransaction extends AbstractTransaction {
     protected void removeIndex(IndexLabel indexLabel) {
         HugeIndex index = new HugeIndex(this.graph(), indexLabel);
         this.doRemove(this.serializer.writeIndex(index));
+        if (indexLabel.status() == SchemaStatus.DELETING) {
+            this.statisticsChanges.indexRemoved(indexLabel.id());
+        } else {
+            // The index entries will be rebuilt from empty
+            this.statisticsChanges.indexRebuilt(indexLabel);
+        }
+    }
+
+    /**
+     * Query the ids of all the elements of a label from the label index,
+     * which are fetched batch by batch from the holder
+     * @return the id holder, or null if the label index is not used
+     */
+    protected BatchIdHolder queryLabelIndex(SchemaLabel label) {
+        if (!this.needIndexForLabel() || !label.enableLabelIndex()) {
+            return null;
+        }
+        HugeType type;
+        HugeType indexType;
+        if (label.type() == HugeType.VERTEX_LABEL) {
+            type = HugeType.VERTEX;
+            indexType = HugeType.VERTEX_LABEL_INDEX;
+        } else {
+            type = HugeType.EDGE;
+            indexType = HugeType.EDGE_LABEL_INDEX;
+        }
+        IndexLabel il = IndexLabel.label(type);
+        ConditionQuery query = new ConditionQuery(indexType);
+        query.eq(HugeKeys.INDEX_LABEL_ID, il.id());
+        query.eq(HugeKeys.FIELD_VALUES, label.id());
+        query.capacity(Query.NO_CAPACITY);
+        query.limit(Query.NO_LIMIT);
+        query.showExpired(true);
+        return (BatchIdHolder) this.doIndexQueryBatch(il, query);
+    }
+
+    /**
+     * Remove the label index of all the elements of a label, which is
+     * stored with the label id as key prefix so it's deleted by range
+     */
+    protected void removeLabelIndex(SchemaLabel label) {
+        if (!this.needIndexForLabel() || !label.enableLabelIndex()) {
+            return;
+        }
+        HugeType type = label.type() == HugeType.VERTEX_LABEL ?
+                        HugeType.VERTEX : HugeType.EDGE;
+        HugeIndex index = new HugeIndex(this.graph(), IndexLabel.label(type));
+        index.fieldValues(label.id());
+        this.doRemove(this.serializer.writeIndex(index));
     }
 
     private static class MatchedIndex {
@@ -19,6 +19,7 @@
 
 package com.baidu.hugegraph.backend.tx;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -28,7 +29,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -49,6 +55,7 @@ import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.id.EdgeId;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.SplicingIdGenerator;
+import com.baidu.hugegraph.backend.page.IdHolder.BatchIdHolder;
 import com.baidu.hugegraph.backend.page.IdHolderList;
 import com.baidu.hugegraph.backend.page.PageInfo;
 import com.baidu.hugegraph.backend.page.QueryList;
@@ -60,9 +67,12 @@ import com.baidu.hugegraph.backend.query.ConditionQueryFlatten;
 import com.baidu.hugegraph.backend.query.IdQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.query.QueryResults;
+import com.baidu.hugegraph.backend.serializer.BinaryPropertyFilter;
+import com.baidu.hugegraph.backend.serializer.BinarySerializer;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.exception.LimitExceedException;
@@ -94,15 +104,22 @@ import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.type.define.IdStrategy;
 import com.baidu.hugegraph.type.define.SchemaStatus;
+import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
 import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.baidu.hugegraph.util.LockUtil;
+import com.baidu.hugegraph.util.QueryProfiler;
+import com.baidu.hugegraph.util.QueryProfiler.Item;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 
 public class GraphTransaction extends IndexableTransaction {
 
     public static final int COMMIT_BATCH = (int) Query.COMMIT_BATCH;
 
+    private static final long REMOVE_SPLIT_SIZE = 64 * Bytes.MB;
+
     private final GraphIndexTransaction indexTx;
 
     private Map<Id, HugeVertex> addedVertices;
@@ -281,6 +298,28 @@ public class GraphTransaction extends IndexableTransaction {
         return new ArrayList<>(this.removedVertices.values());
     }
 
+    protected final Collection<HugeEdge> edgesInTxAdded() {
+        return new ArrayList<>(this.addedEdges.values());
+    }
+
+    protected final Collection<HugeEdge> edgesInTxRemoved() {
+        return new ArrayList<>(this.removedEdges.values());
+    }
+
+    protected final Set<Id> edgesInTxLabels() {
+        Set<Id> labels = new HashSet<>();
+        for (HugeEdge edge : this.addedEdges.values()) {
+            labels.add(edge.schemaLabel().id());
+        }
+        for (HugeEdge edge : this.removedEdges.values()) {
+            labels.add(edge.schemaLabel().id());
+        }
+        for (HugeEdge edge : this.updatedEdges.values()) {
+            labels.add(edge.schemaLabel().id());
+        }
+        return labels;
+    }
+
     protected final boolean removingEdgeOwner(HugeEdge edge) {
         for (HugeVertex vertex : this.removedVertices.values()) {
             if (edge.belongToVertex(vertex)) {
@@ -310,11 +349,28 @@ public class GraphTransaction extends IndexableTransaction {
         return this.mutation();
     }
 
+    @Override
+    protected void commitMutation2Backend(BackendMutation... mutations) {
+        // Commit with the async index changes and statistics of indexTx
+        this.indexTx.commitMutation2Backend(mutations,
+                                            super::commitMutation2Backend);
+    }
+
     protected void prepareAdditions(Map<Id, HugeVertex> addedVertices,
                                     Map<Id, HugeEdge> addedEdges) {
         if (this.checkCustomVertexExist) {
             this.checkVertexExistIfCustomizedId(addedVertices);
         }
+        // Update statistics before the vertices and edges are committed
+        this.updateStatistics(HugeType.VERTEX, addedVertices.values());
+        List<HugeEdge> edges = new ArrayList<>(addedEdges.size());
+        for (HugeEdge e : addedEdges.values()) {
+            if (!this.removingEdgeOwner(e)) {
+                edges.add(e);
+            }
+        }
+        this.updateStatistics(HugeType.EDGE, edges);
+
         // Do vertex update
         for (HugeVertex v : addedVertices.values()) {
             assert !v.removed();
@@ -387,6 +443,7 @@ public class GraphTransaction extends IndexableTransaction {
             this.doRemove(this.serializer.writeVertex(v.prepareRemoved()));
             this.indexTx.updateVertexIndex(v, true);
             this.indexTx.updateLabelIndex(v, true);
+            this.indexTx.updateStatistics(v, true);
         }
 
         // Remove edges
@@ -400,6 +457,7 @@ public class GraphTransaction extends IndexableTransaction {
             // Update edge index
             this.indexTx.updateEdgeIndex(e, true);
             this.indexTx.updateLabelIndex(e, true);
+            this.indexTx.updateStatistics(e, true);
             // Remove edge of OUT and IN
             e = e.prepareRemoved();
             this.doRemove(this.serializer.writeEdge(e));
@@ -409,6 +467,21 @@ public class GraphTransaction extends IndexableTransaction {
 
     protected void prepareUpdates(Set<HugeProperty<?>> addedProps,
                                   Set<HugeProperty<?>> removedProps) {
+        // Update statistics of the elements updated in place
+        Set<HugeVertex> vertices = InsertionOrderUtil.newSet();
+        Set<HugeEdge> edges = InsertionOrderUtil.newSet();
+        for (HugeProperty<?> p : Iterables.concat(removedProps, addedProps)) {
+            if (p.element().type().isVertex()) {
+                if (this.store().features().supportsUpdateVertexProperty()) {
+                    vertices.add((HugeVertex) p.element());
+                }
+            } else if (this.store().features().supportsUpdateEdgeProperty()) {
+                edges.add((HugeEdge) p.element());
+            }
+        }
+        this.updateStatistics(HugeType.VERTEX, vertices);
+        this.updateStatistics(HugeType.EDGE, edges);
+
         for (HugeProperty<?> p : removedProps) {
             this.checkAggregateProperty(p);
             if (p.element().type().isVertex()) {
@@ -469,6 +542,56 @@ public class GraphTransaction extends IndexableTransaction {
         }
     }
 
+    /**
+     * Update the statistics of the added or updated elements, the elements
+     * which may exist in backend are queried, and the statistics of the
+     * overwritten ones are subtracted before adding the new ones
+     */
+    private void updateStatistics(HugeType type,
+                                  Collection<? extends HugeElement> elements) {
+        List<HugeElement> tracked = new ArrayList<>();
+        Set<Id> ids = InsertionOrderUtil.newSet();
+        for (HugeElement element : elements) {
+            if (!this.indexTx.trackStatistics(element)) {
+                continue;
+            }
+            tracked.add(element);
+            // The vertex with a new automatic id can't exist
+            if (!element.fresh() || type.isEdge() ||
+                ((HugeVertex) element).schemaLabel().idStrategy() !=
+                IdStrategy.AUTOMATIC) {
+                ids.add(element.id());
+            }
+        }
+        if (tracked.isEmpty()) {
+            return;
+        }
+
+        Map<Id, HugeElement> existed = new HashMap<>();
+        if (!ids.isEmpty()) {
+            IdQuery query = new IdQuery(type, ids);
+            Iterator<? extends HugeElement> results = type.isVertex() ?
+                                  this.queryVerticesFromBackend(query) :
+                                  this.queryEdgesFromBackend(query);
+            try {
+                while (results.hasNext()) {
+                    HugeElement element = results.next();
+                    existed.put(element.id(), element);
+                }
+            } finally {
+                CloseableIterator.closeIterator(results);
+            }
+        }
+
+        for (HugeElement element : tracked) {
+            HugeElement old = existed.get(element.id());
+            if (old != null) {
+                this.indexTx.updateStatistics(old, true);
+            }
+            this.indexTx.updateStatistics(element, false);
+        }
+    }
+
     private void commitPartOfEdgeDeletions(Map<Id, HugeEdge> removedEdges) {
         assert this.commitPartOfAdjacentEdges > 0;
 
@@ -525,6 +648,15 @@ public class GraphTransaction extends IndexableTransaction {
 
     @Override
     public Number queryNumber(Query query) {
+        Aggregate aggregate = query.aggregateNotNull();
+        if (aggregate.column() != null) {
+            /*
+             * The property is aggregated by querying elements, which also
+             * includes the uncommitted records of this transaction
+             */
+            return this.queryNumberByProperty(query, aggregate);
+        }
+
         E.checkArgument(!this.hasUpdate(),
                         "It's not allowed to query number when " +
                         "there are uncommitted records.");
@@ -537,7 +669,20 @@ public class GraphTransaction extends IndexableTransaction {
             boolean indexQuery = q.getClass() == IdQuery.class;
             OptimizedType optimized = ((ConditionQuery) query).optimized();
             Number result;
-            if (!indexQuery) {
+            if (isScanQuery(q)) {
+                // Count the scanned elements which match the conditions
+                ConditionQuery cq = (ConditionQuery) q.originQuery();
+                Iterator<?> elems = q.resultType().isVertex() ?
+                                    this.queryVertices(q) :
+                                    this.queryEdges(q);
+                long count = 0L;
+                while (elems.hasNext()) {
+                    if (cq.test((HugeElement) elems.next())) {
+                        count++;
+                    }
+                }
+                result = count;
+            } else if (!indexQuery) {
                 result = super.queryNumber(q);
             } else if (optimized == OptimizedType.INDEX) {
                 // The number of ids means results size (assume no left index)
@@ -555,10 +700,52 @@ public class GraphTransaction extends IndexableTransaction {
         QueryResults<Number> results = queries.empty() ?
                                        QueryResults.empty() :
                                        queries.fetch(this.pageSize);
-        Aggregate aggregate = query.aggregateNotNull();
         return aggregate.reduce(results.iterator());
     }
 
+    @Watched(prefix = "graph")
+    protected Number queryNumberByProperty(Query query, Aggregate aggregate) {
+        /*
+         * NOTE: no backend aggregates a property natively, since properties
+         * are serialized into one column by all backends. The aggregation
+         * is done here by streaming the matched elements, which saves the
+         * traversers of gremlin steps but still reads every element, and
+         * the query is bounded by its capacity like any other query.
+         */
+        HugeType type = query.resultType();
+        E.checkArgument(type.isVertex() || type.isEdge(),
+                        "Can't aggregate property of %s", type);
+        PropertyKey pkey = this.graph().propertyKey(aggregate.column());
+
+        Query elemQuery = query.copy();
+        elemQuery.aggregate(null);
+
+        @SuppressWarnings("unchecked")
+        Iterator<HugeElement> elements = (Iterator<HugeElement>) (
+                                         type.isVertex() ?
+                                         this.queryVertices(elemQuery) :
+                                         this.queryEdges(elemQuery));
+        Iterator<Object> values = new FlatMapperIterator<>(elements, elem -> {
+            HugeProperty<Object> prop = elem.getProperty(pkey.id());
+            if (prop == null) {
+                return null;
+            }
+            Object value = prop.value();
+            if (value instanceof Collection) {
+                // Each value of set or list property is aggregated
+                @SuppressWarnings("unchecked")
+                Collection<Object> items = (Collection<Object>) value;
+                return items.iterator();
+            }
+            return IteratorUtils.of(value);
+        });
+        try {
+            return aggregate.reduceValues(values, pkey.dataType());
+        } finally {
+            CloseableIterator.closeIterator(elements);
+        }
+    }
+
     @Watched(prefix = "graph")
     public HugeVertex addVertex(Object... keyValues) {
         return this.addVertex(this.constructVertex(true, keyValues));
@@ -896,6 +1083,7 @@ public class GraphTransaction extends IndexableTransaction {
         query.resetActualOffset();
 
         Iterator<HugeEdge> results = this.queryEdgesFromBackend(query);
+        results = this.switchEdgesOwnerIfNeeded(results, query);
         results = this.filterUnmatchedRecords(results, query);
 
         /*
@@ -937,7 +1125,7 @@ public class GraphTransaction extends IndexableTransaction {
 
         Iterator<HugeEdge> edges = new FlatMapperIterator<>(entries, entry -> {
             // Edges are in a vertex
-            HugeVertex vertex = this.parseEntry(entry);
+            HugeVertex vertex = this.parseEntry(entry, true);
             if (vertex == null) {
                 return null;
             }
@@ -1201,6 +1389,80 @@ public class GraphTransaction extends IndexableTransaction {
         return false;
     }
 
+    public static boolean matchVertexCentricIndex(ConditionQuery query,
+                                                  HugeGraph graph) {
+        assert query.resultType().isEdge();
+        Id label = query.condition(HugeKeys.LABEL);
+        if (label == null || query.condition(HugeKeys.OWNER_VERTEX) == null ||
+            query.containsCondition(HugeKeys.PROPERTIES) ||
+            query.hasNeqCondition()) {
+            return false;
+        }
+        Set<Id> queryKeys = query.userpropKeys();
+        if (queryKeys.isEmpty()) {
+            return false;
+        }
+        for (Id id : graph.edgeLabel(label).indexLabels()) {
+            IndexLabel indexLabel = graph.indexLabel(id);
+            if (!indexLabel.indexType().isVertexCentric()) {
+                continue;
+            }
+            // The queryKeys must be the prefix of the index fields
+            List<Id> fields = indexLabel.indexFields();
+            if (queryKeys.size() <= fields.size() &&
+                fields.subList(0, queryKeys.size()).containsAll(queryKeys) &&
+                matchVertexCentricConditions(query, fields.subList(
+                                                    0, queryKeys.size()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The vertex-centric index can be scanned only if there is one equal
+     * condition on each of the leading fields, and one equal condition or
+     * a range (at most one lower and one upper bound) on the last field
+     */
+    private static boolean matchVertexCentricConditions(ConditionQuery query,
+                                                        List<Id> fields) {
+        for (int i = 0; i < fields.size(); i++) {
+            boolean last = i == fields.size() - 1;
+            int eq = 0;
+            int lower = 0;
+            int upper = 0;
+            for (Condition c : query.userpropConditions(fields.get(i))) {
+                if (!c.isRelation()) {
+                    return false;
+                }
+                switch (((Condition.Relation) c).relation()) {
+                    case EQ:
+                        eq++;
+                        break;
+                    case GT:
+                    case GTE:
+                        lower++;
+                        break;
+                    case LT:
+                    case LTE:
+                        upper++;
+                        break;
+                    default:
+                        return false;
+                }
+            }
+            boolean matched = eq == 1 && lower == 0 && upper == 0;
+            if (!matched && last) {
+                matched = eq == 0 && lower <= 1 && upper <= 1 &&
+                          lower + upper > 0;
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static void verifyVerticesConditionQuery(ConditionQuery query) {
         assert query.resultType().isVertex();
 
@@ -1288,7 +1550,13 @@ public class GraphTransaction extends IndexableTransaction {
              * 2.index-query result(ids after optimization), which may be empty.
              */
             if (q == null) {
-                queries.add(this.indexQuery(cq), this.batchSize);
+                // Scan the label if it's cheaper than querying by index
+                ConditionQuery scan = this.indexTx.planScan(cq);
+                if (scan != null) {
+                    queries.add(scan);
+                } else {
+                    queries.add(this.indexQuery(cq), this.batchSize);
+                }
             } else if (!q.empty()) {
                 queries.add(q);
             }
@@ -1296,6 +1564,11 @@ public class GraphTransaction extends IndexableTransaction {
         return queries;
     }
 
+    private static boolean isScanQuery(Query query) {
+        return query instanceof ConditionQuery &&
+               ((ConditionQuery) query).optimized() == OptimizedType.SCAN;
+    }
+
     private Query optimizeQuery(ConditionQuery query) {
         if (!query.ids().isEmpty()) {
             throw new HugeException(
@@ -1347,7 +1620,11 @@ public class GraphTransaction extends IndexableTransaction {
             /*
              * Reset all userprop since transfered to sort-keys, ignore other
              * userprop(if exists) that it will be filtered by queryEdges(Query)
+             * and also by backend store before deserializing if supported
              */
+            query.propertyFilter(BinaryPropertyFilter.compile(
+                                 this.graph(), query.resultType(),
+                                 query.conditions()));
             query.resetUserpropConditions();
 
             LOG.debug("Query edges by sortKeys: {}", query);
@@ -1379,7 +1656,7 @@ public class GraphTransaction extends IndexableTransaction {
         return null;
     }
 
-    private IdHolderList indexQuery(ConditionQuery query) {
+    protected IdHolderList indexQuery(ConditionQuery query) {
         /*
          * Optimize by index-query
          * It will return a list of id (maybe empty) if success,
@@ -1573,6 +1850,30 @@ public class GraphTransaction extends IndexableTransaction {
         }
     }
 
+    private Iterator<HugeEdge> switchEdgesOwnerIfNeeded(
+                               Iterator<HugeEdge> edges, Query query) {
+        if (!(query instanceof ConditionQuery)) {
+            return edges;
+        }
+        ConditionQuery cq = (ConditionQuery) query;
+        Id vertex = cq.condition(HugeKeys.OWNER_VERTEX);
+        if (vertex == null || cq.userpropKeys().isEmpty()) {
+            return edges;
+        }
+        /*
+         * The edges found by vertex-centric index are read by the edge ids,
+         * which are the edges of the source vertex, switch them to be the
+         * edges of the queried vertex
+         */
+        Directions direction = cq.condition(HugeKeys.DIRECTION);
+        return new MapperIterator<>(edges, edge -> {
+            boolean matched = direction != null ?
+                              edge.direction() == direction :
+                              edge.ownerVertex().id().equals(vertex);
+            return matched ? edge : edge.switchOwner();
+        });
+    }
+
     private <T extends HugeElement> Iterator<T> filterUnmatchedRecords(
                                                 Iterator<T> results,
                                                 Query query) {
@@ -1617,6 +1918,10 @@ public class GraphTransaction extends IndexableTransaction {
         }
 
         ConditionQuery cq = (ConditionQuery) query;
+        if (cq.optimized() == OptimizedType.SCAN) {
+            // The results of scan must match all conditions of the query
+            return cq.test(elem);
+        }
         if (cq.optimized() == OptimizedType.NONE || cq.test(elem)) {
             /* Return true if:
              * 1.not query by index or by primary-key/sort-key
@@ -1806,8 +2111,14 @@ public class GraphTransaction extends IndexableTransaction {
     }
 
     private HugeVertex parseEntry(BackendEntry entry) {
+        return this.parseEntry(entry, false);
+    }
+
+    private HugeVertex parseEntry(BackendEntry entry, boolean edges) {
+        long begin = QueryProfiler.begin();
+        HugeVertex vertex = null;
         try {
-            HugeVertex vertex = this.serializer.readVertex(graph(), entry);
+            vertex = this.serializer.readVertex(graph(), entry);
             assert vertex != null;
             return vertex;
         } catch (Throwable e) {
@@ -1816,6 +2127,13 @@ public class GraphTransaction extends IndexableTransaction {
                 return null;
             }
             throw e;
+        } finally {
+            // Count each edge decoded from the edges entry of a vertex
+            long count = 1L;
+            if (edges && vertex != null) {
+                count = vertex.getEdges().size();
+            }
+            QueryProfiler.end(Item.ENTRY_DECODED, begin, count);
         }
     }
 
@@ -1836,6 +2154,8 @@ public class GraphTransaction extends IndexableTransaction {
         this.checkOwnerThread();
 
         this.indexTx.updateIndex(ilId, element, removed);
+        this.indexTx.updateIndexStatistics(this.graph().indexLabel(ilId),
+                                           element, removed);
     }
 
     public void removeIndex(HugeIndex index) {
@@ -1857,11 +2177,9 @@ public class GraphTransaction extends IndexableTransaction {
         // Commit data already in tx firstly
         this.commit();
         try {
-            this.traverseVerticesByLabel(vertexLabel, vertex -> {
-                this.removeVertex((HugeVertex) vertex);
-                this.commitIfGtSize(COMMIT_BATCH);
-            }, true);
-            this.commit();
+            this.removeByShards(vertexLabel, HugeType.VERTEX);
+            this.indexTx.statistics().labelRemoved(HugeType.VERTEX,
+                                                   vertexLabel.id());
         } catch (Exception e) {
             LOG.error("Failed to remove vertices", e);
             throw new HugeException("Failed to remove vertices", e);
@@ -1886,13 +2204,12 @@ public class GraphTransaction extends IndexableTransaction {
                                                       edgeLabel.id()));
                 this.doRemove(this.serializer.writeId(HugeType.EDGE_IN,
                                                       edgeLabel.id()));
+                this.commit();
             } else {
-                this.traverseEdgesByLabel(edgeLabel, edge -> {
-                    this.removeEdge((HugeEdge) edge);
-                    this.commitIfGtSize(COMMIT_BATCH);
-                }, true);
+                this.removeByShards(edgeLabel, HugeType.EDGE_OUT);
             }
-            this.commit();
+            this.indexTx.statistics().labelRemoved(HugeType.EDGE,
+                                                   edgeLabel.id());
         } catch (Exception e) {
             LOG.error("Failed to remove edges", e);
             throw new HugeException("Failed to remove edges", e);
@@ -1901,6 +2218,206 @@ public class GraphTransaction extends IndexableTransaction {
         }
     }
 
+    /**
+     * Remove all the vertices or edges of a label in parallel, the ids of
+     * the elements are read batch by batch from the label index if it's
+     * used, or queried by label if the backend store supports it, otherwise
+     * the shards of the table are scanned. Only the ids of the elements are
+     * deleted since the index labels of the label have been removed, and the
+     * label index is deleted by range instead of by each element at last if
+     * the keys of the label index are prefixed with the label id
+     */
+    private void removeByShards(SchemaLabel label, HugeType type)
+                                throws Exception {
+        HugeGraphParams params = this.params();
+        boolean rangeLabelIndex = this.serializer instanceof BinarySerializer;
+        int threads = params.configuration().get(
+                      CoreOptions.TASK_REMOVE_PARALLELISM);
+
+        long start = System.currentTimeMillis();
+        AtomicLong removed = new AtomicLong();
+        BatchIdHolder labelIndex = this.indexTx.queryLabelIndex(label);
+        try {
+            Iterator<Function<GraphTransaction, Long>> shards;
+            if (labelIndex != null) {
+                LOG.debug("Removing {} of label '{}' by label index with " +
+                          "{} threads", type, label.name(), threads);
+                shards = new MapperIterator<>(labelIndex, holder -> {
+                    Set<Id> ids = labelIndex.fetchNext(null, COMMIT_BATCH)
+                                            .ids();
+                    return tx -> tx.removeIds(label, type, ids,
+                                              rangeLabelIndex);
+                });
+            } else if (label.enableLabelIndex()) {
+                // The backend store filters the elements by label itself
+                LOG.debug("Removing {} of label '{}' by label query",
+                          type, label.name());
+                threads = 1;
+                shards = ImmutableList.<Function<GraphTransaction, Long>>of(
+                         tx -> tx.removeByLabel(label, type, rangeLabelIndex))
+                         .iterator();
+            } else {
+                List<Shard> splits = params.graph().metadata(
+                                     type, "splits", REMOVE_SPLIT_SIZE);
+                threads = Math.min(threads, splits.size());
+                LOG.debug("Removing {} of label '{}' in {} shards by {} " +
+                          "threads", type, label.name(), splits.size(),
+                          threads);
+                shards = new MapperIterator<>(splits.iterator(), shard -> {
+                    return tx -> tx.removeShard(label, type, shard,
+                                                rangeLabelIndex);
+                });
+            }
+            this.removeShards(label, type, shards, threads, removed);
+        } finally {
+            if (labelIndex != null) {
+                labelIndex.close();
+            }
+        }
+
+        if (rangeLabelIndex) {
+            // Remove the label index of all the removed elements by range
+            this.indexTx.removeLabelIndex(label);
+            this.commit();
+        }
+        LOG.info("Removed {} {} of label '{}' in {}ms", removed.get(), type,
+                 label.name(), System.currentTimeMillis() - start);
+    }
+
+    private void removeShards(SchemaLabel label, HugeType type,
+                              Iterator<Function<GraphTransaction, Long>> shards,
+                              int threads, AtomicLong removed)
+                              throws Exception {
+        AtomicInteger finished = new AtomicInteger();
+        Consumer<Long> progress = count -> {
+            LOG.info("Removed {} {} of label '{}', {} shards finished",
+                     removed.addAndGet(count), type, label.name(),
+                     finished.incrementAndGet());
+        };
+        if (threads <= 1) {
+            while (shards.hasNext()) {
+                progress.accept(shards.next().apply(this));
+            }
+            return;
+        }
+
+        HugeGraphParams params = this.params();
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(
+                                   threads, "remove-label-worker-%d");
+        try {
+            // Limit the shards submitted to avoid reading ids too far ahead
+            Queue<Future<?>> futures = new ArrayDeque<>();
+            while (shards.hasNext()) {
+                Function<GraphTransaction, Long> shard = shards.next();
+                if (futures.size() >= threads * 2) {
+                    futures.remove().get();
+                }
+                futures.add(executor.submit(() -> {
+                    try {
+                        progress.accept(shard.apply(
+                                        params.graphTransaction()));
+                    } finally {
+                        // The transactions are opened by each worker
+                        params.closeTx();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long removeShard(SchemaLabel label, HugeType type, Shard shard,
+                             boolean rangeLabelIndex) {
+        ConditionQuery query = new ConditionQuery(type);
+        query.scan(shard.start(), shard.end());
+        query.capacity(Query.NO_CAPACITY);
+        query.limit(Query.NO_LIMIT);
+        query.showHidden(true);
+        query.showDeleting(true);
+        query.showExpired(true);
+
+        Iterator<?> elements = type.isVertex() ? this.queryVertices(query) :
+                                                 this.queryEdges(query);
+        return this.removeElements(label, type, elements, rangeLabelIndex);
+    }
+
+    private long removeByLabel(SchemaLabel label, HugeType type,
+                               boolean rangeLabelIndex) {
+        ConditionQuery query = new ConditionQuery(type.isVertex() ?
+                                                  HugeType.VERTEX :
+                                                  HugeType.EDGE);
+        query.eq(HugeKeys.LABEL, label.id());
+        query.capacity(Query.NO_CAPACITY);
+        query.limit(Query.NO_LIMIT);
+        if (this.store().features().supportsQueryByPage()) {
+            query.page(PageInfo.PAGE_NONE);
+        }
+        query.showHidden(true);
+        query.showDeleting(true);
+        query.showExpired(true);
+
+        Iterator<?> elements = type.isVertex() ? this.queryVertices(query) :
+                                                 this.queryEdges(query);
+        return this.removeElements(label, type, elements, rangeLabelIndex);
+    }
+
+    private long removeIds(SchemaLabel label, HugeType type, Set<Id> ids,
+                           boolean rangeLabelIndex) {
+        if (ids.isEmpty()) {
+            return 0L;
+        }
+        IdQuery query = new IdQuery(type.isVertex() ? HugeType.VERTEX :
+                                                      HugeType.EDGE, ids);
+        query.mustSortByInput(false);
+        query.showHidden(true);
+        query.showDeleting(true);
+        query.showExpired(true);
+
+        Iterator<?> elements = type.isVertex() ?
+                               this.queryVerticesFromBackend(query) :
+                               this.queryEdgesFromBackend(query);
+        return this.removeElements(label, type, elements, rangeLabelIndex);
+    }
+
+    private long removeElements(SchemaLabel label, HugeType type,
+                                Iterator<?> elements,
+                                boolean rangeLabelIndex) {
+        long count = 0L;
+        try {
+            while (elements.hasNext()) {
+                HugeElement element = (HugeElement) elements.next();
+                if (!label.equals(element.schemaLabel())) {
+                    continue;
+                }
+                if (!rangeLabelIndex) {
+                    this.indexTx.updateLabelIndex(element, true);
+                }
+                // Delete by id without the properties and the indexes
+                if (type.isVertex()) {
+                    HugeVertex vertex = (HugeVertex) element;
+                    this.doRemove(this.serializer.writeVertex(
+                                  vertex.prepareRemoved()));
+                } else {
+                    HugeEdge edge = ((HugeEdge) element).prepareRemoved();
+                    this.doRemove(this.serializer.writeEdge(edge));
+                    this.doRemove(this.serializer.writeEdge(
+                                  edge.switchOwner()));
+                }
+                if (++count % COMMIT_BATCH == 0) {
+                    this.commit();
+                }
+            }
+            this.commit();
+        } finally {
+            CloseableIterator.closeIterator(elements);
+        }
+        return count;
+    }
+
     public void traverseVerticesByLabel(VertexLabel label,
                                         Consumer<Vertex> consumer,
                                         boolean deleting) {
@@ -0,0 +1,664 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.tx;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.query.Condition;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.schema.IndexLabel;
+import com.baidu.hugegraph.schema.SchemaLabel;
+import com.baidu.hugegraph.structure.HugeElement;
+import com.baidu.hugegraph.structure.HugeProperty;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.type.define.IndexType;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.Log;
+import com.baidu.hugegraph.util.NumericUtil;
+
+/**
+ * The statistics of the labels and the index labels of a graph, which are
+ * used to estimate the number of elements matched by an index query, so as
+ * to choose the cheapest one of the matched indexes, or to scan the label
+ * instead of querying most of its elements by index.
+ *
+ * The statistics are maintained incrementally by the transactions committed
+ * by this process, so they are approximate. A transaction just records the
+ * changed elements, the index field values of them are computed and applied
+ * in batches by a background worker out of the write path, the batches not
+ * applied yet are applied by the queries before estimating.
+ *
+ * NOTE: the statistics are kept in the memory of a server and not stored in
+ * backend, so they are lost after restarting, and the writes committed by
+ * the other servers of a cluster are not counted. A label or an index label
+ * is tracked only since it was empty, that's since the label was created or
+ * the index label was (re)built by this server since started, the estimates
+ * of the others are unknown and the query falls back to the static rules of
+ * index matching. So the estimates are only reliable for a single server
+ * deployment, they are underestimated if the elements are also written by
+ * the other servers of a cluster.
+ */
+public final class IndexStatistics {
+
+    public static final long UNKNOWN = -1L;
+
+    private static final Logger LOG = Log.logger(IndexStatistics.class);
+
+    private static final String WORKER = "index-statistics-worker-%s";
+
+    private static final Map<String, IndexStatistics> STATISTICS =
+                         new ConcurrentHashMap<>();
+
+    private final String graph;
+    private final Map<Id, LabelStat> vertexLabels;
+    private final Map<Id, LabelStat> edgeLabels;
+    private final Map<Id, IndexStat> indexLabels;
+
+    // The batches of changes committed but not applied yet
+    private final Queue<List<Consumer<IndexStatistics>>> pending;
+    private final AtomicBoolean scheduled;
+    private ExecutorService worker;
+    private volatile boolean closed;
+
+    private IndexStatistics(String graph) {
+        this.graph = graph;
+        this.vertexLabels = new ConcurrentHashMap<>();
+        this.edgeLabels = new ConcurrentHashMap<>();
+        this.indexLabels = new ConcurrentHashMap<>();
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean(false);
+        this.worker = null;
+        this.closed = false;
+    }
+
+    public static IndexStatistics of(String graph) {
+        return STATISTICS.computeIfAbsent(graph, IndexStatistics::new);
+    }
+
+    public static void destroy(String graph) {
+        IndexStatistics statistics = STATISTICS.remove(graph);
+        if (statistics != null) {
+            statistics.close();
+        }
+    }
+
+    /**
+     * Create a buffer of the changes made by a transaction, which are applied
+     * to the statistics only when the transaction is committed
+     */
+    public Changes changes() {
+        return new Changes(this);
+    }
+
+    /**
+     * Whether the statistics of a label or any one of its index labels are
+     * tracked, the changes of the elements of it are ignored if not
+     */
+    public boolean tracked(HugeType type, Id label,
+                           Collection<Id> indexLabels) {
+        if (this.labels(type).containsKey(label)) {
+            return true;
+        }
+        for (Id indexLabel : indexLabels) {
+            if (this.indexLabels.containsKey(indexLabel)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Track a label from empty, called when the label is created
+     */
+    public void labelCreated(HugeType type, Id label) {
+        this.labels(type).put(label, new LabelStat());
+    }
+
+    public void labelRemoved(HugeType type, Id label) {
+        this.labels(type).remove(label);
+    }
+
+    public void updateLabel(HugeType type, Id label, boolean removed) {
+        // Ignore the label not tracked since it's created
+        LabelStat stat = this.labels(type).get(label);
+        if (stat != null) {
+            stat.count.add(removed ? -1L : 1L);
+        }
+    }
+
+    /**
+     * Update the statistics of the label and the tracked index labels of an
+     * element which is added to or removed from backend
+     */
+    public void updateElement(HugeElement element, boolean removed) {
+        SchemaLabel label = element.schemaLabel();
+        this.updateLabel(element.type(), label.id(), removed);
+        for (Id id : label.indexLabels()) {
+            IndexStat stat = this.indexLabels.get(id);
+            if (stat != null) {
+                stat.update(element, removed);
+            }
+        }
+    }
+
+    /**
+     * Get the number of elements of a label
+     * @return UNKNOWN if the label is not tracked
+     */
+    public long labelCount(HugeType type, Id label) {
+        this.applyPending();
+        LabelStat stat = this.labels(type).get(label);
+        if (stat == null) {
+            return UNKNOWN;
+        }
+        return Math.max(stat.count.sum(), 0L);
+    }
+
+    /**
+     * Get the number of elements of all the labels of a type
+     * @return UNKNOWN if any one of the labels is not tracked
+     */
+    public long typeCount(HugeType type, Collection<Id> labels) {
+        long count = 0L;
+        for (Id label : labels) {
+            long labelCount = this.labelCount(type, label);
+            if (labelCount == UNKNOWN) {
+                return UNKNOWN;
+            }
+            count += labelCount;
+        }
+        return count;
+    }
+
+    /**
+     * Track an index label from empty, called when the index entries of the
+     * index label are removed before (re)building it
+     */
+    public void indexRebuilt(IndexLabel indexLabel) {
+        if (supportEstimate(indexLabel.indexType())) {
+            this.indexLabels.put(indexLabel.id(), new IndexStat(indexLabel));
+        }
+    }
+
+    public void indexRemoved(Id indexLabel) {
+        this.indexLabels.remove(indexLabel);
+    }
+
+    public void updateIndex(IndexLabel indexLabel, Object fieldValue,
+                            boolean removed) {
+        // Ignore the index label not tracked since it's built
+        IndexStat stat = this.indexLabels.get(indexLabel.id());
+        if (stat != null) {
+            stat.update(fieldValue, removed);
+        }
+    }
+
+    /**
+     * Update the statistics of an index label by the index field values of
+     * an element, which are the same as the values written by updateIndex()
+     */
+    public void updateElementIndex(IndexLabel indexLabel, HugeElement element,
+                                   boolean removed) {
+        // Ignore the index label not tracked since it's built
+        IndexStat stat = this.indexLabels.get(indexLabel.id());
+        if (stat != null) {
+            stat.update(element, removed);
+        }
+    }
+
+    /**
+     * Estimate the number of index entries matched by an index query, which
+     * is the number of element ids found for a secondary or range index
+     * @return UNKNOWN if the index label is not tracked or the conditions
+     *         can't be estimated, like the prefix of a shard index
+     */
+    public long estimate(IndexLabel indexLabel, ConditionQuery indexQuery) {
+        this.applyPending();
+        IndexStat stat = this.indexLabels.get(indexLabel.id());
+        if (stat == null) {
+            return UNKNOWN;
+        }
+
+        Object value = null;
+        Number low = null;
+        Number high = null;
+        for (Condition condition : indexQuery.conditions()) {
+            if (!condition.isRelation()) {
+                return UNKNOWN;
+            }
+            Condition.Relation r = (Condition.Relation) condition;
+            if (r.key() != HugeKeys.FIELD_VALUES) {
+                continue;
+            }
+            switch (r.relation()) {
+                case EQ:
+                    value = r.value();
+                    break;
+                case GT:
+                case GTE:
+                    if (!(r.value() instanceof Number)) {
+                        return UNKNOWN;
+                    }
+                    low = (Number) r.value();
+                    break;
+                case LT:
+                case LTE:
+                    if (!(r.value() instanceof Number)) {
+                        return UNKNOWN;
+                    }
+                    high = (Number) r.value();
+                    break;
+                default:
+                    return UNKNOWN;
+            }
+        }
+
+        if (value != null) {
+            return stat.count(value);
+        } else if (low != null || high != null) {
+            return stat.count(low, high);
+        }
+        return UNKNOWN;
+    }
+
+    public void clear() {
+        synchronized (this.pending) {
+            this.pending.clear();
+            this.vertexLabels.clear();
+            this.edgeLabels.clear();
+            this.indexLabels.clear();
+        }
+    }
+
+    /**
+     * Queue the changes committed by a transaction, which are applied by the
+     * background worker, the worker is scheduled once for the batches queued
+     * meanwhile
+     */
+    private void submit(List<Consumer<IndexStatistics>> changes) {
+        if (this.closed) {
+            return;
+        }
+        this.pending.add(changes);
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.schedule();
+        }
+    }
+
+    private synchronized void schedule() {
+        if (this.closed) {
+            // The changes are applied by the queries if any
+            return;
+        }
+        if (this.worker == null) {
+            this.worker = ExecutorUtil.newFixedThreadPool(
+                          1, String.format(WORKER, this.graph));
+        }
+        this.worker.execute(() -> {
+            this.scheduled.set(false);
+            this.applyPending();
+        });
+    }
+
+    private synchronized void close() {
+        this.closed = true;
+        if (this.worker != null) {
+            this.worker.shutdown();
+            this.worker = null;
+        }
+        this.pending.clear();
+    }
+
+    /**
+     * Apply the queued batches of changes in order, called by the worker or
+     * by the queries before estimating, the queries wait for the batch being
+     * applied by the worker
+     */
+    private void applyPending() {
+        synchronized (this.pending) {
+            List<Consumer<IndexStatistics>> changes;
+            while ((changes = this.pending.poll()) != null) {
+                for (Consumer<IndexStatistics> change : changes) {
+                    try {
+                        change.accept(this);
+                    } catch (Throwable e) {
+                        LOG.warn("Failed to update index statistics of " +
+                                 "graph '{}'", this.graph, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<Id, LabelStat> labels(HugeType type) {
+        return type.isVertex() ? this.vertexLabels : this.edgeLabels;
+    }
+
+    public static boolean supportEstimate(IndexType type) {
+        return type.isSecondary() || type.isShard() || type.isRange();
+    }
+
+    /**
+     * The changes of the statistics made by a transaction, kept in order
+     */
+    public static final class Changes {
+
+        private final IndexStatistics statistics;
+        private List<Consumer<IndexStatistics>> changes;
+
+        private Changes(IndexStatistics statistics) {
+            this.statistics = statistics;
+            this.changes = new ArrayList<>();
+        }
+
+        public void updateLabel(HugeType type, Id label, boolean removed) {
+            this.changes.add(s -> s.updateLabel(type, label, removed));
+        }
+
+        public void updateElement(HugeElement element, boolean removed) {
+            this.changes.add(s -> s.updateElement(element, removed));
+        }
+
+        public void updateElementIndex(IndexLabel indexLabel,
+                                       HugeElement element, boolean removed) {
+            this.changes.add(s -> s.updateElementIndex(indexLabel, element,
+                                                       removed));
+        }
+
+        public void updateIndex(IndexLabel indexLabel, Object fieldValue,
+                                boolean removed) {
+            this.changes.add(s -> s.updateIndex(indexLabel, fieldValue,
+                                                removed));
+        }
+
+        public void indexRebuilt(IndexLabel indexLabel) {
+            this.changes.add(s -> s.indexRebuilt(indexLabel));
+        }
+
+        public void indexRemoved(Id indexLabel) {
+            this.changes.add(s -> s.indexRemoved(indexLabel));
+        }
+
+        public boolean isEmpty() {
+            return this.changes.isEmpty();
+        }
+
+        /**
+         * Submit the changes to the statistics as a batch, called after
+         * committed
+         */
+        public void commit() {
+            if (this.changes.isEmpty()) {
+                return;
+            }
+            List<Consumer<IndexStatistics>> changes = this.changes;
+            this.changes = new ArrayList<>();
+            this.statistics.submit(changes);
+        }
+
+        /**
+         * Discard the changes, called after rolled back or failed to commit
+         */
+        public void clear() {
+            if (!this.changes.isEmpty()) {
+                this.changes = new ArrayList<>();
+            }
+        }
+    }
+
+    private static final class LabelStat {
+
+        private final LongAdder count;
+
+        public LabelStat() {
+            this.count = new LongAdder();
+        }
+    }
+
+    /**
+     * The statistics of an index label, a count-min sketch of the index
+     * field values to estimate the count of a value, and a histogram of the
+     * numeric values for a range index to estimate the count of a range
+     */
+    private static final class IndexStat {
+
+        private static final int DEPTH = 4;
+        private static final int WIDTH = 1024;
+        private static final long[] SEEDS = {
+                0x9e3779b97f4a7c15L, 0xbf58476d1ce4e5b9L,
+                0x94d049bb133111ebL, 0xc2b2ae3d27d4eb4fL
+        };
+
+        private final IndexLabel indexLabel;
+        private final AtomicLongArray sketch;
+        private volatile Histogram histogram;
+
+        public IndexStat(IndexLabel indexLabel) {
+            this.indexLabel = indexLabel;
+            this.sketch = new AtomicLongArray(DEPTH * WIDTH);
+            this.histogram = null;
+        }
+
+        public void update(HugeElement element, boolean removed) {
+            // Not indexed if the value of the first index field is null
+            List<Object> propValues = new ArrayList<>();
+            for (Id fieldId : this.indexLabel.indexFields()) {
+                HugeProperty<Object> property = element.getProperty(fieldId);
+                if (property == null) {
+                    break;
+                }
+                propValues.add(property.value());
+            }
+            if (propValues.isEmpty()) {
+                return;
+            }
+
+            IndexType indexType = this.indexLabel.indexType();
+            if (indexType.isRange()) {
+                Object value = NumericUtil.convertToNumber(propValues.get(0));
+                this.update(value, removed);
+            } else if (indexType.isSecondary()) {
+                for (int i = 0, n = propValues.size(); i < n; i++) {
+                    List<Object> prefixValues = propValues.subList(0, i + 1);
+                    this.update(indexValue(prefixValues), removed);
+                }
+            } else {
+                assert indexType.isShard();
+                this.update(indexValue(propValues), removed);
+            }
+        }
+
+        public void update(Object value, boolean removed) {
+            long hash = hash(value);
+            long delta = removed ? -1L : 1L;
+            for (int row = 0; row < DEPTH; row++) {
+                this.sketch.addAndGet(slot(row, hash), delta);
+            }
+            if (value instanceof Number) {
+                this.histogram().update(((Number) value).doubleValue(),
+                                        removed);
+            }
+        }
+
+        public long count(Object value) {
+            long hash = hash(value);
+            long count = Long.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                count = Math.min(count, this.sketch.get(slot(row, hash)));
+            }
+            return Math.max(count, 0L);
+        }
+
+        public long count(Number low, Number high) {
+            Histogram histogram = this.histogram;
+            if (histogram == null) {
+                return 0L;
+            }
+            double from = low == null ? Double.NEGATIVE_INFINITY :
+                                        low.doubleValue();
+            double to = high == null ? Double.POSITIVE_INFINITY :
+                                       high.doubleValue();
+            return histogram.count(from, to);
+        }
+
+        private Histogram histogram() {
+            if (this.histogram == null) {
+                synchronized (this) {
+                    if (this.histogram == null) {
+                        this.histogram = new Histogram();
+                    }
+                }
+            }
+            return this.histogram;
+        }
+
+        private static String indexValue(List<Object> values) {
+            String value = ConditionQuery.concatValues(values);
+            return GraphIndexTransaction.escapeIndexValueIfNeeded(value);
+        }
+
+        private static int slot(int row, long hash) {
+            long h = (hash ^ SEEDS[row]) * 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return row * WIDTH + (int) (h & (WIDTH - 1));
+        }
+
+        private static long hash(Object value) {
+            if (value instanceof Number) {
+                // Same hash for the same number of different types
+                double number = ((Number) value).doubleValue();
+                return Double.doubleToLongBits(number);
+            }
+            return value.toString().hashCode();
+        }
+    }
+
+    /**
+     * An equi-width histogram of numeric values with fixed buckets, the
+     * range of the buckets is doubled by merging adjacent buckets once a
+     * value out of the range is added, so it always covers all the values
+     */
+    private static final class Histogram {
+
+        private static final int BUCKETS = 64;
+
+        private long[] counts;
+        private double low;
+        // Zero means no value is added
+        private double width;
+
+        public Histogram() {
+            this.counts = new long[BUCKETS];
+            this.low = 0.0D;
+            this.width = 0.0D;
+        }
+
+        public synchronized void update(double value, boolean removed) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return;
+            }
+            if (removed) {
+                if (this.width > 0.0D && this.covers(value) &&
+                    this.counts[this.bucket(value)] > 0L) {
+                    this.counts[this.bucket(value)]--;
+                }
+                return;
+            }
+            if (this.width == 0.0D) {
+                this.low = Math.floor(value);
+                this.width = Math.max(Math.abs(value), 1.0D) / BUCKETS;
+            }
+            while (value < this.low) {
+                this.growLeft();
+            }
+            while (!this.covers(value)) {
+                this.growRight();
+            }
+            this.counts[this.bucket(value)]++;
+        }
+
+        /**
+         * Count the values in [from, to], assume the values are uniform
+         * distributed in a bucket
+         */
+        public synchronized long count(double from, double to) {
+            if (this.width == 0.0D || from > to) {
+                return 0L;
+            }
+            double count = 0.0D;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (this.counts[i] == 0L) {
+                    continue;
+                }
+                double start = this.low + i * this.width;
+                double end = start + this.width;
+                double overlap = Math.min(end, to) - Math.max(start, from);
+                if (overlap > 0.0D) {
+                    count += this.counts[i] * Math.min(overlap / this.width,
+                                                       1.0D);
+                }
+            }
+            return Math.round(count);
+        }
+
+        private boolean covers(double value) {
+            return this.low <= value && value < this.low + BUCKETS * this.width;
+        }
+
+        private int bucket(double value) {
+            int bucket = (int) ((value - this.low) / this.width);
+            return Math.min(Math.max(bucket, 0), BUCKETS - 1);
+        }
+
+        private void growRight() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i / 2] += this.counts[i];
+            }
+            this.counts = counts;
+            this.width *= 2;
+        }
+
+        private void growLeft() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[BUCKETS / 2 + i / 2] += this.counts[i];
+            }
+            this.counts = counts;
+            this.low -= BUCKETS * this.width;
+            this.width *= 2;
+        }
+    }
+}
@@ -23,8 +23,11 @@ import static com.baidu.hugegraph.backend.tx.GraphTransaction.COMMIT_BATCH;
 import static com.baidu.hugegraph.config.OptionChecker.allowValues;
 import static com.baidu.hugegraph.config.OptionChecker.disallowEmpty;
 import static com.baidu.hugegraph.config.OptionChecker.positiveInt;
+import static com.baidu.hugegraph.config.OptionChecker.rangeDouble;
 import static com.baidu.hugegraph.config.OptionChecker.rangeInt;
 
+import java.nio.file.Paths;
+
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.util.Bytes;
 
@@ -301,6 +304,57 @@ public class CoreOptions extends OptionHolder {
                     1000
             );
 
+    public static final ConfigOption<Double> QUERY_SCAN_COST_RATIO =
+            new ConfigOption<>(
+                    "query.scan_cost_ratio",
+                    "The cost of scanning an element relative to fetching " +
+                    "an element by id, the label is scanned instead of " +
+                    "querying by index if the index is estimated to match " +
+                    "more elements than the ratio of the label, " +
+                    "0 means never scan instead of querying by index.",
+                    rangeDouble(0.0, 1.0),
+                    0.1
+            );
+
+    public static final ConfigOption<Long> QUERY_CACHE_CAPACITY =
+            new ConfigOption<>(
+                    "query.result_cache_capacity",
+                    "The max cache size(items) of index query results, " +
+                    "which are invalidated by any change of the labels " +
+                    "they depend on, 0 means disabled.",
+                    rangeInt(0L, Long.MAX_VALUE),
+                    0L
+            );
+
+    public static final ConfigOption<Integer> QUERY_CACHE_EXPIRE =
+            new ConfigOption<>(
+                    "query.result_cache_expire",
+                    "The expire time in seconds of index query results cache.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    (60 * 10)
+            );
+
+    public static final ConfigOption<String> INDEX_ASYNC_DIR =
+            new ConfigOption<>(
+                    "index.async_queue_dir",
+                    "The directory of the log files of async index queue, " +
+                    "which keep the index changes of the async index labels, " +
+                    "it should be a durable directory of the server, like " +
+                    "the data directory of the backend.",
+                    disallowEmpty(),
+                    Paths.get(System.getProperty("user.home"),
+                              ".hugegraph", "async-index").toString()
+            );
+
+    public static final ConfigOption<Integer> INDEX_ASYNC_BATCH_SIZE =
+            new ConfigOption<>(
+                    "index.async_batch_size",
+                    "The max number of index changes of async index labels " +
+                    "applied in a batch.",
+                    rangeInt(1, 100000),
+                    1000
+            );
+
     public static final ConfigOption<Integer> VERTEX_TX_CAPACITY =
             new ConfigOption<>(
                     "vertex.tx_capacity",
@@ -346,6 +400,15 @@ public class CoreOptions extends OptionHolder {
                     false
             );
 
+    public static final ConfigOption<Integer> TASK_REMOVE_PARALLELISM =
+            new ConfigOption<>(
+                    "task.remove_parallelism",
+                    "The number of threads to remove the vertices or edges " +
+                    "of a label by scanning the shards in parallel.",
+                    rangeInt(1, 64),
+                    4
+            );
+
     public static final ConfigOption<String> VERTEX_CACHE_TYPE =
             new ConfigOption<>(
                     "vertex.cache_type",
@@ -402,6 +465,27 @@ public class CoreOptions extends OptionHolder {
                     (60 * 10)
             );
 
+    public static final ConfigOption<Long> DEGREE_CACHE_CAPACITY =
+            new ConfigOption<>(
+                    "edge.degree_cache_capacity",
+                    "The max cache size(items) of degree cache, which " +
+                    "records the degree of super nodes found by traversers, " +
+                    "it shares the expire time with edge cache.",
+                    rangeInt(0L, Long.MAX_VALUE),
+                    (1000 * 100L)
+            );
+
+    public static final ConfigOption<Long> RANK_CACHE_CAPACITY =
+            new ConfigOption<>(
+                    "edge.rank_cache_capacity",
+                    "The max cache size(items) of rank cache, which records " +
+                    "the rank vectors of personal rank by source vertex, " +
+                    "0 means disabled, it shares the expire time with " +
+                    "edge cache.",
+                    rangeInt(0L, Long.MAX_VALUE),
+                    0L
+            );
+
     public static final ConfigOption<Long> SNOWFLAKE_WORKER_ID =
             new ConfigOption<>(
                     "snowflake.worker_id",
@@ -462,6 +546,16 @@ public class CoreOptions extends OptionHolder {
                     "smart"
             );
 
+    public static final ConfigOption<Long> TEXT_ANALYZER_CACHE_CAPACITY =
+            new ConfigOption<>(
+                    "search.text_analyzer_cache_capacity",
+                    "The max cache size(items) of the segmented words of " +
+                    "short texts, like the texts of search queries, " +
+                    "0 means disabled.",
+                    rangeInt(0L, Long.MAX_VALUE),
+                    (1000 * 10L)
+            );
+
     public static final ConfigOption<String> COMPUTER_CONFIG =
             new ConfigOption<>(
                     "computer.config",
@@ -469,4 +563,14 @@ public class CoreOptions extends OptionHolder {
                     disallowEmpty(),
                     "./conf/computer.yaml"
             );
+
+    public static final ConfigOption<String> EXPORT_DIRECTORY =
+            new ConfigOption<>(
+                    "export.directory",
+                    "The root directory of the files written by export job " +
+                    "and read by import job, each job uses a sub directory " +
+                    "of it.",
+                    disallowEmpty(),
+                    "./export"
+            );
 }
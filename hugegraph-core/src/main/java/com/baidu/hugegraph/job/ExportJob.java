@@ -0,0 +1,228 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.HugeGraphParams;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.backend.store.Shard;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.job.export.ColumnarWriter;
+import com.baidu.hugegraph.structure.HugeElement;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.JsonUtil;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Export all the vertices and edges of a graph into binary columnar files,
+ * the tables are split into shards and the shards are scanned in parallel,
+ * each shard is written into a file named like "vertices-00001.hgc"
+ */
+public class ExportJob extends SysJob<Object> {
+
+    private static final Logger LOG = Log.logger(ExportJob.class);
+
+    public static final String TASK_TYPE = "export";
+
+    public static final String VERTICES = "vertices";
+    public static final String EDGES = "edges";
+    public static final String FILE_SUFFIX = ".hgc";
+
+    static final int BUFFER_SIZE = (int) (64 * Bytes.KB);
+
+    private static final long DEFAULT_SPLIT_SIZE = 64 * Bytes.MB;
+    private static final int DEFAULT_PARALLELISM = 4;
+
+    @Override
+    public String type() {
+        return TASK_TYPE;
+    }
+
+    @Override
+    public Object execute() throws Exception {
+        Map<String, Object> input = parseInput(this.task().input());
+        File directory = directory(this.params(), input.get("directory"));
+        E.checkArgument(!directory.exists(),
+                        "The export directory '%s' already exists",
+                        directory);
+        E.checkState(directory.mkdirs(),
+                     "Failed to create export directory '%s'", directory);
+
+        long splitSize = ((Number) input.getOrDefault(
+                          "split_size", DEFAULT_SPLIT_SIZE)).longValue();
+        E.checkArgument(splitSize >= 1024 * 1024,
+                        "The split-size must be >= 1048576 bytes, " +
+                        "but got %s", splitSize);
+        int parallelism = parallelism(input);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put(VERTICES, this.export(HugeType.VERTEX, VERTICES, directory,
+                                         splitSize, parallelism));
+        result.put(EDGES, this.export(HugeType.EDGE_OUT, EDGES, directory,
+                                      splitSize, parallelism));
+        LOG.info("Exported graph '{}' to '{}': {}",
+                 this.graph().name(), directory, result);
+        return result;
+    }
+
+    private Map<String, Object> export(HugeType type, String prefix,
+                                       File directory, long splitSize,
+                                       int parallelism) throws Exception {
+        List<Shard> shards = this.graph().metadata(type, "splits", splitSize);
+        List<Callable<long[]>> tasks = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            Shard shard = shards.get(i);
+            String name = String.format("%s-%05d%s", prefix, i, FILE_SUFFIX);
+            File file = new File(directory, name);
+            tasks.add(() -> this.exportShard(type, shard, file));
+        }
+        return execute(this.params(), "export-" + prefix, parallelism, tasks);
+    }
+
+    private long[] exportShard(HugeType type, Shard shard, File file)
+                               throws IOException {
+        HugeGraph graph = this.graph();
+        ConditionQuery query = new ConditionQuery(type);
+        query.scan(shard.start(), shard.end());
+        query.capacity(Query.NO_CAPACITY);
+
+        Iterator<?> elements = type.isVertex() ?
+                               graph.vertices(query) : graph.edges(query);
+        ColumnarWriter writer = new ColumnarWriter(graph, type,
+                                new BufferedOutputStream(
+                                new FileOutputStream(file), BUFFER_SIZE));
+        try {
+            while (elements.hasNext()) {
+                writer.write((HugeElement) elements.next());
+            }
+        } finally {
+            writer.close();
+            CloseableIterator.closeIterator(elements);
+        }
+        return new long[]{writer.rows(), writer.bytes()};
+    }
+
+    static Map<String, Object> parseInput(String input) {
+        E.checkArgumentNotNull(input, "The input can't be null");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = JsonUtil.fromJson(input, Map.class);
+        return map;
+    }
+
+    static File directory(HugeGraphParams params, Object name) {
+        E.checkArgument(name instanceof String && !((String) name).isEmpty(),
+                        "Invalid directory name '%s'", name);
+        String root = params.configuration().get(CoreOptions.EXPORT_DIRECTORY);
+        File rootDir = new File(root).getAbsoluteFile().toPath()
+                                     .normalize().toFile();
+        File directory = new File(rootDir, (String) name).toPath()
+                                                          .normalize()
+                                                          .toFile();
+        // Don't allow to access the files out of the root directory
+        E.checkArgument(directory.toPath().startsWith(rootDir.toPath()) &&
+                        !directory.equals(rootDir),
+                        "The directory '%s' must be a sub directory of " +
+                        "'%s'", name, rootDir);
+        return directory;
+    }
+
+    static int parallelism(Map<String, Object> input) {
+        int parallelism = ((Number) input.getOrDefault(
+                           "parallelism", DEFAULT_PARALLELISM)).intValue();
+        E.checkArgument(parallelism > 0 && parallelism <= 64,
+                        "The parallelism must be in range (0, 64], " +
+                        "but got %s", parallelism);
+        return parallelism;
+    }
+
+    /**
+     * Execute the tasks in a thread pool, each task returns the count of
+     * elements and the count of bytes it handled
+     */
+    static Map<String, Object> execute(HugeGraphParams params, String name,
+                                       int parallelism,
+                                       List<Callable<long[]>> tasks)
+                                       throws Exception {
+        long start = System.currentTimeMillis();
+        long count = 0L;
+        long bytes = 0L;
+        int threads = Math.max(Math.min(parallelism, tasks.size()), 1);
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(
+                                   threads, name + "-worker-%d");
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(tasks.size());
+            for (Callable<long[]> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return task.call();
+                    } finally {
+                        // The transactions are opened by each worker thread
+                        params.closeTx();
+                    }
+                }));
+            }
+            for (Future<long[]> future : futures) {
+                long[] result;
+                try {
+                    result = future.get();
+                } catch (ExecutionException e) {
+                    throw new HugeException("Failed to %s", e.getCause(),
+                                            name);
+                }
+                count += result[0];
+                bytes += result[1];
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long cost = Math.max(System.currentTimeMillis() - start, 1L);
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("files", tasks.size());
+        metrics.put("count", count);
+        metrics.put("bytes", bytes);
+        metrics.put("cost_ms", cost);
+        metrics.put("count_per_second", count * 1000L / cost);
+        metrics.put("bytes_per_second", bytes * 1000L / cost);
+        return metrics;
+    }
+}
@@ -29,6 +29,8 @@ import com.baidu.hugegraph.exception.LimitExceedException;
 import com.baidu.hugegraph.traversal.optimize.HugeScriptTraversal;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.JsonUtil;
+import com.baidu.hugegraph.util.QueryProfiler;
+import com.google.common.collect.ImmutableMap;
 
 public class GremlinJob extends UserJob<Object> {
 
@@ -70,8 +72,30 @@ public class GremlinJob extends UserJob<Object> {
         @SuppressWarnings("unchecked")
         Map<String, String> aliases = (Map<String, String>) value;
 
+        value = map.get("profile");
+        boolean profile = value instanceof Boolean && (Boolean) value;
+
         bindings.put(TASK_BIND_NAME, new GremlinJobProxy());
 
+        if (!profile) {
+            return this.execute(language, gremlin, bindings, aliases);
+        }
+
+        QueryProfiler.enable();
+        Object result;
+        QueryProfiler profiler;
+        try {
+            result = this.execute(language, gremlin, bindings, aliases);
+        } finally {
+            profiler = QueryProfiler.disable();
+        }
+        return ImmutableMap.of("results", result,
+                               "profile", profiler.asMap());
+    }
+
+    private Object execute(String language, String gremlin,
+                           Map<String, Object> bindings,
+                           Map<String, String> aliases) throws Exception {
         HugeScriptTraversal<?, ?> traversal = new HugeScriptTraversal<>(
                                                   this.graph().traversal(),
                                                   language, gremlin,
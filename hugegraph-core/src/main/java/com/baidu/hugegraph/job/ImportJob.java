@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.job.export.ColumnarReader;
+import com.baidu.hugegraph.job.export.ColumnarReader.Row;
+import com.baidu.hugegraph.schema.EdgeLabel;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Import the vertices and edges from the binary columnar files written by
+ * ExportJob, the files are loaded in parallel, all the vertices before the
+ * edges. The schema must exist in the graph, and the graph must be in
+ * restoring mode if there are vertex labels with AUTOMATIC id strategy.
+ */
+public class ImportJob extends SysJob<Object> {
+
+    private static final Logger LOG = Log.logger(ImportJob.class);
+
+    public static final String TASK_TYPE = "import";
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    @Override
+    public String type() {
+        return TASK_TYPE;
+    }
+
+    @Override
+    public Object execute() throws Exception {
+        Map<String, Object> input = ExportJob.parseInput(this.task().input());
+        File directory = ExportJob.directory(this.params(),
+                                             input.get("directory"));
+        E.checkArgument(directory.isDirectory(),
+                        "The import directory '%s' doesn't exist", directory);
+
+        int batchSize = ((Number) input.getOrDefault(
+                         "batch_size", DEFAULT_BATCH_SIZE)).intValue();
+        E.checkArgument(batchSize > 0,
+                        "The batch-size must be > 0, but got %s", batchSize);
+        int parallelism = ExportJob.parallelism(input);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put(ExportJob.VERTICES, this.load(ExportJob.VERTICES, directory,
+                                                 batchSize, parallelism));
+        result.put(ExportJob.EDGES, this.load(ExportJob.EDGES, directory,
+                                              batchSize, parallelism));
+        LOG.info("Imported graph '{}' from '{}': {}",
+                 this.graph().name(), directory, result);
+        return result;
+    }
+
+    private Map<String, Object> load(String prefix, File directory,
+                                     int batchSize, int parallelism)
+                                     throws Exception {
+        File[] files = directory.listFiles((dir, name) -> {
+            return name.startsWith(prefix + "-") &&
+                   name.endsWith(ExportJob.FILE_SUFFIX);
+        });
+        E.checkState(files != null, "Failed to list directory '%s'",
+                     directory);
+        Arrays.sort(files);
+
+        List<Callable<long[]>> tasks = new ArrayList<>(files.length);
+        for (File file : files) {
+            tasks.add(() -> this.loadFile(file, batchSize));
+        }
+        return ExportJob.execute(this.params(), "import-" + prefix,
+                                 parallelism, tasks);
+    }
+
+    private long[] loadFile(File file, int batchSize) throws IOException {
+        HugeGraph graph = this.graph();
+        long rows = 0L;
+        try (ColumnarReader reader = new ColumnarReader(graph,
+                                     new BufferedInputStream(
+                                     new FileInputStream(file),
+                                     ExportJob.BUFFER_SIZE))) {
+            boolean vertex = reader.type().isVertex();
+            while (reader.hasNext()) {
+                Row row = reader.next();
+                if (vertex) {
+                    addVertex(graph, row);
+                } else {
+                    addEdge(graph, row);
+                }
+                if (++rows % batchSize == 0) {
+                    graph.tx().commit();
+                }
+            }
+            graph.tx().commit();
+        } catch (Throwable e) {
+            graph.tx().rollback();
+            throw e;
+        }
+        return new long[]{rows, file.length()};
+    }
+
+    private static void addVertex(HugeGraph graph, Row row) {
+        VertexLabel label = graph.vertexLabel(row.label());
+        List<Object> kvs = new ArrayList<>(2 * row.properties().size() + 4);
+        kvs.add(T.label);
+        kvs.add(label.name());
+        // The id of PRIMARY_KEY vertex is generated by the primary values
+        if (label.idStrategy() != IdStrategy.PRIMARY_KEY) {
+            kvs.add(T.id);
+            kvs.add(row.id());
+        }
+        appendProperties(kvs, row);
+        graph.addVertex(kvs.toArray());
+    }
+
+    private static void addEdge(HugeGraph graph, Row row) {
+        EdgeLabel label = graph.edgeLabel(row.label());
+        VertexLabel sourceLabel = graph.vertexLabel(label.sourceLabel());
+        VertexLabel targetLabel = graph.vertexLabel(label.targetLabel());
+        HugeVertex source = new HugeVertex(graph, row.id(), sourceLabel);
+        HugeVertex target = new HugeVertex(graph, row.target(), targetLabel);
+
+        List<Object> kvs = new ArrayList<>(2 * row.properties().size());
+        appendProperties(kvs, row);
+        source.addEdge(label.name(), target, kvs.toArray());
+    }
+
+    private static void appendProperties(List<Object> kvs, Row row) {
+        for (Map.Entry<PropertyKey, Object> e : row.properties().entrySet()) {
+            kvs.add(e.getKey().name());
+            kvs.add(e.getValue());
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.export;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * The reader of a binary columnar file written by ColumnarWriter, the rows
+ * are decoded block by block, and the labels and property keys are mapped
+ * by name to the schema of the graph which may be another one
+ */
+public class ColumnarReader implements Iterator<ColumnarReader.Row>,
+                                       AutoCloseable {
+
+    private final HugeGraph graph;
+    private final HugeType type;
+    private final DataInputStream in;
+
+    private List<Row> block;
+    private int cursor;
+    private boolean exhausted;
+
+    public ColumnarReader(HugeGraph graph, InputStream in) throws IOException {
+        this.graph = graph;
+        this.in = new DataInputStream(in);
+
+        byte[] magic = new byte[ColumnarWriter.MAGIC.length];
+        this.in.readFully(magic);
+        E.checkArgument(Arrays.equals(magic, ColumnarWriter.MAGIC),
+                        "Invalid columnar file with magic %s",
+                        Arrays.toString(magic));
+        byte version = this.in.readByte();
+        E.checkArgument(version == ColumnarWriter.VERSION,
+                        "Unsupported columnar file version %s", version);
+        this.type = HugeType.fromCode(this.in.readByte());
+        E.checkArgument(this.type == HugeType.VERTEX ||
+                        this.type == HugeType.EDGE,
+                        "Invalid columnar file of type %s", this.type);
+
+        this.block = Collections.emptyList();
+        this.cursor = 0;
+        this.exhausted = false;
+    }
+
+    public HugeType type() {
+        return this.type;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (this.cursor >= this.block.size()) {
+            if (this.exhausted) {
+                return false;
+            }
+            try {
+                this.block = this.readBlock();
+            } catch (IOException e) {
+                throw new HugeException("Failed to read columnar file", e);
+            }
+            this.cursor = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public Row next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return this.block.get(this.cursor++);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    private List<Row> readBlock() throws IOException {
+        int length = this.in.readInt();
+        if (length == 0) {
+            this.exhausted = true;
+            return Collections.emptyList();
+        }
+        byte[] bytes = new byte[length];
+        this.in.readFully(bytes);
+        BytesBuffer buffer = BytesBuffer.wrap(bytes);
+
+        int size = buffer.readVInt();
+        List<Row> rows = new ArrayList<>(size);
+
+        // The label dictionary and the label column
+        String[] dict = new String[buffer.readVInt()];
+        for (int i = 0; i < dict.length; i++) {
+            dict[i] = buffer.readString();
+        }
+        for (int i = 0; i < size; i++) {
+            rows.add(new Row(dict[buffer.readVInt()]));
+        }
+
+        // The id columns
+        Id[] ids = readIds(buffer, size);
+        for (int i = 0; i < size; i++) {
+            rows.get(i).id = ids[i];
+        }
+        if (this.type.isEdge()) {
+            ids = readIds(buffer, size);
+            for (int i = 0; i < size; i++) {
+                rows.get(i).target = ids[i];
+            }
+        }
+
+        // The property columns
+        int columns = buffer.readVInt();
+        byte[] bitmap = new byte[(size + 7) / 8];
+        for (int c = 0; c < columns; c++) {
+            String name = buffer.readString();
+            PropertyKey pkey = this.graph.propertyKey(name);
+            byte dataType = buffer.read();
+            byte cardinality = buffer.read();
+            E.checkArgument(pkey.dataType().code() == dataType &&
+                            pkey.cardinality().code() == cardinality,
+                            "The data type or cardinality of property key " +
+                            "'%s' is changed since exported", name);
+            for (int i = 0; i < bitmap.length; i++) {
+                bitmap[i] = buffer.read();
+            }
+            for (int i = 0; i < size; i++) {
+                if ((bitmap[i >> 3] & (1 << (i & 0x07))) != 0) {
+                    rows.get(i).properties.put(pkey, buffer.readProperty(pkey));
+                }
+            }
+        }
+        E.checkState(buffer.remaining() == 0,
+                     "Invalid columnar block with %s bytes left",
+                     buffer.remaining());
+        return rows;
+    }
+
+    private static Id[] readIds(BytesBuffer buffer, int size) {
+        Id[] ids = new Id[size];
+        byte encoding = buffer.read();
+        if (encoding == ColumnarWriter.IDS_PLAIN) {
+            for (int i = 0; i < size; i++) {
+                ids[i] = buffer.readId();
+            }
+            return ids;
+        }
+
+        E.checkArgument(encoding == ColumnarWriter.IDS_DELTA,
+                        "Invalid id encoding %s", encoding);
+        long last = 0L;
+        for (int i = 0; i < size; i++) {
+            long zigzag = buffer.readVLong();
+            last += (zigzag >>> 1) ^ -(zigzag & 1L);
+            ids[i] = IdGenerator.of(last);
+        }
+        return ids;
+    }
+
+    public static class Row {
+
+        private final String label;
+        private final Map<PropertyKey, Object> properties;
+        private Id id;
+        private Id target;
+
+        public Row(String label) {
+            this.label = label;
+            this.properties = new LinkedHashMap<>();
+        }
+
+        public String label() {
+            return this.label;
+        }
+
+        /**
+         * The vertex id, or the source vertex id of edge
+         */
+        public Id id() {
+            return this.id;
+        }
+
+        /**
+         * The target vertex id of edge, null for vertex
+         */
+        public Id target() {
+            return this.target;
+        }
+
+        public Map<PropertyKey, Object> properties() {
+            return Collections.unmodifiableMap(this.properties);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.export;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.structure.HugeElement;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * The writer of a binary columnar file of vertices or edges, the elements
+ * are written in blocks of at most BLOCK_ROWS rows, and column by column
+ * in a block:
+ *  - the label dictionary and the label index of each row
+ *  - the ids (the source vertex ids of edges), and the target vertex ids of
+ *    edges, the ids are delta encoded if all of them are numbers
+ *  - the property columns, each one with the key name, data type and
+ *    cardinality, the presence bitmap and the typed values of the rows
+ *    having the property
+ *
+ * A file starts with MAGIC, VERSION and the type code, then the blocks, each
+ * one starts with the length of it, and ends with a block of length 0.
+ */
+public class ColumnarWriter implements AutoCloseable {
+
+    public static final byte[] MAGIC = {'H', 'G', 'C', 'F'};
+    public static final byte VERSION = 1;
+    public static final int BLOCK_ROWS = 4096;
+
+    public static final byte IDS_PLAIN = 0;
+    public static final byte IDS_DELTA = 1;
+
+    private final HugeGraph graph;
+    private final HugeType type;
+    private final DataOutputStream out;
+
+    private final List<String> labels;
+    private final List<Id> ids;
+    private final List<Id> targets;
+    private final List<Map<Id, Object>> properties;
+
+    private long rows;
+    private long bytes;
+
+    public ColumnarWriter(HugeGraph graph, HugeType type, OutputStream out)
+                          throws IOException {
+        E.checkArgument(type.isVertex() || type.isEdge(),
+                        "Expect vertex or edge type, but got '%s'", type);
+        this.graph = graph;
+        this.type = type.isVertex() ? HugeType.VERTEX : HugeType.EDGE;
+        this.out = new DataOutputStream(out);
+
+        this.labels = new ArrayList<>(BLOCK_ROWS);
+        this.ids = new ArrayList<>(BLOCK_ROWS);
+        this.targets = new ArrayList<>(BLOCK_ROWS);
+        this.properties = new ArrayList<>(BLOCK_ROWS);
+
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeByte(this.type.code());
+        this.rows = 0L;
+        this.bytes = MAGIC.length + 2L;
+    }
+
+    public HugeType type() {
+        return this.type;
+    }
+
+    public long rows() {
+        return this.rows;
+    }
+
+    public long bytes() {
+        return this.bytes;
+    }
+
+    public void write(HugeElement element) throws IOException {
+        E.checkArgument(element.type().isVertex() == this.type.isVertex(),
+                        "Can't write %s to the file of %s",
+                        element.type(), this.type);
+        this.labels.add(element.schemaLabel().name());
+        if (this.type.isVertex()) {
+            this.ids.add(element.id());
+        } else {
+            HugeEdge edge = (HugeEdge) element;
+            this.ids.add(edge.sourceVertex().id());
+            this.targets.add(edge.targetVertex().id());
+        }
+        this.properties.add(element.getPropertiesMap());
+        this.rows++;
+
+        if (this.labels.size() >= BLOCK_ROWS) {
+            this.flush();
+        }
+    }
+
+    public void flush() throws IOException {
+        if (this.labels.isEmpty()) {
+            return;
+        }
+        byte[] block = this.writeBlock();
+        this.out.writeInt(block.length);
+        this.out.write(block);
+        this.bytes += 4L + block.length;
+
+        this.labels.clear();
+        this.ids.clear();
+        this.targets.clear();
+        this.properties.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+            // The ending block
+            this.out.writeInt(0);
+            this.bytes += 4L;
+        } finally {
+            this.out.close();
+        }
+    }
+
+    private byte[] writeBlock() {
+        int size = this.labels.size();
+        BytesBuffer buffer = BytesBuffer.allocate(64 * size);
+        buffer.writeVInt(size);
+
+        // The label dictionary and the label column
+        Map<String, Integer> dict = new LinkedHashMap<>();
+        for (String label : this.labels) {
+            dict.putIfAbsent(label, dict.size());
+        }
+        buffer.writeVInt(dict.size());
+        for (String label : dict.keySet()) {
+            buffer.writeString(label);
+        }
+        for (String label : this.labels) {
+            buffer.writeVInt(dict.get(label));
+        }
+
+        // The id columns
+        writeIds(buffer, this.ids);
+        if (this.type.isEdge()) {
+            writeIds(buffer, this.targets);
+        }
+
+        // The property columns in the order of the keys first seen
+        Map<Id, byte[]> columns = new LinkedHashMap<>();
+        for (Map<Id, Object> props : this.properties) {
+            for (Id key : props.keySet()) {
+                columns.putIfAbsent(key, new byte[(size + 7) / 8]);
+            }
+        }
+        buffer.writeVInt(columns.size());
+        for (Map.Entry<Id, byte[]> e : columns.entrySet()) {
+            PropertyKey pkey = this.graph.propertyKey(e.getKey());
+            byte[] bitmap = e.getValue();
+            for (int i = 0; i < size; i++) {
+                if (this.properties.get(i).containsKey(pkey.id())) {
+                    bitmap[i >> 3] |= (byte) (1 << (i & 0x07));
+                }
+            }
+            buffer.writeString(pkey.name());
+            buffer.write(pkey.dataType().code());
+            buffer.write(pkey.cardinality().code());
+            buffer.write(bitmap);
+            for (Map<Id, Object> props : this.properties) {
+                Object value = props.get(pkey.id());
+                if (value != null) {
+                    buffer.writeProperty(pkey, value);
+                }
+            }
+        }
+        return buffer.bytes();
+    }
+
+    private static void writeIds(BytesBuffer buffer, List<Id> ids) {
+        boolean numbers = true;
+        for (Id id : ids) {
+            if (!id.number()) {
+                numbers = false;
+                break;
+            }
+        }
+        if (!numbers) {
+            buffer.write(IDS_PLAIN);
+            for (Id id : ids) {
+                buffer.writeId(id);
+            }
+            return;
+        }
+
+        // The ids of a shard are almost sorted, the deltas are very small
+        buffer.write(IDS_DELTA);
+        long last = 0L;
+        for (Id id : ids) {
+            long value = id.asLong();
+            long delta = value - last;
+            // Zigzag encoding to keep the negative deltas small
+            buffer.writeVLong((delta << 1) ^ (delta >> 63));
+            last = value;
+        }
+    }
+}
@@ -121,6 +121,14 @@ public class IndexLabel extends SchemaElement {
         return this.indexFields.get(0);
     }
 
+    /**
+     * Whether the indexes are updated by the async index queue after the
+     * transactions are committed instead of within the transactions
+     */
+    public boolean async() {
+        return Boolean.TRUE.equals(this.userdata().get(Userdata.ASYNC_INDEX));
+    }
+
     public SchemaLabel baseElement() {
         return getElement(this.graph, this.baseType, this.baseValue);
     }
@@ -257,6 +265,10 @@ public class IndexLabel extends SchemaElement {
 
         Builder unique();
 
+        Builder vertexCentric();
+
+        Builder async();
+
         Builder on(HugeType baseType, String baseValue);
 
         Builder indexType(IndexType indexType);
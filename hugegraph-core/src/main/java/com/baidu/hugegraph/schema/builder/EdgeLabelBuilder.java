@@ -32,6 +32,7 @@ import org.apache.commons.collections.CollectionUtils;
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.tx.IndexStatistics;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
 import com.baidu.hugegraph.exception.ExistedException;
 import com.baidu.hugegraph.exception.NotAllowException;
@@ -163,6 +164,9 @@ public class EdgeLabelBuilder extends AbstractBuilder
             edgeLabel = this.build();
             assert edgeLabel.name().equals(name);
             this.graph().addEdgeLabel(edgeLabel);
+            // Count the edges of the new label from empty
+            IndexStatistics.of(this.graph().name())
+                           .labelCreated(HugeType.EDGE, edgeLabel.id());
             return edgeLabel;
         });
     }
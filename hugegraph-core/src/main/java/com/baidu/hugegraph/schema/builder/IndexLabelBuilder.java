@@ -191,6 +191,7 @@ public class IndexLabelBuilder extends AbstractBuilder
 
             this.checkBaseType();
             this.checkIndexType();
+            this.checkAsync(this.indexType);
 
             SchemaLabel schemaLabel = this.loadElement();
 
@@ -272,6 +273,7 @@ public class IndexLabelBuilder extends AbstractBuilder
         }
         this.checkStableVars();
         Userdata.check(this.userdata, Action.APPEND);
+        this.checkAsync(indexLabel.indexType());
         indexLabel.userdata(this.userdata);
         SchemaLabel schemaLabel = indexLabel.baseElement();
         this.graph().addIndexLabel(schemaLabel, indexLabel);
@@ -378,6 +380,18 @@ public class IndexLabelBuilder extends AbstractBuilder
         return this;
     }
 
+    @Override
+    public IndexLabelBuilder vertexCentric() {
+        this.indexType = IndexType.VERTEX_CENTRIC;
+        return this;
+    }
+
+    @Override
+    public IndexLabelBuilder async() {
+        this.userdata.put(Userdata.ASYNC_INDEX, true);
+        return this;
+    }
+
     @Override
     public IndexLabelBuilder on(HugeType baseType, String baseValue) {
         E.checkArgument(baseType == HugeType.VERTEX_LABEL ||
@@ -441,6 +455,20 @@ public class IndexLabelBuilder extends AbstractBuilder
         }
     }
 
+    private void checkAsync(IndexType indexType) {
+        Object async = this.userdata.get(Userdata.ASYNC_INDEX);
+        if (async == null) {
+            return;
+        }
+        E.checkArgument(async instanceof Boolean,
+                        "The userdata '%s' must be boolean, but got '%s'",
+                        Userdata.ASYNC_INDEX, async);
+        // The unique constraint must be checked within the transaction
+        E.checkArgument(!((Boolean) async) || !indexType.isUnique(),
+                        "Not allowed to update unique index '%s' async",
+                        this.name);
+    }
+
     private SchemaLabel loadElement() {
         return IndexLabel.getElement(this.graph(),
                                      this.baseType, this.baseValue);
@@ -476,6 +504,14 @@ public class IndexLabelBuilder extends AbstractBuilder
             this.checkFields4Range();
         }
 
+        // Vertex-centric index must build on edge label
+        if (this.indexType.isVertexCentric()) {
+            E.checkArgument(this.baseType == HugeType.EDGE_LABEL,
+                            "Vertex-centric index can only build on " +
+                            "edge label, but got %s(%s)",
+                            this.baseType.readableName(), this.baseValue);
+        }
+
         // Search index must build on single text column
         if (this.indexType.isSearch()) {
             E.checkArgument(fields.size() == 1,
@@ -545,6 +581,9 @@ public class IndexLabelBuilder extends AbstractBuilder
             case UNIQUE:
                 this.checkRepeatUniqueIndex(schemaLabel);
                 break;
+            case VERTEX_CENTRIC:
+                this.checkRepeatIndex(schemaLabel, IndexType.VERTEX_CENTRIC);
+                break;
             default:
                 throw new AssertionError(String.format(
                           "Unsupported index type: %s", this.indexType));
@@ -32,6 +32,7 @@ import org.apache.commons.collections.CollectionUtils;
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.tx.IndexStatistics;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
 import com.baidu.hugegraph.exception.ExistedException;
 import com.baidu.hugegraph.exception.NotAllowException;
@@ -151,6 +152,9 @@ public class VertexLabelBuilder extends AbstractBuilder
             vertexLabel = this.build();
             assert vertexLabel.name().equals(name);
             this.graph().addVertexLabel(vertexLabel);
+            // Count the vertices of the new label from empty
+            IndexStatistics.of(this.graph().name())
+                           .labelCreated(HugeType.VERTEX, vertexLabel.id());
             return vertexLabel;
         });
     }
@@ -20,7 +20,6 @@
 package com.baidu.hugegraph.structure;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
@@ -368,6 +367,8 @@ public class HugeEdge extends HugeElement implements Edge, Cloneable {
     }
 
     public HugeEdge switchOwner() {
+        // The edges of both the vertices share the properties
+        this.allocateProperties();
         HugeEdge edge = this.clone();
         edge.isOutEdge = !edge.isOutEdge;
         edge.id = ((EdgeId) edge.id).switchDirection();
@@ -458,7 +459,7 @@ public class HugeEdge extends HugeElement implements Edge, Cloneable {
     @Override
     public HugeEdge copy() {
         HugeEdge edge = this.clone();
-        edge.properties = new HashMap<>(edge.properties);
+        edge.properties = copyProperties(edge, this.properties);
         return edge;
     }
 
@@ -56,8 +56,10 @@ import com.google.common.collect.ImmutableMap;
 
 public abstract class HugeElement implements Element, GraphType, Idfiable {
 
-    private static final Map<Id, HugeProperty<?>> EMPTY = ImmutableMap.of();
     private static final int MAX_PROPERTIES = BytesBuffer.UINT16_MAX;
+    // Shared by the elements without properties until any one is set
+    private static final Map<Id, HugeProperty<?>> EMPTY_PROPERTIES =
+                         ImmutableMap.of();
 
     private final HugeGraph graph;
 
@@ -72,7 +74,7 @@ public abstract class HugeElement implements Element, GraphType, Idfiable {
         E.checkArgument(graph != null, "HugeElement graph can't be null");
         this.graph = graph;
         this.id = id;
-        this.properties = EMPTY;
+        this.properties = EMPTY_PROPERTIES;
         this.expiredTime = 0L;
         this.removed = false;
         this.fresh = false;
@@ -238,17 +240,18 @@ public abstract class HugeElement implements Element, GraphType, Idfiable {
 
     @Watched(prefix = "element")
     public <V> HugeProperty<?> setProperty(HugeProperty<V> prop) {
-        if (this.properties == EMPTY) {
-            this.properties = new HashMap<>();
-        }
         PropertyKey pkey = prop.propertyKey();
         E.checkArgument(this.properties.containsKey(pkey.id()) ||
                         this.properties.size() < MAX_PROPERTIES,
                         "Exceeded the maximum number of properties");
+        this.allocateProperties();
         return this.properties.put(pkey.id(), prop);
     }
 
     public <V> HugeProperty<?> removeProperty(Id key) {
+        if (this.properties == EMPTY_PROPERTIES) {
+            return null;
+        }
         return this.properties.remove(key);
     }
 
@@ -325,16 +328,46 @@ public abstract class HugeElement implements Element, GraphType, Idfiable {
         return (HugeProperty) property;
     }
 
+    /**
+     * Load the properties serialized by BinarySerializer, which will be
+     * decoded lazily when they are accessed
+     * @param last whether the properties are the last field of the buffer
+     */
+    public void loadProperties(BytesBuffer buffer, boolean last) {
+        if (!(this.properties instanceof PropertyMap)) {
+            this.properties = PropertyMap.copyOf(this, this.properties);
+        }
+        ((PropertyMap) this.properties).load(buffer, MAX_PROPERTIES, last);
+    }
+
     public void resetProperties() {
-        this.properties = new HashMap<>();
+        this.properties = EMPTY_PROPERTIES;
         this.propLoaded = false;
     }
 
     public void copyProperties(HugeElement element) {
-        this.properties = new HashMap<>(element.properties);
+        this.properties = copyProperties(this, element.properties);
         this.propLoaded = true;
     }
 
+    /**
+     * Allocate the properties if not allocated yet, the clones of the
+     * element share the properties after that
+     */
+    protected void allocateProperties() {
+        if (this.properties == EMPTY_PROPERTIES) {
+            this.properties = new PropertyMap(this);
+        }
+    }
+
+    protected static Map<Id, HugeProperty<?>> copyProperties(
+                     HugeElement owner, Map<Id, HugeProperty<?>> properties) {
+        if (properties == EMPTY_PROPERTIES) {
+            return EMPTY_PROPERTIES;
+        }
+        return PropertyMap.copyOf(owner, properties);
+    }
+
     public HugeElement copyAsFresh() {
         HugeElement elem = this.copy();
         elem.fresh = true;
@@ -22,7 +22,6 @@ package com.baidu.hugegraph.structure;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -61,6 +60,9 @@ import com.baidu.hugegraph.util.InsertionOrderUtil;
 
 public class HugeVertex extends HugeElement implements Vertex, Cloneable {
 
+    // Not allocate the edges set until adding edge, most have no edges
+    private static final Set<HugeEdge> EMPTY_EDGES = Collections.emptySet();
+
     private GraphTransaction tx;
 
     protected VertexLabel label;
@@ -78,7 +80,7 @@ public class HugeVertex extends HugeElement implements Vertex, Cloneable {
 
         this.tx = null;
         this.vertexLabel(label);
-        this.edges = InsertionOrderUtil.newSet();
+        this.edges = EMPTY_EDGES;
         this.name = null;
         if (this.id != null) {
             if (label.idStrategy() == IdStrategy.CUSTOMIZE_UUID) {
@@ -214,14 +216,20 @@ public class HugeVertex extends HugeElement implements Vertex, Cloneable {
     }
 
     public void resetEdges() {
-        this.edges = InsertionOrderUtil.newSet();
+        this.edges = EMPTY_EDGES;
     }
 
     public void removeEdge(HugeEdge edge) {
+        if (this.edges == EMPTY_EDGES) {
+            return;
+        }
         this.edges.remove(edge);
     }
 
     public void addEdge(HugeEdge edge) {
+        if (this.edges == EMPTY_EDGES) {
+            this.edges = InsertionOrderUtil.newSet();
+        }
         this.edges.add(edge);
     }
 
@@ -319,7 +327,7 @@ public class HugeVertex extends HugeElement implements Vertex, Cloneable {
         E.checkState(edge.isDirection(Directions.OUT),
                      "The owner vertex('%s') of OUT edge '%s' should be '%s'",
                      edge.ownerVertex().id(), edge, this.id());
-        this.edges.add(edge);
+        this.addEdge(edge);
     }
 
     /**
@@ -333,7 +341,7 @@ public class HugeVertex extends HugeElement implements Vertex, Cloneable {
         E.checkState(edge.isDirection(Directions.IN),
                      "The owner vertex('%s') of IN edge '%s' should be '%s'",
                      edge.ownerVertex().id(), edge, this.id());
-        this.edges.add(edge);
+        this.addEdge(edge);
     }
 
     public Iterator<Edge> getEdges(Directions direction, String... edgeLabels) {
@@ -602,7 +610,7 @@ public class HugeVertex extends HugeElement implements Vertex, Cloneable {
     @Override
     public HugeVertex copy() {
         HugeVertex vertex = this.clone();
-        vertex.properties = new HashMap<>(this.properties);
+        vertex.properties = copyProperties(vertex, this.properties);
         return vertex;
     }
 
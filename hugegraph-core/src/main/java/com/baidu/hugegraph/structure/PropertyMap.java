@@ -0,0 +1,401 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.structure;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * The properties of an element, which are stored in small arrays sorted by
+ * the id of property key instead of a HashMap, to reduce the heap usage of
+ * the elements in scanning and caching.
+ *
+ * The properties loaded from the binary serialized block are decoded lazily
+ * on the first access, before that only the offsets of them are kept. If
+ * the properties are the last field of the block, even the keys of them
+ * are parsed on the first access, since the values can't be skipped without
+ * the data types of the keys.
+ *
+ * NOTE: it's not thread safe to update the properties, but it's allowed to
+ * read them concurrently (like the elements in cache), a lazy property may
+ * be decoded more than once in that case, which is harmless.
+ */
+final class PropertyMap extends AbstractMap<Id, HugeProperty<?>> {
+
+    private static final Id[] EMPTY_KEYS = new Id[0];
+    private static final HugeProperty<?>[] EMPTY_VALUES = new HugeProperty[0];
+
+    private final HugeElement owner;
+
+    private Id[] keys;
+    // The value is null if it's not decoded yet
+    private HugeProperty<?>[] values;
+    private int size;
+
+    // The serialized block and the offsets of lazy properties in it
+    private byte[] block;
+    private int[] offsets;
+    // The count of properties in the block whose keys are not parsed yet
+    private volatile int unparsed;
+
+    public PropertyMap(HugeElement owner) {
+        this.owner = owner;
+        this.keys = EMPTY_KEYS;
+        this.values = EMPTY_VALUES;
+        this.size = 0;
+        this.block = null;
+        this.offsets = null;
+        this.unparsed = 0;
+    }
+
+    /**
+     * Copy the properties to another owner, the lazy properties are still
+     * kept lazy in the copied one
+     */
+    public static PropertyMap copyOf(HugeElement owner,
+                                     Map<Id, HugeProperty<?>> properties) {
+        if (properties instanceof PropertyMap) {
+            return ((PropertyMap) properties).copy(owner);
+        }
+        PropertyMap map = new PropertyMap(owner);
+        map.putAll(properties);
+        return map;
+    }
+
+    private PropertyMap copy(HugeElement owner) {
+        PropertyMap map = new PropertyMap(owner);
+        if (this.unparsed > 0) {
+            synchronized (this) {
+                if (this.unparsed > 0) {
+                    map.block = this.block;
+                    map.unparsed = this.unparsed;
+                    return map;
+                }
+            }
+        }
+        map.keys = Arrays.copyOf(this.keys, this.size);
+        map.values = Arrays.copyOf(this.values, this.size);
+        map.size = this.size;
+        map.block = this.block;
+        if (this.offsets != null) {
+            map.offsets = Arrays.copyOf(this.offsets, this.size);
+        }
+        return map;
+    }
+
+    /**
+     * Load properties from the buffer written by BinarySerializer, the
+     * values are skipped and will be decoded on demand
+     * @param last whether the properties are the last field of the buffer,
+     *             the keys are parsed on demand too if it's true
+     */
+    public void load(BytesBuffer buffer, int maxSize, boolean last) {
+        int count = buffer.readVInt();
+        E.checkState(count >= 0 && count <= maxSize,
+                     "Invalid properties count: %s", count);
+        if (count == 0) {
+            return;
+        }
+        if (this.size > 0 || this.unparsed > 0) {
+            // Decode the existing lazy properties of another block if any
+            this.decodeAll();
+        }
+
+        // Keep only the properties, not the whole array backing the buffer
+        ByteBuffer buf = buffer.asByteBuffer();
+        int start = buf.position();
+        if (last && this.size == 0) {
+            this.block = Arrays.copyOfRange(buf.array(),
+                                            buf.arrayOffset() + start,
+                                            buf.arrayOffset() + buf.limit());
+            this.unparsed = count;
+            buf.position(buf.limit());
+            return;
+        }
+        this.parse(buffer, start, count);
+        this.block = Arrays.copyOfRange(buf.array(),
+                                        buf.arrayOffset() + start,
+                                        buf.arrayOffset() + buf.position());
+    }
+
+    @Override
+    public int size() {
+        // The loaded properties are parsed only if the map is empty
+        int unparsed = this.unparsed;
+        return unparsed > 0 ? unparsed : this.size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        this.parseIfNeeded();
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public HugeProperty<?> get(Object key) {
+        this.parseIfNeeded();
+        int index = this.indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        return this.valueAt(index);
+    }
+
+    @Override
+    public HugeProperty<?> put(Id key, HugeProperty<?> value) {
+        E.checkArgument(key.number(),
+                        "The property key id must be number, but got '%s'",
+                        key);
+        E.checkNotNull(value, "value");
+        this.parseIfNeeded();
+        int index = this.indexOf(key);
+        HugeProperty<?> old = null;
+        if (index >= 0) {
+            old = this.valueAt(index);
+        } else {
+            index = this.insertAt(-index - 1, key);
+        }
+        this.values[index] = value;
+        if (this.offsets != null) {
+            this.offsets[index] = -1;
+        }
+        return old;
+    }
+
+    @Override
+    public HugeProperty<?> remove(Object key) {
+        this.parseIfNeeded();
+        int index = this.indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        HugeProperty<?> old = this.valueAt(index);
+        this.removeAt(index);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        this.keys = EMPTY_KEYS;
+        this.values = EMPTY_VALUES;
+        this.size = 0;
+        this.block = null;
+        this.offsets = null;
+        this.unparsed = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<Id, HugeProperty<?>>> entrySet() {
+        this.parseIfNeeded();
+        return new EntrySet();
+    }
+
+    private void parseIfNeeded() {
+        if (this.unparsed == 0) {
+            return;
+        }
+        synchronized (this) {
+            int count = this.unparsed;
+            if (count > 0) {
+                this.parse(BytesBuffer.wrap(this.block), 0, count);
+                // Publish the parsed keys to the concurrent readers
+                this.unparsed = 0;
+            }
+        }
+    }
+
+    /**
+     * Parse the keys and the offsets of the properties, the offsets are
+     * relative to the `base` position of the buffer
+     */
+    private void parse(BytesBuffer buffer, int base, int count) {
+        this.ensureCapacity(this.size + count);
+        this.offsets = new int[this.keys.length];
+        Arrays.fill(this.offsets, -1);
+
+        for (int i = 0; i < count; i++) {
+            Id id = IdGenerator.of(buffer.readVInt());
+            PropertyKey pkey = this.owner.graph().propertyKey(id);
+            int offset = buffer.asByteBuffer().position() - base;
+            buffer.skipProperty(pkey);
+
+            int index = this.indexOf(pkey.id());
+            if (index < 0) {
+                index = this.insertAt(-index - 1, pkey.id());
+            }
+            this.values[index] = null;
+            this.offsets[index] = offset;
+        }
+    }
+
+    private HugeProperty<?> valueAt(int index) {
+        HugeProperty<?> value = this.values[index];
+        if (value == null) {
+            value = this.decode(index);
+            this.values[index] = value;
+        }
+        return value;
+    }
+
+    private HugeProperty<?> decode(int index) {
+        assert this.block != null && this.offsets[index] >= 0;
+        PropertyKey pkey = this.owner.graph().propertyKey(this.keys[index]);
+        int offset = this.offsets[index];
+        BytesBuffer buffer = BytesBuffer.wrap(this.block, offset,
+                                              this.block.length - offset);
+        Object value = buffer.readProperty(pkey);
+        return this.owner.newProperty(pkey, value);
+    }
+
+    private void decodeAll() {
+        this.parseIfNeeded();
+        for (int i = 0; i < this.size; i++) {
+            this.valueAt(i);
+        }
+        this.block = null;
+        this.offsets = null;
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof Id) || !((Id) key).number()) {
+            return -1;
+        }
+        long id = ((Id) key).asLong();
+        int low = 0;
+        int high = this.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = this.keys[mid].asLong();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int insertAt(int index, Id key) {
+        this.ensureCapacity(this.size + 1);
+        int moved = this.size - index;
+        if (moved > 0) {
+            System.arraycopy(this.keys, index, this.keys, index + 1, moved);
+            System.arraycopy(this.values, index, this.values, index + 1,
+                             moved);
+            if (this.offsets != null) {
+                System.arraycopy(this.offsets, index, this.offsets,
+                                 index + 1, moved);
+            }
+        }
+        this.keys[index] = key;
+        this.values[index] = null;
+        if (this.offsets != null) {
+            this.offsets[index] = -1;
+        }
+        this.size++;
+        return index;
+    }
+
+    private void removeAt(int index) {
+        int moved = this.size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+            System.arraycopy(this.values, index + 1, this.values, index,
+                             moved);
+            if (this.offsets != null) {
+                System.arraycopy(this.offsets, index + 1, this.offsets,
+                                 index, moved);
+            }
+        }
+        this.size--;
+        this.keys[this.size] = null;
+        this.values[this.size] = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.keys.length) {
+            return;
+        }
+        // Grow slowly since most elements have just a few properties
+        int newCapacity = Math.max(capacity, this.keys.length + 4);
+        this.keys = Arrays.copyOf(this.keys, newCapacity);
+        this.values = Arrays.copyOf(this.values, newCapacity);
+        if (this.offsets != null) {
+            this.offsets = Arrays.copyOf(this.offsets, newCapacity);
+        }
+    }
+
+    private final class EntrySet
+                  extends AbstractSet<Map.Entry<Id, HugeProperty<?>>> {
+
+        @Override
+        public int size() {
+            return PropertyMap.this.size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<Id, HugeProperty<?>>> iterator() {
+            return new Iterator<Map.Entry<Id, HugeProperty<?>>>() {
+
+                private int next = 0;
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return this.next < PropertyMap.this.size;
+                }
+
+                @Override
+                public Map.Entry<Id, HugeProperty<?>> next() {
+                    if (!this.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    this.last = this.next++;
+                    PropertyMap map = PropertyMap.this;
+                    return new SimpleImmutableEntry<>(map.keys[this.last],
+                                                      map.valueAt(this.last));
+                }
+
+                @Override
+                public void remove() {
+                    E.checkState(this.last >= 0,
+                                 "No element to remove or removed");
+                    PropertyMap.this.removeAt(this.last);
+                    this.next = this.last;
+                    this.last = -1;
+                }
+            };
+        }
+    }
+}
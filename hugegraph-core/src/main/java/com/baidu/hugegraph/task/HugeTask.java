@@ -27,7 +27,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -79,6 +81,9 @@ public class HugeTask<V> extends FutureTask<V> {
     private volatile String input;
     private volatile String result;
 
+    // Released after done() is called, the status has been saved then
+    private final CountDownLatch finished;
+
     public HugeTask(Id id, Id parent, String callable, String input) {
         this(id, parent, TaskCallable.fromClass(callable));
         this.input(input);
@@ -108,6 +113,7 @@ public class HugeTask<V> extends FutureTask<V> {
         this.result = null;
         this.server = null;
         this.load = 1;
+        this.finished = new CountDownLatch(1);
     }
 
     public Id id() {
@@ -341,9 +347,19 @@ public class HugeTask<V> extends FutureTask<V> {
             StandardTaskScheduler scheduler = (StandardTaskScheduler)
                                               this.scheduler();
             scheduler.taskDone(this);
+            this.finished.countDown();
         }
     }
 
+    /**
+     * Wait until done() is called, namely the task is completed and the
+     * status has been saved to store
+     * @return false if timeout
+     */
+    protected boolean waitDone(long timeout) throws InterruptedException {
+        return this.finished.await(timeout, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     protected void set(V v) {
         String result = JsonUtil.toJson(v);
@@ -21,6 +21,8 @@ package com.baidu.hugegraph.task;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +33,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import org.apache.tinkerpop.gremlin.structure.Graph.Hidden;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -84,8 +87,21 @@ public class StandardTaskScheduler implements TaskScheduler {
     private final EventListener eventListener;
     private final Map<Id, HugeTask<?>> tasks;
 
+    /*
+     * The ids of tasks waiting to be dispatched by status, it's updated when
+     * a task is saved, so that the dispatching of each tick just needs to
+     * read these tasks instead of scanning the task store
+     */
+    private final Map<TaskStatus, Set<Id>> dispatchingTasks;
+    // The statuses of which the dispatching tasks have been scanned
+    private final Set<TaskStatus> dispatchingIndexed;
+
     private volatile TaskTransaction taskTx;
 
+    private static final Set<TaskStatus> DISPATCHING_STATUSES = ImmutableSet.of(
+            TaskStatus.SCHEDULING, TaskStatus.SCHEDULED, TaskStatus.CANCELLING
+    );
+
     private static final long NO_LIMIT = -1L;
     private static final long PAGE_SIZE = 500L;
     private static final long QUERY_INTERVAL = 100L;
@@ -106,6 +122,12 @@ public class StandardTaskScheduler implements TaskScheduler {
         this.serverManager = new ServerInfoManager(graph, serverInfoDbExecutor);
         this.tasks = new ConcurrentHashMap<>();
 
+        this.dispatchingTasks = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : DISPATCHING_STATUSES) {
+            this.dispatchingTasks.put(status, ConcurrentHashMap.newKeySet());
+        }
+        this.dispatchingIndexed = ConcurrentHashMap.newKeySet();
+
         this.taskTx = null;
 
         this.eventListener = this.listenChanges();
@@ -167,6 +189,8 @@ public class StandardTaskScheduler implements TaskScheduler {
             // Ensure task schema create after system info initialized
             if (storeEvents.contains(event.name())) {
                 this.call(() -> this.tx().initSchema());
+                // Tasks may be cleared, scan them again when dispatching
+                this.clearDispatchingTasks();
                 return true;
             }
             return false;
@@ -324,114 +348,170 @@ public class StandardTaskScheduler implements TaskScheduler {
     }
 
     protected synchronized void scheduleTasks() {
+        if (!this.hasDispatchingTasks(TaskStatus.SCHEDULING)) {
+            return;
+        }
         // Master server schedule all scheduling tasks to suitable worker nodes
         Collection<HugeServerInfo> scheduleInfos = this.serverManager()
                                                        .allServerInfos();
-        String page = this.supportsPaging() ? PageInfo.PAGE_NONE : null;
-        do {
-            Iterator<HugeTask<Object>> tasks = this.tasks(TaskStatus.SCHEDULING,
-                                                          PAGE_SIZE, page);
-            while (tasks.hasNext()) {
-                HugeTask<?> task = tasks.next();
-                if (task.server() != null) {
-                    // Skip if already scheduled
-                    continue;
-                }
+        this.dispatchTasks(TaskStatus.SCHEDULING, task -> {
+            if (task.server() != null) {
+                // Skip if already scheduled
+                return;
+            }
 
-                HugeServerInfo server = this.serverManager().pickWorkerNode(
-                                        scheduleInfos, task);
-                if (server == null) {
-                    LOG.info("The master can't find suitable servers to " +
-                             "execute task '{}', wait for next schedule",
-                             task.id());
-                    continue;
-                }
+            HugeServerInfo server = this.serverManager().pickWorkerNode(
+                                    scheduleInfos, task);
+            if (server == null) {
+                LOG.info("The master can't find suitable servers to " +
+                         "execute task '{}', wait for next schedule",
+                         task.id());
+                return;
+            }
 
-                // Found suitable server, update task status
-                assert server.id() != null;
-                task.server(server.id());
-                task.status(TaskStatus.SCHEDULED);
-                this.save(task);
+            // Found suitable server, update task status
+            assert server.id() != null;
+            task.server(server.id());
+            task.status(TaskStatus.SCHEDULED);
+            this.save(task);
 
-                // Update server load in memory, it will be saved at the ending
-                server.increaseLoad(task.load());
+            // Update server load in memory, it will be saved at the ending
+            server.increaseLoad(task.load());
 
-                LOG.info("Scheduled task '{}' to server '{}'",
-                         task.id(), server.id());
-            }
-            if (page != null) {
-                page = PageInfo.pageInfo(tasks);
-            }
-        } while (page != null);
+            LOG.info("Scheduled task '{}' to server '{}'",
+                     task.id(), server.id());
+        });
 
         this.serverManager().updateServerInfos(scheduleInfos);
     }
 
     protected void executeTasksOnWorker(Id server) {
-        String page = this.supportsPaging() ? PageInfo.PAGE_NONE : null;
-        do {
-            Iterator<HugeTask<Object>> tasks = this.tasks(TaskStatus.SCHEDULED,
-                                                          PAGE_SIZE, page);
-            while (tasks.hasNext()) {
-                HugeTask<?> task = tasks.next();
-                this.initTaskCallable(task);
-                Id taskServer = task.server();
-                if (taskServer == null) {
-                    LOG.warn("Task '{}' may not be scheduled", task.id());
-                    continue;
-                }
-                HugeTask<?> memTask = this.tasks.get(task.id());
-                if (memTask != null) {
-                    assert memTask.status().code() > task.status().code();
-                    continue;
-                }
-                if (taskServer.equals(server)) {
-                    task.status(TaskStatus.QUEUED);
-                    this.submitTask(task);
-                }
+        this.dispatchTasks(TaskStatus.SCHEDULED, task -> {
+            this.initTaskCallable(task);
+            Id taskServer = task.server();
+            if (taskServer == null) {
+                LOG.warn("Task '{}' may not be scheduled", task.id());
+                return;
             }
-            if (page != null) {
-                page = PageInfo.pageInfo(tasks);
+            HugeTask<?> memTask = this.tasks.get(task.id());
+            if (memTask != null) {
+                assert memTask.status().code() > task.status().code();
+                return;
             }
-        } while (page != null);
+            if (taskServer.equals(server)) {
+                task.status(TaskStatus.QUEUED);
+                this.submitTask(task);
+            }
+        });
     }
 
     protected void cancelTasksOnWorker(Id server) {
-        String page = this.supportsPaging() ? PageInfo.PAGE_NONE : null;
-        do {
-            Iterator<HugeTask<Object>> tasks = this.tasks(TaskStatus.CANCELLING,
-                                                          PAGE_SIZE, page);
+        this.dispatchTasks(TaskStatus.CANCELLING, task -> {
+            Id taskServer = task.server();
+            if (taskServer == null) {
+                LOG.warn("Task '{}' may not be scheduled", task.id());
+                return;
+            }
+            if (!taskServer.equals(server)) {
+                return;
+            }
+            /*
+             * Task may be loaded from backend store and not initialized.
+             * like: A task is completed but failed to save in the last
+             * step, resulting in the status of the task not being
+             * updated to storage, the task is not in memory, so it's not
+             * initialized when canceled.
+             */
+            HugeTask<?> memTask = this.tasks.get(task.id());
+            if (memTask == null) {
+                this.initTaskCallable(task);
+                memTask = task;
+            }
+            boolean cancelled = memTask.cancel(true);
+            LOG.info("Server '{}' cancel task '{}' with cancelled={}",
+                     server, task.id(), cancelled);
+        });
+    }
+
+    private boolean hasDispatchingTasks(TaskStatus status) {
+        return !this.dispatchingIndexed.contains(status) ||
+               !this.dispatchingTasks.get(status).isEmpty();
+    }
+
+    /**
+     * Dispatch tasks in the specified status. The tasks in dispatching
+     * statuses are only saved by master, so the master just reads the tasks
+     * indexed in memory, and scans the task store only for the first time
+     * (like after restarted or failover). The workers still need to scan
+     * the task store since they can't see the tasks saved by master.
+     */
+    private void dispatchTasks(TaskStatus status,
+                               Consumer<HugeTask<Object>> dispatcher) {
+        assert DISPATCHING_STATUSES.contains(status) : status;
+        Set<Id> indexedTasks = this.dispatchingTasks.get(status);
+        if (this.serverManager().master() &&
+            this.dispatchingIndexed.contains(status)) {
+            if (indexedTasks.isEmpty()) {
+                return;
+            }
+            List<Id> ids = new ArrayList<>(indexedTasks);
+            Set<Id> founds = new HashSet<>();
+            Iterator<HugeTask<Object>> tasks = this.findTasks(ids);
             while (tasks.hasNext()) {
-                HugeTask<?> task = tasks.next();
-                Id taskServer = task.server();
-                if (taskServer == null) {
-                    LOG.warn("Task '{}' may not be scheduled", task.id());
+                HugeTask<Object> task = tasks.next();
+                founds.add(task.id());
+                if (task.status() != status) {
+                    indexedTasks.remove(task.id());
                     continue;
                 }
-                if (!taskServer.equals(server)) {
-                    continue;
-                }
-                /*
-                 * Task may be loaded from backend store and not initialized.
-                 * like: A task is completed but failed to save in the last
-                 * step, resulting in the status of the task not being
-                 * updated to storage, the task is not in memory, so it's not
-                 * initialized when canceled.
-                 */
-                HugeTask<?> memTask = this.tasks.get(task.id());
-                if (memTask != null) {
-                    task = memTask;
-                } else {
-                    this.initTaskCallable(task);
+                dispatcher.accept(task);
+            }
+            // Remove the tasks which have been deleted
+            for (Id id : ids) {
+                if (!founds.contains(id)) {
+                    indexedTasks.remove(id);
                 }
-                boolean cancelled = task.cancel(true);
-                LOG.info("Server '{}' cancel task '{}' with cancelled={}",
-                         server, task.id(), cancelled);
+            }
+            return;
+        }
+
+        String page = this.supportsPaging() ? PageInfo.PAGE_NONE : null;
+        do {
+            Iterator<HugeTask<Object>> tasks = this.tasks(status, PAGE_SIZE,
+                                                          page);
+            while (tasks.hasNext()) {
+                HugeTask<Object> task = tasks.next();
+                this.indexDispatchingTask(task);
+                dispatcher.accept(task);
             }
             if (page != null) {
                 page = PageInfo.pageInfo(tasks);
             }
         } while (page != null);
+        this.dispatchingIndexed.add(status);
+    }
+
+    private void indexDispatchingTask(HugeTask<?> task) {
+        Id id = task.id();
+        // Only index the tasks to be dispatched by current server
+        Id self = this.serverManager().selfServerId();
+        boolean dispatchable = task.server() == null || self == null ||
+                               task.server().equals(self);
+        for (Map.Entry<TaskStatus, Set<Id>> e :
+             this.dispatchingTasks.entrySet()) {
+            if (e.getKey() == task.status() && dispatchable) {
+                e.getValue().add(id);
+            } else {
+                e.getValue().remove(id);
+            }
+        }
+    }
+
+    private void clearDispatchingTasks() {
+        this.dispatchingIndexed.clear();
+        for (Set<Id> ids : this.dispatchingTasks.values()) {
+            ids.clear();
+        }
     }
 
     protected void taskDone(HugeTask<?> task) {
@@ -441,6 +521,12 @@ public class StandardTaskScheduler implements TaskScheduler {
 
         LOG.debug("Task '{}' done on server '{}'",
                   task.id(), this.serverManager().selfServerId());
+
+        if (this.serverManager().master() &&
+            !this.dispatchingTasks.get(TaskStatus.SCHEDULING).isEmpty()) {
+            // Schedule the waiting tasks immediately since load is released
+            TaskManager.instance().notifyNewTask(task);
+        }
     }
 
     protected void remove(HugeTask<?> task) {
@@ -466,6 +552,7 @@ public class StandardTaskScheduler implements TaskScheduler {
             // Add or update task info to backend store
             return this.tx().addVertex(vertex);
         });
+        this.indexDispatchingTask(task);
     }
 
     @Override
@@ -611,28 +698,41 @@ public class StandardTaskScheduler implements TaskScheduler {
     private <V> HugeTask<V> waitUntilTaskCompleted(Id id, long seconds,
                                                    long intervalMs)
                                                    throws TimeoutException {
-        long passes = seconds * 1000 / intervalMs;
+        long deadline = System.currentTimeMillis() + seconds * 1000L;
         HugeTask<V> task = null;
-        for (long pass = 0;; pass++) {
+        while (true) {
             try {
                 task = this.task(id);
             } catch (NotFoundException e) {
                 if (task != null && task.completed()) {
                     assert task.id().asLong() < 0L : task.id();
-                    sleep(intervalMs);
+                    sleepUntilTaskCompleted(id, intervalMs);
                     return task;
                 }
                 throw e;
             }
+            long timeout = deadline - System.currentTimeMillis();
+            if (this.tasks.get(id) == task) {
+                // Block until done if the task is running on current server
+                try {
+                    if (task.waitDone(timeout)) {
+                        return task;
+                    }
+                    break;
+                } catch (InterruptedException e) {
+                    throw interruptedWaiting(id, e);
+                }
+            }
+            // Poll the task status if it's running on other servers
             if (task.completed()) {
                 // Wait for task result being set after status is completed
-                sleep(intervalMs);
+                sleepUntilTaskCompleted(id, intervalMs);
                 return task;
             }
-            if (pass >= passes) {
+            if (timeout <= 0L) {
                 break;
             }
-            sleep(intervalMs);
+            sleepUntilTaskCompleted(id, intervalMs);
         }
         throw new TimeoutException(String.format(
                   "Task '%s' was not completed in %s seconds", id, seconds));
@@ -728,6 +828,22 @@ public class StandardTaskScheduler implements TaskScheduler {
         return this.graph.backendStoreFeatures().supportsQueryByPage();
     }
 
+    private static void sleepUntilTaskCompleted(Id id, long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            throw interruptedWaiting(id, e);
+        }
+    }
+
+    private static HugeException interruptedWaiting(Id id,
+                                                    InterruptedException e) {
+        // Restore the interrupted status for the caller to handle
+        Thread.currentThread().interrupt();
+        return new HugeException("Interrupted while waiting for task '%s' " +
+                                 "to be completed", e, id);
+    }
+
     private static boolean sleep(long ms) {
         try {
             Thread.sleep(ms);
@@ -38,12 +38,15 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.cache.DegreeCache;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.query.Aggregate;
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.query.QueryResults;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.iterator.ExtendableIterator;
 import com.baidu.hugegraph.iterator.MapperIterator;
 import com.baidu.hugegraph.schema.SchemaLabel;
@@ -62,6 +65,7 @@ import com.google.common.collect.ImmutableSet;
 public class HugeTraverser {
 
     private HugeGraph graph;
+    private DegreeCache degreeCache;
 
     public static final List<Id> PATH_NONE = ImmutableList.of();
 
@@ -82,6 +86,7 @@ public class HugeTraverser {
 
     public HugeTraverser(HugeGraph graph) {
         this.graph = graph;
+        this.degreeCache = null;
     }
 
     public HugeGraph graph() {
@@ -266,6 +271,22 @@ public class HugeTraverser {
         return this.graph.edges(query);
     }
 
+    /**
+     * Get edges of a vertex, or empty edges if it's a super node whose
+     * degree is >= skipDegree (if skipDegree > 0)
+     */
+    protected Iterator<Edge> edgesOfVertex(Id source, Directions dir, Id label,
+                                           long degree, long skipDegree) {
+        Id[] labels = label == null ? new Id[]{} : new Id[]{label};
+        if (this.knownSuperNode(source, dir, labels, skipDegree)) {
+            return QueryResults.emptyIterator();
+        }
+        long limit = skipDegree > 0L ? skipDegree : degree;
+        Iterator<Edge> edges = this.edgesOfVertex(source, dir, label, limit);
+        return this.skipSuperNodeIfNeeded(source, dir, labels, edges,
+                                          degree, skipDegree);
+    }
+
     protected Iterator<Edge> edgesOfVertex(Id source, Directions dir,
                                            Map<Id, String> labels, long limit) {
         if (labels == null || labels.isEmpty()) {
@@ -281,12 +302,15 @@ public class HugeTraverser {
     }
 
     protected Iterator<Edge> edgesOfVertex(Id source, EdgeStep edgeStep) {
+        if (this.knownSuperNode(source, edgeStep)) {
+            return QueryResults.emptyIterator();
+        }
         if (edgeStep.properties == null || edgeStep.properties.isEmpty()) {
             Iterator<Edge> edges = this.edgesOfVertex(source,
                                                       edgeStep.direction,
                                                       edgeStep.labels,
                                                       edgeStep.limit());
-            return edgeStep.skipSuperNodeIfNeeded(edges);
+            return this.skipSuperNodeIfNeeded(source, edgeStep, edges);
         }
         return this.edgesOfVertex(source, edgeStep, false);
     }
@@ -312,7 +336,7 @@ public class HugeTraverser {
             query.limit(edgeStep.limit());
         }
         Iterator<Edge> edges = this.graph().edges(query);
-        return edgeStep.skipSuperNodeIfNeeded(edges);
+        return this.skipSuperNodeIfNeeded(source, edgeStep, edges);
     }
 
     private void fillFilterBySortKeys(Query query, Id[] edgeLabels,
@@ -360,12 +384,87 @@ public class HugeTraverser {
         if (edgeStep.degree == NO_LIMIT || count < edgeStep.degree) {
             return count;
         } else if (edgeStep.skipDegree != 0L && count >= edgeStep.skipDegree) {
+            if (edgeStep.properties == null || edgeStep.properties.isEmpty()) {
+                this.degreeCache().observe(source, edgeStep.direction,
+                                           edgeLabels, count);
+            }
             return 0L;
         } else {
             return edgeStep.degree;
         }
     }
 
+    protected DegreeCache degreeCache() {
+        if (this.degreeCache == null) {
+            HugeConfig config = (HugeConfig) this.graph.configuration();
+            long capacity = config.get(CoreOptions.DEGREE_CACHE_CAPACITY);
+            // The degree cache shares the expire time with edge cache
+            long expire = config.get(CoreOptions.EDGE_CACHE_EXPIRE);
+            this.degreeCache = DegreeCache.of(this.graph.name(), capacity,
+                                              expire * 1000L);
+        }
+        return this.degreeCache;
+    }
+
+    /**
+     * Check whether a vertex is a known super node by the degree statistics,
+     * then it could be skipped without scanning its edges
+     */
+    protected boolean knownSuperNode(Id vertex, Directions dir,
+                                     Id[] labels, long skipDegree) {
+        if (skipDegree <= 0L) {
+            return false;
+        }
+        return this.degreeCache().degree(vertex, dir, labels) >= skipDegree;
+    }
+
+    protected boolean knownSuperNode(Id vertex, EdgeStep edgeStep) {
+        if (edgeStep.properties != null && !edgeStep.properties.isEmpty()) {
+            // The degree filtered by properties is not the real degree
+            return false;
+        }
+        return this.knownSuperNode(vertex, edgeStep.direction,
+                                   edgeStep.edgeLabels(), edgeStep.skipDegree);
+    }
+
+    /**
+     * Skip the super node like the static skipSuperNodeIfNeeded(), and
+     * record the degree of the super node into the degree statistics
+     */
+    protected Iterator<Edge> skipSuperNodeIfNeeded(Id vertex, Directions dir,
+                                                   Id[] labels,
+                                                   Iterator<Edge> edges,
+                                                   long degree,
+                                                   long skipDegree) {
+        if (skipDegree <= 0L) {
+            return edges;
+        }
+        List<Edge> edgeList = new ArrayList<>();
+        for (int i = 1; edges.hasNext(); i++) {
+            Edge edge = edges.next();
+            if (i <= degree) {
+                edgeList.add(edge);
+            }
+            if (i >= skipDegree) {
+                this.degreeCache().observe(vertex, dir, labels, i);
+                return QueryResults.emptyIterator();
+            }
+        }
+        return edgeList.iterator();
+    }
+
+    private Iterator<Edge> skipSuperNodeIfNeeded(Id vertex, EdgeStep edgeStep,
+                                                 Iterator<Edge> edges) {
+        if (edgeStep.properties != null && !edgeStep.properties.isEmpty()) {
+            // The degree filtered by properties is not the real degree
+            return edgeStep.skipSuperNodeIfNeeded(edges);
+        }
+        return this.skipSuperNodeIfNeeded(vertex, edgeStep.direction,
+                                          edgeStep.edgeLabels(), edges,
+                                          edgeStep.degree,
+                                          edgeStep.skipDegree);
+    }
+
     protected Object getVertexLabelId(Object label) {
         if (label == null) {
             return null;
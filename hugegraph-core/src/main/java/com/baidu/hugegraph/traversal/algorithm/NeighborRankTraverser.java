@@ -27,8 +27,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.ws.rs.core.MultivaluedMap;
-
 import org.apache.tinkerpop.gremlin.structure.Edge;
 
 import com.baidu.hugegraph.HugeGraph;
@@ -37,6 +35,11 @@ import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.OrderLimitMap;
+import com.carrotsearch.hppc.ObjectDoubleHashMap;
+import com.carrotsearch.hppc.ObjectHashSet;
+import com.carrotsearch.hppc.ObjectLongHashMap;
+import com.carrotsearch.hppc.cursors.ObjectDoubleCursor;
+import com.carrotsearch.hppc.cursors.ObjectLongCursor;
 
 public class NeighborRankTraverser extends HugeTraverser {
 
@@ -56,8 +59,15 @@ public class NeighborRankTraverser extends HugeTraverser {
         E.checkArgumentNotNull(source, "The source vertex id can't be null");
         E.checkArgument(!steps.isEmpty(), "The steps can't be empty");
 
-        MultivaluedMap<Id, Node> sources = newMultivalueMap();
-        sources.add(source, new Node(source, null));
+        /*
+         * The vertices of current layer with the number of paths from source
+         * to each of them, the paths are counted instead of kept since only
+         * the vertices of previous layers could be passed by a path
+         */
+        ObjectLongHashMap<Id> sources = new ObjectLongHashMap<>();
+        sources.put(source, 1L);
+        ObjectHashSet<Id> visited = new ObjectHashSet<>();
+        visited.add(source);
 
         boolean sameLayerTransfer = true;
         long access = 0;
@@ -67,12 +77,14 @@ public class NeighborRankTraverser extends HugeTraverser {
 
         for (Step step : steps) {
             Ranks lastLayerRanks = ranks.get(ranks.size() - 1);
-            Map<Id, Double> sameLayerIncrRanks = new HashMap<>();
+            ObjectDoubleHashMap<Id> sameLayerIncrRanks =
+                                    new ObjectDoubleHashMap<>();
             List<Adjacencies> adjacencies = new ArrayList<>();
-            MultivaluedMap<Id, Node> newVertices = newMultivalueMap();
+            ObjectLongHashMap<Id> newVertices = new ObjectLongHashMap<>();
             // Traversal vertices of previous level
-            for (Map.Entry<Id, List<Node>> entry : sources.entrySet()) {
-                Id vertex = entry.getKey();
+            for (ObjectLongCursor<Id> entry : sources) {
+                Id vertex = entry.key;
+                long paths = entry.value;
                 Iterator<Edge> edges = this.edgesOfVertex(vertex,
                                                           step.edgeStep);
 
@@ -83,7 +95,7 @@ public class NeighborRankTraverser extends HugeTraverser {
                     HugeEdge edge = (HugeEdge) edges.next();
                     Id target = edge.id().otherVertexId();
                     // Determine whether it belongs to the same layer
-                    if (this.belongToSameLayer(sources.keySet(), target,
+                    if (this.belongToSameLayer(sources, target,
                                                sameLayerNodesV)) {
                         continue;
                     }
@@ -96,22 +108,21 @@ public class NeighborRankTraverser extends HugeTraverser {
                                                 prevLayerNodesV)) {
                         continue;
                     }
-
-                    for (Node n : entry.getValue()) {
-                        // If have loop, skip target
-                        if (n.contains(target)) {
-                            continue;
-                        }
-                        Node newNode = new Node(target, n);
-                        adjacenciesV.add(newNode);
-                        // Add adjacent nodes to sources of next step
-                        newVertices.add(target, newNode);
-
-                        checkCapacity(this.capacity, ++access, "neighbor rank");
+                    // If have loop, skip target
+                    if (visited.contains(target)) {
+                        continue;
                     }
+
+                    // Extend each path of the vertex to the target
+                    adjacenciesV.add(target, paths);
+                    // Add adjacent nodes to sources of next step
+                    newVertices.addTo(target, paths);
+
+                    access += paths;
+                    checkCapacity(this.capacity, access, "neighbor rank");
                 }
                 long degree = sameLayerNodesV.size() + prevLayerNodesV.size() +
-                              adjacenciesV.nodes().size();
+                              adjacenciesV.size();
                 if (degree == 0L) {
                     continue;
                 }
@@ -145,13 +156,14 @@ public class NeighborRankTraverser extends HugeTraverser {
 
             // Re-init sources
             sources = newVertices;
+            visited.addAll(newVertices.keys());
         }
         return this.topRanks(ranks, steps);
     }
 
-    private boolean belongToSameLayer(Set<Id> sources, Id target,
-                                      Set<Id> sameLayerNodes) {
-        if (sources.contains(target)) {
+    private boolean belongToSameLayer(ObjectLongHashMap<Id> sources,
+                                      Id target, Set<Id> sameLayerNodes) {
+        if (sources.containsKey(target)) {
             sameLayerNodes.add(target);
             return true;
         } else {
@@ -173,10 +185,9 @@ public class NeighborRankTraverser extends HugeTraverser {
     }
 
     private void mergeSameLayerIncrRanks(Set<Id> sameLayerNodesV, double incr,
-                                         Map<Id, Double> sameLayerIncrRanks) {
+                                         ObjectDoubleHashMap<Id> incrRanks) {
         for (Id node : sameLayerNodesV) {
-            double oldRank = sameLayerIncrRanks.getOrDefault(node, 0.0);
-            sameLayerIncrRanks.put(node, oldRank + incr);
+            incrRanks.addTo(node, incr);
         }
     }
 
@@ -191,12 +202,12 @@ public class NeighborRankTraverser extends HugeTraverser {
         }
     }
 
-    private void contributeLastLayer(Map<Id, Double> rankIncrs,
+    private void contributeLastLayer(ObjectDoubleHashMap<Id> rankIncrs,
                                      Ranks lastLayerRanks) {
-        for (Map.Entry<Id, Double> entry : rankIncrs.entrySet()) {
-            double originRank = lastLayerRanks.get(entry.getKey());
-            double incrRank = entry.getValue();
-            lastLayerRanks.put(entry.getKey(), originRank + incrRank);
+        for (ObjectDoubleCursor<Id> entry : rankIncrs) {
+            double originRank = lastLayerRanks.get(entry.key);
+            double incrRank = entry.value;
+            lastLayerRanks.put(entry.key, originRank + incrRank);
         }
     }
 
@@ -206,10 +217,12 @@ public class NeighborRankTraverser extends HugeTraverser {
         for (Adjacencies adjacenciesV : adjacencies) {
             Id source = adjacenciesV.source();
             long degree = adjacenciesV.degree();
-            for (Node node : adjacenciesV.nodes()) {
-                double rank = newLayerRanks.getOrDefault(node.id(), 0.0);
-                rank += (lastLayerRanks.get(source) * this.alpha / degree);
-                newLayerRanks.put(node.id(), rank);
+            for (ObjectLongCursor<Id> node : adjacenciesV.nodes()) {
+                double rank = newLayerRanks.getOrDefault(node.key, 0.0);
+                // Each path to the node contributes to it
+                rank += (lastLayerRanks.get(source) * this.alpha / degree *
+                         node.value);
+                newLayerRanks.put(node.key, rank);
             }
         }
         return newLayerRanks;
@@ -254,12 +267,15 @@ public class NeighborRankTraverser extends HugeTraverser {
     private static class Adjacencies {
 
         private final Id source;
-        private final List<Node> nodes;
+        // The adjacent nodes with the number of paths to each of them
+        private final ObjectLongHashMap<Id> nodes;
+        private long size;
         private long degree;
 
         public Adjacencies(Id source) {
             this.source = source;
-            this.nodes = new ArrayList<>();
+            this.nodes = new ObjectLongHashMap<>();
+            this.size = 0L;
             this.degree = -1L;
         }
 
@@ -267,12 +283,17 @@ public class NeighborRankTraverser extends HugeTraverser {
             return this.source;
         }
 
-        public List<Node> nodes() {
+        public ObjectLongHashMap<Id> nodes() {
             return this.nodes;
         }
 
-        public void add(Node node) {
-            this.nodes.add(node);
+        public long size() {
+            return this.size;
+        }
+
+        public void add(Id node, long paths) {
+            this.nodes.addTo(node, paths);
+            this.size += paths;
         }
 
         public long degree() {
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.traversal.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.util.E;
+import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.ObjectIntHashMap;
+
+/**
+ * The partial paths of a traversal, which are kept as a tree of nodes
+ * instead of lists of vertex ids or Node objects: the vertices are interned
+ * as int indexes, and a node is an int index to the primitive arrays which
+ * record its vertex and its parent node. So a path of n vertices shares its
+ * first n-1 nodes with its parent path and takes just 8 bytes itself.
+ *
+ * NOTE: it's not thread safe.
+ */
+public final class PathTree {
+
+    public static final int NO_PARENT = -1;
+
+    private static final int INIT_CAPACITY = 64;
+
+    private final ObjectIntHashMap<Id> vertexIndexes;
+    private Id[] vertices;
+
+    private int[] nodeVertices;
+    private int[] nodeParents;
+    private int size;
+
+    public PathTree() {
+        this.vertexIndexes = new ObjectIntHashMap<>();
+        this.vertices = new Id[INIT_CAPACITY];
+        this.nodeVertices = new int[INIT_CAPACITY];
+        this.nodeParents = new int[INIT_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Add a node of the vertex as a child of the parent node
+     * @param parent the parent node, or NO_PARENT for a root node
+     * @return the new node
+     */
+    public int add(int parent, Id vertex) {
+        E.checkArgument(parent == NO_PARENT || this.valid(parent),
+                        "Invalid parent node %s", parent);
+        if (this.size == this.nodeVertices.length) {
+            int capacity = this.size << 1;
+            this.nodeVertices = Arrays.copyOf(this.nodeVertices, capacity);
+            this.nodeParents = Arrays.copyOf(this.nodeParents, capacity);
+        }
+        int node = this.size++;
+        this.nodeVertices[node] = this.intern(vertex);
+        this.nodeParents[node] = parent;
+        return node;
+    }
+
+    /**
+     * @return the number of nodes
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of distinct vertices of all the nodes
+     */
+    public int vertexCount() {
+        return this.vertexIndexes.size();
+    }
+
+    /**
+     * @return the interned index of the vertex, or -1 if it's not in tree
+     */
+    public int vertexIndex(Id vertex) {
+        return this.vertexIndexes.getOrDefault(vertex, -1);
+    }
+
+    public int vertexIndexOf(int node) {
+        return this.nodeVertices[node];
+    }
+
+    public Id vertex(int node) {
+        return this.vertices[this.nodeVertices[node]];
+    }
+
+    public int parent(int node) {
+        return this.nodeParents[node];
+    }
+
+    /**
+     * @return whether the vertex is in the path from root to the node
+     */
+    public boolean contains(int node, Id vertex) {
+        int index = this.vertexIndex(vertex);
+        if (index < 0) {
+            return false;
+        }
+        for (int n = node; n != NO_PARENT; n = this.nodeParents[n]) {
+            if (this.nodeVertices[n] == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the vertices of the path from root to the node
+     */
+    public List<Id> path(int node) {
+        List<Id> ids = new ArrayList<>();
+        for (int n = node; n != NO_PARENT; n = this.nodeParents[n]) {
+            ids.add(this.vertices[this.nodeVertices[n]]);
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    /**
+     * Join the path to the node with the reversed path to another node,
+     * like Node.joinPath()
+     * @return the joined path, or an empty list if they have any common
+     *         vertex
+     */
+    public List<Id> joinPath(int node, int back) {
+        IntHashSet vertices = new IntHashSet();
+        for (int n = node; n != NO_PARENT; n = this.nodeParents[n]) {
+            vertices.add(this.nodeVertices[n]);
+        }
+        for (int n = back; n != NO_PARENT; n = this.nodeParents[n]) {
+            if (vertices.contains(this.nodeVertices[n])) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Id> path = this.path(node);
+        for (int n = back; n != NO_PARENT; n = this.nodeParents[n]) {
+            path.add(this.vertices[this.nodeVertices[n]]);
+        }
+        return path;
+    }
+
+    private int intern(Id vertex) {
+        E.checkArgumentNotNull(vertex, "The vertex of node can't be null");
+        int index = this.vertexIndexes.getOrDefault(vertex, -1);
+        if (index >= 0) {
+            return index;
+        }
+        index = this.vertexIndexes.size();
+        if (index == this.vertices.length) {
+            this.vertices = Arrays.copyOf(this.vertices, index << 1);
+        }
+        this.vertices[index] = vertex;
+        this.vertexIndexes.put(vertex, index);
+        return index;
+    }
+
+    private boolean valid(int node) {
+        return node >= 0 && node < this.size;
+    }
+}
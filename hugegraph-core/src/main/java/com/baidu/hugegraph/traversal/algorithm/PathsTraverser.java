@@ -22,9 +22,6 @@ package com.baidu.hugegraph.traversal.algorithm;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-
-import javax.ws.rs.core.MultivaluedMap;
 
 import org.apache.tinkerpop.gremlin.structure.Edge;
 
@@ -33,6 +30,10 @@ import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.util.E;
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import com.carrotsearch.hppc.cursors.IntObjectCursor;
 import com.google.common.collect.ImmutableList;
 
 public class PathsTraverser extends HugeTraverser {
@@ -86,10 +87,13 @@ public class PathsTraverser extends HugeTraverser {
 
     private class Traverser {
 
-        private MultivaluedMap<Id, Node> sources = newMultivalueMap();
-        private MultivaluedMap<Id, Node> targets = newMultivalueMap();
-        private MultivaluedMap<Id, Node> sourcesAll = newMultivalueMap();
-        private MultivaluedMap<Id, Node> targetsAll = newMultivalueMap();
+        // The partial paths from both source and target
+        private final PathTree tree = new PathTree();
+        // The nodes of the last level and all levels by vertex index
+        private IntObjectHashMap<IntArrayList> sources;
+        private IntObjectHashMap<IntArrayList> targets;
+        private final IntObjectHashMap<IntArrayList> sourcesAll;
+        private final IntObjectHashMap<IntArrayList> targetsAll;
 
         private final Id label;
         private final long degree;
@@ -99,10 +103,16 @@ public class PathsTraverser extends HugeTraverser {
 
         public Traverser(Id sourceV, Id targetV, Id label,
                          long degree, long capacity, long limit) {
-            this.sources.add(sourceV, new Node(sourceV));
-            this.targets.add(targetV, new Node(targetV));
-            this.sourcesAll.putAll(this.sources);
-            this.targetsAll.putAll(this.targets);
+            this.sources = new IntObjectHashMap<>();
+            this.targets = new IntObjectHashMap<>();
+            this.sourcesAll = new IntObjectHashMap<>();
+            this.targetsAll = new IntObjectHashMap<>();
+            int source = this.tree.add(PathTree.NO_PARENT, sourceV);
+            addNode(this.sources, this.tree.vertexIndexOf(source), source);
+            addNode(this.sourcesAll, this.tree.vertexIndexOf(source), source);
+            int target = this.tree.add(PathTree.NO_PARENT, targetV);
+            addNode(this.targets, this.tree.vertexIndexOf(target), target);
+            addNode(this.targetsAll, this.tree.vertexIndexOf(target), target);
             this.label = label;
             this.degree = degree;
             this.capacity = capacity;
@@ -115,47 +125,8 @@ public class PathsTraverser extends HugeTraverser {
          */
         public List<Path> forward(Directions direction) {
             List<Path> paths = new ArrayList<>();
-            MultivaluedMap<Id, Node> newVertices = newMultivalueMap();
-            Iterator<Edge> edges;
-            // Traversal vertices of previous level
-            for (Map.Entry<Id, List<Node>> entry : this.sources.entrySet()) {
-                Id vid = entry.getKey();
-                edges = edgesOfVertex(vid, direction, this.label, this.degree);
-
-                while (edges.hasNext()) {
-                    HugeEdge edge = (HugeEdge) edges.next();
-                    Id target = edge.id().otherVertexId();
-
-                    for (Node n : entry.getValue()) {
-                        // If have loop, skip target
-                        if (n.contains(target)) {
-                            continue;
-                        }
-
-                        // If cross point exists, path found, concat them
-                        if (this.targetsAll.containsKey(target)) {
-                            for (Node node : this.targetsAll.get(target)) {
-                                List<Id> path = n.joinPath(node);
-                                if (!path.isEmpty()) {
-                                    paths.add(new Path(target, path));
-                                    ++this.count;
-                                    if (this.reachLimit()) {
-                                        return paths;
-                                    }
-                                }
-                            }
-                        }
-
-                        // Add node to next start-nodes
-                        newVertices.add(target, new Node(target, n));
-                    }
-                }
-            }
-            // Re-init sources
-            this.sources = newVertices;
-            // Record all passed vertices
-            this.sourcesAll.putAll(newVertices);
-
+            this.sources = this.forward(this.sources, this.sourcesAll,
+                                        this.targetsAll, direction, paths);
             return paths;
         }
 
@@ -164,49 +135,69 @@ public class PathsTraverser extends HugeTraverser {
          */
         public List<Path> backward(Directions direction) {
             List<Path> paths = new ArrayList<>();
-            MultivaluedMap<Id, Node> newVertices = newMultivalueMap();
+            this.targets = this.forward(this.targets, this.targetsAll,
+                                        this.sourcesAll, direction, paths);
+            return paths;
+        }
+
+        /**
+         * Search one level forward from the nodes of last level, the paths
+         * are found if any vertex is reached by the other side
+         * @return the nodes of the new level
+         */
+        private IntObjectHashMap<IntArrayList> forward(
+                                IntObjectHashMap<IntArrayList> lastLevel,
+                                IntObjectHashMap<IntArrayList> passed,
+                                IntObjectHashMap<IntArrayList> others,
+                                Directions direction, List<Path> paths) {
+            PathTree tree = this.tree;
+            IntObjectHashMap<IntArrayList> newVertices;
+            newVertices = new IntObjectHashMap<>();
             Iterator<Edge> edges;
             // Traversal vertices of previous level
-            for (Map.Entry<Id, List<Node>> entry : this.targets.entrySet()) {
-                Id vid = entry.getKey();
+            for (IntObjectCursor<IntArrayList> entry : lastLevel) {
+                IntArrayList nodes = entry.value;
+                Id vid = tree.vertex(nodes.get(0));
                 edges = edgesOfVertex(vid, direction, this.label, this.degree);
 
                 while (edges.hasNext()) {
                     HugeEdge edge = (HugeEdge) edges.next();
                     Id target = edge.id().otherVertexId();
 
-                    for (Node n : entry.getValue()) {
+                    for (IntCursor n : nodes) {
                         // If have loop, skip target
-                        if (n.contains(target)) {
+                        if (tree.contains(n.value, target)) {
                             continue;
                         }
 
                         // If cross point exists, path found, concat them
-                        if (this.sourcesAll.containsKey(target)) {
-                            for (Node node : this.sourcesAll.get(target)) {
-                                List<Id> path = n.joinPath(node);
+                        int index = tree.vertexIndex(target);
+                        IntArrayList crosses = index < 0 ?
+                                               null : others.get(index);
+                        if (crosses != null) {
+                            for (IntCursor node : crosses) {
+                                List<Id> path = tree.joinPath(n.value,
+                                                              node.value);
                                 if (!path.isEmpty()) {
                                     paths.add(new Path(target, path));
                                     ++this.count;
                                     if (this.reachLimit()) {
-                                        return paths;
+                                        return newVertices;
                                     }
                                 }
                             }
                         }
 
                         // Add node to next start-nodes
-                        newVertices.add(target, new Node(target, n));
+                        int node = tree.add(n.value, target);
+                        index = tree.vertexIndexOf(node);
+                        addNode(newVertices, index, node);
                     }
                 }
             }
-
-            // Re-init targets
-            this.targets = newVertices;
             // Record all passed vertices
-            this.targetsAll.putAll(newVertices);
-
-            return paths;
+            passed.putAll(newVertices);
+            return newVertices;
         }
 
         private int accessedNodes() {
@@ -221,4 +212,14 @@ public class PathsTraverser extends HugeTraverser {
             return true;
         }
     }
+
+    private static void addNode(IntObjectHashMap<IntArrayList> vertices,
+                                int vertex, int node) {
+        IntArrayList nodes = vertices.get(vertex);
+        if (nodes == null) {
+            nodes = new IntArrayList(1);
+            vertices.put(vertex, nodes);
+        }
+        nodes.add(node);
+    }
 }
@@ -20,35 +20,63 @@
 package com.baidu.hugegraph.traversal.algorithm;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.function.BiFunction;
 
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.cache.RankCache;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.iterator.MapperIterator;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.util.E;
+import com.carrotsearch.hppc.ObjectDoubleHashMap;
+import com.carrotsearch.hppc.ObjectIntHashMap;
+import com.carrotsearch.hppc.cursors.ObjectDoubleCursor;
+import com.carrotsearch.hppc.cursors.ObjectIntCursor;
 
+/**
+ * Personal rank by residual pushing: each vertex holds a rank and a residual
+ * which starts from the source vertex, a vertex whose residual is larger
+ * than `epsilon` will keep (1 - alpha) of the residual as its rank and push
+ * the left to its neighbors in each step, and the residuals not larger than
+ * `epsilon` just stay without walking through any more edges. The result is
+ * the same as iterating personal rank `maxDepth` times if `epsilon` is 0,
+ * and the vertices and edges touched are bounded by the `epsilon`.
+ *
+ * The rank vector of a source could be cached and resumed to a larger
+ * `maxDepth` if the rank cache of the graph is enabled.
+ */
 public class PersonalRankTraverser extends HugeTraverser {
 
+    public static final String DEFAULT_EPSILON = "0.0001";
+
     private final double alpha;
     private final long degree;
     private final int maxDepth;
+    private final double epsilon;
 
     public PersonalRankTraverser(HugeGraph graph, double alpha,
                                  long degree, int maxDepth) {
+        this(graph, alpha, degree, maxDepth, Double.valueOf(DEFAULT_EPSILON));
+    }
+
+    public PersonalRankTraverser(HugeGraph graph, double alpha,
+                                 long degree, int maxDepth, double epsilon) {
         super(graph);
+        E.checkArgument(epsilon >= 0.0 && epsilon < 1.0,
+                        "The epsilon must be in range [0, 1), but got %s",
+                        epsilon);
         this.alpha = alpha;
         this.degree = degree;
         this.maxDepth = maxDepth;
+        this.epsilon = epsilon;
     }
 
     public Map<Id, Double> personalRank(Id source, String label,
@@ -56,85 +84,95 @@ public class PersonalRankTraverser extends HugeTraverser {
         E.checkArgumentNotNull(source, "The source vertex id can't be null");
         E.checkArgumentNotNull(label, "The edge label can't be null");
 
-        Map<Id, Double> ranks = new HashMap<>();
-        ranks.put(source, 1.0);
-
         Id labelId = this.graph().edgeLabel(label).id();
         Directions dir = this.getStartDirection(source, label);
+        return this.personalRank(source, labelId, dir, withLabel);
+    }
 
-        Set<Id> outSeeds = new HashSet<>();
-        Set<Id> inSeeds = new HashSet<>();
-        if (dir == Directions.OUT) {
-            outSeeds.add(source);
-        } else {
-            inSeeds.add(source);
+    protected Map<Id, Double> personalRank(Id source, Id label, Directions dir,
+                                           WithLabel withLabel) {
+        RankVector vector = this.rankVector(source, label, dir);
+        return vector.ranks(withLabel);
+    }
+
+    private RankVector rankVector(Id source, Id label, Directions dir) {
+        RankCache cache = RankCache.of(this.graph().name());
+        if (!cache.enabled()) {
+            RankVector vector = new RankVector(null, source, dir);
+            this.walk(vector, label);
+            return vector;
         }
 
-        Set<Id> rootAdjacencies = new HashSet<>();
-        for (long i = 0; i < this.maxDepth; i++) {
-            Map<Id, Double> newRanks = this.calcNewRanks(outSeeds, inSeeds,
-                                                         labelId, ranks);
-            ranks = this.compensateRoot(source, newRanks);
-            if (i == 0) {
-                rootAdjacencies.addAll(ranks.keySet());
-            }
+        Id key = this.rankKey(source, label);
+        long epoch = cache.epoch();
+        RankVector vector = (RankVector) cache.get(key);
+        if (vector != null && vector.steps == this.maxDepth) {
+            return vector;
         }
-        // Remove directly connected neighbors
-        removeAll(ranks, rootAdjacencies);
-        // Remove unnecessary label
-        if (withLabel == WithLabel.SAME_LABEL) {
-            removeAll(ranks, dir == Directions.OUT ? inSeeds : outSeeds);
-        } else if (withLabel == WithLabel.OTHER_LABEL) {
-            removeAll(ranks, dir == Directions.OUT ? outSeeds : inSeeds);
+        if (vector != null && vector.steps < this.maxDepth) {
+            // Resume from the cached vector, which can't be changed
+            vector = vector.copy();
+        } else {
+            vector = new RankVector(key, source, dir);
         }
-        return ranks;
+        this.walk(vector, label);
+        cache.update(vector, epoch);
+        return vector;
+    }
+
+    private Id rankKey(Id source, Id label) {
+        // The max depth is excluded since the vector could be resumed
+        return IdGenerator.of(String.format("%s%s/%s/%s/%s/%s",
+                                            source.type().prefix(),
+                                            source.asString(),
+                                            label.asString(), this.alpha,
+                                            this.degree, this.epsilon));
     }
 
-    private Map<Id, Double> calcNewRanks(Set<Id> outSeeds, Set<Id> inSeeds,
-                                         Id label, Map<Id, Double> ranks) {
-        Map<Id, Double> newRanks = new HashMap<>();
-        BiFunction<Set<Id>, Directions, Set<Id>> neighborIncrRanks;
-        neighborIncrRanks = (seeds, dir) -> {
-            Set<Id> tmpSeeds = new HashSet<>();
-            for (Id seed : seeds) {
-                Double oldRank = ranks.get(seed);
-                E.checkState(oldRank != null, "Expect rank of seed exists");
-
-                Iterator<Id> iter = this.adjacentVertices(seed, dir, label,
-                                                          this.degree);
-                List<Id> neighbors = IteratorUtils.list(iter);
-
-                long degree = neighbors.size();
-                if (degree == 0L) {
-                    newRanks.put(seed, oldRank);
+    private void walk(RankVector vector, Id label) {
+        // The adjacent vertices of the pushed vertices in this request
+        Map<Id, Id[]> adjacencies = new HashMap<>();
+        while (vector.steps < this.maxDepth) {
+            ObjectDoubleHashMap<Id> residuals = new ObjectDoubleHashMap<>(
+                                                vector.residuals.size());
+            for (ObjectDoubleCursor<Id> cursor : vector.residuals) {
+                Id vertex = cursor.key;
+                double residual = cursor.value;
+                if (residual <= this.epsilon) {
+                    // Keep the small residual on the vertex without pushing
+                    residuals.addTo(vertex, residual);
                     continue;
                 }
-                double incrRank = oldRank * this.alpha / degree;
+                vector.ranks.addTo(vertex, (1 - this.alpha) * residual);
 
-                // Collect all neighbors increment
+                int depth = vector.depths.get(vertex);
+                Id[] neighbors = adjacencies.get(vertex);
+                if (neighbors == null) {
+                    neighbors = this.adjacencies(vertex, vector.dir(depth),
+                                                 label);
+                    adjacencies.put(vertex, neighbors);
+                }
+                if (neighbors.length == 0) {
+                    // Keep the residual not turned into rank on the vertex
+                    residuals.addTo(vertex, this.alpha * residual);
+                    continue;
+                }
+                double incrResidual = residual * this.alpha / neighbors.length;
                 for (Id neighbor : neighbors) {
-                    tmpSeeds.add(neighbor);
-                    // Assign an initial value when firstly update neighbor rank
-                    double rank = newRanks.getOrDefault(neighbor, 0.0);
-                    newRanks.put(neighbor, rank + incrRank);
+                    residuals.addTo(neighbor, incrResidual);
+                    vector.depths.putIfAbsent(neighbor, depth + 1);
                 }
             }
-            return tmpSeeds;
-        };
-
-        Set<Id> tmpInSeeds = neighborIncrRanks.apply(outSeeds, Directions.OUT);
-        Set<Id> tmpOutSeeds = neighborIncrRanks.apply(inSeeds, Directions.IN);
-
-        outSeeds.addAll(tmpOutSeeds);
-        inSeeds.addAll(tmpInSeeds);
-        return newRanks;
+            vector.residuals = residuals;
+            vector.steps++;
+        }
     }
 
-    private Map<Id, Double> compensateRoot(Id root, Map<Id, Double> newRanks) {
-        double rank = newRanks.getOrDefault(root, 0.0);
-        rank += (1 - this.alpha);
-        newRanks.put(root, rank);
-        return newRanks;
+    protected Id[] adjacencies(Id vertex, Directions dir, Id label) {
+        Iterator<Id> iter = this.adjacentVertices(vertex, dir, label,
+                                                  this.degree);
+        List<Id> neighbors = IteratorUtils.list(iter);
+        return neighbors.toArray(new Id[0]);
     }
 
     private Directions getStartDirection(Id source, String label) {
@@ -159,15 +197,82 @@ public class PersonalRankTraverser extends HugeTraverser {
         }
     }
 
-    private static void removeAll(Map<Id, Double> map, Set<Id> keys) {
-        for (Id key : keys) {
-            map.remove(key);
-        }
-    }
-
     public enum WithLabel {
         SAME_LABEL,
         OTHER_LABEL,
         BOTH_LABEL
     }
+
+    private static class RankVector implements RankCache.Entry {
+
+        private final Id key;
+        private final Directions dir;
+        private final ObjectDoubleHashMap<Id> ranks;
+        // The depth of vertex when it's firstly reached
+        private final ObjectIntHashMap<Id> depths;
+        private ObjectDoubleHashMap<Id> residuals;
+        private int steps;
+
+        public RankVector(Id key, Id source, Directions dir) {
+            this.key = key;
+            this.dir = dir;
+            this.ranks = new ObjectDoubleHashMap<>();
+            this.depths = new ObjectIntHashMap<>();
+            this.depths.put(source, 0);
+            this.residuals = new ObjectDoubleHashMap<>();
+            this.residuals.put(source, 1.0);
+            this.steps = 0;
+        }
+
+        private RankVector(RankVector other) {
+            this.key = other.key;
+            this.dir = other.dir;
+            this.ranks = other.ranks.clone();
+            this.depths = other.depths.clone();
+            this.residuals = other.residuals.clone();
+            this.steps = other.steps;
+        }
+
+        @Override
+        public Id key() {
+            return this.key;
+        }
+
+        @Override
+        public Iterable<Id> vertices() {
+            // The adjacent edges of the untouched vertices are unused
+            return () -> new MapperIterator<>(this.depths.keys().iterator(),
+                                              cursor -> cursor.value);
+        }
+
+        public RankVector copy() {
+            return new RankVector(this);
+        }
+
+        public Directions dir(int depth) {
+            // The vertices at odd depth are of the other vertex label
+            return depth % 2 == 0 ? this.dir : this.dir.opposite();
+        }
+
+        public Map<Id, Double> ranks(WithLabel withLabel) {
+            Map<Id, Double> results = new HashMap<>();
+            for (ObjectIntCursor<Id> cursor : this.depths) {
+                int depth = cursor.value;
+                // Skip the source and its directly connected neighbors
+                if (depth <= 1) {
+                    continue;
+                }
+                // Skip unnecessary label
+                boolean sameLabel = depth % 2 == 0;
+                if (withLabel == WithLabel.SAME_LABEL && !sameLabel ||
+                    withLabel == WithLabel.OTHER_LABEL && sameLabel) {
+                    continue;
+                }
+                Id vertex = cursor.key;
+                results.put(vertex, this.ranks.get(vertex) +
+                                    this.residuals.get(vertex));
+            }
+            return results;
+        }
+    }
 }
@@ -150,13 +150,11 @@ public class ShortestPathTraverser extends HugeTraverser {
         public PathSet forward(boolean all) {
             PathSet paths = new PathSet();
             Map<Id, Node> newVertices = newMap();
-            long degree = this.skipDegree > 0L ? this.skipDegree : this.degree;
             // Traversal vertices of previous level
             for (Node v : this.sources.values()) {
                 Iterator<Edge> edges = edgesOfVertex(v.id(), this.direction,
-                                                     this.label, degree);
-                edges = skipSuperNodeIfNeeded(edges, this.degree,
-                                              this.skipDegree);
+                                                     this.label, this.degree,
+                                                     this.skipDegree);
                 while (edges.hasNext()) {
                     HugeEdge edge = (HugeEdge) edges.next();
                     Id target = edge.id().otherVertexId();
@@ -200,14 +198,12 @@ public class ShortestPathTraverser extends HugeTraverser {
         public PathSet backward(boolean all) {
             PathSet paths = new PathSet();
             Map<Id, Node> newVertices = newMap();
-            long degree = this.skipDegree > 0L ? this.skipDegree : this.degree;
             Directions opposite = this.direction.opposite();
             // Traversal vertices of previous level
             for (Node v : this.targets.values()) {
                 Iterator<Edge> edges = edgesOfVertex(v.id(), opposite,
-                                                     this.label, degree);
-                edges = skipSuperNodeIfNeeded(edges, this.degree,
-                                              this.skipDegree);
+                                                     this.label, this.degree,
+                                                     this.skipDegree);
                 while (edges.hasNext()) {
                     HugeEdge edge = (HugeEdge) edges.next();
                     Id target = edge.id().otherVertexId();
@@ -249,9 +245,19 @@ public class ShortestPathTraverser extends HugeTraverser {
             if (this.skipDegree <= 0L) {
                 return false;
             }
+            Id[] labels = this.label == null ?
+                          new Id[]{} : new Id[]{this.label};
+            if (knownSuperNode(vertex, direction, labels, this.skipDegree)) {
+                return true;
+            }
             Iterator<Edge> edges = edgesOfVertex(vertex, direction,
                                                  this.label, this.skipDegree);
-            return IteratorUtils.count(edges) >= this.skipDegree;
+            long count = IteratorUtils.count(edges);
+            if (count >= this.skipDegree) {
+                degreeCache().observe(vertex, direction, labels, count);
+                return true;
+            }
+            return false;
         }
     }
 }
@@ -19,11 +19,10 @@
 
 package com.baidu.hugegraph.traversal.algorithm;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,13 +30,13 @@ import org.apache.tinkerpop.gremlin.structure.Edge;
 
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.id.Id;
-import com.baidu.hugegraph.backend.query.QueryResults;
 import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.structure.HugeProperty;
 import com.baidu.hugegraph.type.define.Directions;
-import com.baidu.hugegraph.util.CollectionUtil;
 import com.baidu.hugegraph.util.E;
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.ObjectIntHashMap;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
 
 public class SingleSourceShortestPathTraverser extends HugeTraverser {
 
@@ -60,14 +59,8 @@ public class SingleSourceShortestPathTraverser extends HugeTraverser {
         Traverser traverser = new Traverser(sourceV, dir, labelId, weight,
                                             degree, skipDegree, capacity,
                                             limit);
-        while (true) {
-            // Found, reach max depth or reach capacity, stop searching
-            traverser.forward();
-            if (traverser.done()) {
-                return traverser.shortestPaths();
-            }
-            checkCapacity(traverser.capacity, traverser.size, "shortest path");
-        }
+        traverser.search(null);
+        return traverser.shortestPaths();
     }
 
     public NodeWithWeight weightedShortestPath(Id sourceV, Id targetV,
@@ -85,148 +78,295 @@ public class SingleSourceShortestPathTraverser extends HugeTraverser {
         Traverser traverser = new Traverser(sourceV, dir, labelId, weight,
                                             degree, skipDegree, capacity,
                                             NO_LIMIT);
-        while (true) {
-            traverser.forward();
-            Map<Id, NodeWithWeight> results = traverser.shortestPaths();
-            if (results.containsKey(targetV) || traverser.done()) {
-                return results.get(targetV);
-            }
-            checkCapacity(traverser.capacity, traverser.size, "shortest path");
-        }
+        // Stop searching once the shortest path to target is found
+        traverser.search(targetV);
+        return traverser.shortestPaths().get(targetV);
     }
 
+    /**
+     * Dijkstra search from the source, the reached vertices are numbered
+     * in order, their distances and parents are kept in primitive arrays,
+     * and the vertices to be settled are kept in an indexed binary heap
+     * which supports decreasing the distance of a vertex in place.
+     */
     private class Traverser {
 
-        private WeightedPaths findingNodes = new WeightedPaths();
-        private WeightedPaths foundNodes = new WeightedPaths();
-        private Set<NodeWithWeight> sources;
-        private Id source;
+        private static final int INIT_CAPACITY = 64;
+
+        private final Id source;
         private final Directions direction;
         private final Id label;
-        private final String weight;
+        private final Id weight;
         private final long degree;
         private final long skipDegree;
         private final long capacity;
         private final long limit;
-        private long size;
-        private boolean done = false;
+
+        private final ObjectIntHashMap<Id> indexes;
+        private Id[] vertices;
+        private double[] distances;
+        private int[] parents;
+        private Node[] nodes;
+        private final IndexedMinHeap heap;
+
+        private final WeightedPaths foundNodes;
 
         public Traverser(Id sourceV, Directions dir, Id label, String weight,
                          long degree, long skipDegree, long capacity,
                          long limit) {
             this.source = sourceV;
-            this.sources = ImmutableSet.of(new NodeWithWeight(
-                           0D, new Node(sourceV, null)));
             this.direction = dir;
             this.label = label;
-            this.weight = weight;
+            this.weight = weight == null ?
+                          null : graph().propertyKey(weight).id();
             this.degree = degree;
             this.skipDegree = skipDegree;
             this.capacity = capacity;
             this.limit = limit;
-            this.size = 0L;
+
+            this.indexes = new ObjectIntHashMap<>();
+            this.vertices = new Id[INIT_CAPACITY];
+            this.distances = new double[INIT_CAPACITY];
+            this.parents = new int[INIT_CAPACITY];
+            this.nodes = new Node[INIT_CAPACITY];
+            this.heap = new IndexedMinHeap(INIT_CAPACITY);
+
+            this.foundNodes = new WeightedPaths();
         }
 
         /**
-         * Search forward from source
+         * Settle vertices from the nearest one until all reachable vertices
+         * are settled, the limit is reached or the target is settled
          */
-        public void forward() {
-            long degree = this.skipDegree > 0L ? this.skipDegree : this.degree;
-            for (NodeWithWeight node : this.sources) {
-                Iterator<Edge> edges = edgesOfVertex(node.node().id(),
-                                                     this.direction,
-                                                     this.label, degree);
-                edges = this.skipSuperNodeIfNeeded(edges);
-                while (edges.hasNext()) {
-                    HugeEdge edge = (HugeEdge) edges.next();
-                    Id target = edge.id().otherVertexId();
-
-                    if (this.foundNodes.containsKey(target) ||
-                        this.source.equals(target)) {
-                        // Already find shortest path for target, skip
-                        continue;
+        public void search(Id target) {
+            int sourceIndex = this.reach(this.source, 0D, -1);
+            while (!this.heap.isEmpty()) {
+                int index = this.heap.poll();
+                Id vertex = this.vertices[index];
+                if (index != sourceIndex) {
+                    // Found the shortest path of the vertex
+                    this.foundNodes.put(vertex, new NodeWithWeight(
+                                        this.distances[index],
+                                        this.node(index)));
+                    if (this.limit != NO_LIMIT &&
+                        this.foundNodes.size() >= this.limit) {
+                        return;
                     }
-
-                    double currentWeight = this.edgeWeight(edge);
-                    double weight = currentWeight + node.weight();
-                    NodeWithWeight nw = new NodeWithWeight(weight, target, node);
-                    NodeWithWeight exist = this.findingNodes.get(target);
-                    if (exist == null || weight < exist.weight()) {
-                        /*
-                         * There are 2 scenarios to update finding nodes:
-                         * 1. The 'target' found first time, add current path
-                         * 2. Already exist path for 'target' and current
-                         *    path is shorter, update path for 'target'
-                         */
-                        this.findingNodes.put(target, nw);
+                    if (vertex.equals(target)) {
+                        return;
                     }
                 }
+                this.expand(index);
             }
+        }
 
-            Map<Id, NodeWithWeight> sorted = CollectionUtil.sortByValue(
-                                             this.findingNodes, true);
-            double minWeight = 0;
-            Set<NodeWithWeight> newSources = new HashSet<>();
-            for (Map.Entry<Id, NodeWithWeight> entry : sorted.entrySet()) {
-                Id id = entry.getKey();
-                NodeWithWeight wn = entry.getValue();
-                if (minWeight == 0) {
-                    minWeight = wn.weight();
-                } else if (wn.weight() > minWeight) {
-                    break;
-                }
-                // Move shortest paths from 'findingNodes' to 'foundNodes'
-                this.foundNodes.put(id, wn);
-                if (this.limit != NO_LIMIT &&
-                    this.foundNodes.size() >= this.limit) {
-                    this.done = true;
-                    return;
+        public WeightedPaths shortestPaths() {
+            return this.foundNodes;
+        }
+
+        private void expand(int index) {
+            double distance = this.distances[index];
+            Iterator<Edge> edges = edgesOfVertex(this.vertices[index],
+                                                 this.direction, this.label,
+                                                 this.degree, this.skipDegree);
+            while (edges.hasNext()) {
+                HugeEdge edge = (HugeEdge) edges.next();
+                Id target = edge.id().otherVertexId();
+                double weight = distance + this.edgeWeight(edge);
+
+                int targetIndex = this.indexes.getOrDefault(target, -1);
+                if (targetIndex < 0) {
+                    this.reach(target, weight, index);
+                } else if (this.heap.contains(targetIndex) &&
+                           weight < this.distances[targetIndex]) {
+                    // Found a shorter path of a vertex not settled yet
+                    this.distances[targetIndex] = weight;
+                    this.parents[targetIndex] = index;
+                    this.heap.decrease(targetIndex, weight);
                 }
-                this.findingNodes.remove(id);
-                // Re-init 'sources'
-                newSources.add(wn);
-            }
-            this.sources = newSources;
-            if (this.sources.isEmpty()) {
-                this.done = true;
+                // Otherwise the vertex is settled already
             }
         }
 
-        public boolean done() {
-            return this.done;
+        private int reach(Id vertex, double distance, int parent) {
+            int index = this.indexes.size();
+            checkCapacity(this.capacity, index + 1, "shortest path");
+            if (index == this.vertices.length) {
+                int size = index << 1;
+                this.vertices = Arrays.copyOf(this.vertices, size);
+                this.distances = Arrays.copyOf(this.distances, size);
+                this.parents = Arrays.copyOf(this.parents, size);
+                this.nodes = Arrays.copyOf(this.nodes, size);
+            }
+            this.indexes.put(vertex, index);
+            this.vertices[index] = vertex;
+            this.distances[index] = distance;
+            this.parents[index] = parent;
+            this.heap.add(index, distance);
+            return index;
         }
 
-        public WeightedPaths shortestPaths() {
-            return this.foundNodes;
+        private Node node(int index) {
+            if (this.nodes[index] != null) {
+                return this.nodes[index];
+            }
+            // Collect the ancestors without node, the path may be very long
+            IntArrayList ancestors = new IntArrayList();
+            for (int i = index; i >= 0 && this.nodes[i] == null;
+                 i = this.parents[i]) {
+                ancestors.add(i);
+            }
+            // Build the nodes from the top ancestor down to the vertex
+            for (int j = ancestors.size() - 1; j >= 0; j--) {
+                int i = ancestors.get(j);
+                int parent = this.parents[i];
+                this.nodes[i] = new Node(this.vertices[i],
+                                         parent < 0 ? null :
+                                         this.nodes[parent]);
+            }
+            return this.nodes[index];
         }
 
         private double edgeWeight(HugeEdge edge) {
-            double edgeWeight;
-            if (this.weight == null ||
-                !edge.property(this.weight).isPresent()) {
-                edgeWeight = 1.0;
-            } else {
-                edgeWeight = edge.value(this.weight);
+            if (this.weight == null) {
+                return 1.0;
+            }
+            // Just decode the weight property of the edge
+            HugeProperty<?> property = edge.getProperty(this.weight);
+            if (property == null) {
+                return 1.0;
+            }
+            E.checkArgument(property.value() instanceof Number,
+                            "The weight property must be number, but got %s",
+                            property.value().getClass().getSimpleName());
+            double weight = ((Number) property.value()).doubleValue();
+            E.checkArgument(weight >= 0.0D,
+                            "The weight of edge can't be negative, " +
+                            "but got %s of edge '%s'", weight, edge.id());
+            return weight;
+        }
+    }
+
+    /**
+     * The binary min heap of int elements with double keys, the position
+     * of each element is recorded so that its key can be decreased in place
+     */
+    public static final class IndexedMinHeap {
+
+        private int[] elements;
+        private double[] keys;
+        // The position of each element in heap, -1 means not in heap
+        private int[] positions;
+        private int size;
+
+        public IndexedMinHeap(int capacity) {
+            this.elements = new int[capacity];
+            this.keys = new double[capacity];
+            this.positions = new int[capacity];
+            Arrays.fill(this.positions, -1);
+            this.size = 0;
+        }
+
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public boolean contains(int element) {
+            return element < this.positions.length &&
+                   this.positions[element] >= 0;
+        }
+
+        public void add(int element, double key) {
+            E.checkArgument(element >= 0, "Invalid element %s", element);
+            E.checkArgument(!this.contains(element),
+                            "The element %s already exists", element);
+            if (element >= this.positions.length) {
+                int old = this.positions.length;
+                int capacity = Math.max(element + 1, old << 1);
+                this.positions = Arrays.copyOf(this.positions, capacity);
+                Arrays.fill(this.positions, old, capacity, -1);
+            }
+            if (this.size == this.elements.length) {
+                int capacity = this.size << 1;
+                this.elements = Arrays.copyOf(this.elements, capacity);
+                this.keys = Arrays.copyOf(this.keys, capacity);
             }
-            return edgeWeight;
+            this.keys[this.size] = key;
+            this.elements[this.size] = element;
+            this.positions[element] = this.size;
+            this.siftUp(this.size++);
         }
 
-        private Iterator<Edge> skipSuperNodeIfNeeded(Iterator<Edge> edges) {
-            if (this.skipDegree <= 0L) {
-                return edges;
+        public int peek() {
+            E.checkState(this.size > 0, "The heap is empty");
+            return this.elements[0];
+        }
+
+        public int poll() {
+            int element = this.peek();
+            this.positions[element] = -1;
+            if (--this.size > 0) {
+                this.move(this.size, 0);
+                this.siftDown(0);
             }
-            List<Edge> edgeList = new ArrayList<>();
-            int count = 0;
-            while (edges.hasNext()) {
-                if (count < this.degree) {
-                    edgeList.add(edges.next());
+            return element;
+        }
+
+        public void decrease(int element, double key) {
+            E.checkArgument(this.contains(element),
+                            "The element %s doesn't exist", element);
+            int position = this.positions[element];
+            E.checkArgument(key <= this.keys[position],
+                            "Can't increase the key of element %s", element);
+            this.keys[position] = key;
+            this.siftUp(position);
+        }
+
+        private void siftUp(int position) {
+            int element = this.elements[position];
+            double key = this.keys[position];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (this.keys[parent] <= key) {
+                    break;
+                }
+                this.move(parent, position);
+                position = parent;
+            }
+            this.set(position, element, key);
+        }
+
+        private void siftDown(int position) {
+            int element = this.elements[position];
+            double key = this.keys[position];
+            int half = this.size >>> 1;
+            while (position < half) {
+                int child = (position << 1) + 1;
+                int right = child + 1;
+                if (right < this.size && this.keys[right] < this.keys[child]) {
+                    child = right;
                 }
-                if (count >= this.skipDegree) {
-                    return QueryResults.emptyIterator();
+                if (key <= this.keys[child]) {
+                    break;
                 }
-                count++;
+                this.move(child, position);
+                position = child;
             }
-            return edgeList.iterator();
+            this.set(position, element, key);
+        }
+
+        private void move(int from, int to) {
+            this.set(to, this.elements[from], this.keys[from]);
+        }
+
+        private void set(int position, int element, double key) {
+            this.elements[position] = element;
+            this.keys[position] = key;
+            this.positions[element] = position;
         }
     }
 
@@ -22,11 +22,8 @@ package com.baidu.hugegraph.traversal.algorithm;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
-import javax.ws.rs.core.MultivaluedMap;
-
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
@@ -35,6 +32,11 @@ import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.util.E;
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import com.carrotsearch.hppc.cursors.IntObjectCursor;
+import com.carrotsearch.hppc.cursors.ObjectCursor;
 
 public class SubGraphTraverser extends HugeTraverser {
 
@@ -102,8 +104,9 @@ public class SubGraphTraverser extends HugeTraverser {
     private class Traverser {
 
         private final Id source;
-        private MultivaluedMap<Id, Node> sources = newMultivalueMap();
-        private Set<Id> accessedVertices = newSet();
+        // The partial paths, and the nodes of the last level by vertex
+        private final PathTree tree = new PathTree();
+        private IntObjectHashMap<IntArrayList> sources;
 
         private final Id label;
         private int depth;
@@ -118,8 +121,8 @@ public class SubGraphTraverser extends HugeTraverser {
                          long capacity, long limit, boolean rings,
                          boolean sourceInRing) {
             this.source = sourceV;
-            this.sources.add(sourceV, new Node(sourceV));
-            this.accessedVertices.add(sourceV);
+            this.sources = new IntObjectHashMap<>();
+            this.addNode(this.sources, PathTree.NO_PARENT, sourceV);
             this.label = label;
             this.depth = depth;
             this.degree = degree;
@@ -134,12 +137,15 @@ public class SubGraphTraverser extends HugeTraverser {
          * Search forward from source
          */
         public PathSet forward(Directions direction) {
+            PathTree tree = this.tree;
             PathSet paths = new PathSet();
-            MultivaluedMap<Id, Node> newVertices = newMultivalueMap();
+            IntObjectHashMap<IntArrayList> newVertices;
+            newVertices = new IntObjectHashMap<>();
             Iterator<Edge> edges;
             // Traversal vertices of previous level
-            for (Map.Entry<Id, List<Node>> entry : this.sources.entrySet()) {
-                Id vid = entry.getKey();
+            for (IntObjectCursor<IntArrayList> entry : this.sources) {
+                IntArrayList nodes = entry.value;
+                Id vid = tree.vertex(nodes.get(0));
                 // Record edgeList to determine if multiple edges exist
                 List<Edge> edgeList = IteratorUtils.list(edgesOfVertex(
                                       vid, direction, this.label, this.degree));
@@ -150,9 +156,9 @@ public class SubGraphTraverser extends HugeTraverser {
                     if (this.rings) {
                         continue;
                     }
-                    for (Node n : entry.getValue()) {
+                    for (IntCursor n : nodes) {
                         // Store rays
-                        paths.add(new Path(n.path()));
+                        paths.add(new Path(tree.path(n.value)));
                         this.pathCount++;
                         if (reachLimit()) {
                             return paths;
@@ -171,23 +177,26 @@ public class SubGraphTraverser extends HugeTraverser {
                         continue;
                     }
                     currentNeighbors.add(target);
-                    this.accessedVertices.add(target);
-                    for (Node node : entry.getValue()) {
+                    for (IntCursor cursor : nodes) {
+                        int node = cursor.value;
                         // No ring, continue
-                        if (!node.contains(target)) {
+                        if (!tree.contains(node, target)) {
                             // Add node to next start-nodes
-                            newVertices.add(target, new Node(target, node));
+                            this.addNode(newVertices, node, target);
                             continue;
                         }
 
+                        int parentNode = tree.parent(node);
+                        Id parent = parentNode == PathTree.NO_PARENT ?
+                                    null : tree.vertex(parentNode);
                         // Rays found if it's fake ring like:
                         // path is pattern: A->B<-A && A is only neighbor of B
                         boolean uniqueEdge = neighborCount == 1 &&
                                              !edges.hasNext();
-                        boolean bothBack = target.equals(node.parent().id()) &&
+                        boolean bothBack = target.equals(parent) &&
                                            direction == Directions.BOTH;
                         if (!this.rings && bothBack && uniqueEdge) {
-                            paths.add(new Path(node.path()));
+                            paths.add(new Path(tree.path(node)));
                             this.pathCount++;
                             if (reachLimit()) {
                                 return paths;
@@ -200,7 +209,7 @@ public class SubGraphTraverser extends HugeTraverser {
                             // 1. sourceInRing is false, or
                             // 2. sourceInRing is true and target == source
                             if (!sourceInRing || target.equals(this.source)) {
-                                if (!target.equals(node.parent().id())) {
+                                if (!target.equals(parent)) {
                                     ringsFound = true;
                                 } else if (direction != Directions.BOTH) {
                                     ringsFound = true;
@@ -210,7 +219,7 @@ public class SubGraphTraverser extends HugeTraverser {
                             }
 
                             if (ringsFound) {
-                                List<Id> path = node.path();
+                                List<Id> path = tree.path(node);
                                 path.add(target);
                                 paths.add(new RingPath(null, path));
                                 this.pathCount++;
@@ -226,9 +235,9 @@ public class SubGraphTraverser extends HugeTraverser {
             this.sources = newVertices;
 
             if (!this.rings && --this.depth <= 0) {
-                for (List<Node> list : newVertices.values()) {
-                    for (Node n : list) {
-                        paths.add(new Path(n.path()));
+                for (ObjectCursor<IntArrayList> nodes : newVertices.values()) {
+                    for (IntCursor n : nodes.value) {
+                        paths.add(new Path(tree.path(n.value)));
                     }
                 }
             }
@@ -236,8 +245,20 @@ public class SubGraphTraverser extends HugeTraverser {
             return paths;
         }
 
+        private void addNode(IntObjectHashMap<IntArrayList> vertices,
+                             int parent, Id vertex) {
+            int node = this.tree.add(parent, vertex);
+            int index = this.tree.vertexIndexOf(node);
+            IntArrayList nodes = vertices.get(index);
+            if (nodes == null) {
+                nodes = new IntArrayList(1);
+                vertices.put(index, nodes);
+            }
+            nodes.add(node);
+        }
+
         private boolean reachLimit() {
-            checkCapacity(this.capacity, this.accessedVertices.size(),
+            checkCapacity(this.capacity, this.tree.vertexCount(),
                           this.rings ? "rings" : "rays");
             if (this.limit == NO_LIMIT || this.pathCount < this.limit) {
                 return false;
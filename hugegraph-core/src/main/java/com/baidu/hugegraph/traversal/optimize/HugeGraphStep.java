@@ -80,6 +80,15 @@ public final class HugeGraphStep<S, E extends Element>
         }
     }
 
+    protected Number aggregate() {
+        assert this.queryInfo.aggregate() != null;
+        assert !this.hasIds();
+        HugeGraph graph = TraversalUtil.getGraph(this);
+        HugeType type = this.returnsVertex() ? HugeType.VERTEX : HugeType.EDGE;
+        Query query = this.makeQuery(graph, type);
+        return graph.queryNumber(query);
+    }
+
     private long verticesCount() {
         if (!this.hasIds()) {
             HugeGraph graph = TraversalUtil.getGraph(this);
@@ -139,7 +148,7 @@ public final class HugeGraphStep<S, E extends Element>
         return result;
     }
 
-    private boolean hasIds() {
+    protected boolean hasIds() {
         return this.ids != null && this.ids.length > 0;
     }
 
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy.ProviderOptimizationStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
@@ -65,6 +66,14 @@ public final class HugeGraphStepStrategy
             TraversalUtil.extractRange(newStep, traversal, false);
 
             TraversalUtil.extractCount(newStep, traversal);
+
+            if (newStep.isStartStep() && !newStep.hasIds() &&
+                TraversalUtil.extractAggregateFunc(newStep, traversal)) {
+                // Replace with HugeAggregateStep like `values(key).sum()`
+                Step aggrStep = new HugeAggregateStep(traversal, newStep);
+                TraversalHelper.replaceStep((Step) newStep, aggrStep,
+                                            traversal);
+            }
         }
     }
 
@@ -39,6 +39,7 @@ import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.query.QueryResults;
+import com.baidu.hugegraph.backend.serializer.BinaryPropertyFilter;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.util.Log;
@@ -124,7 +125,17 @@ public final class HugeVertexStep<E extends Element>
         // Query by sort-keys
         if (withEdgeCond && edgeLabels.length > 0) {
             TraversalUtil.fillConditionQuery(query, conditions, graph);
-            if (!GraphTransaction.matchPartialEdgeSortKeys(query, graph)) {
+            boolean bySortKeys = GraphTransaction.matchPartialEdgeSortKeys(
+                                 query, graph);
+            if (!bySortKeys &&
+                GraphTransaction.matchVertexCentricIndex(query, graph)) {
+                // All userprop conditions are in vertex-centric index
+                withEdgeCond = false;
+            } else if (!bySortKeys) {
+                // Let backend store skip unmatched edges if supported
+                query.propertyFilter(BinaryPropertyFilter.compile(
+                                     graph, query.resultType(),
+                                     query.conditions()));
                 // Can't query by sysprop and by index (HugeGraph-749)
                 query.resetUserpropConditions();
             } else if (GraphTransaction.matchFullEdgeSortKeys(query, graph)) {
@@ -205,48 +205,73 @@ public final class TraversalUtil {
                  step instanceof NoOpBarrierStep);
     }
 
-    public static void extractAggregateFunc(Step<?, ?> newStep,
-                                            Traversal.Admin<?, ?> traversal) {
-        PropertiesStep<?> propertiesStep = null;
-        Step<?, ?> step = newStep;
-        do {
-            step = step.getNextStep();
-            if (step instanceof PropertiesStep) {
-                @SuppressWarnings("resource")
-                PropertiesStep<?> propStep = (PropertiesStep<?>) step;
-                if (propStep.getReturnType() == PropertyType.VALUE &&
-                    propStep.getPropertyKeys().length == 1) {
-                    propertiesStep = propStep;
-                }
-            } else if (propertiesStep != null &&
-                       step instanceof ReducingBarrierStep) {
-                AggregateFunc aggregateFunc;
-                if (step instanceof CountGlobalStep) {
-                    aggregateFunc = AggregateFunc.COUNT;
-                } else if (step instanceof MaxGlobalStep) {
-                    aggregateFunc = AggregateFunc.MAX;
-                } else if (step instanceof MinGlobalStep) {
-                    aggregateFunc = AggregateFunc.MIN;
-                } else if (step instanceof MeanGlobalStep) {
-                    aggregateFunc = AggregateFunc.AVG;
-                } else if (step instanceof SumGlobalStep) {
-                    aggregateFunc = AggregateFunc.SUM;
-                } else {
-                    aggregateFunc = null;
-                }
+    public static boolean extractAggregateFunc(
+                          Step<?, ?> newStep,
+                          Traversal.Admin<?, ?> traversal) {
+        /*
+         * Only extract `values(key).func()` which directly follows newStep,
+         * like g.V().hasLabel('person').values('age').sum(), any other
+         * steps between them may change the aggregated values.
+         */
+        Step<?, ?> step = skipIdentitySteps(newStep.getNextStep());
+        if (!(step instanceof PropertiesStep) || !step.getLabels().isEmpty()) {
+            return false;
+        }
+        PropertiesStep<?> propertiesStep = (PropertiesStep<?>) step;
+        if (propertiesStep.getReturnType() != PropertyType.VALUE ||
+            propertiesStep.getPropertyKeys().length != 1) {
+            return false;
+        }
 
-                if (aggregateFunc != null) {
-                    QueryHolder holder = (QueryHolder) newStep;
-                    holder.setAggregate(aggregateFunc,
-                                        propertiesStep.getPropertyKeys()[0]);
-                    traversal.removeStep(step);
-                    traversal.removeStep(propertiesStep);
-                }
-            }
-        } while (step instanceof FilterStep ||
-                 step instanceof PropertiesStep ||
-                 step instanceof IdentityStep ||
-                 step instanceof NoOpBarrierStep);
+        step = skipIdentitySteps(propertiesStep.getNextStep());
+        if (!(step instanceof ReducingBarrierStep) ||
+            !step.getLabels().isEmpty()) {
+            return false;
+        }
+        AggregateFunc aggregateFunc;
+        if (step instanceof CountGlobalStep) {
+            aggregateFunc = AggregateFunc.COUNT;
+        } else if (step instanceof MaxGlobalStep) {
+            aggregateFunc = AggregateFunc.MAX;
+        } else if (step instanceof MinGlobalStep) {
+            aggregateFunc = AggregateFunc.MIN;
+        } else if (step instanceof MeanGlobalStep) {
+            aggregateFunc = AggregateFunc.AVG;
+        } else if (step instanceof SumGlobalStep) {
+            aggregateFunc = AggregateFunc.SUM;
+        } else {
+            return false;
+        }
+
+        // Only number values can be aggregated except count
+        String key = propertiesStep.getPropertyKeys()[0];
+        HugeGraph graph = getGraph(newStep);
+        if (!graph.existsPropertyKey(key) ||
+            (aggregateFunc != AggregateFunc.COUNT &&
+             !graph.propertyKey(key).dataType().isNumber())) {
+            return false;
+        }
+
+        QueryHolder holder = (QueryHolder) newStep;
+        holder.setAggregate(aggregateFunc, key);
+
+        Step<?, ?> reducingStep = step;
+        step = newStep.getNextStep();
+        while (step != reducingStep) {
+            Step<?, ?> next = step.getNextStep();
+            traversal.removeStep(step);
+            step = next;
+        }
+        traversal.removeStep(reducingStep);
+        return true;
+    }
+
+    private static Step<?, ?> skipIdentitySteps(Step<?, ?> step) {
+        while (step instanceof IdentityStep ||
+               step instanceof NoOpBarrierStep) {
+            step = step.getNextStep();
+        }
+        return step;
     }
 
     public static ConditionQuery fillConditionQuery(
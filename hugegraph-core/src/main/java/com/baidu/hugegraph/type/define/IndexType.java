@@ -40,7 +40,10 @@ public enum IndexType implements SerialEnum {
     SHARD(4, "shard"),
 
     // For unique index
-    UNIQUE(5, "unique");
+    UNIQUE(5, "unique"),
+
+    // For prefix + range query of the adjacent edges of a vertex
+    VERTEX_CENTRIC(6, "vertex_centric");
 
     private byte code = 0;
     private String name = null;
@@ -79,6 +82,7 @@ public enum IndexType implements SerialEnum {
             case SEARCH:
                 return HugeType.SEARCH_INDEX;
             case SHARD:
+            case VERTEX_CENTRIC:
                 return HugeType.SHARD_INDEX;
             case UNIQUE:
                 return HugeType.UNIQUE_INDEX;
@@ -90,13 +94,14 @@ public enum IndexType implements SerialEnum {
 
     public boolean isString() {
         return this == SECONDARY || this == SEARCH ||
-               this == SHARD || this == UNIQUE;
+               this == SHARD || this == UNIQUE ||
+               this == VERTEX_CENTRIC;
     }
 
     public boolean isNumeric() {
         return this == RANGE_INT || this == RANGE_FLOAT ||
                this == RANGE_LONG || this == RANGE_DOUBLE ||
-               this == SHARD;
+               this == SHARD || this == VERTEX_CENTRIC;
     }
 
     public boolean isSecondary() {
@@ -119,4 +124,8 @@ public enum IndexType implements SerialEnum {
     public boolean isUnique() {
         return this == UNIQUE;
     }
+
+    public boolean isVertexCentric() {
+        return this == VERTEX_CENTRIC;
+    }
 }
@@ -39,6 +39,7 @@ import com.baidu.hugegraph.concurrent.KeyLock;
 import com.baidu.hugegraph.concurrent.LockManager;
 import com.baidu.hugegraph.concurrent.RowLock;
 import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.QueryProfiler.Item;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
@@ -116,6 +117,7 @@ public final class LockUtil {
                                     .readWriteLock(lock).writeLock();
         LOG.debug("Trying to get the write lock '{}' of LockGroup '{}'",
                   lock, group);
+        long begin = QueryProfiler.begin();
         while (true) {
             try {
                 if (!writeLock.tryLock(time, TimeUnit.SECONDS)) {
@@ -128,6 +130,7 @@ public final class LockUtil {
                 LOG.info("Trying to lock write of {} is interrupted!", lock);
             }
         }
+        QueryProfiler.end(Item.LOCK_WAIT, begin);
         LOG.debug("Got the write lock '{}' of LockGroup '{}'", lock, group);
         return writeLock;
     }
@@ -136,7 +139,12 @@ public final class LockUtil {
                                        Collection<?> locks) {
         KeyLock keyLock = LockManager.instance().get(join(graph, KEY_LOCK))
                                      .keyLock(group);
-        return keyLock.lockAll(locks.toArray());
+        long begin = QueryProfiler.begin();
+        try {
+            return keyLock.lockAll(locks.toArray());
+        } finally {
+            QueryProfiler.end(Item.LOCK_WAIT, begin);
+        }
     }
 
     public static <K extends Comparable<K>> void lockRow(String graph,
@@ -150,7 +158,12 @@ public final class LockUtil {
                                                           Set<K> rows) {
         RowLock<K> rowLock = LockManager.instance().get(join(graph, ROW_LOCK))
                                         .rowLock(group);
-        rowLock.lockAll(rows);
+        long begin = QueryProfiler.begin();
+        try {
+            rowLock.lockAll(rows);
+        } finally {
+            QueryProfiler.end(Item.LOCK_WAIT, begin);
+        }
     }
 
     public static <K extends Comparable<K>> void unlockRow(String graph,
@@ -168,8 +181,13 @@ public final class LockUtil {
     }
 
     public static void lock(String graph, String name) {
-        LockManager.instance().get(join(graph, REENTRANT_LOCK))
-                   .lock(name).lock();
+        long begin = QueryProfiler.begin();
+        try {
+            LockManager.instance().get(join(graph, REENTRANT_LOCK))
+                       .lock(name).lock();
+        } finally {
+            QueryProfiler.end(Item.LOCK_WAIT, begin);
+        }
     }
 
     public static void unlock(String graph, String name) {
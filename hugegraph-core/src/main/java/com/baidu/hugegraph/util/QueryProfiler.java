@@ -0,0 +1,238 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-thread profiler of a single request, it collects the counts and costs
+ * of the hot operations (which are also @Watched by PerfUtil) performed by
+ * the request thread, like backend queries, decoded entries, cache accesses,
+ * index lookups and lock waiting, and the plans chosen for the queries.
+ *
+ * NOTE: the static record methods are no-op if there is no thread enabled
+ * profiling, it just costs a volatile read in this case.
+ */
+public final class QueryProfiler {
+
+    private static final ThreadLocal<QueryProfiler> profilers =
+                                                    new ThreadLocal<>();
+    private static final AtomicInteger activeProfilers = new AtomicInteger();
+
+    private static final int MAX_PLANS = 20;
+
+    private final long startTime;
+    private final long[] counts;
+    private final long[] costs;
+    private List<String> plans;
+
+    private QueryProfiler() {
+        this.startTime = System.nanoTime();
+        this.counts = new long[Item.values().length];
+        this.costs = new long[Item.values().length];
+        this.plans = null;
+    }
+
+    public long count(Item item) {
+        return this.counts[item.ordinal()];
+    }
+
+    public long cost(Item item) {
+        return this.costs[item.ordinal()];
+    }
+
+    public List<String> plans() {
+        if (this.plans == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(this.plans);
+    }
+
+    public long elapsed() {
+        return System.nanoTime() - this.startTime;
+    }
+
+    private void add(Item item, long count, long cost) {
+        this.counts[item.ordinal()] += count;
+        this.costs[item.ordinal()] += cost;
+    }
+
+    private void addPlan(String plan) {
+        if (this.plans == null) {
+            this.plans = new ArrayList<>();
+        }
+        // Only keep the plans of the first queries of a request
+        if (this.plans.size() < MAX_PLANS) {
+            this.plans.add(plan);
+        }
+    }
+
+    public Map<String, Object> asMap() {
+        Map<String, Object> results = InsertionOrderUtil.newMap();
+        results.put("total_time_ms", nanos2Millis(this.elapsed()));
+        for (Item item : Item.values()) {
+            Map<String, Object> result = InsertionOrderUtil.newMap();
+            result.put("count", this.count(item));
+            if (item.timed()) {
+                result.put("time_ms", nanos2Millis(this.cost(item)));
+            }
+            results.put(item.string(), result);
+        }
+        if (this.plans != null) {
+            results.put("plans", this.plans());
+        }
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return JsonUtil.toJson(this.asMap());
+    }
+
+    /**
+     * Enable profiling for current thread
+     * @return the old profiler of current thread, or null if not enabled
+     */
+    public static QueryProfiler enable() {
+        QueryProfiler old = profilers.get();
+        if (old == null) {
+            activeProfilers.incrementAndGet();
+        }
+        profilers.set(new QueryProfiler());
+        return old;
+    }
+
+    /**
+     * Disable profiling for current thread
+     * @return the profiler of current thread, or null if not enabled
+     */
+    public static QueryProfiler disable() {
+        QueryProfiler profiler = profilers.get();
+        if (profiler != null) {
+            profilers.remove();
+            activeProfilers.decrementAndGet();
+        }
+        return profiler;
+    }
+
+    public static QueryProfiler current() {
+        if (activeProfilers.get() == 0) {
+            return null;
+        }
+        return profilers.get();
+    }
+
+    public static boolean enabled() {
+        return current() != null;
+    }
+
+    /**
+     * Get the begin time of a timed item
+     * @return the current nano time if profiling enabled, otherwise 0
+     */
+    public static long begin() {
+        return current() == null ? 0L : System.nanoTime();
+    }
+
+    public static void end(Item item, long begin) {
+        end(item, begin, 1L);
+    }
+
+    public static void end(Item item, long begin, long count) {
+        if (begin == 0L) {
+            return;
+        }
+        QueryProfiler profiler = current();
+        if (profiler != null) {
+            profiler.add(item, count, System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * Add the cost of a timed item without counting it, like the time of
+     * iterating the results of a backend query which is read lazily
+     */
+    public static void spend(Item item, long begin) {
+        end(item, begin, 0L);
+    }
+
+    public static void record(Item item) {
+        record(item, 1L);
+    }
+
+    public static void record(Item item, long count) {
+        QueryProfiler profiler = current();
+        if (profiler != null) {
+            profiler.add(item, count, 0L);
+        }
+    }
+
+    /**
+     * Record the plan chosen for a query, like which index is used and how
+     * many elements it's estimated to match
+     */
+    public static void plan(String plan) {
+        QueryProfiler profiler = current();
+        if (profiler != null) {
+            profiler.addPlan(plan);
+        }
+    }
+
+    private static double nanos2Millis(long nanos) {
+        return nanos / 1000L / 1000.0D;
+    }
+
+    public enum Item {
+
+        BACKEND_QUERY("backend_queries", true),
+
+        ROW_SCANNED("rows_scanned", false),
+
+        ENTRY_DECODED("entries_decoded", true),
+
+        CACHE_HIT("cache_hits", false),
+
+        CACHE_MISS("cache_misses", false),
+
+        INDEX_LOOKUP("index_lookups", true),
+
+        LOCK_WAIT("locks_waited", true);
+
+        private final String name;
+        private final boolean timed;
+
+        Item(String name, boolean timed) {
+            this.name = name;
+            this.timed = timed;
+        }
+
+        public String string() {
+            return this.name;
+        }
+
+        public boolean timed() {
+            return this.timed;
+        }
+    }
+}
@@ -90,6 +90,26 @@ public class HbaseOptions extends OptionHolder {
                     30L
             );
 
+    public static final ConfigOption<Integer> VERTEX_PARTITIONS =
+            new ConfigOption<>(
+                    "hbase.vertex_partitions",
+                    "The number of salt buckets of the vertex table, which " +
+                    "is pre-split into the same number of regions, 0 means " +
+                    "not salted, it can't be changed after initialized.",
+                    rangeInt(0, 256),
+                    0
+            );
+
+    public static final ConfigOption<Integer> EDGE_PARTITIONS =
+            new ConfigOption<>(
+                    "hbase.edge_partitions",
+                    "The number of salt buckets of the edge tables, which " +
+                    "are pre-split into the same number of regions, 0 means " +
+                    "not salted, it can't be changed after initialized.",
+                    rangeInt(0, 256),
+                    0
+            );
+
     public static final ConfigOption<Long> AGGR_TIMEOUT =
             new ConfigOption<>(
                     "hbase.aggregation_timeout",
@@ -79,6 +79,7 @@ import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.StringEncoding;
 import com.baidu.hugegraph.util.VersionUtil;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.Futures;
 
 public class HbaseSessions extends BackendSessionPool {
@@ -198,15 +199,43 @@ public class HbaseSessions extends BackendSessionPool {
     }
 
     public void createTable(String table, List<byte[]> cfs) throws IOException {
+        this.createTable(table, cfs, null, ImmutableMap.of());
+    }
+
+    public void createTable(String table, List<byte[]> cfs,
+                            byte[][] splitKeys, Map<String, String> metadata)
+                            throws IOException {
         TableDescriptorBuilder tdb = TableDescriptorBuilder.newBuilder(
                                      TableName.valueOf(this.namespace, table));
         for (byte[] cf : cfs) {
             tdb.setColumnFamily(ColumnFamilyDescriptorBuilder.newBuilder(cf)
                                                              .build());
         }
+        for (Entry<String, String> e : metadata.entrySet()) {
+            tdb.setValue(e.getKey(), e.getValue());
+        }
         tdb.setCoprocessor(COPROCESSOR_AGGR);
         try(Admin admin = this.hbase.getAdmin()) {
-            admin.createTable(tdb.build());
+            if (splitKeys == null || splitKeys.length == 0) {
+                admin.createTable(tdb.build());
+            } else {
+                // Pre-split the table to spread writes from the beginning
+                admin.createTable(tdb.build(), splitKeys);
+            }
+        }
+    }
+
+    /**
+     * Get a value of the metadata of a table
+     * @return null if the table doesn't exist or the value is not set
+     */
+    public String tableMetadata(String table, String key) throws IOException {
+        TableName tableName = TableName.valueOf(this.namespace, table);
+        try (Admin admin = this.hbase.getAdmin()) {
+            if (!admin.tableExists(tableName)) {
+                return null;
+            }
+            return admin.getDescriptor(tableName).getValue(key);
         }
     }
 
@@ -366,6 +395,14 @@ public class HbaseSessions extends BackendSessionPool {
             return this.scan(table, scan);
         }
 
+        /**
+         * Scan records by multi rowkey ranges from a table
+         */
+        public default R scan(String table, List<RowRange> ranges) {
+            Scan scan = new Scan().setFilter(new MultiRowRangeFilter(ranges));
+            return this.scan(table, scan);
+        }
+
         /**
          * Scan records by rowkey start and prefix from a table
          */
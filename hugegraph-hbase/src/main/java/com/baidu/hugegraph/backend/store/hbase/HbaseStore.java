@@ -140,6 +140,7 @@ public abstract class HbaseStore extends AbstractBackendStore<Session> {
         if (this.sessions == null) {
             this.sessions = new HbaseSessions(config, this.namespace, this.store);
         }
+        this.configTables(config);
 
         assert this.sessions != null;
         if (!this.sessions.closed()) {
@@ -161,11 +162,36 @@ public abstract class HbaseStore extends AbstractBackendStore<Session> {
                          "try to init CF later", this.store, this.namespace);
             }
         }
+        this.checkTables();
 
         this.sessions.session();
         LOG.debug("Store opened: {}", this.store);
     }
 
+    protected void configTables(HugeConfig config) {
+        // pass
+    }
+
+    private void checkTables() {
+        // Check the tables created by init() are consistent with the config
+        for (HbaseTable table : this.tables.values()) {
+            String salts;
+            try {
+                if (!this.sessions.existsTable(table.table())) {
+                    // The table will be created with the salts by init()
+                    continue;
+                }
+                salts = this.sessions.tableMetadata(table.table(),
+                                                    HbaseTable.SALTS_KEY);
+            } catch (IOException e) {
+                throw new BackendException(
+                          "Failed to get metadata of table '%s' for '%s' " +
+                          "store", e, table.table(), this.store);
+            }
+            table.checkSalts(salts);
+        }
+    }
+
     @Override
     public void close() {
         this.checkOpened();
@@ -253,7 +279,10 @@ public abstract class HbaseStore extends AbstractBackendStore<Session> {
         // Create tables
         for (String table : this.tableNames()) {
             try {
-                this.sessions.createTable(table, HbaseTable.cfs());
+                HbaseTable hbaseTable = this.table(table);
+                this.sessions.createTable(table, HbaseTable.cfs(),
+                                          hbaseTable.splitKeys(),
+                                          hbaseTable.metadata());
             } catch (TableExistsException ignored) {
                 continue;
             } catch (IOException e) {
@@ -389,6 +418,16 @@ public abstract class HbaseStore extends AbstractBackendStore<Session> {
         LOG.debug("Store truncated: {}", this.store);
     }
 
+    private HbaseTable table(String tableName) {
+        for (HbaseTable table : this.tables.values()) {
+            if (table.table().equals(tableName)) {
+                return table;
+            }
+        }
+        throw new AssertionError(String.format(
+                  "Unknown table '%s' of '%s' store", tableName, this.store));
+    }
+
     private void enableTables() {
         for (String table : this.tableNames()) {
             try {
@@ -513,6 +552,15 @@ public abstract class HbaseStore extends AbstractBackendStore<Session> {
                                  new HbaseTables.UniqueIndex(store));
         }
 
+        @Override
+        protected void configTables(HugeConfig config) {
+            int vertexSalts = config.get(HbaseOptions.VERTEX_PARTITIONS);
+            int edgeSalts = config.get(HbaseOptions.EDGE_PARTITIONS);
+            this.table(HugeType.VERTEX).salts(vertexSalts);
+            this.table(HugeType.EDGE_OUT).salts(edgeSalts);
+            this.table(HugeType.EDGE_IN).salts(edgeSalts);
+        }
+
         @Override
         public boolean isSchemaStore() {
             return false;
@@ -21,12 +21,15 @@ package com.baidu.hugegraph.backend.store.hbase;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellScanner;
@@ -38,6 +41,7 @@ import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.RegionInfo;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.BackendException;
@@ -52,6 +56,8 @@ import com.baidu.hugegraph.backend.query.IdRangeQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.serializer.BinaryBackendEntry;
 import com.baidu.hugegraph.backend.serializer.BinaryEntryIterator;
+import com.baidu.hugegraph.backend.serializer.BinaryPropertyFilter;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
 import com.baidu.hugegraph.backend.store.BackendEntryIterator;
@@ -69,6 +75,7 @@ import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.baidu.hugegraph.util.Log;
 import com.baidu.hugegraph.util.StringEncoding;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 public class HbaseTable extends BackendTable<Session, BackendEntry> {
 
@@ -76,17 +83,168 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
 
     protected static final byte[] CF = "f".getBytes();
 
+    // The key of the salts in the metadata of the HBase table
+    public static final String SALTS_KEY = "hugegraph.salts";
+
     private final HbaseShardSpliter shardSpliter;
+    // The number of salt buckets, 0 means the row keys are not salted
+    private int salts;
 
     public HbaseTable(String table) {
         super(table);
         this.shardSpliter = new HbaseShardSpliter(this.table());
+        this.salts = 0;
     }
 
     public static List<byte[]> cfs() {
         return ImmutableList.of(CF);
     }
 
+    /**
+     * Set the number of salt buckets, with which each row key is prefixed
+     * by a salt byte hashed from the first id of the key (the vertex id of
+     * a vertex, or the owner vertex id of an edge), so that the writes of
+     * sequential ids are spread across regions, while the edges of a vertex
+     * are still kept in the same bucket to be scanned by prefix.
+     */
+    public void salts(int salts) {
+        E.checkArgument(0 <= salts && salts <= 256,
+                        "The salts of table '%s' must be in [0, 256], " +
+                        "but got %s", this.table(), salts);
+        this.salts = salts;
+    }
+
+    public int salts() {
+        return this.salts;
+    }
+
+    /**
+     * Get the metadata to be saved in the HBase table when created
+     */
+    public Map<String, String> metadata() {
+        return ImmutableMap.of(SALTS_KEY, String.valueOf(this.salts));
+    }
+
+    /**
+     * Check the salts saved in the metadata of the HBase table, which can't
+     * be changed since the row keys have been written with them
+     * @param value the saved salts, or null if created by the old version
+     *              without salting
+     */
+    public void checkSalts(String value) {
+        int salts = value == null ? 0 : Integer.parseInt(value);
+        E.checkState(salts == this.salts,
+                     "The salts of table '%s' can't be changed from %s to " +
+                     "%s after initialized", this.table(), salts,
+                     this.salts);
+    }
+
+    /**
+     * Get the keys to pre-split the table, one region for each salt bucket
+     * @return null if the table is not salted
+     */
+    public byte[][] splitKeys() {
+        if (this.salts <= 1) {
+            return null;
+        }
+        byte[][] splitKeys = new byte[this.salts - 1][];
+        for (int i = 1; i < this.salts; i++) {
+            splitKeys[i - 1] = new byte[]{(byte) i};
+        }
+        return splitKeys;
+    }
+
+    /**
+     * Convert a key to the row key stored in HBase, it's the key itself if
+     * not salted, otherwise the key prefixed with its salt byte
+     */
+    public byte[] rowkey(byte[] key) {
+        if (this.salts == 0) {
+            return key;
+        }
+        return salted(this.salt(key), key);
+    }
+
+    /**
+     * Convert a row key stored in HBase to the origin key
+     */
+    public byte[] key(byte[] rowkey) {
+        if (this.salts == 0 || rowkey.length == 0) {
+            return rowkey;
+        }
+        return Arrays.copyOfRange(rowkey, 1, rowkey.length);
+    }
+
+    /**
+     * Get the row key ranges to scan for a range query, the range is
+     * scanned in every salt bucket unless all the keys in the range have
+     * the same first id, then they are in the same bucket
+     */
+    public List<RowRange> rowRanges(IdRangeQuery query) {
+        byte[] start = query.start().asBytes();
+        byte[] end = query.end() == null ? null : query.end().asBytes();
+        if (this.salts == 0 || (end != null && sameFirstId(start, end))) {
+            return ImmutableList.of(new RowRange(
+                                    this.rowkey(start), query.inclusiveStart(),
+                                    end == null ? null : this.rowkey(end),
+                                    query.inclusiveEnd()));
+        }
+
+        List<RowRange> ranges = new ArrayList<>(this.salts);
+        for (int i = 0; i < this.salts; i++) {
+            byte salt = (byte) i;
+            byte[] stop;
+            boolean inclusiveStop;
+            if (end != null) {
+                stop = salted(salt, end);
+                inclusiveStop = query.inclusiveEnd();
+            } else {
+                // Don't scan the rows of the next salt bucket
+                stop = i + 1 < this.salts ? new byte[]{(byte) (i + 1)} : null;
+                inclusiveStop = false;
+            }
+            ranges.add(new RowRange(salted(salt, start), query.inclusiveStart(),
+                                    stop, inclusiveStop));
+        }
+        return ranges;
+    }
+
+    private byte salt(byte[] key) {
+        // Hash the first id of the key, NOTE: a prefix includes it entirely
+        int length = firstIdLength(key);
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + key[i];
+        }
+        return (byte) Math.floorMod(hash, this.salts);
+    }
+
+    private static byte[] salted(byte salt, byte[] key) {
+        byte[] rowkey = new byte[key.length + 1];
+        rowkey[0] = salt;
+        System.arraycopy(key, 0, rowkey, 1, key.length);
+        return rowkey;
+    }
+
+    private static int firstIdLength(byte[] key) {
+        BytesBuffer buffer = BytesBuffer.wrap(key);
+        buffer.readId();
+        return buffer.position();
+    }
+
+    private static boolean sameFirstId(byte[] key1, byte[] key2) {
+        int length = firstIdLength(key1);
+        if (key2.length < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key1[i] != key2[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     protected void registerMetaHandlers() {
         this.registerMetaHandler("splits", (session, meta, args) -> {
@@ -110,16 +268,18 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
     @Override
     public void insert(Session session, BackendEntry entry) {
         assert !entry.columns().isEmpty();
-        session.put(this.table(), CF, entry.id().asBytes(), entry.columns());
+        session.put(this.table(), CF, this.rowkey(entry.id().asBytes()),
+                    entry.columns());
     }
 
     @Override
     public void delete(Session session, BackendEntry entry) {
+        byte[] rowkey = this.rowkey(entry.id().asBytes());
         if (entry.columns().isEmpty()) {
-            session.delete(this.table(), CF, entry.id().asBytes());
+            session.delete(this.table(), CF, rowkey);
         } else {
             for (BackendColumn col : entry.columns()) {
-                session.remove(table(), CF, entry.id().asBytes(), col.name);
+                session.remove(table(), CF, rowkey, col.name);
             }
         }
     }
@@ -200,6 +360,9 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
         if (query.paging()) {
             PageState page = PageState.fromString(query.page());
             byte[] begin = page.position();
+            if (begin.length > 0) {
+                begin = this.rowkey(begin);
+            }
             return session.scan(this.table(), begin, null);
         } else {
             return session.scan(this.table(), -1);
@@ -207,28 +370,37 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
     }
 
     protected <R> R queryById(HbaseSession<R> session, Id id) {
-        return session.get(this.table(), null, id.asBytes());
+        return session.get(this.table(), null, this.rowkey(id.asBytes()));
     }
 
     protected <R> R queryByIds(HbaseSession<R> session, Set<Id> ids) {
         Set<byte[]> rowkeys = InsertionOrderUtil.newSet();
         for (Id id : ids) {
-            rowkeys.add(id.asBytes());
+            rowkeys.add(this.rowkey(id.asBytes()));
         }
         return session.get(this.table(), null, rowkeys);
     }
 
     protected <R> R queryByPrefix(HbaseSession<R> session,
                                   IdPrefixQuery query) {
-        return session.scan(this.table(), query.start().asBytes(),
-                            query.inclusiveStart(), query.prefix().asBytes());
+        byte[] start = this.rowkey(query.start().asBytes());
+        byte[] prefix = this.rowkey(query.prefix().asBytes());
+        return session.scan(this.table(), start, query.inclusiveStart(),
+                            prefix);
     }
 
     protected <R> R queryByRange(HbaseSession<R> session, IdRangeQuery query) {
-        byte[] start = query.start().asBytes();
-        byte[] end = query.end() == null ? null : query.end().asBytes();
-        return session.scan(this.table(), start, query.inclusiveStart(),
-                            end, query.inclusiveEnd());
+        List<RowRange> ranges = this.rowRanges(query);
+        if (ranges.size() > 1) {
+            // Scan the range in each salt bucket one by one
+            return session.scan(this.table(), ranges);
+        }
+        RowRange range = ranges.get(0);
+        byte[] stop = range.getStopRow();
+        return session.scan(this.table(), range.getStartRow(),
+                            range.isStartRowInclusive(),
+                            stop.length == 0 ? null : stop,
+                            range.isStopRowInclusive());
     }
 
     protected <R> R queryByCond(HbaseSession<R> session, ConditionQuery query) {
@@ -248,6 +420,9 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
         byte[] end = this.shardSpliter.position(shard.end());
         if (page != null && !page.isEmpty()) {
             byte[] position = PageState.fromString(page).position();
+            if (position.length > 0) {
+                position = this.rowkey(position);
+            }
             E.checkArgument(start == null ||
                             Bytes.compare(position, start) >= 0,
                             "Invalid page out of lower bound");
@@ -258,9 +433,10 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
 
     protected BackendEntryIterator newEntryIterator(Query query,
                                                     RowIterator rows) {
-        return new BinaryEntryIterator<>(rows, query, (entry, row) -> {
+        Predicate<Result> filter = rowFilter(query);
+        return this.newEntryIterator(rows, query, filter, (entry, row) -> {
             E.checkState(!row.isEmpty(), "Can't parse empty HBase result");
-            byte[] id = row.getRow();
+            byte[] id = this.key(row.getRow());
             if (entry == null || !Bytes.prefixWith(id, entry.id().asBytes())) {
                 HugeType type = query.resultType();
                 // NOTE: only support BinaryBackendEntry currently
@@ -275,6 +451,33 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
         });
     }
 
+    protected BackendEntryIterator newEntryIterator(
+              RowIterator rows, Query query, Predicate<Result> filter,
+              BiFunction<BackendEntry, Result, BackendEntry> merger) {
+        if (this.salts == 0) {
+            return new BinaryEntryIterator<>(rows, query, filter, merger);
+        }
+        return new BinaryEntryIterator<Result>(rows, query, filter, merger) {
+            @Override
+            protected PageState pageState() {
+                // The page position is the origin key without salt
+                PageState page = super.pageState();
+                return new PageState(HbaseTable.this.key(page.position()),
+                                     page.offset(), (int) page.total());
+            }
+        };
+    }
+
+    private static Predicate<Result> rowFilter(Query query) {
+        // Skip the edges unmatched with userprop conditions if needed
+        BinaryPropertyFilter filter = BinaryPropertyFilter.of(query);
+        if (filter == null) {
+            return null;
+        }
+        // NOTE: there is only one cell in each row of edge tables
+        return row -> filter.test(row.value());
+    }
+
     protected void parseRowColumns(Result row, BackendEntry entry, Query query)
                                    throws IOException {
         CellScanner cellScanner = row.cellScanner();
@@ -116,12 +116,11 @@ public class HbaseTables {
         @Override
         public void insert(Session session, BackendEntry entry) {
             long ttl = entry.ttl();
+            byte[] rowkey = this.rowkey(entry.id().asBytes());
             if (ttl == 0L) {
-                session.put(this.table(), CF, entry.id().asBytes(),
-                            entry.columns());
+                session.put(this.table(), CF, rowkey, entry.columns());
             } else {
-                session.put(this.table(), CF, entry.id().asBytes(),
-                            entry.columns(), ttl);
+                session.put(this.table(), CF, rowkey, entry.columns(), ttl);
             }
         }
     }
@@ -150,12 +149,11 @@ public class HbaseTables {
         @Override
         public void insert(Session session, BackendEntry entry) {
             long ttl = entry.ttl();
+            byte[] rowkey = this.rowkey(entry.id().asBytes());
             if (ttl == 0L) {
-                session.put(this.table(), CF, entry.id().asBytes(),
-                            entry.columns());
+                session.put(this.table(), CF, rowkey, entry.columns());
             } else {
-                session.put(this.table(), CF, entry.id().asBytes(),
-                            entry.columns(), ttl);
+                session.put(this.table(), CF, rowkey, entry.columns(), ttl);
             }
         }
 
@@ -167,7 +165,8 @@ public class HbaseTables {
              * collapse if BinarySerializer.keyWithIdPrefix set to true
              */
             byte[] key = row.getRow();
-            key = Arrays.copyOfRange(key, entry.id().length(), key.length);
+            int offset = entry.id().length() + (this.salts() > 0 ? 1 : 0);
+            key = Arrays.copyOfRange(key, offset, key.length);
 
             long total = query.total();
             CellScanner cellScanner = row.cellScanner();
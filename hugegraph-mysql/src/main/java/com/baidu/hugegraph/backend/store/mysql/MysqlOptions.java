@@ -98,6 +98,16 @@ public class MysqlOptions extends OptionHolder {
                     "false"
             );
 
+    public static final ConfigOption<Boolean> JDBC_SERVER_PREPARED =
+            new ConfigOption<>(
+                    "jdbc.server_prepared_statements",
+                    "Whether to use server-side prepared statements of " +
+                    "MySQL for the queries by ids, note that batched " +
+                    "inserts can't be rewritten into one if enabled.",
+                    disallowEmpty(),
+                    false
+            );
+
     public static final ConfigOption<String> STORAGE_ENGINE =
             new ConfigOption<>(
                    "jdbc.storage_engine",
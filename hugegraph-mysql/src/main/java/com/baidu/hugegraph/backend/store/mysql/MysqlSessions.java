@@ -26,6 +26,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
@@ -224,17 +225,26 @@ public class MysqlSessions extends BackendSessionPool {
         int maxTimes = this.config.get(MysqlOptions.JDBC_RECONNECT_MAX_TIMES);
         int interval = this.config.get(MysqlOptions.JDBC_RECONNECT_INTERVAL);
         String sslMode = this.config.get(MysqlOptions.JDBC_SSL_MODE);
+        boolean serverPrepared = this.config.get(
+                                 MysqlOptions.JDBC_SERVER_PREPARED);
 
         URIBuilder builder = this.newConnectionURIBuilder();
         builder.setPath(url).setParameter("useSSL", sslMode);
         if (withConnParams) {
             builder.setParameter("characterEncoding", "utf-8")
                    .setParameter("rewriteBatchedStatements", "true")
-                   .setParameter("useServerPrepStmts", "false")
+                   .setParameter("useServerPrepStmts",
+                                 String.valueOf(serverPrepared))
                    .setParameter("autoReconnect", String.valueOf(autoReconnect))
                    .setParameter("maxReconnects", String.valueOf(maxTimes))
                    .setParameter("initialTimeout", String.valueOf(interval));
         }
+        if (withConnParams && serverPrepared) {
+            // Reuse the server-side statements closed by the prepared reads
+            builder.setParameter("cachePrepStmts", "true")
+                   .setParameter("prepStmtCacheSize", "256")
+                   .setParameter("prepStmtCacheSqlLimit", "8192");
+        }
         if (timeout != null) {
             builder.setParameter("socketTimeout", String.valueOf(timeout));
         }
@@ -469,6 +479,29 @@ public class MysqlSessions extends BackendSessionPool {
             return this.conn.createStatement().executeQuery(sql);
         }
 
+        /**
+         * Execute a prepared select with the parameters, the statement is
+         * closed with the results, and the driver caches prepared statements
+         * with the same template per connection
+         */
+        public ResultSet select(String sqlTemplate, List<Object> params)
+                                throws SQLException {
+            assert this.conn.getAutoCommit();
+            PreparedStatement statement = this.conn.prepareStatement(
+                                          sqlTemplate);
+            try {
+                int i = 1;
+                for (Object param : params) {
+                    statement.setObject(i++, param);
+                }
+                statement.closeOnCompletion();
+                return statement.executeQuery();
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
+        }
+
         public boolean execute(String sql) throws SQLException {
             /*
              * commit() or rollback() failed to set connection to auto-commit
@@ -61,10 +61,15 @@ public abstract class MysqlTable
 
     private static final String DECIMAL = "DECIMAL";
 
+    // The max count of ids to be queried by a prepared select
+    private static final int MAX_IDS_PER_SELECT = 256;
+
     // The template for insert and delete statements
     private String insertTemplate;
     private String insertTemplateTtl;
     private String deleteTemplate;
+    // The templates to select by 1, 2, 4...MAX_IDS_PER_SELECT ids
+    private final String[] selectTemplates;
 
     private final MysqlShardSpliter shardSpliter;
 
@@ -73,6 +78,8 @@ public abstract class MysqlTable
         this.insertTemplate = null;
         this.insertTemplateTtl = null;
         this.deleteTemplate = null;
+        int templates = Integer.numberOfTrailingZeros(MAX_IDS_PER_SELECT) + 1;
+        this.selectTemplates = new String[templates];
         this.shardSpliter = new MysqlShardSpliter(this.table());
     }
 
@@ -240,6 +247,25 @@ public abstract class MysqlTable
         return this.deleteTemplate;
     }
 
+    protected String buildSelectTemplate(int size) {
+        assert Integer.bitCount(size) == 1 && size <= MAX_IDS_PER_SELECT;
+        int index = Integer.numberOfTrailingZeros(size);
+        if (this.selectTemplates[index] != null) {
+            return this.selectTemplates[index];
+        }
+
+        StringBuilder select = new StringBuilder();
+        select.append("SELECT * FROM ").append(this.table());
+        WhereBuilder where = this.newWhereBuilder();
+        where.in(formatKeys(this.idColumnName()), size);
+        select.append(where.build());
+        select.append(this.orderByKeys());
+        select.append(";");
+
+        this.selectTemplates[index] = select.toString();
+        return this.selectTemplates[index];
+    }
+
     protected String buildDropTemplate() {
         return String.format("DROP TABLE IF EXISTS %s;", this.table());
     }
@@ -361,6 +387,10 @@ public abstract class MysqlTable
             return rs;
         }
 
+        if (this.queryOnlyByIds(query)) {
+            return this.queryByIds(session, query, parser);
+        }
+
         List<StringBuilder> selections = this.query2Select(this.table(), query);
         try {
             for (StringBuilder selection : selections) {
@@ -375,6 +405,51 @@ public abstract class MysqlTable
         return rs;
     }
 
+    protected boolean queryOnlyByIds(Query query) {
+        return !query.ids().isEmpty() && query.conditions().isEmpty() &&
+               query.aggregate() == null && query.orders().isEmpty() &&
+               !query.paging() && query.noLimit() && query.offset() == 0L;
+    }
+
+    /**
+     * Query by ids with the prepared selects, each one selects a batch of
+     * ids, and the ids count is padded to the power of 2 with the last id
+     * so that the count of the templates to be prepared is bounded
+     */
+    protected <R> Iterator<R> queryByIds(Session session, Query query,
+                                         BiFunction<Query, ResultSet,
+                                                    Iterator<R>> parser) {
+        ExtendableIterator<R> rs = new ExtendableIterator<>();
+
+        List<List<Object>> ids = new ArrayList<>(query.ids().size());
+        for (List<Object> idParts : this.idColumnValues(query)) {
+            ids.add(this.idColumnParams(idParts));
+        }
+        try {
+            for (int i = 0, n = ids.size(); i < n; i += MAX_IDS_PER_SELECT) {
+                int end = Math.min(n, i + MAX_IDS_PER_SELECT);
+                List<List<Object>> batch = ids.subList(i, end);
+                int size = batch.size();
+                if (size > 1) {
+                    size = Integer.highestOneBit(size - 1) << 1;
+                }
+                List<Object> params = new ArrayList<>();
+                for (int j = 0; j < size; j++) {
+                    // The repeated last id doesn't change the results
+                    params.addAll(batch.get(Math.min(j, batch.size() - 1)));
+                }
+                String template = this.buildSelectTemplate(size);
+                ResultSet results = session.select(template, params);
+                rs.extend(parser.apply(query, results));
+            }
+        } catch (SQLException e) {
+            throw new BackendException("Failed to query [%s]", e, query);
+        }
+
+        LOG.debug("Return {} for query {}", rs, query);
+        return rs;
+    }
+
     protected List<StringBuilder> query2Select(String table, Query query) {
         // Build query
         StringBuilder select = new StringBuilder(64);
@@ -492,6 +567,22 @@ public abstract class MysqlTable
             return ImmutableList.of(select);
         }
 
+        List<HugeKeys> nameParts = this.idColumnName();
+        List<List<Object>> ids = this.idColumnValues(query);
+
+        /*
+         * Query by partition-key, or by partition-key + clustering-key with
+         * multi-column IN clause like "(pk, ck1, ck2) IN ((id, v1, v2)...)",
+         * which selects all the ids with one statement instead of one
+         * statement per id
+         */
+        WhereBuilder where = this.newWhereBuilder();
+        where.in(formatKeys(nameParts), ids);
+        select.append(where.build());
+        return ImmutableList.of(select);
+    }
+
+    protected List<List<Object>> idColumnValues(Query query) {
         List<HugeKeys> nameParts = this.idColumnName();
 
         List<List<Object>> ids = new ArrayList<>(query.ids().size());
@@ -504,43 +595,24 @@ public abstract class MysqlTable
             }
             ids.add(idParts);
         }
+        return ids;
+    }
 
-        // Query only by partition-key
-        if (nameParts.size() == 1) {
-            List<Object> values = new ArrayList<>(ids.size());
-            for (List<Object> objects : ids) {
-                assert objects.size() == 1;
-                values.add(objects.get(0));
-            }
-
-            WhereBuilder where = this.newWhereBuilder();
-            where.in(formatKey(nameParts.get(0)), values);
-            select.append(where.build());
-            return ImmutableList.of(select);
-        }
-
-        /*
-         * Query by partition-key + clustering-key
-         * NOTE: Error if multi-column IN clause include partition key:
-         * error: multi-column relations can only be applied to clustering
-         * columns when using: select.where(QueryBuilder.in(names, idList));
-         * So we use multi-query instead of IN
-         */
-        List<StringBuilder> selections = new ArrayList<>(ids.size());
-        for (List<Object> objects : ids) {
-            assert nameParts.size() == objects.size();
-            StringBuilder idSelection = new StringBuilder(select);
-            /*
-             * NOTE: concat with AND relation, like:
-             * "pk = id and ck1 = v1 and ck2 = v2"
-             */
-            WhereBuilder where = this.newWhereBuilder();
-            where.and(formatKeys(nameParts), objects);
+    /**
+     * Convert the id parts to the types of the id columns before binding,
+     * the database converts the literals of WhereBuilder implicitly but
+     * rejects some parameters, like a varchar parameter of an INT column
+     */
+    protected List<Object> idColumnParams(List<Object> idParts) {
+        List<HugeKeys> nameParts = this.idColumnName();
+        assert nameParts.size() == idParts.size();
 
-            idSelection.append(where.build());
-            selections.add(idSelection);
+        List<Object> params = new ArrayList<>(idParts.size());
+        for (int i = 0, n = nameParts.size(); i < n; i++) {
+            String type = this.tableDefine().columns().get(nameParts.get(i));
+            params.add(MysqlUtil.castValue(type, idParts.get(i)));
         }
-        return selections;
+        return params;
     }
 
     protected List<StringBuilder> queryCondition2Select(Query query,
@@ -19,8 +19,44 @@
 
 package com.baidu.hugegraph.backend.store.mysql;
 
+import java.math.BigDecimal;
+
 public class MysqlUtil {
 
+    private static final String[] TEXT_TYPES = {"CHAR", "TEXT"};
+    private static final String[] INTEGER_TYPES = {
+            "TINYINT", "SMALLINT", "MEDIUMINT", "INT", "BIGINT"
+    };
+    private static final String[] DECIMAL_TYPES = {"DECIMAL", "DOUBLE"};
+
+    /**
+     * Cast the value to the java type of the column type, the value is
+     * kept if it's not a text, integer or decimal column
+     */
+    public static Object castValue(String type, Object value) {
+        if (value == null) {
+            return null;
+        }
+        String columnType = type.toUpperCase();
+        int space = columnType.indexOf(' ');
+        if (space > 0) {
+            columnType = columnType.substring(0, space);
+        }
+
+        if (containsAny(columnType, TEXT_TYPES)) {
+            return value.toString();
+        } else if (startsWithAny(columnType, INTEGER_TYPES)) {
+            if (value instanceof String) {
+                return Long.valueOf((String) value);
+            }
+        } else if (startsWithAny(columnType, DECIMAL_TYPES)) {
+            if (!(value instanceof BigDecimal)) {
+                return new BigDecimal(value.toString());
+            }
+        }
+        return value;
+    }
+
     public static String escapeAndWrapString(String value) {
         return escapeString(value, true);
     }
@@ -128,4 +164,22 @@ public class MysqlUtil {
 
         return needsEscape;
     }
+
+    private static boolean containsAny(String type, String[] types) {
+        for (String t : types) {
+            if (type.contains(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWithAny(String type, String[] types) {
+        for (String t : types) {
+            if (type.startsWith(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -19,6 +19,7 @@
 
 package com.baidu.hugegraph.backend.store.mysql;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.baidu.hugegraph.backend.query.Condition.RelationType;
@@ -219,6 +220,79 @@ public class WhereBuilder {
         return this;
     }
 
+    /**
+     * Concat as: (key1, key2...) in ((v11, v12...), (v21, v22...)...), or
+     * as: key in (value1, value2...) if there is only one key
+     * @param keys the keys to be concatted with 'IN' operator
+     * @param values the rows of values, each one matches all the keys
+     * @return WhereBuilder
+     */
+    public WhereBuilder in(List<String> keys, List<List<Object>> values) {
+        if (keys.size() == 1) {
+            List<Object> singles = new ArrayList<>(values.size());
+            for (List<Object> row : values) {
+                assert row.size() == 1;
+                singles.add(row.get(0));
+            }
+            return this.in(keys.get(0), singles);
+        }
+
+        this.keys(keys).append(" IN (");
+        for (int i = 0, n = values.size(); i < n; i++) {
+            List<Object> row = values.get(i);
+            E.checkArgument(keys.size() == row.size(),
+                            "The size of keys '%s' is not equal with " +
+                            "values size '%s'", keys.size(), row.size());
+            this.builder.append("(");
+            for (int j = 0, m = row.size(); j < m; j++) {
+                this.builder.append(wrapStringIfNeeded(row.get(j)));
+                if (j != m - 1) {
+                    this.builder.append(", ");
+                }
+            }
+            this.builder.append(")");
+            if (i != n - 1) {
+                this.builder.append(", ");
+            }
+        }
+        this.builder.append(")");
+        return this;
+    }
+
+    /**
+     * Concat as: (key1, key2...) in ((?, ?...), (?, ?...)...), or
+     * as: key in (?, ?...) if there is only one key
+     * @param keys the keys to be concatted with 'IN' operator
+     * @param size the count of the rows of placeholders
+     * @return WhereBuilder
+     */
+    public WhereBuilder in(List<String> keys, int size) {
+        E.checkArgument(size > 0, "The size must be > 0, but got %s", size);
+        StringBuilder row = new StringBuilder();
+        if (keys.size() > 1) {
+            row.append("(");
+        }
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            row.append("?");
+            if (i != n - 1) {
+                row.append(", ");
+            }
+        }
+        if (keys.size() > 1) {
+            row.append(")");
+        }
+
+        this.keys(keys).append(" IN (");
+        for (int i = 0; i < size; i++) {
+            this.builder.append(row);
+            if (i != size - 1) {
+                this.builder.append(", ");
+            }
+        }
+        this.builder.append(")");
+        return this;
+    }
+
     /**
      * Concat as: (key1, key2...keyn) {@code >=} (val1, val2...valn)
      * @param keys the keys to be concatted with {@code >=} operator
@@ -286,4 +360,18 @@ public class WhereBuilder {
     protected String escapeAndWrapString(String value) {
         return MysqlUtil.escapeAndWrapString(value);
     }
+
+    private StringBuilder keys(List<String> keys) {
+        if (keys.size() == 1) {
+            return this.builder.append(keys.get(0));
+        }
+        this.builder.append("(");
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            this.builder.append(keys.get(i));
+            if (i != n - 1) {
+                this.builder.append(", ");
+            }
+        }
+        return this.builder.append(")");
+    }
 }
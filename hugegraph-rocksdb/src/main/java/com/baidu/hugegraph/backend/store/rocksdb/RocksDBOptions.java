@@ -131,6 +131,27 @@ public class RocksDBOptions extends OptionHolder {
                     false
             );
 
+    public static final ConfigOption<Integer> SNAPSHOT_PAGING_TTL =
+            new ConfigOption<>(
+                    "rocksdb.snapshot_paging_ttl",
+                    "The idle time in seconds to keep the snapshot pinned by " +
+                    "the first page of a paging scan, the following pages " +
+                    "read the same snapshot until the last page, 0 means " +
+                    "reading the latest data for each page.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    0
+            );
+
+    public static final ConfigOption<Integer> SNAPSHOT_PAGING_MAX =
+            new ConfigOption<>(
+                    "rocksdb.snapshot_paging_max",
+                    "The max number of snapshots pinned by paging scans, " +
+                    "the pages of the scans started beyond it read the " +
+                    "latest data instead of a pinned snapshot.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    1000
+            );
+
     public static final ConfigListConvOption<String, CompressionType> LEVELS_COMPRESSIONS =
             new ConfigListConvOption<>(
                     "rocksdb.compression_per_level",
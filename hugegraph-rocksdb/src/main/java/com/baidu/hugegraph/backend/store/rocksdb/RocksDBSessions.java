@@ -29,6 +29,7 @@ import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
 import com.baidu.hugegraph.backend.store.BackendSession.AbstractBackendSession;
 import com.baidu.hugegraph.backend.store.BackendSessionPool;
 import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.util.E;
 
 public abstract class RocksDBSessions extends BackendSessionPool {
 
@@ -95,6 +96,37 @@ public abstract class RocksDBSessions extends BackendSessionPool {
             return this.scan(table, keyFrom, keyTo, SCAN_LT_END);
         }
 
+        /**
+         * Whether the pages of a paging scan read the snapshot pinned by
+         * the first page
+         */
+        public boolean snapshotPaging() {
+            return false;
+        }
+
+        /**
+         * Pin a snapshot for the pages of a paging scan
+         * @return the id of the snapshot, or NO_SNAPSHOT if not supported,
+         *         or UNPINNED if too many snapshots are pinned
+         */
+        public long pinSnapshot() {
+            return RocksDBSnapshots.NO_SNAPSHOT;
+        }
+
+        /**
+         * Scan records by key range from a snapshot pinned by pinSnapshot(),
+         * the position of the iterator is prefixed with the snapshot id
+         */
+        public BackendColumnIterator scan(String table,
+                                          byte[] keyFrom,
+                                          byte[] keyTo,
+                                          int scanType,
+                                          long snapshot) {
+            E.checkArgument(snapshot == RocksDBSnapshots.NO_SNAPSHOT,
+                            "Not support scanning snapshot");
+            return this.scan(table, keyFrom, keyTo, scanType);
+        }
+
         public static boolean matchScanType(int expected, int actual) {
             return (expected & actual) == expected;
         }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.rocksdb;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * The snapshots pinned by paging scans. A snapshot is pinned when the first
+ * page is scanned, the following pages read it by the id carried in the
+ * page position, and it's released if it's not read for the ttl, so that a
+ * page can be scanned again before expired.
+ *
+ * The ids of the snapshots are random to be hard to guess by the clients,
+ * and at most `max` snapshots are pinned, the scans started beyond that
+ * read the latest data for each page, like snapshot paging is disabled.
+ */
+public class RocksDBSnapshots {
+
+    private static final Logger LOG = Log.logger(RocksDBSnapshots.class);
+
+    public static final long NO_SNAPSHOT = 0L;
+    // The id in the positions of the pages not reading a pinned snapshot
+    public static final long UNPINNED = -1L;
+
+    private final RocksDB rocksdb;
+    private final long ttl;
+    private final int max;
+    private final Map<Long, PinnedSnapshot> snapshots;
+    private final Random random;
+
+    public RocksDBSnapshots(RocksDB rocksdb, long ttl, int max) {
+        E.checkArgument(max > 0, "The max snapshots must be > 0");
+        this.rocksdb = rocksdb;
+        this.ttl = ttl;
+        this.max = max;
+        this.snapshots = new HashMap<>();
+        this.random = new SecureRandom();
+    }
+
+    public boolean enabled() {
+        return this.ttl > 0L;
+    }
+
+    /**
+     * Pin a snapshot of the latest data
+     * @return the id of the snapshot, or UNPINNED if too many are pinned
+     */
+    public synchronized long pin() {
+        assert this.enabled();
+        this.expire();
+        if (this.snapshots.size() >= this.max) {
+            LOG.warn("Can't pin more than {} snapshots for paging scans, " +
+                     "the scan will read the latest data", this.max);
+            return UNPINNED;
+        }
+        long id;
+        do {
+            id = this.random.nextLong();
+        } while (id == NO_SNAPSHOT || id == UNPINNED ||
+                 this.snapshots.containsKey(id));
+        this.snapshots.put(id, new PinnedSnapshot(this.rocksdb.getSnapshot()));
+        return id;
+    }
+
+    public synchronized RocksIterator newIterator(long id,
+                                                  ColumnFamilyHandle cf) {
+        if (id == UNPINNED) {
+            return this.rocksdb.newIterator(cf);
+        }
+        this.expire();
+        PinnedSnapshot snapshot = this.snapshots.get(id);
+        if (snapshot == null) {
+            throw new BackendException("The snapshot of the page has " +
+                                       "expired, please scan from the " +
+                                       "first page");
+        }
+        snapshot.access = System.currentTimeMillis();
+        // The iterator is still valid after the snapshot is released
+        return this.rocksdb.newIterator(cf, snapshot.options);
+    }
+
+    public synchronized void close() {
+        for (PinnedSnapshot snapshot : this.snapshots.values()) {
+            snapshot.close();
+        }
+        this.snapshots.clear();
+    }
+
+    /**
+     * The position of a page read from a snapshot, the id of the snapshot
+     * followed by the key to resume from
+     */
+    public static byte[] position(long id, byte[] key) {
+        assert id != NO_SNAPSHOT;
+        BytesBuffer buffer = BytesBuffer.allocate(BytesBuffer.LONG_LEN +
+                                                  key.length);
+        buffer.writeLong(id);
+        buffer.write(key);
+        return buffer.bytes();
+    }
+
+    public static long snapshotOfPosition(byte[] position) {
+        E.checkArgument(position.length >= BytesBuffer.LONG_LEN,
+                        "Invalid page position of snapshot");
+        return BytesBuffer.wrap(position).readLong();
+    }
+
+    public static byte[] keyOfPosition(byte[] position) {
+        return Arrays.copyOfRange(position, BytesBuffer.LONG_LEN,
+                                  position.length);
+    }
+
+    private void expire() {
+        if (this.snapshots.isEmpty()) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() - this.ttl;
+        Iterator<PinnedSnapshot> iter = this.snapshots.values().iterator();
+        while (iter.hasNext()) {
+            PinnedSnapshot snapshot = iter.next();
+            if (snapshot.access < deadline) {
+                iter.remove();
+                snapshot.close();
+            }
+        }
+    }
+
+    private final class PinnedSnapshot {
+
+        private final Snapshot snapshot;
+        private final ReadOptions options;
+        private long access;
+
+        public PinnedSnapshot(Snapshot snapshot) {
+            this.snapshot = snapshot;
+            this.options = new ReadOptions().setSnapshot(snapshot);
+            this.access = System.currentTimeMillis();
+        }
+
+        public void close() {
+            this.options.close();
+            if (RocksDBSnapshots.this.rocksdb.isOwningHandle()) {
+                RocksDBSnapshots.this.rocksdb.releaseSnapshot(this.snapshot);
+            }
+        }
+    }
+}
@@ -82,6 +82,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
 
     private final Map<String, CFHandle> cfs;
     private final AtomicInteger refCount;
+    private final RocksDBSnapshots snapshots;
 
     public RocksDBStdSessions(HugeConfig config, String database, String store,
                               String dataPath, String walPath)
@@ -106,6 +107,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
 
         this.cfs = new ConcurrentHashMap<>();
         this.refCount = new AtomicInteger(1);
+        this.snapshots = newSnapshots(config, this.rocksdb);
     }
 
     public RocksDBStdSessions(HugeConfig config, String database, String store,
@@ -149,6 +151,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
         }
 
         this.refCount = new AtomicInteger(1);
+        this.snapshots = newSnapshots(config, this.rocksdb);
 
         ingestExternalFile();
     }
@@ -162,6 +165,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
         this.sstFileManager = origin.sstFileManager;
         this.cfs = origin.cfs;
         this.refCount = origin.refCount;
+        this.snapshots = origin.snapshots;
 
         this.refCount.incrementAndGet();
     }
@@ -298,6 +302,8 @@ public class RocksDBStdSessions extends RocksDBSessions {
         }
         assert this.refCount.get() == 0;
 
+        this.snapshots.close();
+
         for (CFHandle cf : this.cfs.values()) {
             cf.close();
         }
@@ -306,6 +312,14 @@ public class RocksDBStdSessions extends RocksDBSessions {
         this.rocksdb.close();
     }
 
+    private static RocksDBSnapshots newSnapshots(HugeConfig config,
+                                                 RocksDB rocksdb) {
+        long ttl = config.get(RocksDBOptions.SNAPSHOT_PAGING_TTL);
+        int max = config.get(RocksDBOptions.SNAPSHOT_PAGING_MAX);
+        return new RocksDBSnapshots(rocksdb, TimeUnit.SECONDS.toMillis(ttl),
+                                    max);
+    }
+
     private void checkValid() {
         E.checkState(this.rocksdb.isOwningHandle(),
                      "It seems RocksDB has been closed");
@@ -858,6 +872,39 @@ public class RocksDBStdSessions extends RocksDBSessions {
             }
         }
 
+        @Override
+        public boolean snapshotPaging() {
+            return RocksDBStdSessions.this.snapshots.enabled();
+        }
+
+        @Override
+        public long pinSnapshot() {
+            if (!this.snapshotPaging()) {
+                return RocksDBSnapshots.NO_SNAPSHOT;
+            }
+            return RocksDBStdSessions.this.snapshots.pin();
+        }
+
+        /**
+         * Scan records by key range from a pinned snapshot of a table
+         */
+        @Override
+        public BackendColumnIterator scan(String table, byte[] keyFrom,
+                                          byte[] keyTo, int scanType,
+                                          long snapshot) {
+            if (snapshot == RocksDBSnapshots.NO_SNAPSHOT) {
+                return this.scan(table, keyFrom, keyTo, scanType);
+            }
+            assert !this.hasChanges();
+            RocksDBSnapshots snapshots = RocksDBStdSessions.this.snapshots;
+            try (CFHandle cf = cf(table)) {
+                RocksIterator iter = snapshots.newIterator(snapshot,
+                                                           cf.get());
+                return new SnapshotColumnIterator(table, iter, keyFrom,
+                                                  keyTo, scanType, snapshot);
+            }
+        }
+
         @Override
         public void createSnapshot(String parentPath) {
             String md5 = CodeUtil.md5(this.dataPath());
@@ -1112,4 +1159,29 @@ public class RocksDBStdSessions extends RocksDBSessions {
             }
         }
     }
+
+    /**
+     * The iterator of a pinned snapshot, the position is prefixed with the
+     * snapshot id for the next page
+     */
+    private static class SnapshotColumnIterator extends ColumnIterator {
+
+        private final long snapshot;
+
+        public SnapshotColumnIterator(String table, RocksIterator iter,
+                                      byte[] keyBegin, byte[] keyEnd,
+                                      int scanType, long snapshot) {
+            super(table, iter, keyBegin, keyEnd, scanType);
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public byte[] position() {
+            byte[] position = super.position();
+            if (position == null) {
+                return null;
+            }
+            return RocksDBSnapshots.position(this.snapshot, position);
+        }
+    }
 }
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
@@ -39,6 +40,7 @@ import com.baidu.hugegraph.backend.query.IdRangeQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.serializer.BinaryBackendEntry;
 import com.baidu.hugegraph.backend.serializer.BinaryEntryIterator;
+import com.baidu.hugegraph.backend.serializer.BinaryPropertyFilter;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
@@ -55,6 +57,7 @@ import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.Log;
 import com.baidu.hugegraph.util.StringEncoding;
+import com.google.common.collect.ImmutableList;
 
 public class RocksDBTable extends BackendTable<Session, BackendEntry> {
 
@@ -179,9 +182,11 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
 
     protected BackendColumnIterator queryAll(Session session, Query query) {
         if (query.paging()) {
-            PageState page = PageState.fromString(query.page());
-            byte[] begin = page.position();
-            return session.scan(this.table(), begin, null, Session.SCAN_ANY);
+            byte[] position = PageState.fromString(query.page()).position();
+            long snapshot = snapshotOfPage(session, position);
+            byte[] begin = keyOfPage(position, snapshot);
+            return session.scan(this.table(), begin, null, Session.SCAN_ANY,
+                                snapshot);
         } else {
             return session.scan(this.table());
         }
@@ -239,12 +244,17 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
                                                  String page) {
         byte[] start = this.shardSpliter.position(shard.start());
         byte[] end = this.shardSpliter.position(shard.end());
-        if (page != null && !page.isEmpty()) {
+        long snapshot = RocksDBSnapshots.NO_SNAPSHOT;
+        if (page != null) {
             byte[] position = PageState.fromString(page).position();
-            E.checkArgument(start == null ||
-                            Bytes.compare(position, start) >= 0,
-                            "Invalid page out of lower bound");
-            start = position;
+            snapshot = snapshotOfPage(session, position);
+            position = keyOfPage(position, snapshot);
+            if (position.length > 0) {
+                E.checkArgument(start == null ||
+                                Bytes.compare(position, start) >= 0,
+                                "Invalid page out of lower bound");
+                start = position;
+            }
         }
         if (start == null) {
             start = ShardSpliter.START_BYTES;
@@ -253,13 +263,36 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
         if (end != null) {
             type |= Session.SCAN_LT_END;
         }
-        return session.scan(this.table(), start, end, type);
+        return session.scan(this.table(), start, end, type, snapshot);
+    }
+
+    /**
+     * Pin a snapshot for the first page, or get the snapshot pinned by the
+     * first page from the position of the following pages
+     */
+    private static long snapshotOfPage(Session session, byte[] position) {
+        if (position.length == 0) {
+            return session.pinSnapshot();
+        }
+        if (!session.snapshotPaging()) {
+            return RocksDBSnapshots.NO_SNAPSHOT;
+        }
+        return RocksDBSnapshots.snapshotOfPosition(position);
+    }
+
+    private static byte[] keyOfPage(byte[] position, long snapshot) {
+        if (snapshot == RocksDBSnapshots.NO_SNAPSHOT ||
+            position.length == 0) {
+            return position;
+        }
+        return RocksDBSnapshots.keyOfPosition(position);
     }
 
     protected static final BackendEntryIterator newEntryIterator(
                                                 BackendColumnIterator cols,
                                                 Query query) {
-        return new BinaryEntryIterator<>(cols, query, (entry, col) -> {
+        Predicate<BackendColumn> filter = columnFilter(query);
+        return new BinaryEntryIterator<>(cols, query, filter, (entry, col) -> {
             if (entry == null || !entry.belongToMe(col)) {
                 HugeType type = query.resultType();
                 // NOTE: only support BinaryBackendEntry currently
@@ -270,6 +303,15 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
         });
     }
 
+    private static Predicate<BackendColumn> columnFilter(Query query) {
+        // Skip the edges unmatched with userprop conditions if needed
+        BinaryPropertyFilter filter = BinaryPropertyFilter.of(query);
+        if (filter == null) {
+            return null;
+        }
+        return col -> filter.test(col.value);
+    }
+
     protected static final long sizeOfBackendEntry(BackendEntry entry) {
         return BinaryEntryIterator.sizeOfBackendEntry(entry);
     }
@@ -293,7 +335,11 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
 
             Pair<byte[], byte[]> keyRange = session.keyRange(this.table());
             if (keyRange == null || keyRange.getRight() == null) {
-                return super.getSplits(session, splitSize);
+                /*
+                 * The table is empty, scan it by one shard since the
+                 * positions of super.getSplits() are not the keys
+                 */
+                return ImmutableList.of(new Shard(START, END, 0L));
             }
 
             long size = this.estimateDataSize(session);
@@ -19,6 +19,7 @@
 
 package com.baidu.hugegraph.core;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -77,6 +78,8 @@ import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.DateUtil;
 import com.baidu.hugegraph.util.Events;
+import com.baidu.hugegraph.util.QueryProfiler;
+import com.baidu.hugegraph.util.QueryProfiler.Item;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
@@ -2555,6 +2558,25 @@ public class EdgeCoreTest extends BaseCoreTest {
         Assert.assertEquals(1, edges.size());
     }
 
+    @Test
+    public void testQueryEdgesByIds() {
+        HugeGraph graph = graph();
+        init18Edges();
+
+        List<Object> ids = new ArrayList<>();
+        for (Edge edge : graph.traversal().E().toList()) {
+            ids.add(edge.id());
+        }
+        Assert.assertEquals(18, ids.size());
+
+        // The id parts are selected with the types of the id columns
+        List<Edge> edges = graph.traversal().E(ids.toArray()).toList();
+        Assert.assertEquals(18, edges.size());
+
+        edges = graph.traversal().E(ids.subList(0, 3).toArray()).toList();
+        Assert.assertEquals(3, edges.size());
+    }
+
     @Test
     public void testQueryEdgesByIdWithGraphAPI() {
         HugeGraph graph = graph();
@@ -3313,6 +3335,27 @@ public class EdgeCoreTest extends BaseCoreTest {
         Assert.assertEquals(4, edges.size());
     }
 
+    @Test
+    public void testQueryOutEdgesOfVertexWithProfiler() {
+        HugeGraph graph = graph();
+        init18Edges();
+
+        Vertex james = vertex("author", "id", 1);
+        List<Edge> edges;
+        QueryProfiler.enable();
+        try {
+            edges = graph.traversal().V(james.id()).outE().toList();
+        } finally {
+            QueryProfiler profiler = QueryProfiler.disable();
+            // Each edge is counted even if edges are in an entry of vertex
+            Assert.assertTrue(profiler.toString(),
+                              profiler.count(Item.ENTRY_DECODED) >= 4L);
+            Assert.assertTrue(profiler.toString(),
+                              profiler.count(Item.BACKEND_QUERY) >= 1L);
+        }
+        Assert.assertEquals(4, edges.size());
+    }
+
     @Test
     public void testQueryOutVerticesOfVertex() {
         HugeGraph graph = graph();
@@ -4323,6 +4366,186 @@ public class EdgeCoreTest extends BaseCoreTest {
         Assert.assertEquals(2, edges.size());
     }
 
+    @Test
+    public void testQueryEdgesByRangeWithScanPlan() {
+        Assume.assumeTrue("Not support range condition query",
+                          storeFeatures().supportsQueryWithRangeCondition());
+        HugeGraph graph = graph();
+
+        graph.schema().indexLabel("authoredByScore").onE("authored")
+             .range().by("score").create();
+
+        init18Edges();
+        Vertex james = graph.traversal().V().hasLabel("author")
+                            .has("id", 1).next();
+        Vertex book1 = graph.addVertex(T.label, "book", "name", "Test-Book-1");
+        Vertex book2 = graph.addVertex(T.label, "book", "name", "Test-Book-2");
+        james.addEdge("authored", book1, "score", 5);
+        james.addEdge("authored", book2, "score", 4);
+        graph.tx().commit();
+
+        // Most authored edges match score >= 3, so scan instead of index
+        List<Edge> edges;
+        QueryProfiler.enable();
+        try {
+            edges = graph.traversal().E().hasLabel("authored")
+                         .has("score", P.gte(3)).toList();
+        } finally {
+            QueryProfiler profiler = QueryProfiler.disable();
+            Assert.assertTrue(profiler.plans().toString(),
+                              profiler.plans().get(0).startsWith("scan"));
+        }
+        Assert.assertEquals(3, edges.size());
+        for (Edge edge : edges) {
+            Assert.assertEquals("authored", edge.label());
+            Assert.assertTrue(edge.<Integer>value("score") >= 3);
+        }
+
+        Assert.assertEquals(3L, graph.traversal().E().hasLabel("authored")
+                                     .has("score", P.gte(3)).count().next());
+        edges = graph.traversal().E().hasLabel("authored")
+                     .has("score", P.gt(3)).toList();
+        Assert.assertEquals(2, edges.size());
+        for (Edge edge : edges) {
+            Assert.assertEquals("authored", edge.label());
+            Assert.assertTrue(edge.<Integer>value("score") > 3);
+        }
+    }
+
+    @Test
+    public void testQueryEdgesOfVertexByVertexCentricIndex() {
+        HugeGraph graph = graph();
+
+        graph.schema().indexLabel("authoredByScoreOfVertex").onE("authored")
+             .vertexCentric().by("score").create();
+
+        Vertex james = graph.addVertex(T.label, "author", "id", 1,
+                                       "name", "James Gosling", "age", 62,
+                                       "lived", "Canadian");
+        Vertex guido = graph.addVertex(T.label, "author", "id", 2,
+                                       "name", "Guido van Rossum", "age", 61,
+                                       "lived", "California");
+
+        Vertex book1 = graph.addVertex(T.label, "book", "name", "Test-Book-1");
+        Vertex book2 = graph.addVertex(T.label, "book", "name", "Test-Book-2");
+        Vertex book3 = graph.addVertex(T.label, "book", "name", "Test-Book-3");
+        Vertex book4 = graph.addVertex(T.label, "book", "name", "Test-Book-4");
+
+        Edge edge1 = james.addEdge("authored", book1,
+                                   "contribution", "1991 3 1", "score", 5);
+        james.addEdge("authored", book2,
+                      "contribution", "1992 2 2", "score", 4);
+        Edge edge3 = james.addEdge("authored", book3,
+                                   "contribution", "1993 3 2", "score", 3);
+        guido.addEdge("authored", book4,
+                      "contribution", "1994 4 4", "score", 5);
+
+        graph.tx().commit();
+
+        // Query the adjacent edges of a vertex by vertex-centric index
+        List<Edge> edges = graph.traversal().V(james).outE("authored")
+                                .has("score", 5).toList();
+        Assert.assertEquals(1, edges.size());
+        Assert.assertEquals(edge1.id(), edges.get(0).id());
+
+        edges = graph.traversal().V(james).outE("authored")
+                     .has("score", P.gte(4)).toList();
+        Assert.assertEquals(2, edges.size());
+
+        edges = graph.traversal().V(james).outE("authored")
+                     .has("score", P.lt(4)).toList();
+        Assert.assertEquals(1, edges.size());
+        Assert.assertEquals(edge3.id(), edges.get(0).id());
+
+        edges = graph.traversal().V(james).outE("authored")
+                     .has("score", P.gte(3)).limit(2).toList();
+        Assert.assertEquals(2, edges.size());
+
+        edges = graph.traversal().V(james).bothE("authored")
+                     .has("score", P.gte(4)).toList();
+        Assert.assertEquals(2, edges.size());
+
+        // Query by the other side of the edges
+        edges = graph.traversal().V(book1).inE("authored")
+                     .has("score", 5).toList();
+        Assert.assertEquals(1, edges.size());
+        Assert.assertEquals(edge1.id(), edges.get(0).id());
+        Assert.assertEquals(james.id(), edges.get(0).outVertex().id());
+
+        edges = graph.traversal().V(book1).outE("authored")
+                     .has("score", 5).toList();
+        Assert.assertEquals(0, edges.size());
+
+        List<Vertex> vertices = graph.traversal().V(book4).inE("authored")
+                                     .has("score", P.gt(3)).outV().toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals(guido.id(), vertices.get(0).id());
+
+        // Update the index after the edge property changed or edge removed
+        edge3.property("score", 5);
+        graph.tx().commit();
+        edges = graph.traversal().V(james).outE("authored")
+                     .has("score", 5).toList();
+        Assert.assertEquals(2, edges.size());
+
+        edge1.remove();
+        graph.tx().commit();
+        edges = graph.traversal().V(james).outE("authored")
+                     .has("score", 5).toList();
+        Assert.assertEquals(1, edges.size());
+        Assert.assertEquals(edge3.id(), edges.get(0).id());
+    }
+
+    @Test
+    public void testQueryEdgesOfVertexByCompositeVertexCentricIndex() {
+        HugeGraph graph = graph();
+
+        graph.schema().indexLabel("authoredByScoreAndContribution")
+             .onE("authored").vertexCentric().by("score", "contribution")
+             .create();
+
+        Vertex james = graph.addVertex(T.label, "author", "id", 1,
+                                       "name", "James Gosling", "age", 62,
+                                       "lived", "Canadian");
+        Vertex book1 = graph.addVertex(T.label, "book", "name", "Test-Book-1");
+        Vertex book2 = graph.addVertex(T.label, "book", "name", "Test-Book-2");
+        Vertex book3 = graph.addVertex(T.label, "book", "name", "Test-Book-3");
+
+        Edge edge1 = james.addEdge("authored", book1,
+                                   "contribution", "1991 3 1", "score", 5);
+        Edge edge2 = james.addEdge("authored", book2,
+                                   "contribution", "1992 2 2", "score", 4);
+        Edge edge3 = james.addEdge("authored", book3,
+                                   "contribution", "1993 3 2", "score", 3);
+        graph.tx().commit();
+
+        // Equal conditions on all the fields
+        List<Edge> edges = graph.traversal().V(james).outE("authored")
+                                .has("score", 5)
+                                .has("contribution", "1991 3 1").toList();
+        Assert.assertEquals(1, edges.size());
+        Assert.assertEquals(edge1.id(), edges.get(0).id());
+
+        // Range condition on the last matched field
+        edges = graph.traversal().V(james).outE("authored")
+                     .has("score", P.gt(3)).has("score", P.lt(5)).toList();
+        Assert.assertEquals(1, edges.size());
+        Assert.assertEquals(edge2.id(), edges.get(0).id());
+
+        // Range condition before the last field, filtered by properties
+        edges = graph.traversal().V(james).outE("authored")
+                     .has("score", P.gt(1))
+                     .has("contribution", "1992 2 2").toList();
+        Assert.assertEquals(1, edges.size());
+        Assert.assertEquals(edge2.id(), edges.get(0).id());
+
+        // Not the prefix of the fields, filtered by properties
+        edges = graph.traversal().V(james).outE("authored")
+                     .has("contribution", "1993 3 2").toList();
+        Assert.assertEquals(1, edges.size());
+        Assert.assertEquals(edge3.id(), edges.get(0).id());
+    }
+
     @Test
     public void testQueryInEdgesOfVertexWithResultN() {
         HugeGraph graph = graph();
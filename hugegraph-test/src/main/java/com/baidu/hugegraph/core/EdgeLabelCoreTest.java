@@ -31,7 +31,9 @@ import org.junit.Test;
 
 import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.exception.ExistedException;
 import com.baidu.hugegraph.exception.NoIndexException;
 import com.baidu.hugegraph.exception.NotFoundException;
@@ -40,6 +42,7 @@ import com.baidu.hugegraph.schema.SchemaManager;
 import com.baidu.hugegraph.schema.Userdata;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.type.define.Frequency;
+import com.baidu.hugegraph.type.define.GraphMode;
 import com.baidu.hugegraph.util.DateUtil;
 import com.baidu.hugegraph.util.Events;
 import com.google.common.collect.ImmutableSet;
@@ -847,6 +850,60 @@ public class EdgeLabelCoreTest extends SchemaCoreTest {
         });
     }
 
+    @Test
+    public void testRemoveEdgeLabelWithEdgesOfOtherLabels() {
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+
+        schema.vertexLabel("person")
+              .properties("name")
+              .primaryKeys("name")
+              .create();
+        schema.edgeLabel("know").link("person", "person").create();
+        schema.edgeLabel("like").link("person", "person").create();
+
+        Vertex marko = graph().addVertex(T.label, "person", "name", "marko");
+        Vertex josh = graph().addVertex(T.label, "person", "name", "josh");
+        // More than a commit batch, removed by multiple threads
+        int count = GraphTransaction.COMMIT_BATCH + 100;
+        for (int i = 0; i < count; i++) {
+            Vertex person = graph().addVertex(T.label, "person",
+                                              "name", "p" + i);
+            marko.addEdge("know", person);
+        }
+        marko.addEdge("like", josh);
+        graph().tx().commit();
+        Assert.assertEquals(count, graph().traversal().E().hasLabel("know")
+                                          .toList().size());
+
+        Id knowId = graph().edgeLabel("know").id();
+        schema.edgeLabel("know").remove();
+
+        Assert.assertEquals(1, graph().traversal().E().hasLabel("like")
+                                      .toList().size());
+        Assert.assertEquals(1, graph().traversal().V(marko.id()).bothE()
+                                      .toList().size());
+        Assert.assertEquals(1, graph().traversal().E().toList().size());
+        Assert.assertEquals(count + 2, graph().traversal().V().toList()
+                                              .size());
+
+        // The label index is removed, even if the label is created again
+        GraphMode mode = graph().mode();
+        graph().mode(GraphMode.RESTORING);
+        try {
+            schema.edgeLabel("know")
+                  .id(knowId.asLong())
+                  .link("person", "person")
+                  .create();
+        } finally {
+            graph().mode(mode);
+        }
+        Assert.assertEquals(0, graph().traversal().E().hasLabel("know")
+                                      .toList().size());
+        Assert.assertEquals(ImmutableSet.of(),
+                            labelIndexIds(graph().edgeLabel("know")));
+    }
+
     @Test
     public void testRemoveEdgeLabelWithEdgeAndRangeIndex() {
         super.initPropertyKeys();
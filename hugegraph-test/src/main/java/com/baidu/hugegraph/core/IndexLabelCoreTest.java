@@ -31,6 +31,9 @@ import org.junit.Test;
 
 import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.tx.AsyncIndexQueue;
+import com.baidu.hugegraph.backend.tx.GraphIndexTransaction;
 import com.baidu.hugegraph.exception.ExistedException;
 import com.baidu.hugegraph.exception.NoIndexException;
 import com.baidu.hugegraph.exception.NotFoundException;
@@ -40,6 +43,7 @@ import com.baidu.hugegraph.schema.SchemaManager;
 import com.baidu.hugegraph.schema.Userdata;
 import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.testutil.Whitebox;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.IndexType;
 import com.baidu.hugegraph.util.DateUtil;
@@ -723,6 +727,48 @@ public class IndexLabelCoreTest extends SchemaCoreTest {
               .by("name", "age", "city", "weight").create();
     }
 
+    @Test
+    public void testAddVertexCentricIndexLabel() {
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+
+        schema.vertexLabel("author").properties("id", "name")
+              .primaryKeys("id").create();
+        schema.vertexLabel("book").properties("name")
+              .primaryKeys("name").create();
+        schema.edgeLabel("authored").singleTime()
+              .link("author", "book")
+              .properties("contribution", "age")
+              .create();
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            schema.indexLabel("authorByName").onV("author").vertexCentric()
+                  .by("name").create();
+        }, e -> {
+            Assert.assertContains("Vertex-centric index can only build on " +
+                                  "edge label", e.getMessage());
+        });
+
+        schema.indexLabel("authoredByAge").onE("authored").vertexCentric()
+              .by("age").create();
+        schema.indexLabel("authoredByContriAge").onE("authored")
+              .vertexCentric().by("contribution", "age").create();
+
+        EdgeLabel authored = schema.getEdgeLabel("authored");
+        IndexLabel authoredByAge = schema.getIndexLabel("authoredByAge");
+
+        Assert.assertEquals(2, authored.indexLabels().size());
+        assertContainsIl(authored.indexLabels(),
+                         "authoredByAge", "authoredByContriAge");
+        Assert.assertEquals(IndexType.VERTEX_CENTRIC,
+                            authoredByAge.indexType());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            schema.indexLabel("authoredByAge2").onE("authored")
+                  .vertexCentric().by("age").create();
+        });
+    }
+
     @Test
     public void testAddUniqueIndexLabel() {
         super.initPropertyKeys();
@@ -1553,6 +1599,108 @@ public class IndexLabelCoreTest extends SchemaCoreTest {
         Assert.assertEquals(datas, personByCity.userdata().get("range"));
     }
 
+    @Test
+    public void testAddIndexLabelWithAsync() {
+        super.initPropertyKeys();
+        HugeGraph graph = graph();
+        SchemaManager schema = graph.schema();
+        schema.vertexLabel("person")
+              .properties("name", "age", "city")
+              .primaryKeys("name")
+              .nullableKeys("city")
+              .create();
+
+        IndexLabel personByAge = schema.indexLabel("personByAge")
+                                       .onV("person").range().by("age")
+                                       .async()
+                                       .create();
+        Assert.assertTrue(personByAge.async());
+        Assert.assertEquals(true,
+                            personByAge.userdata().get(Userdata.ASYNC_INDEX));
+
+        graph.addVertex(T.label, "person", "name", "Baby", "age", 3);
+        graph.addVertex(T.label, "person", "name", "James", "age", 19);
+        graph.addVertex(T.label, "person", "name", "Tom", "age", 25);
+        graph.tx().commit();
+
+        // The indexes are queryable after applied by the async index queue
+        Assert.assertTrue(graph.waitAsyncIndex(graph.asyncIndexSequence(),
+                                               10000L));
+        List<Vertex> vertices = graph.traversal().V().hasLabel("person")
+                                     .has("age", P.gt(10)).toList();
+        Assert.assertEquals(2, vertices.size());
+
+        graph.traversal().V().hasLabel("person").has("name", "James")
+             .drop().iterate();
+        graph.tx().commit();
+
+        Assert.assertTrue(graph.waitAsyncIndex(graph.asyncIndexSequence(),
+                                               10000L));
+        vertices = graph.traversal().V().hasLabel("person")
+                        .has("age", P.gt(10)).toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals("Tom", vertices.get(0).value("name"));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            schema.indexLabel("personByCity").onV("person").unique()
+                  .by("city").async().create();
+        }, e -> {
+            Assert.assertContains("Not allowed to update unique index",
+                                  e.getMessage());
+        });
+    }
+
+    @Test
+    public void testApplyAsyncIndexChangesInSequenceOrder() {
+        super.initPropertyKeys();
+        HugeGraph graph = graph();
+        SchemaManager schema = graph.schema();
+        schema.vertexLabel("person")
+              .properties("name", "city")
+              .primaryKeys("name")
+              .create();
+        IndexLabel personByCity = schema.indexLabel("personByCity")
+                                        .onV("person").secondary().by("city")
+                                        .async()
+                                        .create();
+
+        Vertex tom = graph.addVertex(T.label, "person", "name", "Tom",
+                                     "city", "Beijing");
+        graph.tx().commit();
+        Assert.assertTrue(graph.waitAsyncIndex(graph.asyncIndexSequence(),
+                                               10000L));
+        Assert.assertEquals(1L, graph.traversal().V()
+                                     .has("city", "Beijing").count().next());
+
+        Id id = (Id) tom.id();
+        AsyncIndexQueue.Change append = new AsyncIndexQueue.Change(
+                                        false, personByCity.id(), "Beijing",
+                                        id, 0L);
+        AsyncIndexQueue.Change remove = new AsyncIndexQueue.Change(
+                                        true, personByCity.id(), "Beijing",
+                                        id, 0L);
+        GraphIndexTransaction tx = new GraphIndexTransaction(
+                                   params(), params().loadGraphStore());
+        try {
+            // The entry removed after appended in a batch is not kept
+            Whitebox.invoke(GraphIndexTransaction.class,
+                            new Class[]{List.class}, "applyAsyncChanges",
+                            tx, ImmutableList.of(append, remove));
+            Assert.assertEquals(0L, graph.traversal().V()
+                                         .has("city", "Beijing")
+                                         .count().next());
+
+            Whitebox.invoke(GraphIndexTransaction.class,
+                            new Class[]{List.class}, "applyAsyncChanges",
+                            tx, ImmutableList.of(remove, append));
+            Assert.assertEquals(1L, graph.traversal().V()
+                                         .has("city", "Beijing")
+                                         .count().next());
+        } finally {
+            tx.close();
+        }
+    }
+
     @Test
     public void testAppendIndexLabelWithUserdata() {
         super.initPropertyKeys();
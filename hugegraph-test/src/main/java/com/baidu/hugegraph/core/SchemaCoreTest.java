@@ -22,18 +22,24 @@ package com.baidu.hugegraph.core;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.page.IdHolder.BatchIdHolder;
+import com.baidu.hugegraph.backend.tx.GraphIndexTransaction;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.SchemaLabel;
 import com.baidu.hugegraph.schema.SchemaManager;
 import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.testutil.Whitebox;
+import com.google.common.collect.ImmutableSet;
 
 public class SchemaCoreTest extends BaseCoreTest {
 
@@ -88,6 +94,23 @@ public class SchemaCoreTest extends BaseCoreTest {
         }
     }
 
+    /**
+     * Utils method to get the element ids in the label index of a label
+     */
+    protected Set<Id> labelIndexIds(SchemaLabel label) {
+        Object indexTx = Whitebox.getInternalState(params().graphTransaction(),
+                                                   "indexTx");
+        BatchIdHolder holder = Whitebox.invoke(GraphIndexTransaction.class,
+                                               new Class[]{SchemaLabel.class},
+                                               "queryLabelIndex",
+                                               indexTx, label);
+        if (holder == null) {
+            // The label index is not used by the backend
+            return ImmutableSet.of();
+        }
+        return holder.all();
+    }
+
     protected void initDataWithoutLabelIndex() {
         HugeGraph graph = graph();
         SchemaManager schema = graph.schema();
@@ -19,11 +19,17 @@
 
 package com.baidu.hugegraph.core;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeoutException;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -35,14 +41,19 @@ import com.baidu.hugegraph.backend.id.IdGenerator;
 import com.baidu.hugegraph.exception.NotFoundException;
 import com.baidu.hugegraph.job.EphemeralJob;
 import com.baidu.hugegraph.job.EphemeralJobBuilder;
+import com.baidu.hugegraph.job.ExportJob;
 import com.baidu.hugegraph.job.GremlinJob;
+import com.baidu.hugegraph.job.ImportJob;
 import com.baidu.hugegraph.job.JobBuilder;
+import com.baidu.hugegraph.job.SysJob;
+import com.baidu.hugegraph.schema.SchemaManager;
 import com.baidu.hugegraph.task.HugeTask;
 import com.baidu.hugegraph.task.TaskCallable;
 import com.baidu.hugegraph.task.TaskScheduler;
 import com.baidu.hugegraph.task.TaskStatus;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.testutil.Whitebox;
+import com.baidu.hugegraph.util.JsonUtil;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
@@ -500,6 +511,37 @@ public class TaskCoreTest extends BaseCoreTest {
                               task4.result());
     }
 
+    @Test
+    public void testWaitUntilTaskCompletedInterrupted()
+                                                throws TimeoutException {
+        HugeGraph graph = graph();
+        TaskScheduler scheduler = graph.taskScheduler();
+
+        HugeTask<Object> task = runGremlinJob("Thread.sleep(1000 * 10);");
+        sleepAWhile();
+
+        Thread.currentThread().interrupt();
+        try {
+            Assert.assertThrows(HugeException.class, () -> {
+                scheduler.waitUntilTaskCompleted(task.id(), 10);
+            }, e -> {
+                Assert.assertContains("Interrupted while waiting for task",
+                                      e.getMessage());
+                Assert.assertInstanceOf(InterruptedException.class,
+                                        e.getCause());
+            });
+            // The interrupted status is restored for the caller
+            Assert.assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+
+        scheduler.cancel(scheduler.task(task.id()));
+        HugeTask<Object> task2 = scheduler.waitUntilTaskCompleted(task.id(),
+                                                                  10);
+        Assert.assertEquals(TaskStatus.CANCELLED, task2.status());
+    }
+
     @Test
     public void testGremlinJobAndRestore() throws Exception {
         HugeGraph graph = graph();
@@ -560,6 +602,117 @@ public class TaskCoreTest extends BaseCoreTest {
         Assert.assertEquals("100", task2.result());
     }
 
+    @Test
+    public void testExportAndImportJob() throws Exception {
+        HugeGraph graph = graph();
+        TaskScheduler scheduler = graph.taskScheduler();
+        SchemaManager schema = graph.schema();
+
+        schema.propertyKey("name").asText().create();
+        schema.propertyKey("age").asInt().create();
+        schema.propertyKey("weight").asDouble().create();
+        schema.vertexLabel("person").properties("name", "age")
+              .primaryKeys("name").create();
+        schema.vertexLabel("book").properties("name")
+              .useCustomizeNumberId().create();
+        schema.edgeLabel("like").sourceLabel("person").targetLabel("book")
+              .properties("weight").nullableKeys("weight").create();
+
+        for (int i = 0; i < 5; i++) {
+            graph.addVertex(T.label, "book", T.id, 100 + i,
+                            "name", "book-" + i);
+        }
+        for (int i = 0; i < 10; i++) {
+            Vertex person = graph.addVertex(T.label, "person",
+                                            "name", "person-" + i,
+                                            "age", 20 + i);
+            Vertex book = graph.vertex(100 + i % 5);
+            if (i % 2 == 0) {
+                person.addEdge("like", book, "weight", 0.1 * i);
+            } else {
+                person.addEdge("like", book);
+            }
+        }
+        graph.tx().commit();
+
+        String directory = "test-export-" + System.currentTimeMillis();
+        File exportDir = FileUtils.getFile("export", directory);
+        try {
+            HugeTask<Object> task = runTransferJob(new ExportJob(), directory);
+            task = scheduler.waitUntilTaskCompleted(task.id(), 10);
+            Assert.assertEquals(TaskStatus.SUCCESS, task.status());
+            Assert.assertContains("\"vertices\":{", task.result());
+            Assert.assertContains("\"count\":15,", task.result());
+            Assert.assertContains("\"count\":10,", task.result());
+            Assert.assertTrue(exportDir.isDirectory());
+
+            // Can't export to an existing directory
+            task = runTransferJob(new ExportJob(), directory);
+            task = scheduler.waitUntilTaskCompleted(task.id(), 10);
+            Assert.assertEquals(TaskStatus.FAILED, task.status());
+            Assert.assertContains("already exists", task.result());
+
+            graph.traversal().V().drop().iterate();
+            graph.tx().commit();
+            Assert.assertEquals(0L, graph.traversal().V().count().next());
+
+            task = runTransferJob(new ImportJob(), directory);
+            task = scheduler.waitUntilTaskCompleted(task.id(), 10);
+            Assert.assertEquals(TaskStatus.SUCCESS, task.status());
+            Assert.assertContains("\"count\":15,", task.result());
+            Assert.assertContains("\"count\":10,", task.result());
+        } finally {
+            FileUtils.deleteQuietly(exportDir);
+            // Delete the root directory if it's empty
+            exportDir.getParentFile().delete();
+        }
+
+        Assert.assertEquals(15L, graph.traversal().V().count().next());
+        Assert.assertEquals(10L, graph.traversal().E().count().next());
+        Vertex book = graph.vertex(103);
+        Assert.assertEquals("book-3", book.value("name"));
+        List<Vertex> persons = graph.traversal().V().hasLabel("person")
+                                    .has("name", "person-4").toList();
+        Assert.assertEquals(1, persons.size());
+        Assert.assertEquals(24, persons.get(0).value("age"));
+        List<Edge> edges = graph.traversal().V(persons.get(0).id())
+                                .outE("like").toList();
+        Assert.assertEquals(1, edges.size());
+        Assert.assertEquals(0.4, edges.get(0).value("weight"), 0.000001);
+        Assert.assertEquals(graph.vertex(104).id(),
+                            edges.get(0).inVertex().id());
+        Assert.assertEquals(1L, graph.traversal().V(book.id()).in("like")
+                                     .has("name", "person-8")
+                                     .count().next());
+    }
+
+    @Test
+    public void testExportJobWithInvalidDirectory() throws Exception {
+        HugeGraph graph = graph();
+        TaskScheduler scheduler = graph.taskScheduler();
+
+        HugeTask<Object> task = runTransferJob(new ExportJob(), "../test");
+        task = scheduler.waitUntilTaskCompleted(task.id(), 10);
+        Assert.assertEquals(TaskStatus.FAILED, task.status());
+        Assert.assertContains("must be a sub directory of", task.result());
+
+        task = runTransferJob(new ImportJob(), "not-existed-directory");
+        task = scheduler.waitUntilTaskCompleted(task.id(), 10);
+        Assert.assertEquals(TaskStatus.FAILED, task.status());
+        Assert.assertContains("doesn't exist", task.result());
+    }
+
+    private HugeTask<Object> runTransferJob(SysJob<Object> job,
+                                            String directory) {
+        HugeGraph graph = graph();
+        JobBuilder<Object> builder = JobBuilder.of(graph);
+        builder.name("test-" + job.type() + "-job")
+               .input(JsonUtil.toJson(ImmutableMap.of("directory", directory,
+                                                      "parallelism", 2)))
+               .job(job);
+        return builder.schedule();
+    }
+
     private HugeTask<Object> runGremlinJob(String gremlin) {
         HugeGraph graph = graph();
 
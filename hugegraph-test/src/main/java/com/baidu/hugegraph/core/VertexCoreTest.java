@@ -58,6 +58,7 @@ import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.store.BackendTable;
 import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.backend.tx.IndexStatistics;
 import com.baidu.hugegraph.exception.LimitExceedException;
 import com.baidu.hugegraph.exception.NoIndexException;
 import com.baidu.hugegraph.schema.PropertyKey;
@@ -75,6 +76,7 @@ import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.Blob;
 import com.baidu.hugegraph.util.CollectionUtil;
 import com.baidu.hugegraph.util.DateUtil;
+import com.baidu.hugegraph.util.QueryProfiler;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
@@ -2728,6 +2730,77 @@ public class VertexCoreTest extends BaseCoreTest {
         Assert.assertEquals(3, vertices.size());
     }
 
+    @Test
+    public void testQueryByIntPropUsingRangeWithScanPlan() {
+        Assume.assumeTrue("Not support range condition query",
+                          storeFeatures().supportsQueryWithRangeCondition());
+        HugeGraph graph = graph();
+        initPersonIndex(false);
+        init5Persons();
+        init5Computers();
+
+        // Most persons match age > 10, so scan instead of querying by index
+        List<Vertex> vertices;
+        QueryProfiler.enable();
+        try {
+            vertices = graph.traversal().V().hasLabel("person")
+                            .has("age", P.gt(10)).toList();
+        } finally {
+            QueryProfiler profiler = QueryProfiler.disable();
+            Assert.assertTrue(profiler.plans().toString(),
+                              profiler.plans().get(0).startsWith("scan"));
+        }
+        Assert.assertEquals(4, vertices.size());
+        for (Vertex vertex : vertices) {
+            Assert.assertEquals("person", vertex.label());
+            Assert.assertTrue(vertex.<Integer>value("age") > 10);
+        }
+
+        Assert.assertEquals(4L, graph.traversal().V().hasLabel("person")
+                                     .has("age", P.gt(10)).count().next());
+        Assert.assertEquals(2, graph.traversal().V().hasLabel("person")
+                                    .has("age", P.gt(10)).limit(2)
+                                    .toList().size());
+        vertices = graph.traversal().V().hasLabel("person")
+                        .has("age", P.gt(19)).toList();
+        Assert.assertEquals(3, vertices.size());
+        for (Vertex vertex : vertices) {
+            Assert.assertEquals("person", vertex.label());
+            Assert.assertTrue(vertex.<Integer>value("age") > 19);
+        }
+    }
+
+    @Test
+    public void testQueryStatisticsCountOnlyCommittedVertices() {
+        HugeGraph graph = graph();
+        init5Persons();
+
+        IndexStatistics statistics = IndexStatistics.of(graph.name());
+        Id person = graph.vertexLabel("person").id();
+        Assert.assertEquals(5L, statistics.labelCount(HugeType.VERTEX,
+                                                      person));
+
+        // Rolled back
+        graph.addVertex(T.label, "person", "name", "Jack", "age", 30);
+        graph.tx().rollback();
+        Assert.assertEquals(5L, statistics.labelCount(HugeType.VERTEX,
+                                                      person));
+
+        // Overwrite an existing vertex
+        graph.addVertex(T.label, "person", "name", "Baby",
+                        "city", "Shanghai", "age", 4);
+        graph.tx().commit();
+        Assert.assertEquals(5L, statistics.labelCount(HugeType.VERTEX,
+                                                      person));
+
+        // Removed
+        graph.traversal().V().hasLabel("person").has("name", "Baby").next()
+             .remove();
+        graph.tx().commit();
+        Assert.assertEquals(4L, statistics.labelCount(HugeType.VERTEX,
+                                                      person));
+    }
+
     @Test
     public void testQueryByIntPropUsingBetweenWithNonResult() {
         Assume.assumeTrue("Not support range condition query",
@@ -4630,6 +4703,93 @@ public class VertexCoreTest extends BaseCoreTest {
                                      .values().count().next());
     }
 
+    @Test
+    public void testQueryAggregate() {
+        HugeGraph graph = graph();
+
+        init10Vertices();
+        initPersonIndex(true);
+        init100Persons();
+
+        GraphTraversalSource g = graph.traversal();
+
+        Assert.assertEquals(123, g.V().hasLabel("author")
+                                      .values("age").sum().next());
+        Assert.assertEquals(62, g.V().hasLabel("author")
+                                     .values("age").max().next());
+        Assert.assertEquals(61, g.V().hasLabel("author")
+                                     .values("age").min().next());
+        Assert.assertEquals(61.5D, g.V().hasLabel("author")
+                                        .values("age").mean().next());
+        Assert.assertEquals(2L, g.V().hasLabel("author")
+                                     .values("age").count().next());
+
+        Assert.assertEquals(250, g.V().hasLabel("person")
+                                      .has("city", "Beijing")
+                                      .values("age").sum().next());
+        Assert.assertEquals(10, g.V().hasLabel("person")
+                                     .has("city", "Beijing")
+                                     .values("age").max().next());
+        Assert.assertEquals(0, g.V().hasLabel("person")
+                                    .has("city", "Beijing")
+                                    .values("age").min().next());
+        Assert.assertEquals(5.0D, g.V().hasLabel("person")
+                                       .has("city", "Beijing")
+                                       .values("age").mean().next());
+        Assert.assertEquals(3L, g.V().hasLabel("person")
+                                     .has("city", "Beijing")
+                                     .limit(3).values("age").count().next());
+
+        // No value to aggregate
+        Assert.assertFalse(g.V().hasLabel("book")
+                                .values("age").sum().hasNext());
+        Assert.assertFalse(g.V().hasLabel("book")
+                                .values("age").max().hasNext());
+        Assert.assertEquals(0L, g.V().hasLabel("book")
+                                     .values("age").count().next());
+
+        // Aggregate with the uncommitted records
+        graph.addVertex(T.label, "author", "id", 3, "name", "Guido",
+                        "age", 40, "lived", "Netherlands");
+        Assert.assertEquals(163, g.V().hasLabel("author")
+                                      .values("age").sum().next());
+        Assert.assertEquals(3L, g.V().hasLabel("author")
+                                     .values("age").count().next());
+        graph.tx().rollback();
+    }
+
+    @Test
+    public void testQueryAggregateWithDataType() {
+        HugeGraph graph = graph();
+        SchemaManager schema = graph.schema();
+        schema.propertyKey("long").asLong().create();
+        schema.propertyKey("float").asFloat().create();
+        schema.propertyKey("double").asDouble().create();
+        schema.vertexLabel("number")
+              .properties("long", "float", "double")
+              .nullableKeys("long", "float", "double")
+              .create();
+
+        graph.addVertex(T.label, "number", "long", Long.MAX_VALUE - 1L,
+                        "float", 1.5f, "double", 2.5d);
+        graph.addVertex(T.label, "number", "long", 1L,
+                        "float", 2.25f, "double", 3.5d);
+        graph.tx().commit();
+
+        GraphTraversalSource g = graph.traversal();
+        // The sum keeps the data type of the property
+        Assert.assertEquals(Long.MAX_VALUE, g.V().hasLabel("number")
+                                             .values("long").sum().next());
+        Assert.assertEquals(3.75f, g.V().hasLabel("number")
+                                        .values("float").sum().next());
+        Assert.assertEquals(6.0d, g.V().hasLabel("number")
+                                       .values("double").sum().next());
+        Assert.assertEquals(1.5f, g.V().hasLabel("number")
+                                       .values("float").min().next());
+        Assert.assertEquals(3.0d, g.V().hasLabel("number")
+                                       .values("double").mean().next());
+    }
+
     @Test
     public void testAddVertexWithUniqueIndex() {
         SchemaManager schema = graph().schema();
@@ -7228,6 +7388,32 @@ public class VertexCoreTest extends BaseCoreTest {
         Assert.assertEquals(3, vertices.size());
     }
 
+    @Test
+    public void testQueryVerticesByIdsInBatches() {
+        HugeGraph graph = graph();
+        SchemaManager schema = graph.schema();
+
+        schema.vertexLabel("user").useCustomizeNumberId().create();
+        schema.vertexLabel("guest").useCustomizeStringId().create();
+
+        int count = 300;
+        Object[] ids = new Object[count * 2];
+        for (int i = 0; i < count; i++) {
+            graph.addVertex(T.label, "user", T.id, i);
+            graph.addVertex(T.label, "guest", T.id, "guest-" + i);
+            ids[2 * i] = i;
+            ids[2 * i + 1] = "guest-" + i;
+        }
+        graph.tx().commit();
+
+        // The number ids and string ids are selected in the same batches
+        List<Vertex> vertices = graph.traversal().V(ids).toList();
+        Assert.assertEquals(count * 2, vertices.size());
+
+        vertices = graph.traversal().V(1, 2, 3, "guest-1").toList();
+        Assert.assertEquals(4, vertices.size());
+    }
+
     @Test
     public void testQueryVerticesByLabelsWithOneLabelNotExist() {
         HugeGraph graph = graph();
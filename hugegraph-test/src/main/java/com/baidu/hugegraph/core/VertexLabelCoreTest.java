@@ -19,6 +19,7 @@
 
 package com.baidu.hugegraph.core;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -32,6 +33,7 @@ import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.exception.ExistedException;
 import com.baidu.hugegraph.exception.NoIndexException;
 import com.baidu.hugegraph.exception.NotFoundException;
@@ -42,6 +44,7 @@ import com.baidu.hugegraph.task.HugeTask;
 import com.baidu.hugegraph.task.TaskScheduler;
 import com.baidu.hugegraph.task.TaskStatus;
 import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.define.GraphMode;
 import com.baidu.hugegraph.type.define.IdStrategy;
 import com.baidu.hugegraph.util.DateUtil;
 import com.baidu.hugegraph.util.Events;
@@ -794,6 +797,60 @@ public class VertexLabelCoreTest extends SchemaCoreTest {
         });
     }
 
+    @Test
+    public void testRemoveVertexLabelWithVerticesOfOtherLabels() {
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+
+        schema.vertexLabel("person")
+              .properties("name", "age")
+              .primaryKeys("name")
+              .create();
+        schema.vertexLabel("dog")
+              .properties("name", "age")
+              .primaryKeys("name")
+              .create();
+
+        // More than a commit batch, removed by multiple threads
+        int count = GraphTransaction.COMMIT_BATCH + 100;
+        List<Object> personIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            personIds.add(graph().addVertex(T.label, "person", "name",
+                                            "p" + i, "age", i).id());
+        }
+        for (int i = 0; i < 3; i++) {
+            graph().addVertex(T.label, "dog", "name", "d" + i, "age", i);
+        }
+        graph().tx().commit();
+        Assert.assertEquals(count, graph().traversal().V().hasLabel("person")
+                                          .toList().size());
+
+        Id personId = graph().vertexLabel("person").id();
+        schema.vertexLabel("person").remove();
+
+        Assert.assertFalse(graph().vertices(personIds.toArray()).hasNext());
+        Assert.assertEquals(3, graph().traversal().V().hasLabel("dog")
+                                      .toList().size());
+        Assert.assertEquals(3, graph().traversal().V().toList().size());
+
+        // The label index is removed, even if the label is created again
+        GraphMode mode = graph().mode();
+        graph().mode(GraphMode.RESTORING);
+        try {
+            schema.vertexLabel("person")
+                  .id(personId.asLong())
+                  .properties("name", "age")
+                  .primaryKeys("name")
+                  .create();
+        } finally {
+            graph().mode(mode);
+        }
+        Assert.assertEquals(0, graph().traversal().V().hasLabel("person")
+                                      .toList().size());
+        Assert.assertEquals(ImmutableSet.of(),
+                            labelIndexIds(graph().vertexLabel("person")));
+    }
+
     @Test
     public void testRemoveVertexLabelWithVertexAndRangeIndex() {
         Assume.assumeTrue("Not support range condition query",
@@ -22,10 +22,14 @@ package com.baidu.hugegraph.unit;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import com.baidu.hugegraph.unit.api.BatchWriterTest;
 import com.baidu.hugegraph.unit.cache.CacheManagerTest;
 import com.baidu.hugegraph.unit.cache.CacheTest;
 import com.baidu.hugegraph.unit.cache.CachedGraphTransactionTest;
 import com.baidu.hugegraph.unit.cache.CachedSchemaTransactionTest;
+import com.baidu.hugegraph.unit.cache.DegreeCacheTest;
+import com.baidu.hugegraph.unit.cache.QueryCacheTest;
+import com.baidu.hugegraph.unit.cache.RankCacheTest;
 import com.baidu.hugegraph.unit.cassandra.CassandraTest;
 import com.baidu.hugegraph.unit.core.AnalyzerTest;
 import com.baidu.hugegraph.unit.core.BackendMutationTest;
@@ -35,22 +39,33 @@ import com.baidu.hugegraph.unit.core.ConditionTest;
 import com.baidu.hugegraph.unit.core.DataTypeTest;
 import com.baidu.hugegraph.unit.core.DirectionsTest;
 import com.baidu.hugegraph.unit.core.ExceptionTest;
+import com.baidu.hugegraph.unit.core.InMemoryDBTableTest;
+import com.baidu.hugegraph.unit.core.IndexStatisticsTest;
+import com.baidu.hugegraph.unit.core.IndexedMinHeapTest;
 import com.baidu.hugegraph.unit.core.LocksTableTest;
+import com.baidu.hugegraph.unit.core.PathTreeTest;
+import com.baidu.hugegraph.unit.core.PersonalRankTraverserTest;
+import com.baidu.hugegraph.unit.core.QueryProfilerTest;
 import com.baidu.hugegraph.unit.core.QueryTest;
 import com.baidu.hugegraph.unit.core.RolePermissionTest;
 import com.baidu.hugegraph.unit.core.RowLockTest;
 import com.baidu.hugegraph.unit.core.SecurityManagerTest;
 import com.baidu.hugegraph.unit.core.SerialEnumTest;
+import com.baidu.hugegraph.unit.core.StoreSnapshotFileTest;
 import com.baidu.hugegraph.unit.core.TraversalUtilTest;
 import com.baidu.hugegraph.unit.id.EdgeIdTest;
 import com.baidu.hugegraph.unit.id.IdTest;
 import com.baidu.hugegraph.unit.id.IdUtilTest;
+import com.baidu.hugegraph.unit.hbase.HbaseTableTest;
 import com.baidu.hugegraph.unit.mysql.MysqlUtilTest;
 import com.baidu.hugegraph.unit.mysql.WhereBuilderTest;
 import com.baidu.hugegraph.unit.rocksdb.RocksDBCountersTest;
 import com.baidu.hugegraph.unit.rocksdb.RocksDBSessionsTest;
+import com.baidu.hugegraph.unit.rocksdb.RocksDBTableTest;
 import com.baidu.hugegraph.unit.serializer.StoreSerializerTest;
 import com.baidu.hugegraph.unit.serializer.BinaryBackendEntryTest;
+import com.baidu.hugegraph.unit.serializer.BinaryCodecTest;
+import com.baidu.hugegraph.unit.serializer.BinaryPropertyFilterTest;
 import com.baidu.hugegraph.unit.serializer.BinaryScatterSerializerTest;
 import com.baidu.hugegraph.unit.serializer.BinarySerializerTest;
 import com.baidu.hugegraph.unit.serializer.BytesBufferTest;
@@ -70,6 +85,9 @@ import com.baidu.hugegraph.unit.util.VersionTest;
     CachedSchemaTransactionTest.class,
     CachedGraphTransactionTest.class,
     CacheManagerTest.class,
+    DegreeCacheTest.class,
+    RankCacheTest.class,
+    QueryCacheTest.class,
 
     /* types */
     DataTypeTest.class,
@@ -89,20 +107,29 @@ import com.baidu.hugegraph.unit.util.VersionTest;
     ConditionTest.class,
     ConditionQueryFlattenTest.class,
     QueryTest.class,
+    QueryProfilerTest.class,
+    IndexStatisticsTest.class,
+    StoreSnapshotFileTest.class,
+    InMemoryDBTableTest.class,
     SecurityManagerTest.class,
     RolePermissionTest.class,
     ExceptionTest.class,
     BackendStoreSystemInfoTest.class,
     TraversalUtilTest.class,
+    IndexedMinHeapTest.class,
+    PathTreeTest.class,
+    PersonalRankTraverserTest.class,
 
     /* serializer */
     BytesBufferTest.class,
+    BinaryCodecTest.class,
     SerializerFactoryTest.class,
     TextBackendEntryTest.class,
     TableBackendEntryTest.class,
     BinaryBackendEntryTest.class,
     BinarySerializerTest.class,
     BinaryScatterSerializerTest.class,
+    BinaryPropertyFilterTest.class,
     StoreSerializerTest.class,
 
     /* cassandra */
@@ -112,9 +139,16 @@ import com.baidu.hugegraph.unit.util.VersionTest;
     MysqlUtilTest.class,
     WhereBuilderTest.class,
 
+    /* hbase */
+    HbaseTableTest.class,
+
     /* rocksdb */
     RocksDBSessionsTest.class,
     RocksDBCountersTest.class,
+    RocksDBTableTest.class,
+
+    /* api */
+    BatchWriterTest.class,
 
     /* utils */
     VersionTest.class,
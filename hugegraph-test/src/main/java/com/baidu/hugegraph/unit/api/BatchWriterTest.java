@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.api;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.api.graph.BatchWriter;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.testutil.Whitebox;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+
+public class BatchWriterTest extends BaseUnitTest {
+
+    private HugeGraph graph;
+    private BatchWriter writer;
+
+    @Before
+    public void setup() {
+        this.graph = new FakeObjects("batch-writer-test").graph();
+        Transaction tx = Mockito.mock(Transaction.class);
+        Mockito.doReturn(tx).when(this.graph).tx();
+        this.writer = new BatchWriter(this.graph, 1, 10, 100, 1L, 1L);
+    }
+
+    @After
+    public void teardown() {
+        this.writer.close();
+    }
+
+    @Test
+    public void testWrite() {
+        Assert.assertEquals(1, (int) this.writer.write(1, true, () -> 1));
+        Assert.assertEquals(2, (int) this.writer.write(1, false, () -> 2));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            this.writer.write(1, true, () -> {
+                throw new IllegalArgumentException("Invalid batch");
+            });
+        }, e -> {
+            Assert.assertEquals("Invalid batch", e.getMessage());
+        });
+    }
+
+    @Test
+    public void testWriteTimeout() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                // Block the only writer thread
+                this.writer.write(1, false, () -> {
+                    started.countDown();
+                    released.await();
+                    return 1;
+                });
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        thread.start();
+        started.await();
+
+        AtomicBoolean called = new AtomicBoolean(false);
+        Assert.assertThrows(HugeException.class, () -> {
+            this.writer.write(1, true, () -> called.getAndSet(true));
+        }, e -> {
+            Assert.assertContains("is canceled", e.getMessage());
+        });
+
+        released.countDown();
+        thread.join();
+        // The batch being written is not canceled
+        Assert.assertContains("may be written or not",
+                              error.get().getMessage());
+
+        // The canceled batch is skipped by the writer
+        Assert.assertEquals(3, (int) this.writer.write(1, true, () -> 3));
+        Assert.assertFalse(called.get());
+    }
+
+    @Test
+    public void testCloseWithGraph() throws InterruptedException {
+        Assert.assertFalse(this.writer.closed());
+
+        Mockito.doReturn(true).when(this.graph).closed();
+        Assert.assertTrue(this.writer.closed());
+        Assert.assertThrows(HugeException.class, () -> {
+            this.writer.write(1, true, () -> 1);
+        }, e -> {
+            Assert.assertContains("has been closed", e.getMessage());
+        });
+
+        // The writer threads exit once the graph is closed
+        ExecutorService writers = Whitebox.getInternalState(this.writer,
+                                                            "writers");
+        Assert.assertTrue(writers.awaitTermination(5L, TimeUnit.SECONDS));
+    }
+}
@@ -27,6 +27,8 @@ import com.baidu.hugegraph.HugeFactory;
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.HugeGraphParams;
 import com.baidu.hugegraph.backend.cache.CachedGraphTransaction;
+import com.baidu.hugegraph.backend.cache.DegreeCache;
+import com.baidu.hugegraph.backend.id.EdgeId;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.IdGenerator;
 import com.baidu.hugegraph.schema.VertexLabel;
@@ -34,6 +36,7 @@ import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.testutil.Whitebox;
 import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.type.define.IdStrategy;
 import com.baidu.hugegraph.unit.BaseUnitTest;
 import com.baidu.hugegraph.unit.FakeObjects;
@@ -126,4 +129,28 @@ public class CachedGraphTransactionTest extends BaseUnitTest {
         Assert.assertEquals(2L,
                             Whitebox.invoke(cache, "verticesCache", "size"));
     }
+
+    @Test
+    public void testEventInvalidEdge() throws Exception {
+        CachedGraphTransaction cache = this.cache();
+        DegreeCache degreeCache = Whitebox.getInternalState(cache,
+                                                            "degreeCache");
+        Id v1 = IdGenerator.of(1);
+        Id v2 = IdGenerator.of(2);
+        Id v3 = IdGenerator.of(3);
+        degreeCache.observe(v1, Directions.OUT, null, 100L);
+        degreeCache.observe(v2, Directions.IN, null, 100L);
+        degreeCache.observe(v3, Directions.OUT, null, 100L);
+
+        EdgeId edge = new EdgeId(v1, Directions.OUT, IdGenerator.of(1), "",
+                                 v2);
+        this.params.graphEventHub().notify(Events.CACHE, "invalid",
+                                           HugeType.EDGE, edge).get();
+
+        // The statistics of both vertices of the edge are invalidated
+        Assert.assertEquals(0L, degreeCache.degree(v1, Directions.OUT, null));
+        Assert.assertEquals(0L, degreeCache.degree(v2, Directions.IN, null));
+        Assert.assertEquals(100L,
+                            degreeCache.degree(v3, Directions.OUT, null));
+    }
 }
@@ -170,6 +170,39 @@ public class CachedSchemaTransactionTest extends BaseUnitTest {
                             cache.getPropertyKey(IdGenerator.of(1)).name());
     }
 
+    @Test
+    public void testGetSchemaFromArrayCache() throws Exception {
+        CachedSchemaTransaction cache = this.cache();
+
+        FakeObjects objects = new FakeObjects("unit-test");
+        cache.addPropertyKey(objects.newPropertyKey(IdGenerator.of(1),
+                                                    "fake-pk-1"));
+        cache.addPropertyKey(objects.newPropertyKey(IdGenerator.of(100),
+                                                    "fake-pk-100"));
+
+        // Get by id from the array cache even if the id cache is cleared
+        Whitebox.invoke(cache, "idCache", "clear");
+        Assert.assertEquals("fake-pk-1",
+                            cache.getPropertyKey(IdGenerator.of(1)).name());
+        Assert.assertEquals("fake-pk-100",
+                            cache.getPropertyKey(IdGenerator.of(100)).name());
+        Assert.assertEquals(0L, Whitebox.invoke(cache, "idCache", "size"));
+
+        this.params.schemaEventHub().notify(Events.CACHE, "invalid",
+                                            HugeType.PROPERTY_KEY,
+                                            IdGenerator.of(100)).get();
+        Assert.assertEquals("fake-pk-1",
+                            cache.getPropertyKey(IdGenerator.of(1)).name());
+        Assert.assertEquals(0L, Whitebox.invoke(cache, "idCache", "size"));
+        Assert.assertEquals("fake-pk-100",
+                            cache.getPropertyKey(IdGenerator.of(100)).name());
+        Assert.assertEquals(1L, Whitebox.invoke(cache, "idCache", "size"));
+
+        // The schema removed is not cached
+        cache.removePropertyKey(IdGenerator.of(1));
+        Assert.assertNull(cache.getPropertyKey(IdGenerator.of(1)));
+    }
+
     @Test
     public void testResetCachedAllIfReachedCapacity() throws Exception {
         CachedSchemaTransaction cache = this.cache();
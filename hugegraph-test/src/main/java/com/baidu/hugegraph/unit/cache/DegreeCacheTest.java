@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.cache.DegreeCache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+
+public class DegreeCacheTest extends BaseUnitTest {
+
+    private static final Id[] ALL = new Id[]{};
+
+    private DegreeCache cache;
+
+    @Before
+    public void setup() {
+        this.cache = DegreeCache.of("degree-cache-test", 100L, 0L);
+    }
+
+    @After
+    public void teardown() {
+        this.cache.clear();
+    }
+
+    @Test
+    public void testOfAndDestroy() {
+        Id v1 = IdGenerator.of(1);
+        // The traversers and transactions of a graph share the statistics
+        DegreeCache cache = DegreeCache.of("degree-cache-test", 100L, 0L);
+        Assert.assertSame(this.cache, cache);
+
+        cache.observe(v1, Directions.OUT, ALL, 100L);
+        DegreeCache.destroy("degree-cache-test");
+        Assert.assertTrue(cache.isEmpty());
+        Assert.assertNotSame(cache, DegreeCache.of("degree-cache-test",
+                                                   100L, 0L));
+    }
+
+    @Test
+    public void testObserve() {
+        Id v1 = IdGenerator.of(1);
+        Id knows = IdGenerator.of(1);
+        Id likes = IdGenerator.of(2);
+
+        Assert.assertTrue(this.cache.isEmpty());
+        Assert.assertEquals(0L, this.cache.degree(v1, Directions.OUT, ALL));
+
+        this.cache.observe(v1, Directions.OUT, ALL, 100L);
+        this.cache.observe(v1, Directions.IN, new Id[]{knows}, 20L);
+        this.cache.observe(v1, Directions.IN, new Id[]{likes}, 30L);
+        // Ignore the degree of multiple labels
+        this.cache.observe(v1, Directions.IN, new Id[]{knows, likes}, 90L);
+        Assert.assertFalse(this.cache.isEmpty());
+
+        Assert.assertEquals(100L, this.cache.degree(v1, Directions.OUT, ALL));
+        Assert.assertEquals(0L, this.cache.degree(v1, Directions.IN, ALL));
+        Assert.assertEquals(100L, this.cache.degree(v1, Directions.BOTH, ALL));
+        Assert.assertEquals(20L, this.cache.degree(v1, Directions.IN,
+                                                   new Id[]{knows}));
+        Assert.assertEquals(50L, this.cache.degree(v1, Directions.IN,
+                                                   new Id[]{knows, likes}));
+
+        // Keep the max observed degree
+        this.cache.observe(v1, Directions.OUT, ALL, 80L);
+        Assert.assertEquals(100L, this.cache.degree(v1, Directions.OUT, ALL));
+        this.cache.observe(v1, Directions.BOTH, ALL, 150L);
+        Assert.assertEquals(150L, this.cache.degree(v1, Directions.BOTH, ALL));
+
+        this.cache.invalidate(v1);
+        Assert.assertEquals(0L, this.cache.degree(v1, Directions.OUT, ALL));
+    }
+
+    @Test
+    public void testUpdateEdge() {
+        FakeObjects objects = new FakeObjects();
+        HugeEdge edge = objects.newEdge(1L, 2L);
+        Id source = edge.id().ownerVertexId();
+        Id target = edge.id().otherVertexId();
+        Id[] labels = new Id[]{edge.id().edgeLabelId()};
+
+        // Only update the known super nodes
+        this.cache.observe(source, Directions.OUT, ALL, 100L);
+        this.cache.observe(source, Directions.OUT, labels, 10L);
+
+        this.cache.edgeAdded(edge);
+        Assert.assertEquals(101L, this.cache.degree(source, Directions.OUT,
+                                                    ALL));
+        Assert.assertEquals(11L, this.cache.degree(source, Directions.OUT,
+                                                   labels));
+        Assert.assertEquals(0L, this.cache.degree(target, Directions.IN,
+                                                  ALL));
+
+        this.cache.edgeRemoved(edge);
+        this.cache.edgeRemoved(edge);
+        Assert.assertEquals(99L, this.cache.degree(source, Directions.OUT,
+                                                   ALL));
+        Assert.assertEquals(9L, this.cache.degree(source, Directions.OUT,
+                                                  labels));
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.cache.QueryCache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.page.IdHolder.BatchIdHolder;
+import com.baidu.hugegraph.backend.query.Condition;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.query.ConditionQuery.OptimizedType;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
+import com.google.common.collect.ImmutableList;
+
+public class QueryCacheTest extends BaseUnitTest {
+
+    private static final Id PERSON = IdGenerator.of(1);
+    private static final Id SOFTWARE = IdGenerator.of(2);
+
+    private QueryCache cache;
+
+    @Before
+    public void setup() {
+        this.cache = QueryCache.of("query-cache-test", 100L, 0L);
+    }
+
+    @After
+    public void teardown() {
+        this.cache.clear();
+    }
+
+    @Test
+    public void testKey() {
+        Id name = IdGenerator.of(11);
+        Id age = IdGenerator.of(12);
+
+        ConditionQuery query1 = new ConditionQuery(HugeType.VERTEX);
+        query1.eq(HugeKeys.LABEL, PERSON);
+        query1.query(Condition.eq(name, "tom"));
+        query1.query(Condition.gt(age, 18));
+
+        ConditionQuery query2 = new ConditionQuery(HugeType.VERTEX);
+        query2.query(Condition.gt(age, 18));
+        query2.query(Condition.eq(name, "tom"));
+        query2.eq(HugeKeys.LABEL, PERSON);
+
+        Assert.assertEquals(QueryCache.key(query1), QueryCache.key(query2));
+        Assert.assertEquals(PERSON, QueryCache.label(query1));
+
+        query2.limit(10L);
+        Assert.assertNotEquals(QueryCache.key(query1),
+                               QueryCache.key(query2));
+
+        ConditionQuery query3 = new ConditionQuery(HugeType.EDGE);
+        query3.query(Condition.gt(age, 18));
+        Assert.assertNull(QueryCache.label(query3));
+    }
+
+    @Test
+    public void testUpdate() {
+        Assert.assertTrue(QueryCache.of("query-cache-test").enabled());
+        Assert.assertFalse(QueryCache.of("query-cache-none").enabled());
+
+        Id key = IdGenerator.of("q1");
+        long epoch = this.cache.epoch(HugeType.VERTEX, PERSON);
+        QueryCache.Entry entry = this.entry(HugeType.VERTEX, PERSON, epoch);
+        Assert.assertTrue(this.cache.update(key, entry));
+        Assert.assertSame(entry, this.cache.get(key));
+        Assert.assertEquals(OptimizedType.INDEX, entry.optimized());
+        Assert.assertEquals(1, entry.ids().size());
+
+        // Don't cache the entry computed concurrently with changes
+        this.cache.labelChanged(HugeType.VERTEX, PERSON);
+        Assert.assertFalse(this.cache.update(key, entry));
+        Assert.assertNull(this.cache.get(key));
+
+        this.cache.clear();
+        Assert.assertTrue(this.cache.isEmpty());
+    }
+
+    @Test
+    public void testInvalidateByLabel() {
+        Id key1 = IdGenerator.of("q1");
+        Id key2 = IdGenerator.of("q2");
+        Id key3 = IdGenerator.of("q3");
+        Id key4 = IdGenerator.of("q4");
+
+        long epoch = this.cache.epoch(HugeType.VERTEX, PERSON);
+        this.cache.update(key1, this.entry(HugeType.VERTEX, PERSON, epoch));
+        epoch = this.cache.epoch(HugeType.VERTEX, SOFTWARE);
+        this.cache.update(key2, this.entry(HugeType.VERTEX, SOFTWARE, epoch));
+        epoch = this.cache.epoch(HugeType.VERTEX, null);
+        this.cache.update(key3, this.entry(HugeType.VERTEX, null, epoch));
+        // The edge label with the same id as vertex label
+        epoch = this.cache.epoch(HugeType.EDGE, PERSON);
+        this.cache.update(key4, this.entry(HugeType.EDGE, PERSON, epoch));
+
+        // Only invalidate the results of the label and without label
+        this.cache.labelChanged(HugeType.VERTEX, PERSON);
+        Assert.assertNull(this.cache.get(key1));
+        Assert.assertNotNull(this.cache.get(key2));
+        Assert.assertNull(this.cache.get(key3));
+        Assert.assertNotNull(this.cache.get(key4));
+
+        // Invalidate the results of all the edge labels
+        this.cache.labelsChanged(HugeType.EDGE);
+        Assert.assertNotNull(this.cache.get(key2));
+        Assert.assertNull(this.cache.get(key4));
+
+        this.cache.labelsChanged(HugeType.VERTEX);
+        Assert.assertNull(this.cache.get(key2));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            this.cache.epoch(HugeType.PROPERTY_KEY, PERSON);
+        });
+    }
+
+    @Test
+    public void testDestroy() {
+        Id key = IdGenerator.of("q1");
+        long epoch = this.cache.epoch(HugeType.VERTEX, PERSON);
+        this.cache.update(key, this.entry(HugeType.VERTEX, PERSON, epoch));
+        Assert.assertSame(this.cache, QueryCache.of("query-cache-test"));
+
+        QueryCache.destroy("query-cache-test");
+        Assert.assertTrue(this.cache.isEmpty());
+        Assert.assertFalse(QueryCache.of("query-cache-test").enabled());
+        Assert.assertNotSame(this.cache, QueryCache.of("query-cache-test",
+                                                       100L, 0L));
+    }
+
+    @Test
+    public void testPeekAllWithLimit() {
+        List<Long> fetched = new ArrayList<>();
+        ConditionQuery query = new ConditionQuery(HugeType.SECONDARY_INDEX);
+
+        // Only the ids of the limit and one more are fetched
+        BatchIdHolder holder = this.holder(query, 100, fetched);
+        Assert.assertNull(holder.peekAll(1000L, 10L));
+        Assert.assertEquals(ImmutableList.of(11L), fetched);
+        Assert.assertEquals(11, holder.fetchNext(null, 10L).ids().size());
+
+        // The ids of the query with the limit are all peeked
+        fetched.clear();
+        query.limit(10L);
+        holder = this.holder(query, 100, fetched);
+        Set<Id> ids = holder.peekAll(1000L, 10L);
+        Assert.assertEquals(10, ids.size());
+        Assert.assertEquals(ImmutableList.of(10L), fetched);
+
+        fetched.clear();
+        query.limit(ConditionQuery.NO_LIMIT);
+        holder = this.holder(query, 5, fetched);
+        ids = holder.peekAll(1000L, ConditionQuery.NO_LIMIT);
+        Assert.assertEquals(5, ids.size());
+        Assert.assertEquals(ImmutableList.of(1001L), fetched);
+    }
+
+    private BatchIdHolder holder(ConditionQuery query, int count,
+                                 List<Long> fetched) {
+        List<Id> all = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            all.add(IdGenerator.of(i));
+        }
+        int[] offset = new int[]{0};
+        return new BatchIdHolder(query, Collections.emptyIterator(), size -> {
+            fetched.add(size);
+            int end = (int) Math.min(all.size(), offset[0] + size);
+            Set<Id> ids = InsertionOrderUtil.newSet();
+            ids.addAll(all.subList(offset[0], end));
+            offset[0] = end;
+            return ids;
+        });
+    }
+
+    private QueryCache.Entry entry(HugeType type, Id label, long epoch) {
+        Id[] ids = new Id[]{IdGenerator.of(100), IdGenerator.of(101)};
+        return new QueryCache.Entry(type, label, epoch, OptimizedType.INDEX,
+                                    ImmutableList.<Id[]>of(ids));
+    }
+}
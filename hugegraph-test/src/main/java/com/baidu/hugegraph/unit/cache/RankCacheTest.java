@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.cache;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.cache.RankCache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.testutil.Whitebox;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class RankCacheTest extends BaseUnitTest {
+
+    private RankCache cache;
+
+    @Before
+    public void setup() {
+        this.cache = RankCache.of("rank-cache-test", 100L, 0L);
+    }
+
+    @After
+    public void teardown() {
+        this.cache.clear();
+    }
+
+    @Test
+    public void testUpdate() {
+        Id key = IdGenerator.of("v1");
+        Entry entry = new Entry(key, IdGenerator.of(1), IdGenerator.of(2));
+
+        Assert.assertTrue(RankCache.of("rank-cache-test").enabled());
+        Assert.assertFalse(RankCache.of("rank-cache-none").enabled());
+
+        long epoch = this.cache.epoch();
+        Assert.assertTrue(this.cache.update(entry, epoch));
+        Assert.assertSame(entry, this.cache.get(key));
+
+        // Don't cache the entry computed concurrently with changes
+        this.cache.vertexChanged(IdGenerator.of(3));
+        Assert.assertSame(entry, this.cache.get(key));
+        Assert.assertFalse(this.cache.update(entry, epoch));
+
+        this.cache.clear();
+        Assert.assertNull(this.cache.get(key));
+        Assert.assertTrue(this.cache.isEmpty());
+    }
+
+    @Test
+    public void testInvalidate() {
+        FakeObjects objects = new FakeObjects();
+        HugeEdge edge = objects.newEdge(1L, 2L);
+        Id source = edge.id().ownerVertexId();
+        Id target = edge.id().otherVertexId();
+
+        Entry entry1 = new Entry(IdGenerator.of("v1"), source);
+        Entry entry2 = new Entry(IdGenerator.of("v2"), target);
+        Entry entry3 = new Entry(IdGenerator.of("v3"), IdGenerator.of(3));
+        this.cache.update(entry1, this.cache.epoch());
+        this.cache.update(entry2, this.cache.epoch());
+        this.cache.update(entry3, this.cache.epoch());
+
+        this.cache.edgesChanged(ImmutableList.of(edge));
+        Assert.assertNull(this.cache.get(entry1.key()));
+        Assert.assertNull(this.cache.get(entry2.key()));
+        Assert.assertSame(entry3, this.cache.get(entry3.key()));
+
+        this.cache.vertexChanged(IdGenerator.of(3));
+        Assert.assertNull(this.cache.get(entry3.key()));
+    }
+
+    @Test
+    public void testRebuildIndex() {
+        Whitebox.setInternalState(this.cache, "rebuildIndexed", 1L);
+        Entry entry1 = new Entry(IdGenerator.of("v1"), IdGenerator.of(1),
+                                 IdGenerator.of(2));
+        Entry entry2 = new Entry(IdGenerator.of("v2"), IdGenerator.of(2),
+                                 IdGenerator.of(3));
+        Assert.assertTrue(this.cache.update(entry1, this.cache.epoch()));
+        this.cache.vertexChanged(IdGenerator.of(1));
+        Assert.assertNull(this.cache.get(entry1.key()));
+
+        // The key of the invalidated entry is dropped while rebuilding
+        Assert.assertTrue(this.cache.update(entry2, this.cache.epoch()));
+        Map<Id, Set<Id>> keys = Whitebox.getInternalState(this.cache, "keys");
+        Assert.assertEquals(2, keys.size());
+        Assert.assertEquals(ImmutableSet.of(entry2.key()),
+                            keys.get(IdGenerator.of(2)));
+
+        this.cache.vertexChanged(IdGenerator.of(2));
+        Assert.assertNull(this.cache.get(entry2.key()));
+    }
+
+    @Test
+    public void testDestroy() {
+        RankCache cache = RankCache.of("rank-cache-destroy", 100L, 0L);
+        Entry entry = new Entry(IdGenerator.of("v1"), IdGenerator.of(1));
+        Assert.assertTrue(cache.update(entry, cache.epoch()));
+
+        RankCache.destroy("rank-cache-destroy");
+        Assert.assertTrue(cache.isEmpty());
+        Assert.assertFalse(RankCache.of("rank-cache-destroy").enabled());
+    }
+
+    private static class Entry implements RankCache.Entry {
+
+        private final Id key;
+        private final Set<Id> vertices;
+
+        public Entry(Id key, Id... vertices) {
+            this.key = key;
+            this.vertices = ImmutableSet.copyOf(vertices);
+        }
+
+        @Override
+        public Id key() {
+            return this.key;
+        }
+
+        @Override
+        public Iterable<Id> vertices() {
+            return this.vertices;
+        }
+    }
+}
@@ -21,6 +21,7 @@ package com.baidu.hugegraph.unit.core;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
@@ -28,6 +29,8 @@ import org.junit.Test;
 
 import com.baidu.hugegraph.analyzer.Analyzer;
 import com.baidu.hugegraph.analyzer.AnalyzerFactory;
+import com.baidu.hugegraph.analyzer.CachedAnalyzer;
+import com.baidu.hugegraph.backend.cache.RamCache;
 import com.baidu.hugegraph.testutil.Assert;
 
 public class AnalyzerTest {
@@ -215,6 +218,40 @@ public class AnalyzerTest {
                             analyzer.segment(text2));
     }
 
+    @Test
+    public void testCachedAnalyzer() {
+        Analyzer origin = AnalyzerFactory.analyzer("ikanalyzer", "smart");
+        AtomicInteger segmented = new AtomicInteger();
+        Analyzer counted = text -> {
+            segmented.incrementAndGet();
+            return origin.segment(text);
+        };
+        Analyzer analyzer = new CachedAnalyzer(counted, new RamCache(10L));
+
+        Set<String> words = analyzer.segment(text1);
+        Assert.assertEquals(setOf("england", "wins", "world", "cup"), words);
+        Assert.assertEquals(1, segmented.get());
+        Assert.assertSame(words, analyzer.segment(text1));
+        Assert.assertEquals(1, segmented.get());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> {
+            words.add("word");
+        });
+
+        Assert.assertEquals(origin.segment(text2), analyzer.segment(text2));
+        Assert.assertEquals(origin.segment(text2), analyzer.segment(text2));
+        Assert.assertEquals(2, segmented.get());
+
+        // Not cache long texts
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() <= CachedAnalyzer.MAX_CACHED_TEXT_LENGTH) {
+            sb.append(text1).append(' ');
+        }
+        String text3 = sb.toString();
+        Assert.assertEquals(words, analyzer.segment(text3));
+        Assert.assertEquals(words, analyzer.segment(text3));
+        Assert.assertEquals(4, segmented.get());
+    }
+
     private static Set<String> setOf(String... elems) {
         Set<String> result = new HashSet<>();
         for (String elem : elems) {
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.id.EdgeId;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.page.PageInfo;
+import com.baidu.hugegraph.backend.page.PageState;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.backend.serializer.TextBackendEntry;
+import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.memory.InMemoryDBTable;
+import com.baidu.hugegraph.backend.store.memory.InMemoryDBTables;
+import com.baidu.hugegraph.iterator.Metadatable;
+import com.baidu.hugegraph.structure.HugeIndex;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.testutil.Whitebox;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableList;
+
+public class InMemoryDBTableTest extends BaseUnitTest {
+
+    @Test
+    public void testQueryVerticesByPage() {
+        InMemoryDBTable table = new InMemoryDBTables.Vertex();
+        // Insert in reverse order, the results are sorted by id
+        for (int i = 9; i >= 0; i--) {
+            Id id = IdGenerator.of("v" + i);
+            table.insert(null, new TextBackendEntry(HugeType.VERTEX, id));
+        }
+
+        List<Integer> pageSizes = new ArrayList<>();
+        List<BackendEntry> entries = queryByPages(table,
+                                                  new Query(HugeType.VERTEX),
+                                                  3L, pageSizes);
+        Assert.assertEquals(ImmutableList.of(3, 3, 3, 1), pageSizes);
+        Assert.assertEquals(10, entries.size());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(IdGenerator.of("v" + i), entries.get(i).id());
+        }
+    }
+
+    @Test
+    public void testQueryEdgesByPage() {
+        InMemoryDBTable table = new InMemoryDBTables.Edge(HugeType.EDGE_OUT);
+        // The edges of a vertex are split into pages
+        List<String> edges = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 4; j++) {
+                String id = EdgeId.concat("v" + i, "O", "1", "", "t" + j);
+                TextBackendEntry entry = new TextBackendEntry(
+                                         HugeType.EDGE_OUT,
+                                         IdGenerator.of(id));
+                String column = EdgeId.concat("O", "1", "", "t" + j);
+                entry.column(column, "");
+                table.insert(null, entry);
+                edges.add("v" + i + "/" + column);
+            }
+        }
+
+        List<Integer> pageSizes = new ArrayList<>();
+        List<BackendEntry> entries = queryByPages(table,
+                                                  new Query(HugeType.EDGE_OUT),
+                                                  5L, pageSizes);
+        Assert.assertEquals(ImmutableList.of(5, 5, 2), pageSizes);
+
+        List<String> results = new ArrayList<>();
+        for (BackendEntry entry : entries) {
+            TextBackendEntry text = (TextBackendEntry) entry;
+            for (String column : text.columnNames()) {
+                results.add(entry.id().asString() + "/" + column);
+            }
+        }
+        Assert.assertEquals(edges, results);
+    }
+
+    @Test
+    public void testQueryIndexByPage() {
+        InMemoryDBTable table = new InMemoryDBTables.SecondaryIndex();
+        Id indexLabel = IdGenerator.of(1L);
+        Id id = HugeIndex.formatIndexId(HugeType.SECONDARY_INDEX,
+                                        indexLabel, "marko");
+        TextBackendEntry entry = new TextBackendEntry(
+                                 HugeType.SECONDARY_INDEX, id);
+        // The element ids like ids or maps of id and expired time
+        entry.column(HugeKeys.ELEMENT_IDS,
+                     "[\"a,b\", 2, {\"id\":\"c]\",\"expired_time\":9}, " +
+                     "\"d\\\"[\", \"e\"]");
+        table.insert(null, entry);
+
+        ConditionQuery query = new ConditionQuery(HugeType.SECONDARY_INDEX);
+        query.eq(HugeKeys.INDEX_LABEL_ID, indexLabel);
+        query.eq(HugeKeys.FIELD_VALUES, "marko");
+
+        List<Integer> pageSizes = new ArrayList<>();
+        List<BackendEntry> entries = queryByPages(table, query,
+                                                  2L, pageSizes);
+        Assert.assertEquals(ImmutableList.of(2, 2, 1), pageSizes);
+        Assert.assertEquals(3, entries.size());
+        Assert.assertEquals("[\"a,b\", 2]",
+                            elementIds(entries.get(0)));
+        Assert.assertEquals("[ {\"id\":\"c]\",\"expired_time\":9}, " +
+                            "\"d\\\"[\"]",
+                            elementIds(entries.get(1)));
+        Assert.assertEquals("[ \"e\"]", elementIds(entries.get(2)));
+    }
+
+    @Test
+    public void testSizeOfJsonArray() {
+        Assert.assertEquals(0L, sizeOfJsonArray("[]"));
+        Assert.assertEquals(0L, sizeOfJsonArray("[ ]"));
+        Assert.assertEquals(1L, sizeOfJsonArray("[1]"));
+        Assert.assertEquals(3L, sizeOfJsonArray("[1,\"a,b\",\"[c]\"]"));
+        Assert.assertEquals(2L, sizeOfJsonArray(
+                                "[{\"id\":1,\"expired_time\":2},\"\\\\\"]"));
+
+        Assert.assertThrows(RuntimeException.class, () -> {
+            sizeOfJsonArray("[1,\"2]");
+        });
+        Assert.assertThrows(RuntimeException.class, () -> {
+            sizeOfJsonArray("{\"id\":1}");
+        });
+    }
+
+    @Test
+    public void testSubJsonArray() {
+        String json = "[1,\"a,b\",{\"id\":\"{c\",\"expired_time\":2},4]";
+        Assert.assertEquals("[1]", subJsonArray(json, 0, 1));
+        Assert.assertEquals("[\"a,b\",{\"id\":\"{c\",\"expired_time\":2}]",
+                            subJsonArray(json, 1, 3));
+        Assert.assertEquals("[4]", subJsonArray(json, 3, 4));
+        Assert.assertEquals(json, subJsonArray(json, 0, 4));
+        Assert.assertEquals("[]", subJsonArray(json, 2, 2));
+
+        Assert.assertThrows(RuntimeException.class, () -> {
+            subJsonArray(json, 3, 5);
+        });
+    }
+
+    private static List<BackendEntry> queryByPages(InMemoryDBTable table,
+                                                   Query query, long limit,
+                                                   List<Integer> pageSizes) {
+        List<BackendEntry> entries = new ArrayList<>();
+        String page = "";
+        while (page != null) {
+            query.page(page);
+            query.limit(limit);
+            Iterator<BackendEntry> iter = table.query(null, query);
+            while (iter.hasNext()) {
+                entries.add(iter.next());
+            }
+            PageState state = (PageState) ((Metadatable) iter).metadata(
+                                                           PageInfo.PAGE);
+            // The total is the count of sub-items (like edges) of the page
+            pageSizes.add((int) state.total());
+            page = state.toString();
+        }
+        return entries;
+    }
+
+    private static String elementIds(BackendEntry entry) {
+        return ((TextBackendEntry) entry).column(HugeKeys.ELEMENT_IDS);
+    }
+
+    private static long sizeOfJsonArray(String json) {
+        return Whitebox.invokeStatic(InMemoryDBTables.class,
+                                     "sizeOfJsonArray", json);
+    }
+
+    private static String subJsonArray(String json, int from, int to) {
+        return Whitebox.invoke(InMemoryDBTables.class,
+                               new Class[]{String.class, int.class, int.class},
+                               "subJsonArray", null, json, from, to);
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Queue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.tx.IndexStatistics;
+import com.baidu.hugegraph.schema.IndexLabel;
+import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.testutil.Whitebox;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.type.define.IndexType;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.google.common.collect.ImmutableList;
+
+public class IndexStatisticsTest {
+
+    private static final String GRAPH = "index_statistics_test";
+
+    private FakeObjects fakeObjects;
+    private IndexStatistics statistics;
+
+    @Before
+    public void setup() {
+        this.fakeObjects = new FakeObjects(GRAPH);
+        this.statistics = IndexStatistics.of(GRAPH);
+    }
+
+    @After
+    public void teardown() {
+        IndexStatistics.destroy(GRAPH);
+    }
+
+    @Test
+    public void testOf() {
+        Assert.assertSame(this.statistics, IndexStatistics.of(GRAPH));
+        Assert.assertNotSame(this.statistics,
+                             IndexStatistics.of(GRAPH + "_other"));
+    }
+
+    @Test
+    public void testLabelCount() {
+        Id person = IdGenerator.of(1);
+        Id book = IdGenerator.of(2);
+
+        // Unknown if not tracked since created
+        this.statistics.updateLabel(HugeType.VERTEX, person, false);
+        Assert.assertEquals(IndexStatistics.UNKNOWN,
+                            this.statistics.labelCount(HugeType.VERTEX,
+                                                       person));
+
+        this.statistics.labelCreated(HugeType.VERTEX, person);
+        this.statistics.labelCreated(HugeType.VERTEX, book);
+        for (int i = 0; i < 10; i++) {
+            this.statistics.updateLabel(HugeType.VERTEX, person, false);
+        }
+        this.statistics.updateLabel(HugeType.VERTEX, person, true);
+        this.statistics.updateLabel(HugeType.VERTEX, book, false);
+
+        Assert.assertEquals(9L, this.statistics.labelCount(HugeType.VERTEX,
+                                                           person));
+        Assert.assertEquals(1L, this.statistics.labelCount(HugeType.VERTEX,
+                                                           book));
+        // The edge labels are counted separately
+        Assert.assertEquals(IndexStatistics.UNKNOWN,
+                            this.statistics.labelCount(HugeType.EDGE,
+                                                       person));
+        Assert.assertEquals(10L, this.statistics.typeCount(
+                                 HugeType.VERTEX,
+                                 ImmutableList.of(person, book)));
+
+        this.statistics.labelRemoved(HugeType.VERTEX, book);
+        Assert.assertEquals(IndexStatistics.UNKNOWN,
+                            this.statistics.typeCount(
+                            HugeType.VERTEX,
+                            ImmutableList.of(person, book)));
+    }
+
+    @Test
+    public void testEstimateSecondaryIndex() {
+        IndexLabel il = this.fakeObjects.newIndexLabel(
+                        IdGenerator.of(1), "personByCity",
+                        HugeType.VERTEX_LABEL, IdGenerator.of(1),
+                        IndexType.SECONDARY, IdGenerator.of(3));
+
+        // Unknown if not tracked since built
+        this.statistics.updateIndex(il, "Beijing", false);
+        Assert.assertEquals(IndexStatistics.UNKNOWN,
+                            this.statistics.estimate(il, eq("Beijing")));
+
+        this.statistics.indexRebuilt(il);
+        for (int i = 0; i < 100; i++) {
+            this.statistics.updateIndex(il, "Beijing", false);
+        }
+        for (int i = 0; i < 3; i++) {
+            this.statistics.updateIndex(il, "Shanghai", false);
+        }
+        this.statistics.updateIndex(il, "Shanghai", true);
+
+        Assert.assertEquals(100L, this.statistics.estimate(il,
+                                                           eq("Beijing")));
+        Assert.assertEquals(2L, this.statistics.estimate(il,
+                                                         eq("Shanghai")));
+        Assert.assertEquals(0L, this.statistics.estimate(il, eq("Wuhan")));
+
+        this.statistics.indexRemoved(il.id());
+        Assert.assertEquals(IndexStatistics.UNKNOWN,
+                            this.statistics.estimate(il, eq("Beijing")));
+    }
+
+    @Test
+    public void testChanges() {
+        Id person = IdGenerator.of(1);
+        IndexLabel il = this.fakeObjects.newIndexLabel(
+                        IdGenerator.of(2), "personByName",
+                        HugeType.VERTEX_LABEL, IdGenerator.of(1),
+                        IndexType.SECONDARY, IdGenerator.of(1));
+        this.statistics.labelCreated(HugeType.VERTEX, person);
+        this.statistics.indexRebuilt(il);
+
+        IndexStatistics.Changes changes = this.statistics.changes();
+        Assert.assertTrue(changes.isEmpty());
+        changes.updateLabel(HugeType.VERTEX, person, false);
+        changes.updateIndex(il, "marko", false);
+        Assert.assertFalse(changes.isEmpty());
+
+        // Invisible until committed
+        Assert.assertEquals(0L, this.statistics.labelCount(HugeType.VERTEX,
+                                                           person));
+        Assert.assertEquals(0L, this.statistics.estimate(il, eq("marko")));
+
+        changes.commit();
+        Assert.assertTrue(changes.isEmpty());
+        Assert.assertEquals(1L, this.statistics.labelCount(HugeType.VERTEX,
+                                                           person));
+        Assert.assertEquals(1L, this.statistics.estimate(il, eq("marko")));
+
+        // Discarded if cleared (like rollback)
+        changes.updateLabel(HugeType.VERTEX, person, false);
+        changes.updateIndex(il, "marko", false);
+        changes.clear();
+        changes.commit();
+        Assert.assertEquals(1L, this.statistics.labelCount(HugeType.VERTEX,
+                                                           person));
+        Assert.assertEquals(1L, this.statistics.estimate(il, eq("marko")));
+    }
+
+    @Test
+    public void testUpdateElement() {
+        // The vertex of person with name "tom", age 18 and city "Beijing"
+        HugeVertex vertex = this.fakeObjects.newEdge(1L, 2L).sourceVertex();
+        VertexLabel person = vertex.schemaLabel();
+        IndexLabel byName = this.fakeObjects.newIndexLabel(
+                            IdGenerator.of(5), "personByName",
+                            HugeType.VERTEX_LABEL, person.id(),
+                            IndexType.SECONDARY, IdGenerator.of(1));
+        IndexLabel byAge = this.fakeObjects.newIndexLabel(
+                           IdGenerator.of(6), "personByAge",
+                           HugeType.VERTEX_LABEL, person.id(),
+                           IndexType.RANGE_INT, IdGenerator.of(2));
+        IndexLabel byCityAndName = this.fakeObjects.newIndexLabel(
+                                   IdGenerator.of(7), "personByCityAndName",
+                                   HugeType.VERTEX_LABEL, person.id(),
+                                   IndexType.SECONDARY, IdGenerator.of(3),
+                                   IdGenerator.of(1));
+        person.indexLabels(byName.id(), byAge.id(), byCityAndName.id());
+
+        this.statistics.labelCreated(HugeType.VERTEX, person.id());
+        this.statistics.indexRebuilt(byAge);
+        this.statistics.indexRebuilt(byCityAndName);
+
+        IndexStatistics.Changes changes = this.statistics.changes();
+        changes.updateElement(vertex, false);
+        changes.updateElement(vertex, false);
+        changes.updateElement(vertex, true);
+        changes.commit();
+
+        // The changes not applied by the worker are applied by the queries
+        Assert.assertEquals(1L, this.statistics.labelCount(HugeType.VERTEX,
+                                                           person.id()));
+        Assert.assertEquals(1L, this.statistics.estimate(byAge, eq(18)));
+        // The prefix values of a secondary index are counted
+        Assert.assertEquals(1L, this.statistics.estimate(byCityAndName,
+                                                         eq("Beijing")));
+        Assert.assertEquals(IndexStatistics.UNKNOWN,
+                            this.statistics.estimate(byName, eq("tom")));
+
+        // Update an index label only, like rebuilding the index
+        this.statistics.indexRebuilt(byName);
+        changes.updateElementIndex(byName, vertex, false);
+        changes.commit();
+        Assert.assertEquals(1L, this.statistics.estimate(byName, eq("tom")));
+        Assert.assertEquals(1L, this.statistics.labelCount(HugeType.VERTEX,
+                                                           person.id()));
+    }
+
+    @Test
+    public void testApplyChangesByWorker() throws InterruptedException {
+        Id person = IdGenerator.of(1);
+        this.statistics.labelCreated(HugeType.VERTEX, person);
+
+        IndexStatistics.Changes changes = this.statistics.changes();
+        for (int i = 0; i < 10; i++) {
+            changes.updateLabel(HugeType.VERTEX, person, false);
+            changes.commit();
+        }
+
+        Queue<?> pending = Whitebox.getInternalState(this.statistics,
+                                                     "pending");
+        for (int i = 0; i < 100 && !pending.isEmpty(); i++) {
+            Thread.sleep(10L);
+        }
+        Assert.assertTrue(pending.isEmpty());
+        Assert.assertNotNull(Whitebox.getInternalState(this.statistics,
+                                                       "worker"));
+        Assert.assertEquals(10L, this.statistics.labelCount(HugeType.VERTEX,
+                                                            person));
+    }
+
+    @Test
+    public void testDestroy() {
+        Id person = IdGenerator.of(1);
+        this.statistics.labelCreated(HugeType.VERTEX, person);
+        IndexStatistics.Changes changes = this.statistics.changes();
+
+        IndexStatistics.destroy(GRAPH);
+        Assert.assertNotSame(this.statistics, IndexStatistics.of(GRAPH));
+
+        // The changes submitted after destroyed are ignored
+        changes.updateLabel(HugeType.VERTEX, person, false);
+        changes.commit();
+        Assert.assertEquals(0L, this.statistics.labelCount(HugeType.VERTEX,
+                                                           person));
+        Assert.assertNull(Whitebox.getInternalState(this.statistics,
+                                                    "worker"));
+    }
+
+    @Test
+    public void testEstimateRangeIndex() {
+        IndexLabel il = this.fakeObjects.newIndexLabel(
+                        IdGenerator.of(3), "personByAge",
+                        HugeType.VERTEX_LABEL, IdGenerator.of(1),
+                        IndexType.RANGE_INT, IdGenerator.of(2));
+        this.statistics.indexRebuilt(il);
+        for (int i = 0; i < 100; i++) {
+            this.statistics.updateIndex(il, i, false);
+        }
+
+        Assert.assertEquals(1L, this.statistics.estimate(il, eq(18)));
+        Assert.assertEquals(1L, this.statistics.estimate(il, eq(18L)));
+
+        ConditionQuery query = indexQuery(HugeType.RANGE_INT_INDEX);
+        query.gte(HugeKeys.FIELD_VALUES, 50);
+        Assert.assertEquals(50L, this.statistics.estimate(il, query));
+
+        query = indexQuery(HugeType.RANGE_INT_INDEX);
+        query.gte(HugeKeys.FIELD_VALUES, 10);
+        query.lt(HugeKeys.FIELD_VALUES, 20);
+        long estimate = this.statistics.estimate(il, query);
+        Assert.assertTrue("estimate: " + estimate,
+                          8L <= estimate && estimate <= 12L);
+
+        query = indexQuery(HugeType.RANGE_INT_INDEX);
+        query.lt(HugeKeys.FIELD_VALUES, -1);
+        Assert.assertEquals(0L, this.statistics.estimate(il, query));
+
+        // Grow the histogram to the left
+        for (int i = -100; i < 0; i++) {
+            this.statistics.updateIndex(il, i, false);
+        }
+        query = indexQuery(HugeType.RANGE_INT_INDEX);
+        query.lt(HugeKeys.FIELD_VALUES, 0);
+        Assert.assertEquals(100L, this.statistics.estimate(il, query));
+    }
+
+    @Test
+    public void testEstimateUnsupportedIndex() {
+        IndexLabel il = this.fakeObjects.newIndexLabel(
+                        IdGenerator.of(4), "personByDesc",
+                        HugeType.VERTEX_LABEL, IdGenerator.of(1),
+                        IndexType.SEARCH, IdGenerator.of(1));
+        this.statistics.indexRebuilt(il);
+        this.statistics.updateIndex(il, "word", false);
+        Assert.assertEquals(IndexStatistics.UNKNOWN,
+                            this.statistics.estimate(il, eq("word")));
+    }
+
+    private static ConditionQuery eq(Object value) {
+        ConditionQuery query = indexQuery(HugeType.SECONDARY_INDEX);
+        query.eq(HugeKeys.FIELD_VALUES, value);
+        return query;
+    }
+
+    private static ConditionQuery indexQuery(HugeType type) {
+        ConditionQuery query = new ConditionQuery(type);
+        query.eq(HugeKeys.INDEX_LABEL_ID, IdGenerator.of(1));
+        return query;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.traversal.algorithm.SingleSourceShortestPathTraverser.IndexedMinHeap;
+
+public class IndexedMinHeapTest {
+
+    @Test
+    public void testAddAndPoll() {
+        IndexedMinHeap heap = new IndexedMinHeap(2);
+        Assert.assertTrue(heap.isEmpty());
+
+        heap.add(0, 3.0);
+        heap.add(1, 1.0);
+        heap.add(5, 2.0);
+        heap.add(2, 0.5);
+        Assert.assertEquals(4, heap.size());
+        Assert.assertTrue(heap.contains(5));
+        Assert.assertFalse(heap.contains(3));
+        Assert.assertFalse(heap.contains(100));
+
+        Assert.assertEquals(2, heap.peek());
+        Assert.assertEquals(2, heap.poll());
+        Assert.assertEquals(1, heap.poll());
+        Assert.assertEquals(5, heap.poll());
+        Assert.assertFalse(heap.contains(5));
+        Assert.assertEquals(0, heap.poll());
+        Assert.assertTrue(heap.isEmpty());
+
+        Assert.assertThrows(IllegalStateException.class, () -> {
+            heap.poll();
+        });
+    }
+
+    @Test
+    public void testDecrease() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.add(0, 3.0);
+        heap.add(1, 2.0);
+        heap.add(2, 1.0);
+
+        heap.decrease(0, 0.5);
+        Assert.assertEquals(0, heap.poll());
+        heap.decrease(1, 0.9);
+        Assert.assertEquals(1, heap.poll());
+        Assert.assertEquals(2, heap.poll());
+
+        heap.add(3, 1.0);
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            heap.decrease(3, 2.0);
+        }, e -> {
+            Assert.assertContains("Can't increase the key", e.getMessage());
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            heap.decrease(1, 0.0);
+        }, e -> {
+            Assert.assertContains("doesn't exist", e.getMessage());
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            heap.add(3, 0.0);
+        }, e -> {
+            Assert.assertContains("already exists", e.getMessage());
+        });
+    }
+
+    @Test
+    public void testPollInOrder() {
+        Random random = new Random(7);
+        int count = 1000;
+        double[] keys = new double[count];
+        IndexedMinHeap heap = new IndexedMinHeap(8);
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextDouble() * 100;
+            heap.add(i, keys[i]);
+        }
+        for (int i = 0; i < count; i += 3) {
+            keys[i] /= 2;
+            heap.decrease(i, keys[i]);
+        }
+
+        double last = -1.0;
+        while (!heap.isEmpty()) {
+            double key = keys[heap.poll()];
+            Assert.assertTrue(key >= last);
+            last = key;
+        }
+    }
+}
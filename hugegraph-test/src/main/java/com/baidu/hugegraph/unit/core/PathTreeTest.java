@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.traversal.algorithm.PathTree;
+import com.google.common.collect.ImmutableList;
+
+public class PathTreeTest {
+
+    private static final Id A = IdGenerator.of("A");
+    private static final Id B = IdGenerator.of("B");
+    private static final Id C = IdGenerator.of("C");
+    private static final Id D = IdGenerator.of(4L);
+
+    @Test
+    public void testAddAndPath() {
+        PathTree tree = new PathTree();
+        int a = tree.add(PathTree.NO_PARENT, A);
+        int ab = tree.add(a, B);
+        int ac = tree.add(a, C);
+        int abc = tree.add(ab, C);
+        int abcd = tree.add(abc, D);
+
+        Assert.assertEquals(5, tree.size());
+        Assert.assertEquals(4, tree.vertexCount());
+        Assert.assertEquals(tree.vertexIndexOf(ac), tree.vertexIndexOf(abc));
+        Assert.assertEquals(-1, tree.vertexIndex(IdGenerator.of("E")));
+
+        Assert.assertEquals(PathTree.NO_PARENT, tree.parent(a));
+        Assert.assertEquals(ab, tree.parent(abc));
+        Assert.assertEquals(C, tree.vertex(abc));
+
+        Assert.assertEquals(ImmutableList.of(A), tree.path(a));
+        Assert.assertEquals(ImmutableList.of(A, C), tree.path(ac));
+        Assert.assertEquals(ImmutableList.of(A, B, C, D), tree.path(abcd));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            tree.add(5, A);
+        }, e -> {
+            Assert.assertContains("Invalid parent node 5", e.getMessage());
+        });
+    }
+
+    @Test
+    public void testContains() {
+        PathTree tree = new PathTree();
+        int a = tree.add(PathTree.NO_PARENT, A);
+        int ab = tree.add(a, B);
+        int ac = tree.add(a, C);
+        int abd = tree.add(ab, D);
+
+        Assert.assertTrue(tree.contains(abd, A));
+        Assert.assertTrue(tree.contains(abd, B));
+        Assert.assertTrue(tree.contains(abd, D));
+        Assert.assertFalse(tree.contains(abd, C));
+        Assert.assertFalse(tree.contains(ac, B));
+        Assert.assertFalse(tree.contains(ac, IdGenerator.of("E")));
+    }
+
+    @Test
+    public void testJoinPath() {
+        PathTree tree = new PathTree();
+        int a = tree.add(PathTree.NO_PARENT, A);
+        int ab = tree.add(a, B);
+        int d = tree.add(PathTree.NO_PARENT, D);
+        int dc = tree.add(d, C);
+        int db = tree.add(d, B);
+
+        Assert.assertEquals(ImmutableList.of(A, B, C, D),
+                            tree.joinPath(ab, dc));
+        // Avoid loop in path
+        Assert.assertEquals(ImmutableList.of(), tree.joinPath(ab, db));
+    }
+}
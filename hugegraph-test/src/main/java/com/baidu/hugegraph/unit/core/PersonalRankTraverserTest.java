@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.traversal.algorithm.PersonalRankTraverser;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.google.common.collect.ImmutableMap;
+
+public class PersonalRankTraverserTest {
+
+    private static final Id S = IdGenerator.of("S");
+    private static final Id M = IdGenerator.of("M");
+    private static final Id P = IdGenerator.of("P");
+    private static final Id LABEL = IdGenerator.of(1L);
+
+    @Test
+    public void testWalkWithDeadEndVertex() {
+        // S - M - P, and P is a dead end like its edge was just removed
+        Map<Id, Id[]> adjacencies = ImmutableMap.of(S, new Id[]{M},
+                                                    M, new Id[]{S, P},
+                                                    P, new Id[]{});
+        /*
+         * step 1: S(1.0) pushes 0.5 to M
+         * step 2: M(0.5) pushes 0.125 to S and 0.125 to P
+         * step 3: S(0.125) pushes 0.0625 to M, P(0.125) keeps all
+         * step 4: M(0.0625) pushes 0.015625 to S and 0.015625 to P
+         */
+        // The rank of the dead end is just the residuals pushed to it
+        Assert.assertEquals(0.125, rankOfP(adjacencies, 2), 1e-9);
+        Assert.assertEquals(0.125, rankOfP(adjacencies, 3), 1e-9);
+        Assert.assertEquals(0.140625, rankOfP(adjacencies, 4), 1e-9);
+    }
+
+    private static double rankOfP(Map<Id, Id[]> adjacencies, int maxDepth) {
+        FakeObjects objects = new FakeObjects("personal-rank-test");
+        Traverser traverser = new Traverser(objects.graph(), adjacencies,
+                                            maxDepth);
+        Map<Id, Double> ranks = traverser.ranks(S);
+        Assert.assertEquals(1, ranks.size());
+        return ranks.get(P);
+    }
+
+    private static class Traverser extends PersonalRankTraverser {
+
+        private final Map<Id, Id[]> adjacencies;
+
+        public Traverser(HugeGraph graph, Map<Id, Id[]> adjacencies,
+                         int maxDepth) {
+            super(graph, 0.5, 10000L, maxDepth, 0.0);
+            this.adjacencies = adjacencies;
+        }
+
+        @Override
+        protected Id[] adjacencies(Id vertex, Directions dir, Id label) {
+            return this.adjacencies.get(vertex);
+        }
+
+        public Map<Id, Double> ranks(Id source) {
+            return this.personalRank(source, LABEL, Directions.OUT,
+                                     WithLabel.SAME_LABEL);
+        }
+    }
+}
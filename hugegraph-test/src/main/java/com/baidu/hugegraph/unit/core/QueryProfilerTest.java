@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.cache.Cache;
+import com.baidu.hugegraph.backend.cache.RamCache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.util.QueryProfiler;
+import com.baidu.hugegraph.util.QueryProfiler.Item;
+
+public class QueryProfilerTest {
+
+    @After
+    public void teardown() {
+        QueryProfiler.disable();
+    }
+
+    @Test
+    public void testDisabled() {
+        Assert.assertNull(QueryProfiler.current());
+        Assert.assertFalse(QueryProfiler.enabled());
+        Assert.assertEquals(0L, QueryProfiler.begin());
+
+        // Nothing happened if not enabled
+        QueryProfiler.record(Item.ROW_SCANNED);
+        QueryProfiler.end(Item.BACKEND_QUERY, 0L);
+        Assert.assertNull(QueryProfiler.disable());
+    }
+
+    @Test
+    public void testRecord() {
+        Assert.assertNull(QueryProfiler.enable());
+        Assert.assertTrue(QueryProfiler.enabled());
+
+        QueryProfiler.record(Item.ROW_SCANNED);
+        QueryProfiler.record(Item.ROW_SCANNED, 3L);
+
+        long begin = QueryProfiler.begin();
+        Assert.assertNotEquals(0L, begin);
+        QueryProfiler.end(Item.BACKEND_QUERY, begin);
+
+        QueryProfiler profiler = QueryProfiler.disable();
+        Assert.assertNotNull(profiler);
+        Assert.assertFalse(QueryProfiler.enabled());
+
+        Assert.assertEquals(4L, profiler.count(Item.ROW_SCANNED));
+        Assert.assertEquals(0L, profiler.cost(Item.ROW_SCANNED));
+        Assert.assertEquals(1L, profiler.count(Item.BACKEND_QUERY));
+        Assert.assertTrue(profiler.cost(Item.BACKEND_QUERY) >= 0L);
+        Assert.assertEquals(0L, profiler.count(Item.INDEX_LOOKUP));
+
+        Map<String, Object> map = profiler.asMap();
+        Assert.assertEquals(Item.values().length + 1, map.size());
+        Assert.assertTrue(map.containsKey("total_time_ms"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> rows = (Map<String, Object>)
+                                   map.get("rows_scanned");
+        Assert.assertEquals(4L, rows.get("count"));
+        Assert.assertFalse(rows.containsKey("time_ms"));
+    }
+
+    @Test
+    public void testEndWithCountAndSpend() {
+        QueryProfiler.enable();
+
+        // Decoded 3 edges from an entry
+        long begin = QueryProfiler.begin();
+        QueryProfiler.end(Item.ENTRY_DECODED, begin, 3L);
+
+        // Iterated the results of a backend query twice
+        begin = QueryProfiler.begin();
+        QueryProfiler.end(Item.BACKEND_QUERY, begin);
+        QueryProfiler.spend(Item.BACKEND_QUERY, QueryProfiler.begin());
+        QueryProfiler.spend(Item.BACKEND_QUERY, QueryProfiler.begin());
+        // Nothing happened if begin is 0
+        QueryProfiler.spend(Item.BACKEND_QUERY, 0L);
+
+        QueryProfiler profiler = QueryProfiler.disable();
+        Assert.assertEquals(3L, profiler.count(Item.ENTRY_DECODED));
+        Assert.assertEquals(1L, profiler.count(Item.BACKEND_QUERY));
+        Assert.assertTrue(profiler.cost(Item.BACKEND_QUERY) >= 0L);
+    }
+
+    @Test
+    public void testPlan() {
+        // Nothing happened if not enabled
+        QueryProfiler.plan("index 'personByAge'");
+
+        QueryProfiler.enable();
+        QueryProfiler.plan("index 'personByAge'(estimated 10)");
+        for (int i = 0; i < 30; i++) {
+            QueryProfiler.plan("label index of 'person'");
+        }
+        QueryProfiler profiler = QueryProfiler.disable();
+
+        Assert.assertEquals(20, profiler.plans().size());
+        Assert.assertEquals("index 'personByAge'(estimated 10)",
+                            profiler.plans().get(0));
+        Map<String, Object> map = profiler.asMap();
+        Assert.assertEquals(Item.values().length + 2, map.size());
+        Assert.assertEquals(profiler.plans(), map.get("plans"));
+    }
+
+    @Test
+    public void testRecordInOtherThread() throws InterruptedException {
+        QueryProfiler.enable();
+
+        Thread thread = new Thread(() -> {
+            Assert.assertFalse(QueryProfiler.enabled());
+            QueryProfiler.record(Item.ROW_SCANNED);
+        });
+        thread.start();
+        thread.join();
+
+        QueryProfiler profiler = QueryProfiler.disable();
+        Assert.assertEquals(0L, profiler.count(Item.ROW_SCANNED));
+    }
+
+    @Test
+    public void testRecordCacheAccess() {
+        Cache<Id, Object> cache = new RamCache();
+        Id id = IdGenerator.of("1");
+        cache.update(id, "value");
+
+        QueryProfiler.enable();
+        cache.get(id);
+        cache.get(IdGenerator.of("2"));
+        cache.get(IdGenerator.of("3"));
+        QueryProfiler profiler = QueryProfiler.disable();
+
+        Assert.assertEquals(1L, profiler.count(Item.CACHE_HIT));
+        Assert.assertEquals(2L, profiler.count(Item.CACHE_MISS));
+    }
+}
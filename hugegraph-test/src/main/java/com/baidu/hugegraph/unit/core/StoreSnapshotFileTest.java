@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.entity.LocalFileMetaOutter.LocalFileMeta;
+import com.alipay.sofa.jraft.storage.snapshot.SnapshotReader;
+import com.alipay.sofa.jraft.storage.snapshot.SnapshotWriter;
+import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.backend.store.raft.StoreSnapshotFile;
+import com.baidu.hugegraph.testutil.Assert;
+import com.google.protobuf.Message;
+
+public class StoreSnapshotFileTest {
+
+    private File root;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() throws IOException {
+        this.root = Files.createTempDirectory("snapshot").toFile();
+        this.executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void teardown() throws IOException {
+        this.executor.shutdown();
+        FileUtils.deleteDirectory(this.root);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        StoreSnapshotFile snapshotFile = new StoreSnapshotFile();
+        String path = this.root.getPath();
+
+        BackendStore store = Mockito.mock(BackendStore.class);
+        Mockito.doAnswer(invocation -> {
+            // Both of the immutable and mutable files
+            String dir = (String) invocation.getArguments()[0];
+            write(Paths.get(dir, "g", "000001.sst"), "sst");
+            write(Paths.get(dir, "g", "MANIFEST-000001"), "manifest");
+            write(Paths.get(dir, "g", "CURRENT"), "MANIFEST-000001");
+            return null;
+        }).when(store).writeSnapshot(Mockito.anyString());
+
+        Map<String, LocalFileMeta> files = new HashMap<>();
+        SnapshotWriter writer = Mockito.mock(SnapshotWriter.class);
+        Mockito.when(writer.getPath()).thenReturn(path);
+        Mockito.when(writer.addFile(Mockito.anyString(),
+                                    Mockito.any(Message.class)))
+               .thenAnswer(invocation -> {
+                   Object[] args = invocation.getArguments();
+                   files.put((String) args[0], (LocalFileMeta) args[1]);
+                   return true;
+               });
+
+        CompletableFuture<Status> saved = new CompletableFuture<>();
+        snapshotFile.save(store, writer, saved::complete, this.executor);
+        Status status = saved.join();
+        Assert.assertTrue(status.toString(), status.isOk());
+
+        Assert.assertEquals(3, files.size());
+        String sst = Paths.get("ss", "g", "000001.sst").toString();
+        String manifest = Paths.get("ss", "g", "MANIFEST-000001").toString();
+        Assert.assertTrue(files.containsKey(sst));
+        Assert.assertTrue(files.containsKey(manifest));
+        for (LocalFileMeta meta : files.values()) {
+            Assert.assertTrue(meta.hasChecksum());
+        }
+        Assert.assertNotEquals(files.get(sst).getChecksum(),
+                               files.get(manifest).getChecksum());
+
+        Map<String, String> loaded = new HashMap<>();
+        Mockito.doAnswer(invocation -> {
+            String dir = (String) invocation.getArguments()[0];
+            loaded.put("sst", read(Paths.get(dir, "g", "000001.sst")));
+            loaded.put("manifest", read(Paths.get(dir, "g",
+                                                  "MANIFEST-000001")));
+            return null;
+        }).when(store).readSnapshot(Mockito.anyString());
+
+        SnapshotReader reader = Mockito.mock(SnapshotReader.class);
+        Mockito.when(reader.getPath()).thenReturn(path);
+        Mockito.when(reader.getFileMeta(Mockito.anyString())).thenReturn(null);
+
+        Assert.assertTrue(snapshotFile.load(store, reader));
+        Assert.assertEquals("sst", loaded.get("sst"));
+        Assert.assertEquals("manifest", loaded.get("manifest"));
+        // The files of the snapshot are kept to be reused
+        Assert.assertTrue(Paths.get(path, sst).toFile().exists());
+        Assert.assertFalse(Paths.get(path, "ss_load").toFile().exists());
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.hbase;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.backend.id.EdgeId;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.query.IdRangeQuery;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.backend.store.hbase.HbaseTable;
+import com.baidu.hugegraph.backend.store.hbase.HbaseTables;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+
+public class HbaseTableTest extends BaseUnitTest {
+
+    @Test
+    public void testNotSalted() {
+        HbaseTable table = new HbaseTables.Vertex("g");
+        byte[] key = vertexKey(IdGenerator.of(123L));
+
+        Assert.assertEquals(0, table.salts());
+        Assert.assertNull(table.splitKeys());
+        Assert.assertSame(key, table.rowkey(key));
+        Assert.assertSame(key, table.key(key));
+    }
+
+    @Test
+    public void testSaltedRowkey() {
+        HbaseTable table = new HbaseTables.Vertex("g");
+        table.salts(8);
+
+        byte[][] splitKeys = table.splitKeys();
+        Assert.assertEquals(7, splitKeys.length);
+        Assert.assertArrayEquals(new byte[]{1}, splitKeys[0]);
+        Assert.assertArrayEquals(new byte[]{7}, splitKeys[6]);
+
+        Set<Byte> salts = new HashSet<>();
+        for (long i = 0L; i < 100L; i++) {
+            byte[] key = vertexKey(IdGenerator.of(i));
+            byte[] rowkey = table.rowkey(key);
+            Assert.assertEquals(key.length + 1, rowkey.length);
+            Assert.assertTrue(0 <= rowkey[0] && rowkey[0] < 8);
+            Assert.assertArrayEquals(key, table.key(rowkey));
+            // The same key is always salted by the same byte
+            Assert.assertArrayEquals(rowkey, table.rowkey(key));
+            salts.add(rowkey[0]);
+        }
+        // The sequential ids are spread across all buckets
+        Assert.assertEquals(8, salts.size());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            table.salts(257);
+        });
+    }
+
+    @Test
+    public void testSaltedEdgesOfVertex() {
+        HbaseTable table = HbaseTables.Edge.out("g");
+        table.salts(16);
+
+        Id vertex = IdGenerator.of("marko");
+        byte[] prefix = vertexKey(vertex);
+        byte salt = table.rowkey(prefix)[0];
+        for (long i = 0L; i < 10L; i++) {
+            EdgeId edge = new EdgeId(vertex, Directions.OUT,
+                                     IdGenerator.of(1L), "",
+                                     IdGenerator.of(i));
+            byte[] key = BytesBuffer.allocate(0).writeEdgeId(edge).bytes();
+            // The edges of a vertex are in the same bucket with the prefix
+            Assert.assertEquals(salt, table.rowkey(key)[0]);
+        }
+    }
+
+    @Test
+    public void testCheckSalts() {
+        HbaseTable table = new HbaseTables.Vertex("g");
+        Assert.assertEquals("0", table.metadata().get(HbaseTable.SALTS_KEY));
+        // The table created by the old version is not salted
+        table.checkSalts(null);
+        table.checkSalts("0");
+
+        table.salts(8);
+        Assert.assertEquals("8", table.metadata().get(HbaseTable.SALTS_KEY));
+        table.checkSalts("8");
+        Assert.assertThrows(IllegalStateException.class, () -> {
+            table.checkSalts(null);
+        });
+        Assert.assertThrows(IllegalStateException.class, () -> {
+            table.checkSalts("16");
+        });
+    }
+
+    @Test
+    public void testRowRangesOfSameFirstId() {
+        HbaseTable table = HbaseTables.Edge.out("g");
+        Id vertex = IdGenerator.of("marko");
+        Id start = edgeId(vertex, 1L);
+        Id end = edgeId(vertex, 5L);
+        IdRangeQuery query = new IdRangeQuery(HugeType.EDGE_OUT, start, end);
+
+        List<RowRange> ranges = table.rowRanges(query);
+        Assert.assertEquals(1, ranges.size());
+        Assert.assertArrayEquals(start.asBytes(), ranges.get(0).getStartRow());
+        Assert.assertArrayEquals(end.asBytes(), ranges.get(0).getStopRow());
+
+        // The keys in range are in the same salt bucket
+        table.salts(16);
+        ranges = table.rowRanges(query);
+        Assert.assertEquals(1, ranges.size());
+        RowRange range = ranges.get(0);
+        Assert.assertArrayEquals(table.rowkey(start.asBytes()),
+                                 range.getStartRow());
+        Assert.assertArrayEquals(table.rowkey(end.asBytes()),
+                                 range.getStopRow());
+        Assert.assertTrue(range.isStartRowInclusive());
+        Assert.assertFalse(range.isStopRowInclusive());
+    }
+
+    @Test
+    public void testRowRangesAcrossSalts() {
+        HbaseTable table = new HbaseTables.Vertex("g");
+        table.salts(8);
+        Id start = keyId(vertexKey(IdGenerator.of(1L)));
+        Id end = keyId(vertexKey(IdGenerator.of(100L)));
+        IdRangeQuery query = new IdRangeQuery(HugeType.VERTEX, start, end);
+
+        // The range is scanned in every salt bucket
+        List<RowRange> ranges = table.rowRanges(query);
+        Assert.assertEquals(8, ranges.size());
+        for (int i = 0; i < 8; i++) {
+            RowRange range = ranges.get(i);
+            byte[] startRow = range.getStartRow();
+            byte[] stopRow = range.getStopRow();
+            Assert.assertEquals(i, startRow[0]);
+            Assert.assertArrayEquals(start.asBytes(), table.key(startRow));
+            Assert.assertEquals(i, stopRow[0]);
+            Assert.assertArrayEquals(end.asBytes(), table.key(stopRow));
+        }
+
+        // The range without end is scanned to the end of each bucket
+        query = new IdRangeQuery(HugeType.VERTEX, start, null);
+        ranges = table.rowRanges(query);
+        Assert.assertEquals(8, ranges.size());
+        Assert.assertArrayEquals(new byte[]{1}, ranges.get(0).getStopRow());
+        Assert.assertEquals(0, ranges.get(7).getStopRow().length);
+    }
+
+    private static Id edgeId(Id vertex, long target) {
+        EdgeId edge = new EdgeId(vertex, Directions.OUT, IdGenerator.of(1L),
+                                 "", IdGenerator.of(target));
+        return keyId(BytesBuffer.allocate(0).writeEdgeId(edge).bytes());
+    }
+
+    private static Id keyId(byte[] key) {
+        // The id of the serialized key like BinaryId
+        Id id = Mockito.mock(Id.class);
+        Mockito.doReturn(key).when(id).asBytes();
+        return id;
+    }
+
+    private static byte[] vertexKey(Id id) {
+        return BytesBuffer.allocate(0).writeId(id).bytes();
+    }
+}
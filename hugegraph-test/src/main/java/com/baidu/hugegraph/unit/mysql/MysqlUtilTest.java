@@ -19,6 +19,8 @@
 
 package com.baidu.hugegraph.unit.mysql;
 
+import java.math.BigDecimal;
+
 import org.junit.Test;
 
 import com.baidu.hugegraph.backend.store.mysql.MysqlUtil;
@@ -59,4 +61,26 @@ public class MysqlUtilTest extends BaseUnitTest {
         Assert.assertEquals("'abc\\Z'",
                             MysqlUtil.escapeAndWrapString("abc\u001a"));
     }
+
+    @Test
+    public void testCastValue() {
+        Assert.assertEquals("123", MysqlUtil.castValue("VARCHAR(255)", 123L));
+        Assert.assertEquals("abc", MysqlUtil.castValue("VARCHAR(255)", "abc"));
+        Assert.assertEquals("123", MysqlUtil.castValue("TEXT", 123L));
+        Assert.assertEquals("1", MysqlUtil.castValue("MEDIUMTEXT", (byte) 1));
+
+        Assert.assertEquals(123L, MysqlUtil.castValue("INT", "123"));
+        Assert.assertEquals(123L, MysqlUtil.castValue("BIGINT", "123"));
+        Assert.assertEquals(123L, MysqlUtil.castValue("INT NOT NULL", 123L));
+        Assert.assertEquals((byte) 1, MysqlUtil.castValue("TINYINT", (byte) 1));
+
+        Assert.assertEquals(new BigDecimal("1.5"),
+                            MysqlUtil.castValue("DECIMAL", 1.5D));
+        Assert.assertEquals(true, MysqlUtil.castValue("BOOL", true));
+        Assert.assertNull(MysqlUtil.castValue("INT", null));
+
+        Assert.assertThrows(NumberFormatException.class, () -> {
+            MysqlUtil.castValue("INT", "abc");
+        });
+    }
 }
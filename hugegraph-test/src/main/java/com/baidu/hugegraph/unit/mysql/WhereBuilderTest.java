@@ -114,6 +114,39 @@ public class WhereBuilderTest extends BaseUnitTest {
         WhereBuilder where = new WhereBuilder(false);
         where.in("key", ImmutableList.of("v1", "v2", "v3"));
         Assert.assertEquals(" key IN ('v1', 'v2', 'v3')", where.toString());
+
+        where = new WhereBuilder(false);
+        where.in(ImmutableList.of("key"),
+                 ImmutableList.of(ImmutableList.of("v1"),
+                                  ImmutableList.of("v2")));
+        Assert.assertEquals(" key IN ('v1', 'v2')", where.toString());
+
+        where = new WhereBuilder(false);
+        where.in(ImmutableList.of("k1", "k2"),
+                 ImmutableList.of(ImmutableList.of("v1", 1),
+                                  ImmutableList.of("v2", 2)));
+        Assert.assertEquals(" (k1, k2) IN (('v1', 1), ('v2', 2))",
+                            where.toString());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new WhereBuilder().in(ImmutableList.of("k1", "k2"),
+                                  ImmutableList.of(ImmutableList.of("v1")));
+        });
+    }
+
+    @Test
+    public void testInPlaceholders() {
+        WhereBuilder where = new WhereBuilder(false);
+        where.in(ImmutableList.of("key"), 3);
+        Assert.assertEquals(" key IN (?, ?, ?)", where.toString());
+
+        where = new WhereBuilder(false);
+        where.in(ImmutableList.of("k1", "k2"), 2);
+        Assert.assertEquals(" (k1, k2) IN ((?, ?), (?, ?))", where.toString());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new WhereBuilder().in(ImmutableList.of("k1"), 0);
+        });
     }
 
     @Test
@@ -24,13 +24,26 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.io.FileUtils;
 import org.junit.Assume;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.rocksdb.RocksDBException;
 
+import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBOptions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSnapshots;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBStdSessions;
+import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.testutil.Assert;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
 
@@ -172,6 +185,157 @@ public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
         Assert.assertEquals("Hebe", get("person:3gname"));
     }
 
+    @Test
+    public void testScanByRangeWithSnapshot() throws Exception {
+        String ttl = RocksDBOptions.SNAPSHOT_PAGING_TTL.name();
+        Configuration conf = Mockito.mock(PropertiesConfiguration.class);
+        Mockito.when(conf.getKeys())
+               .thenReturn(ImmutableList.of(ttl).iterator());
+        Mockito.when(conf.getProperty(ttl)).thenReturn(1);
+        HugeConfig config = new HugeConfig(conf);
+
+        String path = System.getProperty("java.io.tmpdir") +
+                      "/rocksdb-snapshot";
+        RocksDBSessions rocks = new RocksDBStdSessions(config, "db", "store",
+                                                       path, path);
+        try {
+            rocks.createTable(TABLE);
+            Session session = rocks.session();
+            session.put(TABLE, b("person:1"), b("James"));
+            session.put(TABLE, b("person:3"), b("Hebe"));
+            session.commit();
+
+            Assert.assertTrue(session.snapshotPaging());
+            long snapshot = session.pinSnapshot();
+            Assert.assertNotEquals(RocksDBSnapshots.NO_SNAPSHOT, snapshot);
+
+            // The changes after pinned are invisible to the snapshot
+            session.put(TABLE, b("person:2"), b("Lisa"));
+            session.delete(TABLE, b("person:3"));
+            session.commit();
+
+            // The first page
+            BackendColumnIterator iter = session.scan(TABLE, b("person:"),
+                                                      null,
+                                                      Session.SCAN_GT_BEGIN,
+                                                      snapshot);
+            Assert.assertEquals("person:1", s(iter.next().name));
+            Assert.assertTrue(iter.hasNext());
+            byte[] position = iter.position();
+            iter.close();
+            Assert.assertEquals(snapshot,
+                                RocksDBSnapshots.snapshotOfPosition(position));
+            byte[] key = RocksDBSnapshots.keyOfPosition(position);
+            Assert.assertEquals("person:3", s(key));
+
+            // The last page resumes from the same snapshot
+            for (int i = 0; i < 2; i++) {
+                iter = session.scan(TABLE, key, null, Session.SCAN_GTE_BEGIN,
+                                    snapshot);
+                Assert.assertEquals("Hebe", s(iter.next().value));
+                Assert.assertFalse(iter.hasNext());
+                Assert.assertNull(iter.position());
+            }
+
+            // The snapshot is released if not read for the ttl
+            Thread.sleep(1500L);
+            Assert.assertThrows(BackendException.class, () -> {
+                session.scan(TABLE, key, null, Session.SCAN_GTE_BEGIN,
+                             snapshot);
+            }, e -> {
+                Assert.assertContains("expired", e.getMessage());
+            });
+
+            // The latest data
+            Map<String, String> results = new HashMap<>();
+            iter = session.scan(TABLE, b("person:"), null,
+                                Session.SCAN_GT_BEGIN);
+            while (iter.hasNext()) {
+                BackendColumn col = iter.next();
+                results.put(s(col.name), s(col.value));
+            }
+            Assert.assertEquals(ImmutableMap.of("person:1", "James",
+                                                "person:2", "Lisa"),
+                                results);
+        } finally {
+            rocks.dropTable(TABLE);
+            rocks.close();
+            FileUtils.forceDelete(FileUtils.getFile(path));
+        }
+    }
+
+    @Test
+    public void testScanByRangeWithSnapshotsExceeded() throws Exception {
+        String ttl = RocksDBOptions.SNAPSHOT_PAGING_TTL.name();
+        String max = RocksDBOptions.SNAPSHOT_PAGING_MAX.name();
+        Configuration conf = Mockito.mock(PropertiesConfiguration.class);
+        Mockito.when(conf.getKeys())
+               .thenReturn(ImmutableList.of(ttl, max).iterator());
+        Mockito.when(conf.getProperty(ttl)).thenReturn(60);
+        Mockito.when(conf.getProperty(max)).thenReturn(2);
+        HugeConfig config = new HugeConfig(conf);
+
+        String path = System.getProperty("java.io.tmpdir") +
+                      "/rocksdb-snapshot-max";
+        RocksDBSessions rocks = new RocksDBStdSessions(config, "db", "store",
+                                                       path, path);
+        try {
+            rocks.createTable(TABLE);
+            Session session = rocks.session();
+            session.put(TABLE, b("person:1"), b("James"));
+            session.put(TABLE, b("person:3"), b("Hebe"));
+            session.commit();
+
+            // The ids of the snapshots are not sequential
+            long snapshot1 = session.pinSnapshot();
+            long snapshot2 = session.pinSnapshot();
+            Assert.assertNotEquals(RocksDBSnapshots.NO_SNAPSHOT, snapshot1);
+            Assert.assertNotEquals(RocksDBSnapshots.UNPINNED, snapshot1);
+            Assert.assertNotEquals(snapshot1, snapshot2);
+            Assert.assertNotEquals(snapshot1 + 1L, snapshot2);
+
+            // Read the latest data if too many snapshots are pinned
+            long snapshot = session.pinSnapshot();
+            Assert.assertEquals(RocksDBSnapshots.UNPINNED, snapshot);
+
+            session.put(TABLE, b("person:2"), b("Lisa"));
+            session.commit();
+
+            BackendColumnIterator iter = session.scan(TABLE, b("person:"),
+                                                      null,
+                                                      Session.SCAN_GT_BEGIN,
+                                                      snapshot);
+            Assert.assertEquals("person:1", s(iter.next().name));
+            byte[] position = iter.position();
+            iter.close();
+            Assert.assertEquals(RocksDBSnapshots.UNPINNED,
+                                RocksDBSnapshots.snapshotOfPosition(position));
+            byte[] key = RocksDBSnapshots.keyOfPosition(position);
+            Assert.assertEquals("person:2", s(key));
+
+            session.delete(TABLE, b("person:3"));
+            session.commit();
+
+            iter = session.scan(TABLE, key, null, Session.SCAN_GTE_BEGIN,
+                                snapshot);
+            Assert.assertEquals("Lisa", s(iter.next().value));
+            Assert.assertFalse(iter.hasNext());
+            iter.close();
+
+            // The pinned snapshots are still readable
+            iter = session.scan(TABLE, b("person:"), null,
+                                Session.SCAN_GT_BEGIN, snapshot1);
+            Assert.assertEquals("person:1", s(iter.next().name));
+            Assert.assertEquals("person:3", s(iter.next().name));
+            Assert.assertFalse(iter.hasNext());
+            iter.close();
+        } finally {
+            rocks.dropTable(TABLE);
+            rocks.close();
+            FileUtils.forceDelete(FileUtils.getFile(path));
+        }
+    }
+
     @Test
     public void testScanByRangeWithBytes() throws RocksDBException {
         Session session = this.rocks.session();
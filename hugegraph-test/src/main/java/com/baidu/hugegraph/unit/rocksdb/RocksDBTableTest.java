@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.rocksdb;
+
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.RocksDBException;
+
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.query.Condition;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.query.IdPrefixQuery;
+import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.backend.serializer.BinaryPropertyFilter;
+import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBTables;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.google.common.collect.ImmutableList;
+
+public class RocksDBTableTest extends BaseRocksDBUnitTest {
+
+    private static final String DATABASE = "test-db";
+
+    private RocksDBTables.Edge edges;
+    private BinarySerializer serializer;
+
+    @Override
+    @Before
+    public void setup() throws RocksDBException {
+        super.setup();
+        this.edges = RocksDBTables.Edge.out(DATABASE);
+        this.rocks.createTable(this.edges.table());
+        this.serializer = new BinarySerializer();
+    }
+
+    @Test
+    public void testQueryEdgesWithPropertyFilter() {
+        FakeObjects objects = new FakeObjects();
+        HugeEdge tom = objects.newEdge(123, 456);
+        HugeEdge cat = objects.newEdge(123, 789);
+        PropertyKey name = tom.graph().propertyKey(IdGenerator.of(1));
+        tom.addProperty(name, "tom");
+        cat.addProperty(name, "cat");
+
+        Session session = this.rocks.session();
+        this.edges.insert(session, this.serializer.writeEdge(tom));
+        this.edges.insert(session, this.serializer.writeEdge(cat));
+        this.commit();
+
+        ConditionQuery cq = new ConditionQuery(HugeType.EDGE);
+        cq.eq(HugeKeys.OWNER_VERTEX, IdGenerator.of(123));
+        cq.eq(HugeKeys.DIRECTION, Directions.OUT);
+        Query query = this.serializer.writeQuery(cq);
+        Assert.assertEquals(IdPrefixQuery.class, query.getClass());
+        Assert.assertEquals(2, count(this.edges.query(session, query)));
+
+        // The edges unmatched with the filter are skipped by the store
+        cq.propertyFilter(BinaryPropertyFilter.compile(
+                          tom.graph(), HugeType.EDGE,
+                          ImmutableList.of(Condition.eq(name.id(), "tom"))));
+        query = this.serializer.writeQuery(cq);
+        Assert.assertEquals(IdPrefixQuery.class, query.getClass());
+        Iterator<BackendEntry> entries = this.edges.query(session, query);
+        Assert.assertTrue(entries.hasNext());
+        BackendEntry entry = entries.next();
+        Assert.assertArrayEquals(this.serializer.writeEdge(tom).columns()
+                                     .iterator().next().name,
+                                 entry.columns().iterator().next().name);
+        Assert.assertFalse(entries.hasNext());
+    }
+
+    private static int count(Iterator<BackendEntry> entries) {
+        int count = 0;
+        while (entries.hasNext()) {
+            entries.next();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.serializer;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.serializer.BinaryCodec;
+import com.baidu.hugegraph.serializer.BinaryCodec.EdgeRecord;
+import com.baidu.hugegraph.serializer.BinaryCodec.VertexRecord;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.define.DataType;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.Blob;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+public class BinaryCodecTest extends BaseUnitTest {
+
+    @Test
+    public void testEncodeAndDecodeVertices() {
+        VertexRecord v1 = new VertexRecord();
+        v1.label = "person";
+        v1.properties = ImmutableMap.<String, Object>builder()
+                                    .put("name", "marko")
+                                    .put("age", 29)
+                                    .put("score", 12345678901L)
+                                    .put("weight", 0.5D)
+                                    .put("rate", 1.5F)
+                                    .put("alive", true)
+                                    .put("level", (byte) 3)
+                                    .put("birth", new Date(1000L))
+                                    .put("uuid", new UUID(1L, 2L))
+                                    .put("blob", new byte[]{1, 2, 3})
+                                    .put("tags", ImmutableList.of("a", "a"))
+                                    .put("cities", ImmutableSet.of(1, 2))
+                                    .build();
+        VertexRecord v2 = new VertexRecord();
+        v2.id = IdGenerator.of(123L);
+        v2.label = "book";
+        VertexRecord v3 = new VertexRecord();
+        v3.id = IdGenerator.of("book:java");
+        v3.label = "book";
+        v3.properties = ImmutableMap.of("tags", ImmutableList.of());
+
+        byte[] bytes = BinaryCodec.encodeVertices(ImmutableList.of(v1, v2,
+                                                                   v3));
+        List<VertexRecord> vertices = BinaryCodec.decodeVertices(bytes);
+        Assert.assertEquals(3, vertices.size());
+
+        VertexRecord vertex = vertices.get(0);
+        Assert.assertNull(vertex.id);
+        Assert.assertEquals("person", vertex.label);
+        Assert.assertEquals(12, vertex.properties.size());
+        for (String key : v1.properties.keySet()) {
+            if (key.equals("blob")) {
+                continue;
+            }
+            Assert.assertEquals(v1.properties.get(key),
+                                vertex.properties.get(key));
+        }
+        Assert.assertEquals(Blob.wrap(new byte[]{1, 2, 3}),
+                            vertex.properties.get("blob"));
+
+        vertex = vertices.get(1);
+        Assert.assertEquals(IdGenerator.of(123L), vertex.id);
+        Assert.assertEquals("book", vertex.label);
+        Assert.assertEquals(0, vertex.properties.size());
+
+        vertex = vertices.get(2);
+        Assert.assertEquals(IdGenerator.of("book:java"), vertex.id);
+        Assert.assertEquals(ImmutableMap.of("tags", ImmutableList.of()),
+                            vertex.properties);
+    }
+
+    @Test
+    public void testEncodeAndDecodeEdges() {
+        EdgeRecord e1 = new EdgeRecord();
+        e1.label = "created";
+        e1.source = IdGenerator.of(1L);
+        e1.sourceLabel = "person";
+        e1.target = IdGenerator.of("book:java");
+        e1.targetLabel = "book";
+        e1.properties = ImmutableMap.of("date", "2019-01-01", "weight", 0.8D);
+
+        byte[] bytes = BinaryCodec.encodeEdges(ImmutableList.of(e1));
+        List<EdgeRecord> edges = BinaryCodec.decodeEdges(bytes);
+        Assert.assertEquals(1, edges.size());
+
+        EdgeRecord edge = edges.get(0);
+        Assert.assertEquals("created", edge.label);
+        Assert.assertEquals(IdGenerator.of(1L), edge.source);
+        Assert.assertEquals("person", edge.sourceLabel);
+        Assert.assertEquals(IdGenerator.of("book:java"), edge.target);
+        Assert.assertEquals("book", edge.targetLabel);
+        Assert.assertEquals(e1.properties, edge.properties);
+
+        EdgeRecord e2 = new EdgeRecord();
+        e2.label = "created";
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            BinaryCodec.encodeEdges(ImmutableList.of(e2));
+        }, e -> {
+            Assert.assertContains("of edge can't be null", e.getMessage());
+        });
+    }
+
+    @Test
+    public void testEncodeAndDecodeIds() {
+        List<Id> ids = ImmutableList.of(IdGenerator.of(1L),
+                                        IdGenerator.of(-1L),
+                                        IdGenerator.of(Long.MAX_VALUE),
+                                        IdGenerator.of("marko"),
+                                        IdGenerator.of(new UUID(3L, 4L)));
+        byte[] bytes = BinaryCodec.encodeIds(ids);
+        Assert.assertEquals(ids, BinaryCodec.decodeIds(bytes));
+
+        Assert.assertEquals(0, BinaryCodec.encodeIds(ImmutableList.of())
+                                          .length);
+        Assert.assertEquals(ImmutableList.of(),
+                            BinaryCodec.decodeIds(new byte[0]));
+    }
+
+    @Test
+    public void testEncodeWithUnsupportedProperty() {
+        VertexRecord v1 = new VertexRecord();
+        v1.label = "person";
+        v1.properties = ImmutableMap.of("object", new Object());
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            BinaryCodec.encodeVertices(ImmutableList.of(v1));
+        }, e -> {
+            Assert.assertContains("Unsupported value type Object of " +
+                                  "property 'object'", e.getMessage());
+        });
+
+        // All the values of a collection are checked
+        v1.properties = ImmutableMap.of("tags", ImmutableList.of("a", 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            BinaryCodec.encodeVertices(ImmutableList.of(v1));
+        }, e -> {
+            Assert.assertContains("must be of the same data type",
+                                  e.getMessage());
+        });
+    }
+
+    @Test
+    public void testDecodeWithUnsupportedDataType() {
+        VertexRecord v1 = new VertexRecord();
+        v1.label = "person";
+        v1.properties = ImmutableMap.of("name", "marko");
+        byte[] bytes = BinaryCodec.encodeVertices(ImmutableList.of(v1));
+
+        // Replace the data type code of the property with OBJECT's
+        int offset = bytes.length - "marko".length() - 3;
+        Assert.assertEquals(DataType.TEXT.code(), bytes[offset]);
+        bytes[offset] = DataType.OBJECT.code();
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            BinaryCodec.decodeVertices(bytes);
+        }, e -> {
+            Assert.assertContains("Unsupported data type OBJECT of " +
+                                  "property 'name'", e.getMessage());
+        });
+    }
+
+    @Test
+    public void testDecodeWithInvalidRecord() {
+        byte[] bytes = BinaryCodec.encodeIds(ImmutableList.of(
+                                             IdGenerator.of(1L)));
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            BinaryCodec.decodeIds(truncated);
+        }, e -> {
+            Assert.assertContains("Invalid record length", e.getMessage());
+        });
+    }
+}
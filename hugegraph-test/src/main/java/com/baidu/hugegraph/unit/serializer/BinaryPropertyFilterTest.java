@@ -0,0 +1,191 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.serializer;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.query.Condition;
+import com.baidu.hugegraph.backend.serializer.BinaryPropertyFilter;
+import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.DataType;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.google.common.collect.ImmutableList;
+
+public class BinaryPropertyFilterTest extends BaseUnitTest {
+
+    private FakeObjects objects;
+    private HugeEdge edge;
+    private byte[] value;
+
+    private PropertyKey name;
+    private PropertyKey age;
+    private PropertyKey city;
+    private PropertyKey date;
+    private PropertyKey weight;
+
+    @Before
+    public void setup() {
+        this.objects = new FakeObjects();
+        this.edge = this.objects.newEdge(123, 456);
+        this.name = this.edge.graph().propertyKey(IdGenerator.of(1));
+        this.age = this.edge.graph().propertyKey(IdGenerator.of(2));
+        this.city = this.edge.graph().propertyKey(IdGenerator.of(3));
+        this.date = this.edge.graph().propertyKey(IdGenerator.of(4));
+        this.weight = this.edge.graph().propertyKey(IdGenerator.of(5));
+
+        this.edge.addProperty(this.name, "tom");
+        this.edge.addProperty(this.age, 18);
+        this.edge.addProperty(this.date, new Date(1000L));
+
+        BackendEntry entry = new BinarySerializer().writeEdge(this.edge);
+        this.value = entry.columns().iterator().next().value;
+    }
+
+    @Test
+    public void testNumberRelations() {
+        Assert.assertTrue(this.test(Condition.gt(this.age.id(), 10)));
+        Assert.assertTrue(this.test(Condition.gte(this.age.id(), 18L)));
+        Assert.assertFalse(this.test(Condition.lt(this.age.id(), 18)));
+        Assert.assertTrue(this.test(Condition.lte(this.age.id(), 18)));
+        Assert.assertTrue(this.test(Condition.eq(this.age.id(), 18L)));
+        Assert.assertFalse(this.test(Condition.neq(this.age.id(), 18)));
+
+        Assert.assertTrue(this.test(Condition.gt(this.weight.id(), 0.5)));
+        Assert.assertFalse(this.test(Condition.gt(this.weight.id(), 0.75)));
+        Assert.assertTrue(this.test(Condition.eq(this.weight.id(), 0.75)));
+        Assert.assertTrue(this.test(Condition.in(this.weight.id(),
+                                                 ImmutableList.of(0.75, 1.0))));
+        Assert.assertFalse(this.test(Condition.nin(this.weight.id(),
+                                                   ImmutableList.of(0.75))));
+
+        Date date = new Date(1000L);
+        Assert.assertTrue(this.test(Condition.eq(this.date.id(), date)));
+        Assert.assertTrue(this.test(Condition.lt(this.date.id(),
+                                                 new Date(2000L))));
+        Assert.assertFalse(this.test(Condition.gt(this.date.id(), date)));
+    }
+
+    @Test
+    public void testInRelationsWithDifferentClasses() {
+        // The values of `in` are compared by equals() like Condition does
+        Condition in = Condition.in(this.age.id(), ImmutableList.of(18L, 20));
+        Assert.assertFalse(in.test(this.edge));
+        Assert.assertFalse(this.test(in));
+
+        in = Condition.in(this.age.id(), ImmutableList.of(18, 20));
+        Assert.assertTrue(in.test(this.edge));
+        Assert.assertTrue(this.test(in));
+
+        Condition nin = Condition.nin(this.age.id(), ImmutableList.of(18L));
+        Assert.assertTrue(nin.test(this.edge));
+        Assert.assertTrue(this.test(nin));
+    }
+
+    @Test
+    public void testTextRelations() {
+        Assert.assertTrue(this.test(Condition.eq(this.name.id(), "tom")));
+        Assert.assertFalse(this.test(Condition.eq(this.name.id(), "cat")));
+        Assert.assertTrue(this.test(Condition.in(this.name.id(),
+                                                 ImmutableList.of("tom"))));
+        Assert.assertFalse(this.test(Condition.nin(this.name.id(),
+                                                   ImmutableList.of("tom"))));
+    }
+
+    @Test
+    public void testMultipleConditions() {
+        Condition gt = Condition.gt(this.age.id(), 10);
+        Condition lt = Condition.lt(this.age.id(), 18);
+        Condition eq = Condition.eq(this.name.id(), "tom");
+
+        Assert.assertTrue(this.test(gt, eq));
+        Assert.assertFalse(this.test(gt, lt));
+        Assert.assertTrue(this.test(gt.and(eq)));
+        Assert.assertFalse(this.test(eq.and(lt)));
+
+        // Not matched if missing any property
+        Condition missing = Condition.eq(this.city.id(), "Beijing");
+        Assert.assertFalse(this.test(eq, missing));
+    }
+
+    @Test
+    public void testUncompiledConditions() {
+        // Sysprop conditions are tested by backend store themselves
+        Assert.assertNull(this.compile(Condition.eq(HugeKeys.LABEL,
+                                                    IdGenerator.of(1))));
+        // Can't test numbers of different classes exactly on bytes
+        Assert.assertNull(this.compile(Condition.gt(this.weight.id(), 1)));
+        Assert.assertNull(this.compile(Condition.gt(this.age.id(), 1.5)));
+        // Can't compare text by compare()
+        Assert.assertNull(this.compile(Condition.gt(this.name.id(), "a")));
+        // The `or` conditions are not compiled
+        Condition or = Condition.eq(this.age.id(), 1)
+                                .or(Condition.eq(this.age.id(), 18));
+        Assert.assertNull(this.compile(or));
+
+        // Just filter vertices by compiled conditions
+        Condition eq = Condition.eq(this.age.id(), 18);
+        Assert.assertNull(BinaryPropertyFilter.compile(
+                          this.edge.graph(), HugeType.VERTEX,
+                          ImmutableList.of(eq)));
+
+        // Ignore the uncompiled conditions
+        BinaryPropertyFilter filter = this.compile(or, eq);
+        Assert.assertEquals("2 == 18", filter.toString());
+        Assert.assertTrue(filter.test(this.value));
+    }
+
+    @Test
+    public void testSkipPropertiesOfOtherTypes() {
+        PropertyKey uuid = this.objects.newPropertyKey(IdGenerator.of(6),
+                                                       "uuid", DataType.UUID);
+        PropertyKey blob = this.objects.newPropertyKey(IdGenerator.of(7),
+                                                       "blob", DataType.BLOB);
+        this.edge.addProperty(uuid, java.util.UUID.randomUUID());
+        this.edge.addProperty(blob, new byte[]{1, 2, 3});
+        this.edge.addProperty(this.city, "Beijing");
+        BackendEntry entry = new BinarySerializer().writeEdge(this.edge);
+        this.value = entry.columns().iterator().next().value;
+
+        Assert.assertTrue(this.test(Condition.eq(this.city.id(), "Beijing")));
+        Assert.assertFalse(this.test(Condition.eq(this.city.id(), "Wuhan")));
+    }
+
+    private BinaryPropertyFilter compile(Condition... conditions) {
+        return BinaryPropertyFilter.compile(this.edge.graph(), HugeType.EDGE,
+                                            ImmutableList.copyOf(conditions));
+    }
+
+    private boolean test(Condition... conditions) {
+        BinaryPropertyFilter filter = this.compile(conditions);
+        Assert.assertNotNull(filter);
+        return filter.test(this.value);
+    }
+}
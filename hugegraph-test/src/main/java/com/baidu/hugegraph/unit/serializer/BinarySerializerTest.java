@@ -19,16 +19,29 @@
 
 package com.baidu.hugegraph.unit.serializer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.junit.Test;
 
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
 import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
 import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.schema.PropertyKey;
 import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.structure.HugeProperty;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.testutil.Whitebox;
+import com.baidu.hugegraph.type.define.Cardinality;
+import com.baidu.hugegraph.type.define.DataType;
 import com.baidu.hugegraph.unit.BaseUnitTest;
 import com.baidu.hugegraph.unit.FakeObjects;
+import com.google.common.collect.ImmutableList;
 
 public class BinarySerializerTest extends BaseUnitTest {
 
@@ -79,4 +92,126 @@ public class BinarySerializerTest extends BaseUnitTest {
         Assert.assertEquals(edge2, edge);
         Assert.assertEquals(edge2.getProperties(), edge.getProperties());
     }
+
+    @Test
+    public void testVertexWithLazyProperties() {
+        BinarySerializer ser = new BinarySerializer();
+        FakeObjects objects = new FakeObjects();
+        HugeEdge edge = objects.newEdge(123, 456);
+        HugeVertex origin = edge.sourceVertex();
+        PropertyKey tags = objects.newPropertyKey(IdGenerator.of(6), "tags",
+                                                  DataType.TEXT,
+                                                  Cardinality.SET);
+        origin.addProperty(tags, "a");
+        origin.addProperty(tags, "b");
+
+        BackendEntry entry = ser.writeVertex(origin);
+        HugeVertex vertex = ser.readVertex(edge.graph(), entry);
+        Id name = IdGenerator.of(1);
+        Id age = IdGenerator.of(2);
+        Id city = IdGenerator.of(3);
+
+        // The keys are not parsed until accessed except the size
+        Object properties = Whitebox.getInternalState(vertex, "properties");
+        Assert.assertEquals(4, (int) Whitebox.getInternalState(properties,
+                                                             "unparsed"));
+        Assert.assertEquals(4, vertex.sizeOfProperties());
+        Assert.assertEquals(4, (int) Whitebox.getInternalState(properties,
+                                                             "unparsed"));
+
+        // Only the properties of the value are kept
+        byte[] value = entry.columns().iterator().next().value;
+        byte[] prefix = BytesBuffer.allocate(0)
+                                   .writeId(origin.schemaLabel().id())
+                                   .writeVInt(4).bytes();
+        byte[] block = Whitebox.getInternalState(properties, "block");
+        Assert.assertEquals(value.length - prefix.length, block.length);
+
+        // Not decoded until accessed
+        Assert.assertTrue(vertex.hasProperty(age));
+        Assert.assertFalse(vertex.hasProperty(IdGenerator.of(7)));
+        Assert.assertFalse(vertex.hasProperty(IdGenerator.of("age")));
+        Assert.assertEquals(0, decodedProperties(vertex));
+
+        Assert.assertEquals(18, (int) vertex.getPropertyValue(age));
+        Assert.assertEquals(1, decodedProperties(vertex));
+        HugeProperty<?> prop = vertex.getProperty(age);
+        Assert.assertSame(prop, vertex.getProperty(age));
+        Assert.assertSame(vertex, prop.element());
+
+        // Copy with the lazy properties
+        HugeVertex copied = vertex.copy();
+        Assert.assertEquals(1, decodedProperties(copied));
+        Assert.assertEquals("tom", copied.getPropertyValue(name));
+        Assert.assertSame(copied, copied.getProperty(name).element());
+        Assert.assertEquals(1, decodedProperties(vertex));
+        Assert.assertEquals(2, decodedProperties(copied));
+
+        // Update properties
+        vertex.removeProperty(age);
+        Assert.assertFalse(vertex.hasProperty(age));
+        vertex.addProperty(tags, "c");
+        Assert.assertEquals(3, vertex.sizeOfProperties());
+        Assert.assertEquals(3, vertex.<Set<?>>getPropertyValue(
+                                      tags.id()).size());
+        vertex.addProperty(objects.graph().propertyKey(age), 20);
+        Assert.assertEquals(20, (int) vertex.getPropertyValue(age));
+        Assert.assertEquals("Beijing", vertex.getPropertyValue(city));
+
+        // Keep the order of property key id
+        Assert.assertEquals(4, vertex.getProperties().size());
+        Assert.assertEquals(3, decodedProperties(vertex));
+        List<Id> keys = new ArrayList<>();
+        for (Map.Entry<Id, HugeProperty<?>> e :
+             vertex.getProperties().entrySet()) {
+            Assert.assertEquals(e.getKey(), e.getValue().propertyKey().id());
+            keys.add(e.getKey());
+        }
+        Assert.assertEquals(ImmutableList.of(name, age, city, tags.id()),
+                            keys);
+        Assert.assertEquals(4, decodedProperties(vertex));
+        Assert.assertEquals(origin.getProperties(), copied.getProperties());
+    }
+
+    @Test
+    public void testVertexWithoutProperties() {
+        FakeObjects objects = new FakeObjects();
+        HugeEdge edge = objects.newEdge(123, 456);
+        HugeVertex vertex1 = new HugeVertex(edge.graph(), IdGenerator.of(1),
+                                            edge.sourceVertex().schemaLabel());
+        HugeVertex vertex2 = vertex1.copy();
+
+        // The properties are not allocated until any one is set
+        Object properties = Whitebox.getInternalState(vertex1, "properties");
+        Assert.assertSame(properties,
+                          Whitebox.getInternalState(vertex2, "properties"));
+        Assert.assertFalse(vertex1.hasProperties());
+        Assert.assertNull(vertex1.removeProperty(IdGenerator.of(1)));
+
+        vertex1.addProperty(objects.graph().propertyKey(IdGenerator.of(1)),
+                            "tom");
+        Assert.assertEquals("tom", vertex1.getPropertyValue(IdGenerator.of(1)));
+        Assert.assertFalse(vertex2.hasProperties());
+        Assert.assertNotSame(properties,
+                             Whitebox.getInternalState(vertex1, "properties"));
+
+        // The switched edges share the properties
+        HugeEdge edge1 = edge.prepareRemoved();
+        Assert.assertFalse(edge1.hasProperties());
+        HugeEdge edge2 = edge1.switchOwner();
+        Assert.assertSame(Whitebox.getInternalState(edge1, "properties"),
+                          Whitebox.getInternalState(edge2, "properties"));
+    }
+
+    private static int decodedProperties(HugeVertex vertex) {
+        Object properties = Whitebox.getInternalState(vertex, "properties");
+        Object[] values = Whitebox.getInternalState(properties, "values");
+        int count = 0;
+        for (Object value : values) {
+            if (value != null) {
+                count++;
+            }
+        }
+        return count;
+    }
 }